@@ -0,0 +1,61 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.analytics.Centrality;
+import org.grasple.api.analytics.PageRank;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures PageRank and the centralities on large random graphs, up to
+ * 3M vertices and 12M edges. The graphs are built directly as
+ * CompactGraphs, since Vertex objects of that many vertices would not fit
+ * next to them. Betweenness is estimated from a fixed sample of sources.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AnalyticsBenchmark {
+    @Param({"100000", "1000000", "3000000"})
+    int size;
+    @Param({"64"})
+    int samples;
+
+    CompactGraph<Integer> graph;
+    PageRank<Integer> pageRank;
+    Centrality<Integer> centrality;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(GraphShape.SEED);
+        long edges = (long) size * GraphShape.AVERAGE_DEGREE / 2;
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>(size, (int) edges);
+        for (int i = 0; i < size; i++) { builder.addVertex(i); }
+        for (long i = 0; i < edges; i++) { builder.addEdge(random.nextInt(size), random.nextInt(size), 1); }
+        graph = builder.build();
+        pageRank = new PageRank<>(graph);
+        centrality = new Centrality<>(graph);
+        centrality.setSamples(samples, GraphShape.SEED);
+    }
+
+    @Benchmark
+    public PageRank.Result pageRank() {
+        return pageRank.run();
+    }
+
+    @Benchmark
+    public double[] sampledBetweenness() {
+        return centrality.betweenness();
+    }
+
+    @Benchmark
+    public double[] degree() {
+        return centrality.degree();
+    }
+}
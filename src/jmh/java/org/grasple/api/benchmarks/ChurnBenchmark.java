@@ -0,0 +1,109 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures repeated connections and disconnections of the same pairs of
+ * vertices, in both orders, through SimpleGraph.connect() and
+ * disconnect(). The pairs are never adjacent in the shape, so each batch
+ * leaves the graph as it found it and every invocation measures the same
+ * graph. disconnect() measures the removals alone: the pairs are
+ * connected again before each invocation, outside of the measurement. The
+ * auxiliary counters report the number of connections held by the
+ * vertices and of edges held by the graph at the end of each iteration,
+ * which stay bounded when (u, v) and (v, u) are recognized as one edge;
+ * they are counted outside of the measured methods.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ChurnBenchmark {
+    @Param({"RANDOM", "POWER_LAW"})
+    GraphShape shape;
+    @Param({"1000", "100000"})
+    int size;
+
+    SimpleGraph<Integer> graph;
+    List<Vertex<Integer>> vertices;
+    /** Random pairs of vertices, connected then disconnected in each batch. */
+    int[] pairs;
+
+    /**
+     * The sizes of the adjacency sets, reported by JMH next to the scores.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+        public long connections;
+        public long edges;
+
+        @TearDown(Level.Iteration)
+        public void count(ChurnBenchmark benchmark) {
+            long _connections = 0;
+            for (Vertex<Integer> vertex : benchmark.vertices) { _connections += vertex.getConnections().size(); }
+            connections = _connections;
+            edges = benchmark.graph.getEdges().size();
+        }
+    }
+
+    /**
+     * Connects the pairs before each invocation of disconnect(), so that
+     * the invocation only measures their removal. An invocation removes
+     * thousands of edges, which dwarfs the cost of the setup timestamps.
+     */
+    @State(Scope.Thread)
+    public static class Connected {
+        @Setup(Level.Invocation)
+        public void connect(ChurnBenchmark benchmark) {
+            for (int i = 0; i < benchmark.pairs.length; i += 2) {
+                benchmark.graph.connect(benchmark.vertices.get(benchmark.pairs[i]),
+                        benchmark.vertices.get(benchmark.pairs[i + 1]));
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        vertices = shape.vertices(size);
+        graph = new SimpleGraph<>(new HashSet<Connectable<Integer>>(vertices));
+        Random random = new Random(GraphShape.SEED);
+        pairs = new int[2 * Math.min(size, 10000)];
+        for (int i = 0; i < pairs.length; i += 2) {
+            // the edges of the shape are left alone, so that the batches do not remove them
+            do {
+                pairs[i] = random.nextInt(size);
+                pairs[i + 1] = random.nextInt(size);
+            } while (pairs[i] == pairs[i + 1] || vertices.get(pairs[i]).adjacent(vertices.get(pairs[i + 1])));
+        }
+    }
+
+    @Benchmark
+    public void connectDisconnect(Sizes sizes) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            graph.connect(vertices.get(pairs[i]), vertices.get(pairs[i + 1]));
+            graph.connect(vertices.get(pairs[i + 1]), vertices.get(pairs[i]));
+        }
+        for (int i = 0; i < pairs.length; i += 2) {
+            graph.disconnect(vertices.get(pairs[i + 1]), vertices.get(pairs[i]));
+        }
+    }
+
+    @Benchmark
+    public void disconnect(Connected connected, Sizes sizes) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            graph.disconnect(vertices.get(pairs[i + 1]), vertices.get(pairs[i]));
+        }
+    }
+}
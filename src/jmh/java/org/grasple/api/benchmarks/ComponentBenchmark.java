@@ -0,0 +1,60 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.grasple.api.utils.ComponentFinder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the search of connected components. The edges of the generated
+ * graph are registered in the SimpleGraph, so that every method sees the
+ * same components.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ComponentBenchmark {
+    @Param({"RANDOM", "POWER_LAW", "GRID", "PATH"})
+    GraphShape shape;
+    @Param({"1000", "100000"})
+    int size;
+
+    SimpleGraph<Integer> graph;
+    CompactGraph<Integer> compact;
+
+    @Setup
+    public void setUp() {
+        List<Vertex<Integer>> vertices = shape.vertices(size);
+        graph = new SimpleGraph<>(new HashSet<>(vertices));
+        for (Vertex<Integer> vertex : vertices) {
+            vertex.getConnections().forEach(graph::addEdge);
+        }
+        compact = new CompactGraph<>(graph);
+    }
+
+    @Benchmark
+    public Set<Connectable<Integer>> separateComponents() {
+        return graph.separateComponents();
+    }
+
+    @Benchmark
+    public int componentFinder() {
+        return new ComponentFinder<>(graph).componentCount();
+    }
+
+    @Benchmark
+    public int[] compactComponentLabels() {
+        return compact.componentLabels();
+    }
+}
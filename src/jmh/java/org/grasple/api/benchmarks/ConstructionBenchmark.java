@@ -0,0 +1,72 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.io.EdgeListLoader;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of graphs: connecting vertices one by one
+ * with Vertex.connect(), compacting a SimpleGraph, and loading an edge
+ * list file.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConstructionBenchmark {
+    @Param({"RANDOM", "POWER_LAW", "GRID", "PATH"})
+    GraphShape shape;
+    @Param({"1000", "100000"})
+    int size;
+
+    SimpleGraph<Integer> graph;
+    Path edgeList;
+    EdgeListLoader<Integer> loader;
+
+    @Setup
+    public void setUp() throws IOException {
+        graph = shape.generate(size);
+        CompactGraph<Integer> compact = new CompactGraph<>(graph);
+        edgeList = Files.createTempFile("grasple", ".edges");
+        try (Writer writer = Files.newBufferedWriter(edgeList)) {
+            for (int v = 0; v < compact.size(); v++) {
+                for (int arc = compact.offset(v); arc < compact.offset(v + 1); arc++) {
+                    if (v <= compact.target(arc)) { writer.write(compact.get(v) + " " + compact.get(compact.target(arc)) + "\n"); }
+                }
+            }
+        }
+        loader = new EdgeListLoader<>(Integer::valueOf);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(edgeList);
+    }
+
+    @Benchmark
+    public List<Vertex<Integer>> connect() {
+        return shape.vertices(size);
+    }
+
+    @Benchmark
+    public CompactGraph<Integer> compact() {
+        return new CompactGraph<>(graph);
+    }
+
+    @Benchmark
+    public CompactGraph<Integer> loadEdgeList() throws IOException {
+        return loader.load(edgeList);
+    }
+}
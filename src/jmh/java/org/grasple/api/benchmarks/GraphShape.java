@@ -0,0 +1,101 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generators of the graphs used by the benchmarks. Every graph is built
+ * with Vertex.connect() from a fixed seed, so two runs of a benchmark
+ * measure the same graph. Vertices contain the integers [0, size).
+ * @author Bach Tran
+ */
+public enum GraphShape {
+    /** Erdos-Renyi graph, each vertex having AVERAGE_DEGREE neighbors on average. */
+    RANDOM {
+        @Override
+        void connect(List<Vertex<Integer>> vertices, Random random) {
+            long edges = (long) vertices.size() * AVERAGE_DEGREE / 2;
+            for (long i = 0; i < edges; i++) {
+                vertices.get(random.nextInt(vertices.size()))
+                        .connect(vertices.get(random.nextInt(vertices.size())));
+            }
+        }
+    },
+    /** Barabasi-Albert graph: each new vertex attaches preferentially to high-degree vertices. */
+    POWER_LAW {
+        @Override
+        void connect(List<Vertex<Integer>> vertices, Random random) {
+            int attachments = AVERAGE_DEGREE / 2;
+            // each endpoint of each edge is recorded once, so picking a uniform entry is proportional to degree
+            int[] endpoints = new int[2 * attachments * vertices.size()];
+            int count = 0;
+            for (int v = 1; v < vertices.size(); v++) {
+                for (int a = 0; a < attachments; a++) {
+                    int target = count == 0 ? 0 : endpoints[random.nextInt(count)];
+                    vertices.get(v).connect(vertices.get(target));
+                    endpoints[count++] = v;
+                    endpoints[count++] = target;
+                }
+            }
+        }
+    },
+    /** Square grid, each vertex connects to its right and bottom neighbors. */
+    GRID {
+        @Override
+        void connect(List<Vertex<Integer>> vertices, Random random) {
+            int side = (int) Math.ceil(Math.sqrt(vertices.size()));
+            for (int v = 0; v < vertices.size(); v++) {
+                if ((v + 1) % side != 0 && v + 1 < vertices.size()) { vertices.get(v).connect(vertices.get(v + 1)); }
+                if (v + side < vertices.size()) { vertices.get(v).connect(vertices.get(v + side)); }
+            }
+        }
+    },
+    /** A single path, the deepest possible graph for a traversal. */
+    PATH {
+        @Override
+        void connect(List<Vertex<Integer>> vertices, Random random) {
+            for (int v = 1; v < vertices.size(); v++) { vertices.get(v - 1).connect(vertices.get(v)); }
+        }
+    };
+
+    /** The average degree of the RANDOM and POWER_LAW graphs. */
+    static final int AVERAGE_DEGREE = 8;
+    /** The seed of every generated graph. */
+    static final long SEED = 20190601L;
+
+    /**
+     * Connects the vertices according to the shape.
+     * @param vertices the vertices, not connected yet.
+     * @param random the source of randomness.
+     */
+    abstract void connect(List<Vertex<Integer>> vertices, Random random);
+
+    /**
+     * Creates the vertices of a graph and connects them.
+     * @param size the number of vertices.
+     * @return the vertices, in the order of their values.
+     */
+    public List<Vertex<Integer>> vertices(int size) {
+        List<Vertex<Integer>> vertices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) { vertices.add(new Vertex<>(i)); }
+        connect(vertices, new Random(SEED));
+        return vertices;
+    }
+
+    /**
+     * Generates a SimpleGraph of this shape.
+     * @param size the number of vertices.
+     * @return the graph generated.
+     */
+    public SimpleGraph<Integer> generate(int size) {
+        Set<Connectable<Integer>> vertices = new HashSet<>(vertices(size));
+        return new SimpleGraph<>(vertices);
+    }
+}
@@ -0,0 +1,58 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.metrics.GraphMetrics;
+import org.grasple.api.metrics.MetricsRecorder;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of instrumentation: the same operations run with
+ * no listener installed, and with a MetricsRecorder. With instrumentation
+ * turned off, the results should match those of the other benchmarks.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MetricsBenchmark {
+    @Param({"false", "true"})
+    boolean instrumented;
+    @Param({"1000", "100000"})
+    int size;
+
+    List<Vertex<Integer>> vertices;
+    SimpleGraph<Integer> graph;
+
+    @Setup
+    public void setUp() {
+        vertices = GraphShape.RANDOM.vertices(size);
+        graph = GraphShape.RANDOM.generate(size);
+        GraphMetrics.setListener(instrumented ? new MetricsRecorder() : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        GraphMetrics.setListener(null);
+    }
+
+    @Benchmark
+    public void traverse() {
+        graph.traverse();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void connectAndDisconnect() {
+        Vertex<Integer> first = vertices.get(0);
+        Vertex<Integer> last = vertices.get(size - 1);
+        first.connect(last);
+        first.disconnect(last);
+    }
+}
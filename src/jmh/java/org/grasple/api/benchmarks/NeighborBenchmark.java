@@ -0,0 +1,55 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.particles.Vertex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the neighbor queries of Vertex, applied to every vertex of a graph.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NeighborBenchmark {
+    @Param({"RANDOM", "POWER_LAW", "GRID"})
+    GraphShape shape;
+    @Param({"1000", "100000"})
+    int size;
+
+    List<Vertex<Integer>> vertices;
+    /** Random pairs of vertices, checked for adjacency. */
+    int[] pairs;
+
+    @Setup
+    public void setUp() {
+        vertices = shape.vertices(size);
+        Random random = new Random(GraphShape.SEED);
+        pairs = new int[2 * size];
+        for (int i = 0; i < pairs.length; i++) { pairs[i] = random.nextInt(size); }
+    }
+
+    @Benchmark
+    public void getNeighbors(Blackhole blackhole) {
+        for (Vertex<Integer> vertex : vertices) { blackhole.consume(vertex.getNeighbors()); }
+    }
+
+    @Benchmark
+    public void forEachNeighbor(Blackhole blackhole) {
+        for (Vertex<Integer> vertex : vertices) { vertex.forEachNeighbor(blackhole::consume); }
+    }
+
+    @Benchmark
+    public void adjacent(Blackhole blackhole) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            blackhole.consume(vertices.get(pairs[i]).adjacent(vertices.get(pairs[i + 1])));
+        }
+    }
+}
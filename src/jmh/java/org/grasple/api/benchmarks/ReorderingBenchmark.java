@@ -0,0 +1,72 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.utils.GraphReordering;
+import org.grasple.api.utils.ParallelBreadthFirstSearch;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the traversals of a CompactGraph whose vertices are relabelled
+ * by GraphReordering, against the original ids. The auxiliary counter
+ * reports the average log gap of the arcs of each ordering; run with
+ * -PjmhProfiler=perfnorm to count the cache misses per traversal.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReorderingBenchmark {
+    @Param({"RANDOM", "POWER_LAW", "GRID"})
+    GraphShape shape;
+    @Param({"100000", "1000000"})
+    int size;
+    @Param({"NONE", "BREADTH_FIRST", "REVERSE_CUTHILL_MCKEE", "DEGREE", "COMMUNITY"})
+    String ordering;
+
+    CompactGraph<Integer> graph;
+    ParallelBreadthFirstSearch<Integer> search;
+    int source;
+    double logGap;
+
+    /**
+     * The locality of the ordering, reported by JMH next to the scores.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Locality {
+        public double logGap;
+    }
+
+    @Setup
+    public void setUp() {
+        graph = new CompactGraph<>(shape.generate(size));
+        if (!"NONE".equals(ordering)) {
+            graph = new GraphReordering<>(graph, GraphReordering.Strategy.valueOf(ordering)).getGraph();
+        }
+        search = new ParallelBreadthFirstSearch<>(graph);
+        source = graph.indexOf(0);
+        logGap = GraphReordering.logGap(graph);
+    }
+
+    @Benchmark
+    public void traverse(Blackhole blackhole, Locality locality) {
+        graph.traverse(source, blackhole::consume);
+        locality.logGap = logGap;
+    }
+
+    @Benchmark
+    public int[] componentLabels() {
+        return graph.componentLabels();
+    }
+
+    @Benchmark
+    public ParallelBreadthFirstSearch.Result parallelBreadthFirstSearch() {
+        return search.run(source);
+    }
+}
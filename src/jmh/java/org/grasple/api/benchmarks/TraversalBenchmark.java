@@ -0,0 +1,132 @@
+package org.grasple.api.benchmarks;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.ConnectedGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.grasple.api.utils.DefaultTraverser;
+import org.grasple.api.utils.LazyTraversal;
+import org.grasple.api.utils.ParallelBreadthFirstSearch;
+import org.grasple.api.utils.ShortestPathFinder;
+import org.grasple.api.utils.VertexIndex;
+import org.grasple.api.utils.VisitedState;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the traversals of a graph, from the vertex containing 0.
+ * @author Bach Tran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TraversalBenchmark {
+    @Param({"RANDOM", "POWER_LAW", "GRID", "PATH"})
+    GraphShape shape;
+    @Param({"1000", "100000"})
+    int size;
+
+    List<Vertex<Integer>> vertices;
+    SimpleGraph<Integer> graph;
+    ConnectedGraph<Integer> connected;
+    VertexIndex<Integer> index;
+    VisitedState epochs;
+    VisitedState bits;
+    CompactGraph<Integer> compact;
+    ParallelBreadthFirstSearch<Integer> search;
+    ShortestPathFinder<Integer> finder;
+    int source;
+    int target;
+
+    @Setup
+    public void setUp() {
+        vertices = shape.vertices(size);
+        graph = new SimpleGraph<>(new HashSet<>(vertices));
+        connected = new ConnectedGraph<>(vertices.get(0));
+        index = new VertexIndex<>(vertices);
+        epochs = VisitedState.epochs(size);
+        bits = VisitedState.bits(size);
+        compact = new CompactGraph<>(graph);
+        search = new ParallelBreadthFirstSearch<>(compact);
+        finder = new ShortestPathFinder<>(compact);
+        source = compact.indexOf(0);
+        target = compact.indexOf(size - 1);
+    }
+
+    @Benchmark
+    public Set<Connectable<Integer>> defaultTraverser() {
+        DefaultTraverser<Integer> traverser = new DefaultTraverser<>(vertices.get(0));
+        traverser.run();
+        return traverser.getVisited();
+    }
+
+    @Benchmark
+    public int epochTraverser() {
+        epochs.clear();
+        new DefaultTraverser<>(vertices.get(0), null, index, epochs).run();
+        return epochs.count();
+    }
+
+    @Benchmark
+    public int bitTraverser() {
+        bits.clear();
+        new DefaultTraverser<>(vertices.get(0), null, index, bits).run();
+        return bits.count();
+    }
+
+    @Benchmark
+    public long lazyBreadthFirst() {
+        return LazyTraversal.breadthFirst(vertices.get(0)).stream().count();
+    }
+
+    @Benchmark
+    public long lazyDepthFirstFirstHundred() {
+        return LazyTraversal.depthFirst(vertices.get(0)).stream().limit(100).count();
+    }
+
+    @Benchmark
+    public long lazyParallelBreadthFirst() {
+        return LazyTraversal.breadthFirst(vertices.get(0)).parallelStream().count();
+    }
+
+    @Benchmark
+    public void connectedGraphTraverse(Blackhole blackhole) {
+        connected.traverse(blackhole::consume);
+    }
+
+    @Benchmark
+    public void simpleGraphTraverse(Blackhole blackhole) {
+        graph.traverse(blackhole::consume);
+    }
+
+    @Benchmark
+    public void compactGraphTraverse(Blackhole blackhole) {
+        compact.traverse(source, blackhole::consume);
+    }
+
+    @Benchmark
+    public int compactGraphEpochTraverse(Blackhole blackhole) {
+        epochs.clear();
+        compact.traverse(source, blackhole::consume, epochs);
+        return epochs.count();
+    }
+
+    @Benchmark
+    public ParallelBreadthFirstSearch.Result parallelBreadthFirstSearch() {
+        return search.run(source);
+    }
+
+    @Benchmark
+    public long shortestPath() {
+        return finder.distance(source, target);
+    }
+}
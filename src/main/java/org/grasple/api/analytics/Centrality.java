@@ -0,0 +1,314 @@
+package org.grasple.api.analytics;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Computes the degree, closeness and betweenness centralities of the
+ * vertices of a CompactGraph, ignoring the weights of the edges. The
+ * results are arrays indexed by the ids of the vertices.
+ * </p>
+ * <ul>
+ *     <li>Closeness runs a breadth-first search from every vertex. In a
+ *     disconnected graph, it is scaled by the fraction of the graph each
+ *     vertex reaches (Wasserman and Faust).</li>
+ *     <li>Betweenness uses Brandes' algorithm: a breadth-first search from
+ *     each source, then the dependencies accumulated back in reverse order.
+ *     It can be estimated from a sample of the sources, scaled up to the
+ *     whole graph.</li>
+ *     <li>Both sweeps are parallel per source: one task per worker of the
+ *     pool claims the sources one by one, so the load stays balanced, and
+ *     reuses a single set of buffers. Closeness writes each result in the
+ *     shared array; betweenness sums one accumulator per worker at the
+ *     end, so the memory grows with size() times the parallelism.</li>
+ * </ul>
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class Centrality<T> {
+    private final CompactGraph<T> graph;
+    private final ForkJoinPool pool;
+    private int samples;
+    private long seed;
+    private ProgressListener listener;
+
+    /**
+     * Creates a Centrality on a CompactGraph, using the common fork/join pool.
+     * @param graph the graph to be analysed.
+     */
+    public Centrality(CompactGraph<T> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a Centrality on a CompactGraph.
+     * @param graph the graph to be analysed.
+     * @param pool the fork/join pool running the workers.
+     */
+    public Centrality(CompactGraph<T> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a Centrality on a snapshot of a SimpleGraph, using the common
+     * fork/join pool. Use getGraph() to find the ids of the vertices.
+     * @param graph the graph to be analysed.
+     */
+    public Centrality(SimpleGraph<T> graph) {
+        this(new CompactGraph<>(graph));
+    }
+
+    /**
+     * @return the graph that this Centrality runs on.
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the number of sources sampled by betweenness(), 0 (every vertex) by default.
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Makes betweenness() an estimate from a sample of the sources, drawn
+     * uniformly without replacement.
+     * @param samples the number of sources, 0 to use every vertex.
+     * @param seed the seed of the sample, so that runs can be reproduced.
+     */
+    public void setSamples(int samples, long seed) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("The number of samples cannot be negative.");
+        }
+        this.samples = samples;
+        this.seed = seed;
+    }
+
+    /**
+     * @param listener called each time a source of closeness() or
+     * betweenness() is done, with the sources done and the sources planned, or null.
+     */
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the degree of every vertex divided by size() - 1.
+     */
+    public double[] degree() {
+        int size = graph.size();
+        double[] centrality = new double[size];
+        if (size < 2) { return centrality; }
+        for (int vertex = 0; vertex < size; vertex++) {
+            centrality[vertex] = (double) graph.degree(vertex) / (size - 1);
+        }
+        return centrality;
+    }
+
+    /**
+     * Computes the closeness of every vertex: the number of other vertices
+     * it reaches divided by the sum of their distances, times the fraction
+     * of the other vertices it reaches. An isolated vertex has a closeness of 0.
+     * @return the closeness of every vertex, in [0, 1].
+     */
+    public double[] closeness() {
+        int size = graph.size();
+        int[] sources = new int[size];
+        for (int i = 0; i < size; i++) { sources[i] = i; }
+        return sweep(sources, true);
+    }
+
+    /**
+     * Computes the betweenness of every vertex: the sum, over the pairs of
+     * other vertices, of the fraction of their shortest paths that pass
+     * through it. Each unordered pair counts once; divide by
+     * (size() - 1) * (size() - 2) / 2 to normalize. When sampling, the
+     * dependencies of the sampled sources are scaled by size() / samples.
+     * @return the betweenness of every vertex.
+     */
+    public double[] betweenness() {
+        int size = graph.size();
+        int[] sources = new int[size];
+        for (int i = 0; i < size; i++) { sources[i] = i; }
+        double scale = 0.5;
+        if (samples > 0 && samples < size) {
+            // a partial Fisher-Yates shuffle draws the sample without replacement
+            Random random = new Random(seed);
+            for (int i = 0; i < samples; i++) {
+                int j = i + random.nextInt(size - i);
+                int swap = sources[i];
+                sources[i] = sources[j];
+                sources[j] = swap;
+            }
+            sources = Arrays.copyOf(sources, samples);
+            scale *= (double) size / samples;
+        }
+        double[] centrality = sweep(sources, false);
+        for (int vertex = 0; vertex < size; vertex++) { centrality[vertex] *= scale; }
+        return centrality;
+    }
+
+    private double[] sweep(int[] sources, boolean closeness) {
+        double[] centrality = new double[graph.size()];
+        if (sources.length == 0) { return centrality; }
+        int workers = Math.max(1, Math.min(sources.length, pool.getParallelism()));
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong completed = new AtomicLong();
+        List<Sweep> sweeps = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            sweeps.add(new Sweep(sources, next, completed, closeness ? centrality : null));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(sweeps);
+            }
+        });
+        if (!closeness) {
+            for (Sweep sweep : sweeps) {
+                double[] sum = sweep.centrality;
+                for (int vertex = 0; vertex < sum.length; vertex++) { centrality[vertex] += sum[vertex]; }
+            }
+        }
+        return centrality;
+    }
+
+    /**
+     * The work of one worker: claims sources until there are none left,
+     * with one Workspace. A closeness sweep writes in the shared result,
+     * a betweenness sweep in its own accumulator.
+     */
+    private final class Sweep extends RecursiveAction {
+        private final int[] sources;
+        private final AtomicInteger next;
+        private final AtomicLong completed;
+        private final boolean closeness;
+        double[] centrality;
+
+        /**
+         * @param shared the result of a closeness sweep, or null for a betweenness sweep.
+         */
+        Sweep(int[] sources, AtomicInteger next, AtomicLong completed, double[] shared) {
+            this.sources = sources;
+            this.next = next;
+            this.completed = completed;
+            this.closeness = shared != null;
+            this.centrality = shared;
+        }
+
+        @Override
+        protected void compute() {
+            Workspace workspace = new Workspace(graph.size(), !closeness);
+            if (!closeness) { centrality = new double[graph.size()]; }
+            for (int i; (i = next.getAndIncrement()) < sources.length; ) {
+                int source = sources[i];
+                if (closeness) {
+                    centrality[source] = workspace.closeness(source);
+                } else {
+                    workspace.accumulate(source, centrality);
+                }
+                if (listener != null) { listener.progress(completed.incrementAndGet(), sources.length); }
+            }
+        }
+    }
+
+    /**
+     * The buffers of the searches of one worker, reset after each source
+     * only where the search went. The shortest paths are only counted for
+     * betweenness.
+     */
+    private final class Workspace {
+        final int[] distances;
+        final int[] order;
+        final double[] paths;
+        final double[] dependencies;
+
+        Workspace(int size, boolean counting) {
+            distances = new int[size];
+            order = new int[size];
+            paths = counting ? new double[size] : null;
+            dependencies = counting ? new double[size] : null;
+            Arrays.fill(distances, -1);
+        }
+
+        /**
+         * Runs a breadth-first search, counting the shortest paths to every vertex.
+         * @return the number of vertices reached, in order[0, count).
+         */
+        int search(int source) {
+            distances[source] = 0;
+            if (paths != null) { paths[source] = 1; }
+            order[0] = source;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int vertex = order[head++];
+                int distance = distances[vertex] + 1;
+                for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                    int neighbor = graph.target(arc);
+                    if (distances[neighbor] < 0) {
+                        distances[neighbor] = distance;
+                        order[tail++] = neighbor;
+                    }
+                    if (paths != null && distances[neighbor] == distance) { paths[neighbor] += paths[vertex]; }
+                }
+            }
+            return tail;
+        }
+
+        void reset(int count) {
+            for (int i = 0; i < count; i++) {
+                int vertex = order[i];
+                distances[vertex] = -1;
+                if (paths == null) { continue; }
+                paths[vertex] = 0;
+                dependencies[vertex] = 0;
+            }
+        }
+
+        double closeness(int source) {
+            int count = search(source);
+            long total = 0;
+            for (int i = 1; i < count; i++) { total += distances[order[i]]; }
+            reset(count);
+            if (total == 0) { return 0; }
+            double reached = count - 1;
+            return reached / total * (reached / (graph.size() - 1));
+        }
+
+        /**
+         * Adds the dependencies of the source on every other vertex, visiting
+         * the vertices by decreasing distance. The predecessors of a vertex
+         * are the neighbors one step closer, so they are not stored.
+         */
+        void accumulate(int source, double[] centrality) {
+            int count = search(source);
+            for (int i = count - 1; i > 0; i--) {
+                int vertex = order[i];
+                int distance = distances[vertex] - 1;
+                double share = (1 + dependencies[vertex]) / paths[vertex];
+                for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                    int neighbor = graph.target(arc);
+                    if (distances[neighbor] == distance) { dependencies[neighbor] += paths[neighbor] * share; }
+                }
+                centrality[vertex] += dependencies[vertex];
+            }
+            reset(count);
+        }
+    }
+}
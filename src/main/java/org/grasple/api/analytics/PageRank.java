@@ -0,0 +1,295 @@
+package org.grasple.api.analytics;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * Computes the PageRank of every vertex of a CompactGraph by power
+ * iteration. Each iteration is pull-based: every vertex sums the shares
+ * of its neighbors, so the workers write disjoint ranges of the rank
+ * array and need no synchronization. Edges are undirected, each one
+ * carries rank both ways; the rank of vertices without neighbors is
+ * spread evenly over all vertices.
+ * </p>
+ * <p>
+ * The iterations stop once the L1 distance between two successive rank
+ * vectors falls below the tolerance, or after the maximum number of
+ * iterations. The ranks sum to 1.
+ * </p>
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class PageRank<T> {
+    /** The minimum number of vertices a worker handles. */
+    private static final int GRAIN = 1024;
+
+    private final CompactGraph<T> graph;
+    private final ForkJoinPool pool;
+    private double damping = 0.85;
+    private double tolerance = 1e-6;
+    private int maxIterations = 100;
+    private ProgressListener listener;
+
+    /**
+     * Creates a PageRank on a CompactGraph, using the common fork/join pool.
+     * @param graph the graph to be ranked.
+     */
+    public PageRank(CompactGraph<T> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a PageRank on a CompactGraph.
+     * @param graph the graph to be ranked.
+     * @param pool the fork/join pool running the workers.
+     */
+    public PageRank(CompactGraph<T> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a PageRank on a snapshot of a SimpleGraph, using the common
+     * fork/join pool. Use getGraph() to find the ids of the vertices.
+     * @param graph the graph to be ranked.
+     */
+    public PageRank(SimpleGraph<T> graph) {
+        this(new CompactGraph<>(graph));
+    }
+
+    /**
+     * @return the graph that this PageRank runs on.
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the probability of following an edge rather than jumping to a random vertex, 0.85 by default.
+     */
+    public double getDamping() {
+        return damping;
+    }
+
+    /**
+     * @param damping the probability of following an edge, in [0, 1).
+     */
+    public void setDamping(double damping) {
+        if (!(damping >= 0 && damping < 1)) {
+            throw new IllegalArgumentException("The damping factor must be in [0, 1).");
+        }
+        this.damping = damping;
+    }
+
+    /**
+     * @return the L1 distance between two iterations under which the ranks have converged, 1e-6 by default.
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @param tolerance the L1 distance under which the ranks have converged, positive.
+     */
+    public void setTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("The tolerance must be positive.");
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return the maximum number of iterations, 100 by default.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * @param maxIterations the maximum number of iterations, positive.
+     */
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException("The maximum number of iterations must be positive.");
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * @param listener called after each iteration with the iterations done
+     * and the maximum number of iterations, or null.
+     */
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the power iteration from the uniform distribution.
+     * @return the ranks of all vertices.
+     */
+    public Result run() {
+        int size = graph.size();
+        if (size == 0) { return new Result(new double[0], 0, 0, true); }
+        double[] ranks = new double[size];
+        double[] next = new double[size];
+        double[] shares = new double[size];
+        Arrays.fill(ranks, 1.0 / size);
+        int iterations = 0;
+        double delta = Double.POSITIVE_INFINITY;
+        while (iterations < maxIterations && delta >= tolerance) {
+            double dangling = pool.invoke(new Scatter(ranks, shares, 0, size));
+            double base = (1 - damping + damping * dangling) / size;
+            delta = pool.invoke(new Gather(ranks, shares, next, base, 0, size));
+            double[] swap = ranks;
+            ranks = next;
+            next = swap;
+            iterations++;
+            if (listener != null) { listener.progress(iterations, maxIterations); }
+        }
+        return new Result(ranks, iterations, delta, delta < tolerance);
+    }
+
+    /**
+     * Divides the rank of each vertex of a range among its neighbors.
+     * Returns the total rank of the vertices without neighbors.
+     */
+    private final class Scatter extends RecursiveTask<Double> {
+        private final double[] ranks;
+        private final double[] shares;
+        private final int from;
+        private final int to;
+
+        Scatter(double[] ranks, double[] shares, int from, int to) {
+            this.ranks = ranks;
+            this.shares = shares;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                Scatter left = new Scatter(ranks, shares, from, middle);
+                left.fork();
+                double right = new Scatter(ranks, shares, middle, to).compute();
+                return left.join() + right;
+            }
+            double dangling = 0;
+            for (int vertex = from; vertex < to; vertex++) {
+                int degree = graph.degree(vertex);
+                if (degree == 0) {
+                    dangling += ranks[vertex];
+                    shares[vertex] = 0;
+                } else {
+                    shares[vertex] = ranks[vertex] / degree;
+                }
+            }
+            return dangling;
+        }
+    }
+
+    /**
+     * Pulls the shares of the neighbors of each vertex of a range into its
+     * next rank. Returns the L1 distance between the old and new ranks of the range.
+     */
+    private final class Gather extends RecursiveTask<Double> {
+        private final double[] ranks;
+        private final double[] shares;
+        private final double[] next;
+        private final double base;
+        private final int from;
+        private final int to;
+
+        Gather(double[] ranks, double[] shares, double[] next, double base, int from, int to) {
+            this.ranks = ranks;
+            this.shares = shares;
+            this.next = next;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                Gather left = new Gather(ranks, shares, next, base, from, middle);
+                left.fork();
+                double right = new Gather(ranks, shares, next, base, middle, to).compute();
+                return left.join() + right;
+            }
+            double delta = 0;
+            for (int vertex = from; vertex < to; vertex++) {
+                double sum = 0;
+                for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                    sum += shares[graph.target(arc)];
+                }
+                double rank = base + damping * sum;
+                delta += Math.abs(rank - ranks[vertex]);
+                next[vertex] = rank;
+            }
+            return delta;
+        }
+    }
+
+    /**
+     * The outcome of a PageRank: the rank of every vertex, indexed by its
+     * id in the graph, and how the iterations ended.
+     */
+    public static final class Result {
+        private final double[] ranks;
+        private final int iterations;
+        private final double delta;
+        private final boolean converged;
+
+        Result(double[] ranks, int iterations, double delta, boolean converged) {
+            this.ranks = ranks;
+            this.iterations = iterations;
+            this.delta = delta;
+            this.converged = converged;
+        }
+
+        /**
+         * @param vertex the id of the vertex.
+         * @return the rank of the vertex.
+         */
+        public double rank(int vertex) {
+            return ranks[vertex];
+        }
+
+        /**
+         * @return a copy of the ranks of all vertices.
+         */
+        public double[] getRanks() {
+            return ranks.clone();
+        }
+
+        /**
+         * @return the number of iterations run.
+         */
+        public int getIterations() {
+            return iterations;
+        }
+
+        /**
+         * @return the L1 distance between the last two iterations.
+         */
+        public double getDelta() {
+            return delta;
+        }
+
+        /**
+         * @return true if the ranks converged before the maximum number of iterations.
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+    }
+}
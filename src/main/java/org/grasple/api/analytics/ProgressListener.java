@@ -0,0 +1,19 @@
+package org.grasple.api.analytics;
+
+/**
+ * Receives the progress of a long-running analysis, for instance to log it
+ * or to drive a progress bar. It may be called from the worker threads of
+ * the analysis, several at once, so it must be thread-safe and fast.
+ * @since 1.0
+ * @author Bach Tran
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Called each time a unit of work completes: an iteration of PageRank,
+     * or a source of a centrality sweep.
+     * @param completed the number of units completed so far.
+     * @param total the number of units planned, or the maximum for iterative analyses.
+     */
+    void progress(long completed, long total);
+}
@@ -0,0 +1,9 @@
+/**
+ * Whole-graph analytics: PageRank and the degree, closeness and betweenness
+ * centralities. They run on a CompactGraph, taken as a snapshot when built
+ * from a SimpleGraph, over primitive arrays indexed by the ids of the
+ * vertices, and spread their work over a ForkJoinPool.
+ * @since 1.0
+ * @author Bach Tran
+ */
+package org.grasple.api.analytics;
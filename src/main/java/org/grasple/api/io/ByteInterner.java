@@ -0,0 +1,125 @@
+package org.grasple.api.io;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense int ids to byte sequences, so that a label read many times
+ * from a file is identified without creating a String for each occurrence.
+ * The bytes of each distinct label are copied once into a single growing
+ * array, and looked up through an open-addressing table of ids.
+ * @since 1.0
+ * @author Bach Tran
+ */
+final class ByteInterner {
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int EMPTY = -1;
+
+    private byte[] bytes;
+    private int used;
+    /** The start of each label in bytes, the label of id i ending at starts[i + 1]. */
+    private int[] starts;
+    private int[] hashes;
+    private int[] table;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expectedSize the expected number of distinct labels.
+     * @param expectedBytes the expected total length of the distinct labels.
+     */
+    ByteInterner(int expectedSize, int expectedBytes) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) Math.min(1 << 30, (long) (expectedSize / LOAD_FACTOR))) - 1) << 1;
+        table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        mask = capacity - 1;
+        bytes = new byte[Math.max(16, expectedBytes)];
+        starts = new int[Math.max(16, expectedSize + 1)];
+        hashes = new int[starts.length];
+    }
+
+    /**
+     * @return the number of distinct labels.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the id of a label, adding the label if it is new. New labels
+     * receive the id size() - 1, so a caller detects them by comparing
+     * the id returned with the previous size().
+     * @param source the array holding the label.
+     * @param from the position of the first byte of the label.
+     * @param length the length of the label.
+     * @return the id of the label.
+     */
+    int intern(byte[] source, int from, int length) {
+        int hash = hash(source, from, length);
+        int slot = hash & mask;
+        for (int id; (id = table[slot]) != EMPTY; slot = (slot + 1) & mask) {
+            if (hashes[id] == hash && equal(id, source, from, length)) { return id; }
+        }
+        if (used + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, used + length));
+        }
+        if (size + 2 > starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            hashes = Arrays.copyOf(hashes, starts.length);
+        }
+        System.arraycopy(source, from, bytes, used, length);
+        used += length;
+        hashes[size] = hash;
+        starts[size + 1] = used;
+        table[slot] = size;
+        if (++size > table.length * LOAD_FACTOR) { rehash(); }
+        return size - 1;
+    }
+
+    /**
+     * @param id the id of a label.
+     * @return the position of the label in array().
+     */
+    int start(int id) {
+        return starts[id];
+    }
+
+    /**
+     * @param id the id of a label.
+     * @return the length of the label.
+     */
+    int length(int id) {
+        return starts[id + 1] - starts[id];
+    }
+
+    /**
+     * @return the array holding the bytes of every label; it is replaced when it grows.
+     */
+    byte[] array() {
+        return bytes;
+    }
+
+    private boolean equal(int id, byte[] source, int from, int length) {
+        if (length(id) != length) { return false; }
+        for (int i = 0, start = starts[id]; i < length; i++) {
+            if (bytes[start + i] != source[from + i]) { return false; }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] source, int from, int length) {
+        int hash = 0x811C9DC5;
+        for (int i = from; i < from + length; i++) { hash = (hash ^ source[i]) * 0x01000193; }
+        return hash ^ (hash >>> 16);
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        Arrays.fill(table, EMPTY);
+        mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != EMPTY) { slot = (slot + 1) & mask; }
+            table[slot] = id;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.grasple.api.io;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Loads large edge lists into a CompactGraph. Each line of an edge list
+ * holds the labels of the two endpoints of an edge, and optionally an
+ * integer weight, separated by spaces, tabs, commas or semicolons, e.g.
+ * {@code alice,bob,3}. Blank lines, and lines starting with '#' or '%',
+ * are skipped. Quoted fields are not supported.
+ * </p>
+ * <p>
+ * The input is read through a buffered NIO channel and parsed as bytes:
+ * labels are interned as byte sequences, so a String is only created, and
+ * converted to a vertex value, once per distinct vertex rather than once
+ * per occurrence. Edges are collected in the arrays of a
+ * CompactGraph.Builder, presized from the length of the file up to a
+ * bound and doubled past it, then turned into the CSR layout in a single
+ * pass.
+ * </p>
+ * <p>
+ * A loader is not thread-safe, but can load several files one after the
+ * other; getStatistics() describes the last load.
+ * </p>
+ * @see LoadStatistics
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class EdgeListLoader<T> {
+    private static final int BUFFER_SIZE = 1 << 20;
+    /** A rough length of a line, used to presize the builder from the length of a file. */
+    private static final int BYTES_PER_EDGE = 16;
+    /** The largest number of edges presized from the length of a file, beyond which the builder grows. */
+    static final int MAX_PRESIZED_EDGES = 1 << 24;
+    /** A rough length of a label, used to presize the interned bytes. */
+    private static final int BYTES_PER_LABEL = 8;
+    /** The largest number of interned bytes presized, beyond which the interner grows. */
+    private static final int MAX_PRESIZED_BYTES = 1 << 28;
+
+    private final Function<? super String, ? extends T> converter;
+    private int expectedVertices = -1;
+    private int expectedEdges = -1;
+    private LoadStatistics statistics;
+
+    /**
+     * Creates a loader.
+     * @param converter the function creating the value of a vertex from its
+     *                  label, called once per distinct label, e.g.
+     *                  Function.identity() or Integer::valueOf.
+     */
+    public EdgeListLoader(Function<? super String, ? extends T> converter) {
+        if (converter == null) { throw new IllegalArgumentException("The converter cannot be null."); }
+        this.converter = converter;
+    }
+
+    /**
+     * Presizes the graph being loaded. By default, the sizes are estimated
+     * from the length of the file.
+     * @param vertices the expected number of distinct vertices.
+     * @param edges the expected number of edges.
+     * @return this loader.
+     */
+    public EdgeListLoader<T> expect(int vertices, int edges) {
+        if (vertices < 0 || edges < 0) {
+            throw new IllegalArgumentException("The expected sizes cannot be negative.");
+        }
+        this.expectedVertices = vertices;
+        this.expectedEdges = edges;
+        return this;
+    }
+
+    /**
+     * @return the statistics of the last load, or null if nothing was loaded yet.
+     */
+    public LoadStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Loads an edge list file.
+     * @param file the edge list file, encoded in UTF-8.
+     * @return the graph loaded, whose vertices are numbered in order of first appearance.
+     * @throws IOException if the file cannot be read, or holds a malformed line.
+     */
+    public CompactGraph<T> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return load(channel, channel.size());
+        }
+    }
+
+    /**
+     * Loads an edge list from a channel, until its end. The channel is not closed.
+     * @param channel the channel, providing an edge list encoded in UTF-8.
+     * @return the graph loaded, whose vertices are numbered in order of first appearance.
+     * @throws IOException if the channel cannot be read, or provides a malformed line.
+     */
+    public CompactGraph<T> load(ReadableByteChannel channel) throws IOException {
+        return load(channel, -1);
+    }
+
+    private CompactGraph<T> load(ReadableByteChannel channel, long length) throws IOException {
+        long begin = System.nanoTime();
+        int edges = expectedEdges >= 0 ? expectedEdges : estimateEdges(length);
+        int vertices = expectedVertices >= 0 ? expectedVertices : Math.max(16, edges / 4);
+        LineParser parser = new LineParser(new CompactGraph.Builder<>(vertices, edges),
+                new ByteInterner(vertices, (int) Math.min(MAX_PRESIZED_BYTES, (long) vertices * BYTES_PER_LABEL)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long bytes = 0;
+        for (int read; (read = channel.read(buffer)) != -1; ) {
+            bytes += read;
+            buffer.flip();
+            buffer.position(parser.parse(buffer.array(), 0, buffer.limit()));
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                // a single line does not fit in the buffer
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                buffer = larger.put(buffer);
+            }
+        }
+        buffer.flip();
+        // the last line may not end with a line break
+        if (buffer.hasRemaining()) { parser.line(buffer.array(), 0, buffer.limit()); }
+
+        CompactGraph<T> graph = parser.builder.build();
+        statistics = new LoadStatistics(bytes, parser.lines, parser.edges, parser.builder.vertexCount(),
+                System.nanoTime() - begin);
+        return graph;
+    }
+
+    /**
+     * Estimates the number of edges of an input from its length. The
+     * estimate is capped, so that a large file does not allocate all its
+     * edges upfront: the arrays of the builder double as the edges come.
+     * @param length the length of the input in bytes, or -1 if unknown.
+     * @return the number of edges to presize the builder with.
+     */
+    static int estimateEdges(long length) {
+        return length > 0 ? (int) Math.min(MAX_PRESIZED_EDGES, length / BYTES_PER_EDGE) : 1024;
+    }
+
+    /**
+     * Parses lines of bytes, and adds their edges to a builder.
+     */
+    private final class LineParser {
+        final CompactGraph.Builder<T> builder;
+        final ByteInterner interner;
+        long lines;
+        long edges;
+
+        LineParser(CompactGraph.Builder<T> builder, ByteInterner interner) {
+            this.builder = builder;
+            this.interner = interner;
+        }
+
+        /**
+         * Parses every complete line in a range.
+         * @return the position following the last line break of the range.
+         */
+        int parse(byte[] data, int from, int to) throws IOException {
+            int lineStart = from;
+            for (int i = from; i < to; i++) {
+                if (data[i] == '\n') {
+                    line(data, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            return lineStart;
+        }
+
+        void line(byte[] data, int from, int to) throws IOException {
+            lines++;
+            int startBegin = skipSeparators(data, from, to);
+            if (startBegin == to || data[startBegin] == '#' || data[startBegin] == '%') { return; }
+            int startEnd = tokenEnd(data, startBegin, to);
+            int endBegin = skipSeparators(data, startEnd, to);
+            if (endBegin == to) { throw new IOException("Missing endpoint at line " + lines + "."); }
+            int endEnd = tokenEnd(data, endBegin, to);
+            int weightBegin = skipSeparators(data, endEnd, to);
+            int weight = weightBegin == to ? 0 : parseWeight(data, weightBegin, tokenEnd(data, weightBegin, to));
+            int start = vertex(data, startBegin, startEnd - startBegin);
+            int end = vertex(data, endBegin, endEnd - endBegin);
+            builder.addEdge(start, end, weight);
+            edges++;
+        }
+
+        /**
+         * Interns a label, creating the vertex on its first appearance.
+         */
+        int vertex(byte[] data, int from, int length) {
+            int known = interner.size();
+            int id = interner.intern(data, from, length);
+            if (id == known) {
+                String label = new String(interner.array(), interner.start(id), length, StandardCharsets.UTF_8);
+                builder.addVertex(converter.apply(label));
+            }
+            return id;
+        }
+
+        int parseWeight(byte[] data, int from, int to) throws IOException {
+            boolean negative = data[from] == '-';
+            int i = negative || data[from] == '+' ? from + 1 : from;
+            if (i == to) { throw new IOException("Malformed weight at line " + lines + "."); }
+            long value = 0;
+            for (; i < to; i++) {
+                int digit = data[i] - '0';
+                if (digit < 0 || digit > 9 || (value = value * 10 + digit) > Integer.MAX_VALUE + 1L) {
+                    throw new IOException("Malformed weight at line " + lines + ".");
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) { throw new IOException("Malformed weight at line " + lines + "."); }
+            return (int) value;
+        }
+    }
+
+    private static boolean separator(byte b) {
+        return b == ' ' || b == '\t' || b == ',' || b == ';' || b == '\r';
+    }
+
+    private static int skipSeparators(byte[] data, int from, int to) {
+        while (from < to && separator(data[from])) { from++; }
+        return from;
+    }
+
+    private static int tokenEnd(byte[] data, int from, int to) {
+        while (from < to && !separator(data[from])) { from++; }
+        return from;
+    }
+}
@@ -0,0 +1,142 @@
+package org.grasple.api.io;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes graphs to files that MappedGraph can open. A SimpleGraph is
+ * compacted into a CompactGraph on the heap first. The sections are then
+ * streamed to the file through a fixed-size buffer, so the only memory
+ * needed beyond the CompactGraph is the table of value offsets, 8 bytes
+ * per vertex, written after the values.
+ * @see MappedGraph
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class GraphFileWriter<T> {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final VertexCodec<T> codec;
+
+    /**
+     * Creates a writer.
+     * @param codec the codec encoding the values of the vertices.
+     */
+    public GraphFileWriter(VertexCodec<T> codec) {
+        if (codec == null) { throw new IllegalArgumentException("The codec cannot be null."); }
+        this.codec = codec;
+    }
+
+    /**
+     * Writes a snapshot of a simple graph, see CompactGraph(SimpleGraph)
+     * for how the vertices are numbered.
+     * @param graph the graph to be written.
+     * @param file the file, created or overwritten.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(SimpleGraph<T> graph, Path file) throws IOException {
+        write(new CompactGraph<>(graph), file);
+    }
+
+    /**
+     * Writes a compact graph, keeping the ids of its vertices.
+     * @param graph the graph to be written.
+     * @param file the file, created or overwritten.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(CompactGraph<T> graph, Path file) throws IOException {
+        int vertexCount = graph.size();
+        int arcCount = graph.offset(vertexCount);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output output = new Output(channel);
+            // the length of the values is unknown yet, the header is rewritten at the end
+            output.skip(GraphFormat.HEADER_BYTES);
+            for (int v = 0; v <= vertexCount; v++) { output.putInt(graph.offset(v)); }
+            output.align();
+            for (int arc = 0; arc < arcCount; arc++) { output.putInt(graph.target(arc)); }
+            output.align();
+            for (int arc = 0; arc < arcCount; arc++) { output.putInt(graph.weight(arc)); }
+            output.align();
+
+            long[] valueOffsets = new long[vertexCount + 1];
+            long valuesStart = output.position();
+            for (int v = 0; v < vertexCount; v++) {
+                valueOffsets[v] = output.position() - valuesStart;
+                output.put(codec.encode(graph.get(v)));
+            }
+            valueOffsets[vertexCount] = output.position() - valuesStart;
+            output.align();
+            for (long valueOffset : valueOffsets) { output.putLong(valueOffset); }
+            output.flush();
+
+            GraphFormat format = new GraphFormat(vertexCount, arcCount, graph.edgeCount(),
+                    valueOffsets[vertexCount]);
+            ByteBuffer header = ByteBuffer.allocate(GraphFormat.HEADER_BYTES);
+            format.write(header);
+            header.flip();
+            while (header.hasRemaining()) { channel.write(header, header.position()); }
+        }
+    }
+
+    /**
+     * A buffered, sequential writer over a FileChannel.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long flushed;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) { flush(); }
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) { flush(); }
+            buffer.putLong(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int from = 0; from < bytes.length; ) {
+                if (!buffer.hasRemaining()) { flush(); }
+                int length = Math.min(buffer.remaining(), bytes.length - from);
+                buffer.put(bytes, from, length);
+                from += length;
+            }
+        }
+
+        void skip(int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                if (!buffer.hasRemaining()) { flush(); }
+                buffer.put((byte) 0);
+            }
+        }
+
+        /** Pads the output with zeros up to the next multiple of 8 bytes. */
+        void align() throws IOException {
+            skip((int) (GraphFormat.align(position()) - position()));
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) { flushed += channel.write(buffer); }
+            buffer.clear();
+        }
+    }
+}
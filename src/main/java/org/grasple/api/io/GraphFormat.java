@@ -0,0 +1,105 @@
+package org.grasple.api.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * The header of a graph file, and the layout of its sections. All numbers
+ * are big-endian, and every section starts at a multiple of 8 bytes:
+ * </p>
+ * <ol>
+ *     <li>the header: magic, version, vertex count, reserved flags (4 bytes
+ *     each), then the arc count, the edge count and the length of the
+ *     value section (8 bytes each);</li>
+ *     <li>offsets: vertexCount + 1 ints, the CSR offsets of the vertices;</li>
+ *     <li>targets: arcCount ints, the neighbor of each arc;</li>
+ *     <li>weights: arcCount ints, the weight of each arc;</li>
+ *     <li>values: the encoded values of the vertices, back to back;</li>
+ *     <li>value offsets: vertexCount + 1 longs, the position of each value
+ *     in the value section.</li>
+ * </ol>
+ * <p>
+ * The value offsets come last so that a writer can stream the values
+ * without knowing their lengths in advance.
+ * </p>
+ * @since 1.0
+ * @author Bach Tran
+ */
+final class GraphFormat {
+    /** The first 4 bytes of a graph file: "GRSP". */
+    static final int MAGIC = 0x47525350;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+
+    final int vertexCount;
+    final long arcCount;
+    final long edgeCount;
+    final long valueBytes;
+
+    GraphFormat(int vertexCount, long arcCount, long edgeCount, long valueBytes) {
+        this.vertexCount = vertexCount;
+        this.arcCount = arcCount;
+        this.edgeCount = edgeCount;
+        this.valueBytes = valueBytes;
+    }
+
+    /**
+     * Parses and validates a header.
+     * @param header a buffer holding at least HEADER_BYTES bytes, from its position.
+     * @return the header read.
+     * @throws IOException if the bytes are not the header of a supported graph file.
+     */
+    static GraphFormat read(ByteBuffer header) throws IOException {
+        int start = header.position();
+        if (header.getInt(start) != MAGIC) { throw new IOException("Not a graph file."); }
+        int version = header.getInt(start + 4);
+        if (version != VERSION) { throw new IOException("Unsupported graph file version: " + version); }
+        GraphFormat format = new GraphFormat(header.getInt(start + 8), header.getLong(start + 16),
+                header.getLong(start + 24), header.getLong(start + 32));
+        if (format.vertexCount < 0 || format.arcCount < 0 || format.arcCount > Integer.MAX_VALUE
+                || format.valueBytes < 0) {
+            throw new IOException("Corrupted graph file header.");
+        }
+        return format;
+    }
+
+    /**
+     * @param header the buffer the header is written to, from its position.
+     */
+    void write(ByteBuffer header) {
+        header.putInt(MAGIC).putInt(VERSION).putInt(vertexCount).putInt(0)
+                .putLong(arcCount).putLong(edgeCount).putLong(valueBytes);
+    }
+
+    long offsetsPosition() {
+        return HEADER_BYTES;
+    }
+
+    long targetsPosition() {
+        return align(offsetsPosition() + Integer.BYTES * (vertexCount + 1L));
+    }
+
+    long weightsPosition() {
+        return align(targetsPosition() + Integer.BYTES * arcCount);
+    }
+
+    long valuesPosition() {
+        return align(weightsPosition() + Integer.BYTES * arcCount);
+    }
+
+    long valueOffsetsPosition() {
+        return align(valuesPosition() + valueBytes);
+    }
+
+    /**
+     * @return the expected length of the file.
+     */
+    long fileSize() {
+        return valueOffsetsPosition() + Long.BYTES * (vertexCount + 1L);
+    }
+
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
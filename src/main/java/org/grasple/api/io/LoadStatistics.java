@@ -0,0 +1,79 @@
+package org.grasple.api.io;
+
+/**
+ * Counters collected while loading a graph, and the throughput derived
+ * from them.
+ * @see EdgeListLoader
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class LoadStatistics {
+    private final long bytes;
+    private final long lines;
+    private final long edges;
+    private final int vertices;
+    private final long elapsedNanos;
+
+    LoadStatistics(long bytes, long lines, long edges, int vertices, long elapsedNanos) {
+        this.bytes = bytes;
+        this.lines = lines;
+        this.edges = edges;
+        this.vertices = vertices;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of bytes read.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of lines read, including comments and blank lines.
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * @return the number of edges read, before parallel edges are merged.
+     */
+    public long getEdges() {
+        return edges;
+    }
+
+    /**
+     * @return the number of distinct vertices read.
+     */
+    public int getVertices() {
+        return vertices;
+    }
+
+    /**
+     * @return the time spent loading, building the graph included, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of edges loaded per second.
+     */
+    public double edgesPerSecond() {
+        return elapsedNanos == 0 ? 0 : edges * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return the number of megabytes read per second.
+     */
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos / (1 << 20);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d edges, %d vertices, %d lines, %d bytes in %.1f ms (%.0f edges/s, %.1f MB/s)",
+                edges, vertices, lines, bytes, elapsedNanos / 1e6, edgesPerSecond(), megabytesPerSecond());
+    }
+}
@@ -0,0 +1,319 @@
+package org.grasple.api.io;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.GraphStructure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * A frozen, undirected graph served straight from a memory-mapped graph
+ * file, as written by GraphFileWriter. Opening a MappedGraph only maps the
+ * file: the offsets, neighbors and weights are read from the mapping when
+ * queried, and the operating system pages them in on first access. A
+ * restart therefore costs page faults instead of object construction, and
+ * the pages are shared by every process mapping the same file.
+ * </p>
+ * <p>
+ * The queries mirror those of CompactGraph, with the same vertex ids.
+ * Values are decoded on each call of get(int); the lookup table of
+ * indexOf(T) is only built when first needed. Since the mapping is
+ * read-only, a MappedGraph can be queried by several threads at once.
+ * The mapping is released when the graph is garbage collected; the file
+ * must not be modified while it is mapped.
+ * </p>
+ * @see GraphFileWriter
+ * @see CompactGraph
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class MappedGraph<T> implements GraphStructure<T> {
+    /** A single mapping cannot exceed 2GB, so larger files are mapped in chunks of 1GB. */
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final VertexCodec<T> codec;
+    private final MappedByteBuffer[] chunks;
+    private final GraphFormat format;
+    private final long offsets;
+    private final long targets;
+    private final long weights;
+    private final long values;
+    private final long valueOffsets;
+    /** Lazily built lookup table from values to vertex ids, see indexOf(T). */
+    private volatile Map<T, Integer> index;
+
+    /**
+     * Maps a graph file.
+     * @param file the file written by a GraphFileWriter.
+     * @param codec the codec decoding the values of the vertices.
+     * @throws IOException if the file cannot be mapped, or is not a valid graph file.
+     */
+    public MappedGraph(Path file, VertexCodec<T> codec) throws IOException {
+        if (codec == null) { throw new IllegalArgumentException("The codec cannot be null."); }
+        this.codec = codec;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < GraphFormat.HEADER_BYTES) { throw new IOException("Not a graph file."); }
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(size - position, CHUNK_MASK + 1));
+            }
+            format = GraphFormat.read(chunks[0]);
+            if (size < format.fileSize()) { throw new IOException("Truncated graph file."); }
+        }
+        offsets = format.offsetsPosition();
+        targets = format.targetsPosition();
+        weights = format.weightsPosition();
+        values = format.valuesPosition();
+        valueOffsets = format.valueOffsetsPosition();
+    }
+
+    /**
+     * @return the number of vertices in this graph.
+     */
+    public int size() {
+        return format.vertexCount;
+    }
+
+    /**
+     * @return the number of distinct undirected edges in this graph,
+     * a self-connection counts as one edge.
+     */
+    public long edgeCount() {
+        return format.edgeCount;
+    }
+
+    /**
+     * Decodes the value of a vertex.
+     * @param vertex the id of the vertex.
+     * @return the value that the vertex contains.
+     */
+    public T get(int vertex) {
+        long from = longAt(valueOffsets + (long) Long.BYTES * vertex);
+        long to = longAt(valueOffsets + (long) Long.BYTES * (vertex + 1));
+        return codec.decode(bytesAt(values + from, (int) (to - from)));
+    }
+
+    /**
+     * Finds the id of the first vertex containing the given value. The lookup
+     * table is built on the first call of this method, which decodes every value.
+     * @param value the value to be looked up.
+     * @return the id of the vertex, or -1 if no vertex contains the value.
+     */
+    public int indexOf(T value) {
+        Map<T, Integer> _index = index;
+        if (_index == null) {
+            _index = new HashMap<>(size() * 2);
+            for (int v = size() - 1; v >= 0; v--) { _index.put(get(v), v); }
+            index = _index;
+        }
+        Integer id = _index.get(value);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param vertex the id of the vertex.
+     * @return the number of distinct neighbors of the vertex.
+     */
+    public int degree(int vertex) {
+        return offset(vertex + 1) - offset(vertex);
+    }
+
+    /**
+     * Retrieves the position of the first arc of a vertex. The arcs of
+     * vertex v span from offset(v) to offset(v + 1), exclusive.
+     * @param vertex the id of the vertex, or size() to get the total number of arcs.
+     * @return the position of the first arc of the vertex.
+     */
+    public int offset(int vertex) {
+        if (vertex < 0 || vertex > size()) {
+            throw new IndexOutOfBoundsException("The vertex is not part of the graph: " + vertex);
+        }
+        return intAt(offsets + (long) Integer.BYTES * vertex);
+    }
+
+    /**
+     * @param arc the position of the arc.
+     * @return the id of the neighbor the arc leads to.
+     */
+    public int target(int arc) {
+        return intAt(targets + (long) Integer.BYTES * arc);
+    }
+
+    /**
+     * @param arc the position of the arc.
+     * @return the weight of the connection the arc belongs to.
+     */
+    public int weight(int arc) {
+        return intAt(weights + (long) Integer.BYTES * arc);
+    }
+
+    /**
+     * Applies an action to every neighbor of a vertex, in ascending order of ids.
+     * @param vertex the id of the vertex.
+     * @param action the action applied to the id of each neighbor.
+     */
+    public void forEachNeighbor(int vertex, IntConsumer action) {
+        for (int arc = offset(vertex), end = offset(vertex + 1); arc < end; arc++) {
+            action.accept(target(arc));
+        }
+    }
+
+    /**
+     * Checks whether two vertices are adjacent, in O(log(degree)).
+     * @param vertex the id of the first vertex.
+     * @param other the id of the second vertex.
+     * @return true if there is a connection between the two vertices.
+     */
+    public boolean adjacent(int vertex, int other) {
+        int low = offset(vertex);
+        int high = offset(vertex + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int target = target(middle);
+            if (target < other) {
+                low = middle + 1;
+            } else if (target > other) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Traverses to all vertices that can be reached from the starting vertex
+     * using an iterative depth-first algorithm, lower ids being visited first,
+     * in the same order as CompactGraph.traverse(int, IntConsumer).
+     * @param start the id of the starting vertex.
+     * @param action the action applied to the id of each vertex visited.
+     */
+    public void traverse(int start, IntConsumer action) {
+        depthFirstTraversal(start, action, new boolean[size()], new int[16]);
+    }
+
+    private int[] depthFirstTraversal(int start, IntConsumer action, boolean[] visited, int[] stack) {
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int vertex = stack[--top];
+            if (visited[vertex]) { continue; }
+            visited[vertex] = true;
+            action.accept(vertex);
+            int from = offset(vertex);
+            int to = offset(vertex + 1);
+            if (top + to - from > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + to - from));
+            }
+            for (int arc = to - 1; arc >= from; arc--) {
+                int target = target(arc);
+                if (!visited[target]) { stack[top++] = target; }
+            }
+        }
+        return stack;
+    }
+
+    /**
+     * Copies the whole graph to the heap, for the algorithms that run on a
+     * CompactGraph.
+     * @return a CompactGraph with the same vertex ids.
+     */
+    public CompactGraph<T> toCompactGraph() {
+        int arcCount = offset(size());
+        CompactGraph.Builder<T> builder = new CompactGraph.Builder<>(size(), arcCount / 2 + 1);
+        for (int v = 0; v < size(); v++) { builder.addVertex(get(v)); }
+        for (int v = 0; v < size(); v++) {
+            for (int arc = offset(v), end = offset(v + 1); arc < end; arc++) {
+                // each edge is stored once per endpoint, keep the copy of its lower endpoint
+                if (v <= target(arc)) { builder.addEdge(v, target(arc), weight(arc)); }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * A MappedGraph is frozen, so no connection can be attached.
+     * @return false, always.
+     */
+    @Override
+    public boolean addConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    /**
+     * A MappedGraph is frozen, so no connection can be removed.
+     * @return false, always.
+     */
+    @Override
+    public boolean removeConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    @Override
+    public void traverse() {
+        // only the ids are walked, no value is decoded
+        boolean[] visited = new boolean[size()];
+        int[] stack = new int[16];
+        for (int v = 0; v < size(); v++) {
+            if (!visited[v]) { stack = depthFirstTraversal(v, vertex -> { }, visited, stack); }
+        }
+    }
+
+    @Override
+    public void traverse(Consumer<T> action) {
+        boolean[] visited = new boolean[size()];
+        int[] stack = new int[16];
+        for (int v = 0; v < size(); v++) {
+            if (!visited[v]) {
+                stack = depthFirstTraversal(v, vertex -> action.accept(get(vertex)), visited, stack);
+            }
+        }
+    }
+
+    private int intAt(long position) {
+        // sections are 8-byte aligned, so a number never spans two chunks
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getInt((int) (position & CHUNK_MASK));
+    }
+
+    private long longAt(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK));
+    }
+
+    /**
+     * Views a range of the file, without copying unless the range spans two chunks.
+     */
+    private ByteBuffer bytesAt(long position, int length) {
+        int chunk = (int) (position >>> CHUNK_SHIFT);
+        int from = (int) (position & CHUNK_MASK);
+        if (from + (long) length <= chunks[chunk].capacity()) {
+            ByteBuffer view = chunks[chunk].duplicate();
+            view.position(from);
+            view.limit(from + length);
+            return view.slice();
+        }
+        ByteBuffer copy = ByteBuffer.allocate(length);
+        for (int i = 0; i < length; i++) {
+            long at = position + i;
+            copy.put(chunks[(int) (at >>> CHUNK_SHIFT)].get((int) (at & CHUNK_MASK)));
+        }
+        copy.flip();
+        return copy;
+    }
+}
@@ -0,0 +1,75 @@
+package org.grasple.api.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts the values contained by vertices to and from the bytes stored
+ * in a graph file. Codecs for the common value types are provided as
+ * constants.
+ * @see GraphFileWriter
+ * @see MappedGraph
+ * @param <T> the datatype that the vertices contain
+ * @since 1.0
+ * @author Bach Tran
+ */
+public interface VertexCodec<T> {
+    /** Encodes strings in UTF-8. */
+    VertexCodec<String> STRING = new VertexCodec<String>() {
+        @Override
+        public byte[] encode(String value) {
+            if (value == null) { throw new IllegalArgumentException("Cannot encode a null value."); }
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer bytes) {
+            return StandardCharsets.UTF_8.decode(bytes).toString();
+        }
+    };
+
+    /** Encodes integers in 4 big-endian bytes. */
+    VertexCodec<Integer> INTEGER = new VertexCodec<Integer>() {
+        @Override
+        public byte[] encode(Integer value) {
+            if (value == null) { throw new IllegalArgumentException("Cannot encode a null value."); }
+            return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+        }
+
+        @Override
+        public Integer decode(ByteBuffer bytes) {
+            return bytes.getInt(bytes.position());
+        }
+    };
+
+    /** Encodes longs in 8 big-endian bytes. */
+    VertexCodec<Long> LONG = new VertexCodec<Long>() {
+        @Override
+        public byte[] encode(Long value) {
+            if (value == null) { throw new IllegalArgumentException("Cannot encode a null value."); }
+            return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+        }
+
+        @Override
+        public Long decode(ByteBuffer bytes) {
+            return bytes.getLong(bytes.position());
+        }
+    };
+
+    /**
+     * Encodes the value of a vertex.
+     * @param value the value of the vertex.
+     * @return the bytes to be stored in the file.
+     */
+    byte[] encode(T value);
+
+    /**
+     * Decodes the value of a vertex. The buffer is positioned at the first
+     * byte of the value, and its remaining bytes are exactly the bytes
+     * returned by encode(); it may be a view of a memory-mapped file, and
+     * must not be retained after the call.
+     * @param bytes the encoded value.
+     * @return the value of the vertex.
+     */
+    T decode(ByteBuffer bytes);
+}
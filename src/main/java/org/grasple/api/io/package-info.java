@@ -0,0 +1,8 @@
+/**
+ * Reading and writing graphs on disk. Graphs are stored in a binary,
+ * memory-mappable format, so that a large graph can be reopened without
+ * allocating one object per vertex or connection.
+ * @since 1.0
+ * @author Bach Tran
+ */
+package org.grasple.api.io;
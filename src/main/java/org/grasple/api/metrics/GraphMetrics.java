@@ -0,0 +1,49 @@
+package org.grasple.api.metrics;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+
+/**
+ * Holds the MetricsListener that instrumented operations report to.
+ * Instrumentation is turned off by default. Operations read the listener
+ * once when they start, and only read the clock when a listener is
+ * installed, following this pattern:
+ * <pre>
+ *     MetricsListener listener = GraphMetrics.getListener();
+ *     long begin = listener == null ? 0 : System.nanoTime();
+ *     // run the operation
+ *     if (listener != null) { listener.record(operation, System.nanoTime() - begin, vertices, edges); }
+ * </pre>
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class GraphMetrics {
+    private static volatile MetricsListener listener;
+
+    private GraphMetrics() { }
+
+    /**
+     * @return the listener installed, or null if instrumentation is turned off.
+     */
+    public static MetricsListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Installs a listener, replacing the previous one.
+     * @param listener the listener, or null to turn instrumentation off.
+     */
+    public static void setListener(MetricsListener listener) {
+        GraphMetrics.listener = listener;
+    }
+
+    /**
+     * Computes the distribution of the degrees of a graph.
+     * @param graph the graph.
+     * @return a histogram holding the degree of each vertex.
+     */
+    public static Histogram degreeDistribution(CompactGraph<?> graph) {
+        Histogram histogram = new Histogram();
+        for (int v = 0; v < graph.size(); v++) { histogram.record(graph.degree(v)); }
+        return histogram;
+    }
+}
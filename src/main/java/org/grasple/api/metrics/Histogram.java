@@ -0,0 +1,119 @@
+package org.grasple.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A thread-safe histogram of non-negative long values, such as latencies in
+ * nanoseconds, with a fixed memory footprint. Like an HDR histogram, the
+ * buckets are log-linear: values below 128 are counted exactly, and each
+ * larger power of two is split into 64 buckets, so any value is reported
+ * with a relative error below 1/64 over the whole long range.
+ * </p>
+ * <p>
+ * Recording is lock-free; percentiles read while values are being
+ * recorded may miss the most recent ones.
+ * </p>
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class Histogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    /** Values below this bound have a bucket of their own. */
+    private static final int EXACT = 2 * SUB_COUNT;
+    private static final int BUCKETS = EXACT + (63 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.
+     * @param value the value, negative values being recorded as 0.
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        long _max;
+        while (value > (_max = max.get()) && !max.compareAndSet(_max, value)) { }
+    }
+
+    /**
+     * @return the number of values recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the largest value recorded, or 0.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the values recorded, or 0.
+     */
+    public double getMean() {
+        long _count = count.sum();
+        return _count == 0 ? 0 : (double) sum.sum() / _count;
+    }
+
+    /**
+     * Finds the value below which a percentage of the recorded values fall.
+     * @param percentile the percentage, between 0 and 100.
+     * @return the highest value of the bucket holding the percentile, at
+     * most getMax(), or 0 if no value was recorded.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("A percentile must be between 0 and 100.");
+        }
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) { total += snapshot[i] = counts.get(i); }
+        if (total == 0) { return 0; }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if ((seen += snapshot[i]) >= rank) { return Math.min(highestValue(i), getMax()); }
+        }
+        return getMax();
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) { counts.set(i, 0); }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int bucket(long value) {
+        if (value < EXACT) { return (int) value; }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return EXACT + (shift - 1) * SUB_COUNT + (int) (value >>> shift) - SUB_COUNT;
+    }
+
+    static long highestValue(int bucket) {
+        if (bucket < EXACT) { return bucket; }
+        int shift = (bucket - EXACT) / SUB_COUNT + 1;
+        long top = (bucket - EXACT) % SUB_COUNT + SUB_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d", getCount(), getMean(),
+                valueAtPercentile(50), valueAtPercentile(90), valueAtPercentile(99), valueAtPercentile(99.9), getMax());
+    }
+}
@@ -0,0 +1,23 @@
+package org.grasple.api.metrics;
+
+/**
+ * Receives the metrics of graph operations. A listener is called on the
+ * thread that ran the operation, right after it completes, so it must be
+ * thread-safe and fast; MetricsRecorder is a listener that aggregates the
+ * metrics into counters and histograms.
+ * @see GraphMetrics#setListener(MetricsListener)
+ * @since 1.0
+ * @author Bach Tran
+ */
+@FunctionalInterface
+public interface MetricsListener {
+    /**
+     * Records one completed operation.
+     * @param operation the operation.
+     * @param nanos the duration of the operation, in nanoseconds.
+     * @param vertices the number of vertices visited or modified.
+     * @param edges the number of connections examined or modified; a
+     *              traversal examines an undirected connection from both ends.
+     */
+    void record(Operation operation, long nanos, long vertices, long edges);
+}
@@ -0,0 +1,102 @@
+package org.grasple.api.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A MetricsListener that aggregates the metrics of each Operation: the
+ * number of operations, the total number of vertices and edges touched,
+ * and a Histogram of latencies in nanoseconds. A recorder can be shared
+ * by any number of threads.
+ * <pre>
+ *     MetricsRecorder recorder = new MetricsRecorder();
+ *     GraphMetrics.setListener(recorder);
+ *     graph.traverse();
+ *     recorder.getLatencies(Operation.GRAPH_TRAVERSAL).valueAtPercentile(99);
+ * </pre>
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class MetricsRecorder implements MetricsListener {
+    private final Map<Operation, Metrics> metrics = new EnumMap<>(Operation.class);
+
+    /**
+     * Creates a recorder with empty metrics.
+     */
+    public MetricsRecorder() {
+        for (Operation operation : Operation.values()) { metrics.put(operation, new Metrics()); }
+    }
+
+    @Override
+    public void record(Operation operation, long nanos, long vertices, long edges) {
+        Metrics _metrics = metrics.get(operation);
+        _metrics.count.increment();
+        _metrics.vertices.add(vertices);
+        _metrics.edges.add(edges);
+        _metrics.latencies.record(nanos);
+    }
+
+    /**
+     * @param operation the operation.
+     * @return the number of operations recorded.
+     */
+    public long getCount(Operation operation) {
+        return metrics.get(operation).count.sum();
+    }
+
+    /**
+     * @param operation the operation.
+     * @return the total number of vertices visited or modified by the operations.
+     */
+    public long getVertices(Operation operation) {
+        return metrics.get(operation).vertices.sum();
+    }
+
+    /**
+     * @param operation the operation.
+     * @return the total number of edges examined or modified by the operations.
+     */
+    public long getEdges(Operation operation) {
+        return metrics.get(operation).edges.sum();
+    }
+
+    /**
+     * @param operation the operation.
+     * @return the histogram of the latencies of the operations, in nanoseconds.
+     */
+    public Histogram getLatencies(Operation operation) {
+        return metrics.get(operation).latencies;
+    }
+
+    /**
+     * Clears the metrics of every operation.
+     */
+    public void reset() {
+        for (Metrics _metrics : metrics.values()) {
+            _metrics.count.reset();
+            _metrics.vertices.reset();
+            _metrics.edges.reset();
+            _metrics.latencies.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        metrics.forEach((operation, _metrics) -> {
+            if (_metrics.count.sum() == 0) { return; }
+            builder.append(operation).append(": vertices=").append(_metrics.vertices.sum())
+                    .append(" edges=").append(_metrics.edges.sum())
+                    .append(" latency(ns) ").append(_metrics.latencies).append('\n');
+        });
+        return builder.toString();
+    }
+
+    private static final class Metrics {
+        final LongAdder count = new LongAdder();
+        final LongAdder vertices = new LongAdder();
+        final LongAdder edges = new LongAdder();
+        final Histogram latencies = new Histogram();
+    }
+}
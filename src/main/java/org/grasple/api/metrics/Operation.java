@@ -0,0 +1,20 @@
+package org.grasple.api.metrics;
+
+/**
+ * The graph operations that report metrics.
+ * @see MetricsListener
+ * @since 1.0
+ * @author Bach Tran
+ */
+public enum Operation {
+    /** One run of DefaultTraverser, over the vertices reachable from its start. */
+    TRAVERSAL,
+    /** SimpleGraph.traverse(), over every component; each component also reports a TRAVERSAL. */
+    GRAPH_TRAVERSAL,
+    /** SimpleGraph.separateComponents(); each component also reports a TRAVERSAL. */
+    SEPARATE_COMPONENTS,
+    /** Vertex.connect(). */
+    CONNECT,
+    /** Vertex.disconnect(). */
+    DISCONNECT
+}
@@ -0,0 +1,9 @@
+/**
+ * Optional instrumentation of graph operations. Operations report their
+ * latency and the number of vertices and edges they touched to a single,
+ * pluggable MetricsListener; when no listener is installed, the cost of
+ * instrumentation is one volatile read per operation.
+ * @since 1.0
+ * @author Bach Tran
+ */
+package org.grasple.api.metrics;
@@ -0,0 +1,114 @@
+package org.grasple.api.particles;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A Vertex that can be connected and disconnected by several threads at
+ * once. Its connections are kept in a concurrent Map, so reading them
+ * (getNeighbors(), forEachNeighbor(), traversals) never throws a
+ * ConcurrentModificationException, even while writers continue. Unlike
+ * Vertex, the neighbors are not iterated in the order they were connected.
+ * </p>
+ * <p>
+ * connect() and disconnect() modify two vertices. Both operations hold
+ * the locks of the two endpoints, taken from a fixed array of lock stripes
+ * in ascending order, so the two vertices are always modified atomically
+ * and concurrent operations on shared endpoints cannot deadlock.
+ * </p>
+ * @see Vertex
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> type that will not be considered of its comparability.
+ */
+public class ConcurrentVertex<T> extends Vertex<T> {
+    /** The number of lock stripes, a power of two. */
+    private static final int STRIPES = 64;
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) { LOCKS[i] = new ReentrantLock(); }
+    }
+
+    /**
+     * Creates a ConcurrentVertex given only a not-null value.
+     * @param value the value of the vertex
+     */
+    public ConcurrentVertex(T value) {
+        super(value, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Connects this vertex with other vertex, by creating a new, weightless
+     * edge added to both vertices atomically.
+     * @param other the other vertex to be connected to this vertex.
+     * @return an Edge created to connect these two Vertices.
+     */
+    @Override
+    public Connection connect(Connectable<T> other) {
+        int first = stripe(this);
+        int second = stripe(other);
+        lock(first, second);
+        try {
+            return super.connect(other);
+        } finally {
+            unlock(first, second);
+        }
+    }
+
+    /**
+     * Disconnects the specified Vertex with this Vertex. The connections
+     * are removed from both vertices atomically.
+     * @param other the vertex to be disconnected.
+     */
+    @Override
+    public void disconnect(Connectable<T> other) {
+        int first = stripe(this);
+        int second = stripe(other);
+        lock(first, second);
+        try {
+            super.disconnect(other);
+        } finally {
+            unlock(first, second);
+        }
+    }
+
+    /**
+     * Runs an action while holding the locks of two vertices, so that it is
+     * atomic with respect to connect() and disconnect() on either of them.
+     * The locks are reentrant: the action may connect or disconnect the
+     * two vertices itself.
+     * @param vertex one vertex.
+     * @param other the other vertex.
+     * @param action the action to be run.
+     */
+    public static void atomically(Connectable<?> vertex, Connectable<?> other, Runnable action) {
+        int first = stripe(vertex);
+        int second = stripe(other);
+        lock(first, second);
+        try {
+            action.run();
+        } finally {
+            unlock(first, second);
+        }
+    }
+
+    private static int stripe(Object vertex) {
+        int hash = System.identityHashCode(vertex);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Locks two stripes in ascending order, the same stripe only once.
+     */
+    private static void lock(int first, int second) {
+        LOCKS[Math.min(first, second)].lock();
+        if (first != second) { LOCKS[Math.max(first, second)].lock(); }
+    }
+
+    private static void unlock(int first, int second) {
+        if (first != second) { LOCKS[Math.max(first, second)].unlock(); }
+        LOCKS[Math.min(first, second)].unlock();
+    }
+}
@@ -1,6 +1,7 @@
 package org.grasple.api.particles;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 /**
  * Shared properties of objects that can <b>connect</b> to others
@@ -61,6 +62,19 @@ public interface Connectable<T> {
 
     void disconnect(Connectable<T> other);
 
+    /**
+     * Finds the connection of this object to another one. The default
+     * implementation scans the connections in O(degree).
+     * @param other the other connectable object.
+     * @return the connection leading to the other object, or null if there is none.
+     */
+    default UConnection<Connectable<T>> getConnection(Connectable<T> other) {
+        for (UConnection<Connectable<T>> connection : getConnections()) {
+            if (connection.divert(this) == other) { return connection; }
+        }
+        return null;
+    }
+
     /**
      * Finds all connectable objects that is adjacent to this object.
      * This operation thereby drops the information on the connections
@@ -68,4 +82,16 @@ public interface Connectable<T> {
      * @return a Set contains all neighbors of this Connectable object.
      */
     Collection<Connectable<T>> getNeighbors();
+
+    /**
+     * Applies an action to every neighbor of this object, without
+     * collecting them first. A neighbor connected more than once is
+     * visited once per connection.
+     * @param action the action applied to each neighbor.
+     */
+    default void forEachNeighbor(Consumer<? super Connectable<T>> action) {
+        for (UConnection<Connectable<T>> connection : getConnections()) {
+            action.accept(connection.divert(this));
+        }
+    }
 }
@@ -31,6 +31,18 @@ public interface Connection<S, E> {
      */
     int weight();
 
+    /**
+     * Retrieves the [start] component of the binary connection.
+     * @return the start component of the connection.
+     */
+    S getStart();
+
+    /**
+     * Retrieves the [end] component of the binary connection.
+     * @return the end component of the connection.
+     */
+    E getEnd();
+
     /**
      * Sets the [start] component of the binary connection.
      * @param start the start component to be set.
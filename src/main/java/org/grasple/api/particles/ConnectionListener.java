@@ -0,0 +1,22 @@
+package org.grasple.api.particles;
+
+/**
+ * Receives the connections added to or removed from a Vertex. A listener
+ * is called on the thread that modified the vertex, right after the
+ * modification, so it must be fast. When two vertices are connected or
+ * disconnected, each endpoint reports the same connection.
+ * @see Vertex#addListener(ConnectionListener)
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the vertex contains
+ */
+@FunctionalInterface
+public interface ConnectionListener<T> {
+    /**
+     * Records one modification of the connections of a vertex.
+     * @param vertex the vertex modified.
+     * @param connection the connection added or removed.
+     * @param added true if the connection was added, false if it was removed.
+     */
+    void connectionChanged(Connectable<T> vertex, UConnection<Connectable<T>> connection, boolean added);
+}
@@ -0,0 +1,104 @@
+package org.grasple.api.particles;
+
+import java.util.Objects;
+
+/**
+ * Represents a <b>directed</b> edge, which is an ordered pair
+ * (u, v) of vertices: the edge leads from its start to its end.
+ * Unlike an Edge, (u, v) is not equal to (v, u).
+ * @see DirectedVertex
+ * @see Edge
+ * @author Bach Tran
+ * @since 1.0
+ */
+public class DirectedEdge<T> implements UConnection<T> {
+    private int weight;
+    private T start;
+    private T end;
+
+    /**
+     * Creates a zero-weight, directed edge.
+     * @param start the vertex that the edge leads from.
+     * @param end the vertex that the edge leads to.
+     */
+    public DirectedEdge(T start, T end) {
+        this(0, start, end);
+    }
+
+    /**
+     * Creates a directed edge with weight.
+     * @param weight the weight of the edge
+     * @param start the vertex that the edge leads from.
+     * @param end the vertex that the edge leads to.
+     */
+    public DirectedEdge(int weight, T start, T end) {
+        this.weight = weight;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return the weight of the edge.
+     */
+    @Override
+    public int weight() {
+        return weight;
+    }
+
+    /**
+     * Modifies the weight of the edge with a new value.
+     * @param weight the new weight to be modified
+     */
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return the vertex that the edge leads from.
+     */
+    @Override
+    public T getStart() {
+        return start;
+    }
+
+    /**
+     * @return the vertex that the edge leads to.
+     */
+    @Override
+    public T getEnd() {
+        return end;
+    }
+
+    @Override
+    public void setStart(T start) {
+        this.start = start;
+    }
+
+    @Override
+    public void setEnd(T end) {
+        this.end = end;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DirectedEdge edge = (DirectedEdge) o;
+        return Objects.equals(start, edge.start) && Objects.equals(end, edge.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 + Objects.hashCode(start)) + Objects.hashCode(end);
+    }
+
+    /**
+     * Finds the other endpoint of the edge, regardless of its direction.
+     * @param endpoint one endpoint of the edge.
+     * @return the end if the endpoint is the start, the start otherwise.
+     */
+    @Override
+    public T divert(T endpoint) {
+        return endpoint == start ? end : start;
+    }
+}
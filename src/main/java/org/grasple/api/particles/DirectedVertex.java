@@ -0,0 +1,223 @@
+package org.grasple.api.particles;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A vertex of a directed graph. A DirectedVertex keeps its outgoing and
+ * incoming connections apart, each indexed by the vertex at their other
+ * end: expanding the successors of a vertex costs O(out-degree), expanding
+ * its predecessors costs O(in-degree), and checking a connection costs O(1).
+ * There is at most one connection from a vertex to another. Successors
+ * and predecessors are iterated in the order they were connected, so
+ * traversals of the same graph are reproducible.
+ * </p>
+ * <p>
+ * The methods inherited from Connectable follow the direction of the
+ * connections: getConnections(), getNeighbors(), forEachNeighbor() and
+ * adjacent() only consider outgoing connections, so any traversal written
+ * against Connectable walks the graph forward. The incoming side is
+ * available through getIncomingConnections(), getPredecessors() and
+ * forEachPredecessor().
+ * </p>
+ * @see DirectedEdge
+ * @author Bach Tran
+ * @since 1.0
+ * @param <T> the datatype that the vertex contains
+ */
+public class DirectedVertex<T> implements Connectable<T> {
+    private T value;
+    private final Map<Connectable<T>, UConnection<Connectable<T>>> outgoing = new LinkedHashMap<>();
+    private final Map<Connectable<T>, UConnection<Connectable<T>>> incoming = new LinkedHashMap<>();
+
+    /**
+     * Creates a DirectedVertex given only a not-null value.
+     * @param value the value of the vertex
+     */
+    public DirectedVertex(T value) {
+        setValue(value);
+    }
+
+    @Override
+    public T get() {
+        return value;
+    }
+
+    /**
+     * Modifies the value of this vertex. The new value must not be null.
+     * @param value the new, not-null value.
+     */
+    public void setValue(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value of this Vertex cannot be null.");
+        }
+        this.value = value;
+    }
+
+    /**
+     * Checks whether a connection leads from this vertex to the other, in O(1).
+     * @param other the other connectable object to be checked for adjacency
+     * @return true if this vertex has a connection to the other.
+     */
+    @Override
+    public boolean adjacent(Connectable<T> other) {
+        return outgoing.containsKey(other);
+    }
+
+    /**
+     * @return the outgoing connections of this vertex, as an unmodifiable view.
+     */
+    @Override
+    public Collection<UConnection<Connectable<T>>> getConnections() {
+        return Collections.unmodifiableCollection(outgoing.values());
+    }
+
+    /**
+     * Finds the connection leading from this vertex to the other, in O(1).
+     * @param other the other connectable object.
+     * @return the outgoing connection to the other, or null if there is none.
+     */
+    @Override
+    public UConnection<Connectable<T>> getConnection(Connectable<T> other) {
+        return outgoing.get(other);
+    }
+
+    /**
+     * @return the incoming connections of this vertex, as an unmodifiable view.
+     */
+    public Collection<UConnection<Connectable<T>>> getIncomingConnections() {
+        return Collections.unmodifiableCollection(incoming.values());
+    }
+
+    /**
+     * Attaches a connection to this vertex, as an outgoing connection if it
+     * starts at this vertex, and as an incoming connection if it ends at this
+     * vertex. A connection replaces any connection between the same endpoints
+     * in the same direction.
+     * @param connection the connection to be added
+     * @return true if the connection was not attached to this vertex.
+     */
+    @Override
+    public boolean addConnection(UConnection<Connectable<T>> connection) {
+        boolean added = false;
+        if (connection.getStart() == this) {
+            added = outgoing.put(connection.getEnd(), connection) != connection;
+        }
+        if (connection.getEnd() == this) {
+            added |= incoming.put(connection.getStart(), connection) != connection;
+        }
+        return added;
+    }
+
+    @Override
+    public boolean removeConnection(UConnection<Connectable<T>> connection) {
+        boolean removed = false;
+        if (connection.getStart() == this) {
+            removed = outgoing.remove(connection.getEnd(), connection);
+        }
+        if (connection.getEnd() == this) {
+            removed |= incoming.remove(connection.getStart(), connection);
+        }
+        return removed;
+    }
+
+    /**
+     * Connects this vertex to another vertex with a zero-weight DirectedEdge,
+     * see connect(Connectable, int).
+     * @param other the vertex the connection leads to.
+     * @return the connection from this vertex to the other.
+     */
+    @Override
+    public Connection connect(Connectable<T> other) {
+        return connect(other, 0);
+    }
+
+    /**
+     * Connects this vertex to another vertex with a DirectedEdge, which is
+     * added to the outgoing connections of this vertex and to the incoming
+     * connections of the other. If the two vertices are already connected
+     * in this direction, the existing connection is kept and returned.
+     * @param other the vertex the connection leads to.
+     * @param weight the weight of the connection.
+     * @return the connection from this vertex to the other.
+     */
+    public Connection connect(Connectable<T> other, int weight) {
+        UConnection<Connectable<T>> existing = outgoing.get(other);
+        if (existing != null) { return existing; }
+        UConnection<Connectable<T>> connection = new DirectedEdge<>(weight, this, other);
+        addConnection(connection);
+        if (other != this) { other.addConnection(connection); }
+        return connection;
+    }
+
+    /**
+     * Removes the connection from this vertex to the other vertex, if any.
+     * A connection in the opposite direction is kept.
+     * @param other the vertex the connection leads to.
+     */
+    @Override
+    public void disconnect(Connectable<T> other) {
+        UConnection<Connectable<T>> connection = outgoing.get(other);
+        if (connection == null) { return; }
+        removeConnection(connection);
+        if (other != this) { other.removeConnection(connection); }
+    }
+
+    /**
+     * @return the vertices that this vertex has a connection to.
+     */
+    @Override
+    public Collection<Connectable<T>> getNeighbors() {
+        return getSuccessors();
+    }
+
+    /**
+     * @return the vertices that this vertex has a connection to, as an unmodifiable view.
+     */
+    public Set<Connectable<T>> getSuccessors() {
+        return Collections.unmodifiableSet(outgoing.keySet());
+    }
+
+    /**
+     * @return the vertices that have a connection to this vertex, as an unmodifiable view.
+     */
+    public Set<Connectable<T>> getPredecessors() {
+        return Collections.unmodifiableSet(incoming.keySet());
+    }
+
+    /**
+     * Applies an action to every successor of this vertex.
+     * @param action the action applied to each successor.
+     */
+    @Override
+    public void forEachNeighbor(Consumer<? super Connectable<T>> action) {
+        for (Connectable<T> successor : outgoing.keySet()) { action.accept(successor); }
+    }
+
+    /**
+     * Applies an action to every predecessor of this vertex.
+     * @param action the action applied to each predecessor.
+     */
+    public void forEachPredecessor(Consumer<? super Connectable<T>> action) {
+        for (Connectable<T> predecessor : incoming.keySet()) { action.accept(predecessor); }
+    }
+
+    /**
+     * @return the number of connections leading from this vertex.
+     */
+    public int outDegree() {
+        return outgoing.size();
+    }
+
+    /**
+     * @return the number of connections leading to this vertex.
+     */
+    public int inDegree() {
+        return incoming.size();
+    }
+}
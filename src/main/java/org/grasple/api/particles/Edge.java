@@ -58,6 +58,7 @@ public class Edge<T> implements UConnection<T> {
     /**
      * @return one of the endpoints of the edge.
      */
+    @Override
     public T getStart() {
         return start;
     }
@@ -65,6 +66,7 @@ public class Edge<T> implements UConnection<T> {
     /**
      * @return one of the endpoints of the edge.
      */
+    @Override
     public T getEnd() {
         return end;
     }
@@ -88,9 +90,17 @@ public class Edge<T> implements UConnection<T> {
                 (start.equals(edge.end) && end.equals(edge.start));
     }
 
+    /**
+     * Combines the hash codes of the endpoints independently of their
+     * order, so that (u, v) and (v, u), which are equal, land in the same
+     * bucket of a hash table.
+     * @return the hash code of the edge.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(start, end);
+        int first = Objects.hashCode(start);
+        int second = Objects.hashCode(end);
+        return 31 * Math.min(first, second) + Math.max(first, second);
     }
 
     @Override
@@ -0,0 +1,94 @@
+package org.grasple.api.particles;
+
+import org.grasple.api.utils.IntHashSet;
+
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * A vertex identified by a primitive int id. Unlike Vertex, it keeps
+ * neither a boxed value nor Edge objects: its neighbors are stored as ids
+ * in a primitive, open-addressing IntHashSet. Connections are undirected
+ * and weightless, and a vertex connects at most once to another vertex.
+ * </p>
+ * <p>
+ * Since neighbors are stored as ids, a IntVertex is meant to be used
+ * through a IntGraph, which resolves ids back to vertices.
+ * </p>
+ * @see Vertex
+ * @see IntHashSet
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class IntVertex {
+    private final int id;
+    private final IntHashSet neighbors = new IntHashSet(4);
+
+    /**
+     * Creates a vertex without neighbors.
+     * @param id the id of the vertex.
+     */
+    public IntVertex(int id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the id of the vertex.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Connects this vertex with another vertex, both ways.
+     * @param other the other vertex.
+     * @return true if the two vertices were not connected before.
+     */
+    public boolean connect(IntVertex other) {
+        boolean changed = neighbors.add(other.id);
+        other.neighbors.add(id);
+        return changed;
+    }
+
+    /**
+     * Disconnects this vertex from another vertex, both ways.
+     * @param other the other vertex.
+     * @return true if the two vertices were connected before.
+     */
+    public boolean disconnect(IntVertex other) {
+        boolean changed = neighbors.remove(other.id);
+        other.neighbors.remove(id);
+        return changed;
+    }
+
+    /**
+     * Checks the adjacency in O(1).
+     * @param other the id of the other vertex.
+     * @return true if the two vertices are connected.
+     */
+    public boolean adjacent(int other) {
+        return neighbors.contains(other);
+    }
+
+    /**
+     * @return the number of neighbors of this vertex.
+     */
+    public int degree() {
+        return neighbors.size();
+    }
+
+    /**
+     * Applies an action to the id of every neighbor of this vertex.
+     * @param action the action applied to each neighbor.
+     */
+    public void forEachNeighbor(IntConsumer action) {
+        neighbors.forEach(action);
+    }
+
+    /**
+     * @return a new array that contains the ids of the neighbors.
+     */
+    public int[] getNeighbors() {
+        return neighbors.toArray();
+    }
+}
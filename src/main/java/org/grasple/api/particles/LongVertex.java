@@ -0,0 +1,94 @@
+package org.grasple.api.particles;
+
+import org.grasple.api.utils.LongHashSet;
+
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * A vertex identified by a primitive long id. Unlike Vertex, it keeps
+ * neither a boxed value nor Edge objects: its neighbors are stored as ids
+ * in a primitive, open-addressing LongHashSet. Connections are undirected
+ * and weightless, and a vertex connects at most once to another vertex.
+ * </p>
+ * <p>
+ * Since neighbors are stored as ids, a LongVertex is meant to be used
+ * through a LongGraph, which resolves ids back to vertices.
+ * </p>
+ * @see Vertex
+ * @see LongHashSet
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class LongVertex {
+    private final long id;
+    private final LongHashSet neighbors = new LongHashSet(4);
+
+    /**
+     * Creates a vertex without neighbors.
+     * @param id the id of the vertex.
+     */
+    public LongVertex(long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the id of the vertex.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Connects this vertex with another vertex, both ways.
+     * @param other the other vertex.
+     * @return true if the two vertices were not connected before.
+     */
+    public boolean connect(LongVertex other) {
+        boolean changed = neighbors.add(other.id);
+        other.neighbors.add(id);
+        return changed;
+    }
+
+    /**
+     * Disconnects this vertex from another vertex, both ways.
+     * @param other the other vertex.
+     * @return true if the two vertices were connected before.
+     */
+    public boolean disconnect(LongVertex other) {
+        boolean changed = neighbors.remove(other.id);
+        other.neighbors.remove(id);
+        return changed;
+    }
+
+    /**
+     * Checks the adjacency in O(1).
+     * @param other the id of the other vertex.
+     * @return true if the two vertices are connected.
+     */
+    public boolean adjacent(long other) {
+        return neighbors.contains(other);
+    }
+
+    /**
+     * @return the number of neighbors of this vertex.
+     */
+    public int degree() {
+        return neighbors.size();
+    }
+
+    /**
+     * Applies an action to the id of every neighbor of this vertex.
+     * @param action the action applied to each neighbor.
+     */
+    public void forEachNeighbor(LongConsumer action) {
+        neighbors.forEach(action);
+    }
+
+    /**
+     * @return a new array that contains the ids of the neighbors.
+     */
+    public long[] getNeighbors() {
+        return neighbors.toArray();
+    }
+}
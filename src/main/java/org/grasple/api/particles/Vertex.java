@@ -1,16 +1,34 @@
 package org.grasple.api.particles;
 
+import org.grasple.api.metrics.GraphMetrics;
+import org.grasple.api.metrics.MetricsListener;
+import org.grasple.api.metrics.Operation;
+
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * <p>
  * Represents a Vertex in graph theory. Objects of this class are
  * non-comparable; therefore, this object is conventionally named
  * <b>unordered-</b>vertex. An unordered-vertex has a Set of
- * neighbors. Therefore will be randomized during traversals.
+ * neighbors, iterated in the order in which they were connected, so
+ * traversals of the same graph are reproducible.
+ * </p>
+ * <p>
+ * The connections are indexed by the neighbor they lead to, hence a
+ * vertex holds at most one connection to each neighbor, and adjacent(),
+ * addConnection(), removeConnection() and disconnect() run in O(1).
+ * </p>
+ * <p>
+ * The connections added and removed through these methods are reported
+ * to the ConnectionListener objects of the vertex, which lets a graph
+ * follow the modifications made directly on its vertices. Removals through
+ * the view returned by getConnections() are not reported.
  * </p>
  * @author Bach Tran
  * @since 1.0
@@ -18,43 +36,143 @@ import java.util.stream.Collectors;
  */
 public class Vertex<T> implements Connectable<T> {
     private T value;
-    /** The set of edges that this vertex has. Currently initialized to be an empty HashSet.*/
-    private Set<UConnection<Connectable<T>>> connections = new HashSet<>();
+    /** The edges that this vertex has, by neighbor. Initialized to be an empty LinkedHashMap by default.*/
+    private final Map<Connectable<T>, UConnection<Connectable<T>>> connections;
+    /** The listeners of the connections: null, a single ConnectionListener, or an array of them. */
+    private volatile Object listeners;
 
     /**
      * Creates a Vertex given only a not-null value.
      * @param value the value of the vertex
      */
     public Vertex(T value) {
+        this(value, new LinkedHashMap<>());
+    }
+
+    /**
+     * Creates a Vertex whose connections are kept in the given Map,
+     * allowing subclasses to choose the Map implementation.
+     * @param value the value of the vertex
+     * @param connections an empty Map that will hold the connections of the vertex, by neighbor
+     */
+    protected Vertex(T value, Map<Connectable<T>, UConnection<Connectable<T>>> connections) {
         if (value == null) {
             throw new IllegalArgumentException("The value of this Vertex cannot be null.");
         }
         this.value = value;
+        this.connections = connections;
     }
+
+    /**
+     * Adds a Connection to this Vertex, unless the Vertex already has a
+     * connection to the same neighbor.
+     * @param connection the connection to be added
+     * @return true if the Vertex had no connection to the neighbor.
+     */
     @Override
     public boolean addConnection(UConnection<Connectable<T>> connection) {
-        return connections.add(connection);
+        if (connections.putIfAbsent(connection.divert(this), connection) != null) { return false; }
+        report(connection, true);
+        return true;
     }
 
     /**
-     * Removes a specified Connection from this Vertex. <br/>
-     * <b>Warning:</b> this method uses the .remove() method of the Set interface, such methods
+     * Removes a specified Connection from this Vertex, in O(1). <br/>
+     * <b>Warning:</b> this method uses the .remove() method of the Map interface, such methods
      * are not thread-safe.
      * @param connection the connection to be removed
      * @return true if the specified connection exists in the Vertex's list of connections.
-     * @see Set
+     * @see Map
      */
     @Override
     public boolean removeConnection(UConnection<Connectable<T>> connection) {
-        return connections.remove(connection);
+        if (!connections.remove(connection.divert(this), connection)) { return false; }
+        report(connection, false);
+        return true;
+    }
+
+    /**
+     * Registers a listener of the connections added to and removed from
+     * this Vertex. A single listener is held without any allocation, so a
+     * graph can listen to all its vertices cheaply.
+     * @param listener the listener.
+     * @return true if the listener was not registered yet.
+     */
+    public synchronized boolean addListener(ConnectionListener<T> listener) {
+        Object _listeners = listeners;
+        if (_listeners == null) {
+            listeners = listener;
+        } else if (_listeners == listener) {
+            return false;
+        } else if (_listeners instanceof ConnectionListener) {
+            listeners = new Object[] {_listeners, listener};
+        } else {
+            Object[] array = (Object[]) _listeners;
+            for (Object registered : array) {
+                if (registered == listener) { return false; }
+            }
+            array = Arrays.copyOf(array, array.length + 1);
+            array[array.length - 1] = listener;
+            listeners = array;
+        }
+        return true;
     }
 
+    /**
+     * Unregisters a listener of the connections of this Vertex.
+     * @param listener the listener.
+     * @return true if the listener was registered.
+     */
+    public synchronized boolean removeListener(ConnectionListener<T> listener) {
+        Object _listeners = listeners;
+        if (_listeners == listener) {
+            listeners = null;
+            return true;
+        }
+        if (!(_listeners instanceof Object[])) { return false; }
+        Object[] array = (Object[]) _listeners;
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != listener) { continue; }
+            if (array.length == 2) {
+                listeners = array[1 - i];
+            } else {
+                Object[] _array = new Object[array.length - 1];
+                System.arraycopy(array, 0, _array, 0, i);
+                System.arraycopy(array, i + 1, _array, i, _array.length - i);
+                listeners = _array;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void report(UConnection<Connectable<T>> connection, boolean added) {
+        Object _listeners = listeners;
+        if (_listeners == null) { return; }
+        if (_listeners instanceof ConnectionListener) {
+            ((ConnectionListener<T>) _listeners).connectionChanged(this, connection, added);
+            return;
+        }
+        for (Object listener : (Object[]) _listeners) {
+            ((ConnectionListener<T>) listener).connectionChanged(this, connection, added);
+        }
+    }
+
+    /**
+     * Collects the neighbors of this Vertex, in the order they were connected.
+     * @return a new Set of the neighbors, which can be modified freely.
+     */
     @Override
     public Collection<Connectable<T>> getNeighbors() {
-        return connections
-                .stream()
-                .map(connection -> connection.divert(this))
-                .collect(Collectors.toSet());
+        return new LinkedHashSet<>(connections.keySet());
+    }
+
+    @Override
+    public void forEachNeighbor(Consumer<? super Connectable<T>> action) {
+        for (Connectable<T> neighbor : connections.keySet()) {
+            action.accept(neighbor);
+        }
     }
 
     @Override
@@ -62,18 +180,34 @@ public class Vertex<T> implements Connectable<T> {
         return value;
     }
 
+    /**
+     * Checks the adjacency in O(1), without collecting the neighbors.
+     * @param other the other connectable object to be checked for adjacency
+     * @return true if the two connectable objects are adjacent.
+     */
     @Override
     public boolean adjacent(Connectable<T> other) {
-        return getNeighbors().contains(other);
+        return connections.containsKey(other);
     }
 
     /**
-     * Gets all Connection of this Vertex.
-     * @return a Set of all BinaryConnections associated with this Vertex
+     * Gets all Connection of this Vertex. The Collection is a view, it
+     * supports removals but not additions.
+     * @return a Collection of all BinaryConnections associated with this Vertex
      */
     @Override
     public Collection<UConnection<Connectable<T>>> getConnections() {
-        return connections;
+        return connections.values();
+    }
+
+    /**
+     * Finds the connection of this Vertex to a neighbor, in O(1).
+     * @param other the neighbor.
+     * @return the connection to the neighbor, or null if the two are not adjacent.
+     */
+    @Override
+    public UConnection<Connectable<T>> getConnection(Connectable<T> other) {
+        return connections.get(other);
     }
 
     /**
@@ -94,26 +228,42 @@ public class Vertex<T> implements Connectable<T> {
      * <b>Note:</b> the edge created will be added to both
      * this vertex, and the other vertex it connects to.
      * @param other the other vertex to be connected to this vertex.
-     * @return an Edge created to connect these two Vertices.
+     * @return an Edge created to connect these two Vertices, or the
+     * existing connection if they are already adjacent.
      */
     @Override
     public Connection connect(Connectable<T> other) {
-        UConnection<Connectable<T>> connection = new Edge<>(this, other);
-        this.addConnection(connection);
-        if (this != other) { other.addConnection(connection); }
+        MetricsListener listener = GraphMetrics.getListener();
+        long begin = listener == null ? 0 : System.nanoTime();
+        UConnection<Connectable<T>> connection = connections.get(other);
+        boolean created = connection == null;
+        if (created) {
+            connection = new Edge<>(this, other);
+            this.addConnection(connection);
+            if (this != other) { other.addConnection(connection); }
+        }
+        if (listener != null) {
+            listener.record(Operation.CONNECT, System.nanoTime() - begin, 2, created ? 1 : 0);
+        }
         return connection;
     }
 
     /**
-     * Disconnects the specified Vertex with this Vertex.
-     * All Connection between these two Vertices will be lost after the operation.
-     * This method uses the removeIf() method from the Collection interface, which is
-     * thread-safe.
-     * @see java.util.Collection
+     * Disconnects the specified Vertex with this Vertex, in O(1).
+     * The Connection between these two Vertices will be lost after the operation.
      * @param other the vertex to be disconnected.
      */
     public void disconnect(Connectable<T> other) {
-        this.getConnections().removeIf(connection -> connection.divert(this) == other);
-        other.getConnections().removeIf(connection -> connection.divert(other) == this);
+        MetricsListener listener = GraphMetrics.getListener();
+        long begin = listener == null ? 0 : System.nanoTime();
+        UConnection<Connectable<T>> connection = connections.remove(other);
+        boolean removed = connection != null;
+        if (removed) {
+            report(connection, false);
+            if (this != other) { other.removeConnection(connection); }
+        }
+        if (listener != null) {
+            listener.record(Operation.DISCONNECT, System.nanoTime() - begin, 2, removed ? 1 : 0);
+        }
     }
 }
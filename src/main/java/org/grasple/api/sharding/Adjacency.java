@@ -0,0 +1,73 @@
+package org.grasple.api.sharding;
+
+import org.grasple.api.io.MappedGraph;
+import org.grasple.api.structures.graphs.CompactGraph;
+
+/**
+ * The CSR view of a graph that the partitioner and the shards read, so
+ * that they work the same on a CompactGraph on the heap and on a
+ * MappedGraph left in its file.
+ * @see Partitioner
+ * @see GraphShard
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+interface Adjacency<T> {
+    int size();
+
+    /** The first arc of a vertex; offset(size()) is the number of arcs. */
+    int offset(int vertex);
+
+    int target(int arc);
+
+    T get(int vertex);
+
+    static <T> Adjacency<T> of(CompactGraph<T> graph) {
+        return new Adjacency<T>() {
+            @Override
+            public int size() {
+                return graph.size();
+            }
+
+            @Override
+            public int offset(int vertex) {
+                return graph.offset(vertex);
+            }
+
+            @Override
+            public int target(int arc) {
+                return graph.target(arc);
+            }
+
+            @Override
+            public T get(int vertex) {
+                return graph.get(vertex);
+            }
+        };
+    }
+
+    static <T> Adjacency<T> of(MappedGraph<T> graph) {
+        return new Adjacency<T>() {
+            @Override
+            public int size() {
+                return graph.size();
+            }
+
+            @Override
+            public int offset(int vertex) {
+                return graph.offset(vertex);
+            }
+
+            @Override
+            public int target(int arc) {
+                return graph.target(arc);
+            }
+
+            @Override
+            public T get(int vertex) {
+                return graph.get(vertex);
+            }
+        };
+    }
+}
@@ -0,0 +1,261 @@
+package org.grasple.api.sharding;
+
+import org.grasple.api.io.MappedGraph;
+import org.grasple.api.structures.graphs.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * The part of a graph held by one shard: the vertices assigned to the
+ * shard, with their values and all of their connections. Vertices are
+ * identified by their global ids, the ids of the partitioned CompactGraph.
+ * </p>
+ * <p>
+ * The neighbors owned by other shards are the <b>ghost</b> vertices of
+ * the shard: only their ids and owners are known, which is enough to
+ * forward a traversal to them. Internally, the arcs to local vertices
+ * hold local indices and the arcs to ghosts hold negative ghost indices,
+ * so a traversal never looks up an id to know where a neighbor lives.
+ * </p>
+ * <p>
+ * When the graph does not fit in one heap, write it to a file with
+ * GraphFileWriter, and let each process open it as a MappedGraph,
+ * partition it, and build only its own shard with build(): the rest of
+ * the graph is read from the file but never copied to the heap.
+ * </p>
+ * @see Partition
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class GraphShard<T> {
+    private final int id;
+    /** The global ids of the local vertices, ascending. */
+    private final int[] globals;
+    private final Object[] values;
+    private final int[] offsets;
+    /** The local index of each neighbor, or -(ghost index + 1) for a ghost. */
+    private final int[] targets;
+    /** The global ids of the ghosts, ascending. */
+    private final int[] ghosts;
+    private final int[] ghostOwners;
+
+    private GraphShard(int id, int[] globals, Object[] values, int[] offsets, int[] targets,
+                       int[] ghosts, int[] ghostOwners) {
+        this.id = id;
+        this.globals = globals;
+        this.values = values;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.ghosts = ghosts;
+        this.ghostOwners = ghostOwners;
+    }
+
+    /**
+     * Splits a graph into the shards of a partition.
+     * @param graph the graph.
+     * @param partition the partition of the graph.
+     * @param <T> the datatype that the graph contains
+     * @return the shards, by shard number.
+     */
+    public static <T> List<GraphShard<T>> split(CompactGraph<T> graph, Partition partition) {
+        return split(Adjacency.of(graph), partition);
+    }
+
+    /**
+     * Splits a graph that stays in its file into the shards of a partition.
+     * @param graph the graph.
+     * @param partition the partition of the graph.
+     * @param <T> the datatype that the graph contains
+     * @return the shards, by shard number.
+     */
+    public static <T> List<GraphShard<T>> split(MappedGraph<T> graph, Partition partition) {
+        return split(Adjacency.of(graph), partition);
+    }
+
+    /**
+     * Builds a single shard of a partition.
+     * @param graph the graph.
+     * @param partition the partition of the graph.
+     * @param shard the number of the shard.
+     * @param <T> the datatype that the graph contains
+     * @return the shard.
+     */
+    public static <T> GraphShard<T> build(CompactGraph<T> graph, Partition partition, int shard) {
+        return build(Adjacency.of(graph), partition, shard);
+    }
+
+    /**
+     * Builds a single shard of a partition from a graph that stays in its
+     * file, so that the heap only holds the vertices and the arcs of the
+     * shard.
+     * @param graph the graph.
+     * @param partition the partition of the graph.
+     * @param shard the number of the shard.
+     * @param <T> the datatype that the graph contains
+     * @return the shard.
+     */
+    public static <T> GraphShard<T> build(MappedGraph<T> graph, Partition partition, int shard) {
+        return build(Adjacency.of(graph), partition, shard);
+    }
+
+    private static <T> List<GraphShard<T>> split(Adjacency<T> graph, Partition partition) {
+        List<GraphShard<T>> shards = new ArrayList<>(partition.shardCount());
+        for (int shard = 0; shard < partition.shardCount(); shard++) { shards.add(build(graph, partition, shard)); }
+        return shards;
+    }
+
+    private static <T> GraphShard<T> build(Adjacency<T> graph, Partition partition, int shard) {
+        if (partition.size() != graph.size()) {
+            throw new IllegalArgumentException("The partition does not belong to the graph.");
+        }
+        if (shard < 0 || shard >= partition.shardCount()) {
+            throw new IllegalArgumentException("The shard " + shard + " is not part of the partition.");
+        }
+        int[] globals = new int[partition.size(shard)];
+        int count = 0;
+        for (int v = 0; v < graph.size(); v++) {
+            if (partition.shardOf(v) == shard) { globals[count++] = v; }
+        }
+        Object[] values = new Object[globals.length];
+        int[] offsets = new int[globals.length + 1];
+        int ghostCount = 0;
+        int[] ghostIds = new int[16];
+        for (int local = 0; local < globals.length; local++) {
+            int v = globals[local];
+            values[local] = graph.get(v);
+            offsets[local + 1] = offsets[local] + graph.offset(v + 1) - graph.offset(v);
+            for (int arc = graph.offset(v), end = graph.offset(v + 1); arc < end; arc++) {
+                if (partition.shardOf(graph.target(arc)) == shard) { continue; }
+                if (ghostCount == ghostIds.length) { ghostIds = Arrays.copyOf(ghostIds, ghostCount * 2); }
+                ghostIds[ghostCount++] = graph.target(arc);
+            }
+        }
+        Arrays.sort(ghostIds, 0, ghostCount);
+        int distinct = 0;
+        for (int i = 0; i < ghostCount; i++) {
+            if (distinct == 0 || ghostIds[distinct - 1] != ghostIds[i]) { ghostIds[distinct++] = ghostIds[i]; }
+        }
+        int[] ghosts = Arrays.copyOf(ghostIds, distinct);
+        int[] ghostOwners = new int[distinct];
+        for (int g = 0; g < distinct; g++) { ghostOwners[g] = partition.shardOf(ghosts[g]); }
+        int[] targets = new int[offsets[globals.length]];
+        for (int local = 0, written = 0; local < globals.length; local++) {
+            int v = globals[local];
+            for (int arc = graph.offset(v), end = graph.offset(v + 1); arc < end; arc++) {
+                int target = graph.target(arc);
+                targets[written++] = partition.shardOf(target) == shard
+                        ? Arrays.binarySearch(globals, target)
+                        : -(Arrays.binarySearch(ghosts, target) + 1);
+            }
+        }
+        return new GraphShard<>(shard, globals, values, offsets, targets, ghosts, ghostOwners);
+    }
+
+    /**
+     * @return the number of this shard.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the number of vertices owned by this shard.
+     */
+    public int size() {
+        return globals.length;
+    }
+
+    /**
+     * @return the number of ghost vertices, owned by other shards and adjacent to this shard.
+     */
+    public int ghostCount() {
+        return ghosts.length;
+    }
+
+    /**
+     * @param global the global id of a vertex.
+     * @return true if this shard owns the vertex.
+     */
+    public boolean owns(int global) {
+        return Arrays.binarySearch(globals, global) >= 0;
+    }
+
+    /**
+     * @param global the global id of a vertex.
+     * @return the shard that owns the vertex, if it is owned by this shard
+     * or is one of its ghosts; -1 otherwise.
+     */
+    public int ownerOf(int global) {
+        if (owns(global)) { return id; }
+        int ghost = Arrays.binarySearch(ghosts, global);
+        return ghost >= 0 ? ghostOwners[ghost] : -1;
+    }
+
+    /**
+     * @param global the global id of a vertex owned by this shard.
+     * @return the value of the vertex.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int global) {
+        return (T) values[localIndex(global)];
+    }
+
+    /**
+     * @param global the global id of a vertex owned by this shard.
+     * @return the number of neighbors of the vertex, local or ghost.
+     */
+    public int degree(int global) {
+        int local = localIndex(global);
+        return offsets[local + 1] - offsets[local];
+    }
+
+    /**
+     * Applies an action to every neighbor of a vertex, local or ghost.
+     * @param global the global id of a vertex owned by this shard.
+     * @param action the action applied to the global id of each neighbor.
+     */
+    public void forEachNeighbor(int global, IntConsumer action) {
+        int local = localIndex(global);
+        for (int arc = offsets[local], end = offsets[local + 1]; arc < end; arc++) {
+            action.accept(targets[arc] >= 0 ? globals[targets[arc]] : ghosts[-targets[arc] - 1]);
+        }
+    }
+
+    /**
+     * @param global the global id of a vertex.
+     * @return the local index of the vertex.
+     * @throws IllegalArgumentException if this shard does not own the vertex.
+     */
+    int localIndex(int global) {
+        int local = Arrays.binarySearch(globals, global);
+        if (local < 0) {
+            throw new IllegalArgumentException("The vertex " + global + " is not owned by the shard " + id + ".");
+        }
+        return local;
+    }
+
+    int globalId(int local) {
+        return globals[local];
+    }
+
+    int offset(int local) {
+        return offsets[local];
+    }
+
+    int target(int arc) {
+        return targets[arc];
+    }
+
+    int ghost(int index) {
+        return ghosts[index];
+    }
+
+    int ghostOwner(int index) {
+        return ghostOwners[index];
+    }
+}
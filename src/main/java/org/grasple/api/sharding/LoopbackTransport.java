@@ -0,0 +1,81 @@
+package org.grasple.api.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ShardTransport between shards of the same process. Messages are passed
+ * by reference: they are queued by send(), and moved to the inbox of their
+ * target by flush(). The transport counts the messages and vertices sent,
+ * which measures the communication a distributed run would need.
+ * @see ShardTransport
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class LoopbackTransport implements ShardTransport {
+    private final List<ConcurrentLinkedQueue<ShardMessage>> outboxes = new ArrayList<>();
+    private final List<ConcurrentLinkedQueue<ShardMessage>> inboxes = new ArrayList<>();
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong vertices = new AtomicLong();
+
+    /**
+     * Creates a transport between shards.
+     * @param shardCount the number of shards.
+     */
+    public LoopbackTransport(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The number of shards must be positive.");
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            outboxes.add(new ConcurrentLinkedQueue<>());
+            inboxes.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    @Override
+    public int shardCount() {
+        return outboxes.size();
+    }
+
+    @Override
+    public void send(ShardMessage message) {
+        if (message.getTarget() < 0 || message.getTarget() >= outboxes.size()) {
+            throw new IllegalArgumentException("There is no shard " + message.getTarget() + ".");
+        }
+        outboxes.get(message.getTarget()).add(message);
+        messages.incrementAndGet();
+        vertices.addAndGet(message.size());
+    }
+
+    @Override
+    public void flush() {
+        for (int shard = 0; shard < outboxes.size(); shard++) {
+            for (ShardMessage message; (message = outboxes.get(shard).poll()) != null; ) {
+                inboxes.get(shard).add(message);
+            }
+        }
+    }
+
+    @Override
+    public List<ShardMessage> receive(int shard) {
+        List<ShardMessage> received = new ArrayList<>();
+        for (ShardMessage message; (message = inboxes.get(shard).poll()) != null; ) { received.add(message); }
+        return received;
+    }
+
+    /**
+     * @return the number of messages sent.
+     */
+    public long getMessageCount() {
+        return messages.get();
+    }
+
+    /**
+     * @return the number of vertices sent, over all messages.
+     */
+    public long getVertexCount() {
+        return vertices.get();
+    }
+}
@@ -0,0 +1,77 @@
+package org.grasple.api.sharding;
+
+/**
+ * The assignment of the vertices of a CompactGraph or a MappedGraph to
+ * shards, computed by a Partitioner. It holds one shard number per
+ * vertex, not the graph.
+ * @see Partitioner
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class Partition {
+    private final int[] shards;
+    private final int shardCount;
+    private final int[] sizes;
+    private final long edgeCut;
+
+    Partition(Adjacency<?> graph, int[] shards, int shardCount) {
+        this.shards = shards;
+        this.shardCount = shardCount;
+        this.sizes = new int[shardCount];
+        long cut = 0;
+        for (int v = 0; v < shards.length; v++) {
+            sizes[shards[v]]++;
+            for (int arc = graph.offset(v), end = graph.offset(v + 1); arc < end; arc++) {
+                if (shards[graph.target(arc)] != shards[v]) { cut++; }
+            }
+        }
+        // each edge is seen from both of its endpoints
+        this.edgeCut = cut / 2;
+    }
+
+    /**
+     * @return the number of shards.
+     */
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return the number of vertices assigned.
+     */
+    public int size() {
+        return shards.length;
+    }
+
+    /**
+     * @param vertex the id of the vertex in the graph.
+     * @return the shard the vertex is assigned to.
+     */
+    public int shardOf(int vertex) {
+        return shards[vertex];
+    }
+
+    /**
+     * @param shard the shard.
+     * @return the number of vertices assigned to the shard.
+     */
+    public int size(int shard) {
+        return sizes[shard];
+    }
+
+    /**
+     * @return the number of edges whose endpoints are in different shards.
+     */
+    public long getEdgeCut() {
+        return edgeCut;
+    }
+
+    /**
+     * @return the size of the largest shard divided by the average size, 1 when perfectly balanced.
+     */
+    public double getImbalance() {
+        int largest = 0;
+        for (int size : sizes) { largest = Math.max(largest, size); }
+        return shards.length == 0 ? 1 : largest * (double) shardCount / shards.length;
+    }
+}
@@ -0,0 +1,172 @@
+package org.grasple.api.sharding;
+
+import org.grasple.api.io.MappedGraph;
+import org.grasple.api.structures.graphs.CompactGraph;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ * Assigns the vertices of a graph to shards. Two strategies are available:
+ * </p>
+ * <ul>
+ *     <li>HASH: each vertex goes to the shard given by the hash of its
+ *     value. It needs no knowledge of the connections and balances the
+ *     shards well, but cuts most of the edges.</li>
+ *     <li>LABEL_PROPAGATION: starting from the hash partition, vertices
+ *     repeatedly move to the shard where most of their neighbors are,
+ *     as long as that shard has room, until no vertex moves or the
+ *     maximum number of passes is reached. Far fewer edges are cut, so
+ *     traversals exchange far fewer messages between shards.</li>
+ * </ul>
+ * <p>
+ * A shard may hold up to (1 + imbalance) times the average number of
+ * vertices. A MappedGraph is partitioned in place, reading its file
+ * pass after pass: only the shard numbers, 4 bytes per vertex, are kept
+ * on the heap.
+ * </p>
+ * @see Partition
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class Partitioner {
+    /**
+     * The way vertices are assigned to shards.
+     */
+    public enum Strategy {
+        /** By the hash of the values. */
+        HASH,
+        /** By label propagation, refining the hash partition. */
+        LABEL_PROPAGATION
+    }
+
+    private final int shardCount;
+    private int passes = 20;
+    private double imbalance = 0.05;
+
+    /**
+     * Creates a partitioner.
+     * @param shardCount the number of shards.
+     */
+    public Partitioner(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The number of shards must be positive.");
+        }
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * @return the number of shards.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return the maximum number of passes of label propagation.
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Modifies the maximum number of passes of label propagation.
+     * @param passes the number of passes, must not be negative.
+     */
+    public void setPasses(int passes) {
+        if (passes < 0) {
+            throw new IllegalArgumentException("The number of passes cannot be negative.");
+        }
+        this.passes = passes;
+    }
+
+    /**
+     * @return the fraction by which a shard may exceed the average size.
+     */
+    public double getImbalance() {
+        return imbalance;
+    }
+
+    /**
+     * Modifies the fraction by which a shard may exceed the average size.
+     * @param imbalance the fraction, must not be negative.
+     */
+    public void setImbalance(double imbalance) {
+        if (!(imbalance >= 0)) {
+            throw new IllegalArgumentException("The imbalance cannot be negative.");
+        }
+        this.imbalance = imbalance;
+    }
+
+    /**
+     * Partitions a graph.
+     * @param graph the graph.
+     * @param strategy the strategy.
+     * @return the partition of the vertices of the graph.
+     */
+    public Partition partition(CompactGraph<?> graph, Strategy strategy) {
+        return partition(Adjacency.of(graph), strategy);
+    }
+
+    /**
+     * Partitions a graph that stays in its file.
+     * @param graph the graph.
+     * @param strategy the strategy.
+     * @return the partition of the vertices of the graph.
+     */
+    public Partition partition(MappedGraph<?> graph, Strategy strategy) {
+        return partition(Adjacency.of(graph), strategy);
+    }
+
+    private Partition partition(Adjacency<?> graph, Strategy strategy) {
+        int n = graph.size();
+        int[] shards = new int[n];
+        int[] sizes = new int[shardCount];
+        for (int v = 0; v < n; v++) {
+            shards[v] = Math.floorMod(mix(Objects.hashCode(graph.get(v))), shardCount);
+            sizes[shards[v]]++;
+        }
+        if (strategy == Strategy.LABEL_PROPAGATION) { propagate(graph, shards, sizes); }
+        return new Partition(graph, shards, shardCount);
+    }
+
+    private void propagate(Adjacency<?> graph, int[] shards, int[] sizes) {
+        int n = graph.size();
+        long capacity = Math.max(1, (long) Math.ceil(n * (1 + imbalance) / shardCount));
+        int[] counts = new int[shardCount];
+        int[] touched = new int[shardCount];
+        for (int pass = 0; pass < passes; pass++) {
+            int moved = 0;
+            for (int v = 0; v < n; v++) {
+                int current = shards[v];
+                int count = 0;
+                for (int arc = graph.offset(v), end = graph.offset(v + 1); arc < end; arc++) {
+                    int shard = shards[graph.target(arc)];
+                    if (counts[shard]++ == 0) { touched[count++] = shard; }
+                }
+                // the current shard wins the ties, so vertices do not oscillate
+                int best = current;
+                for (int i = 0; i < count; i++) {
+                    int shard = touched[i];
+                    if (counts[shard] > counts[best] && sizes[shard] < capacity
+                            || counts[shard] == counts[best] && shard < best && best != current && sizes[shard] < capacity) {
+                        best = shard;
+                    }
+                }
+                for (int i = 0; i < count; i++) { counts[touched[i]] = 0; }
+                if (best != current) {
+                    shards[v] = best;
+                    sizes[current]--;
+                    sizes[best]++;
+                    moved++;
+                }
+            }
+            if (moved == 0) { return; }
+        }
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
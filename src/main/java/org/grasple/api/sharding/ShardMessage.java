@@ -0,0 +1,74 @@
+package org.grasple.api.sharding;
+
+/**
+ * A batch of vertices sent from one shard to another during a superstep
+ * of a ShardedTraversal: the receiver continues the traversal from those
+ * of the vertices it has not visited yet. A message is immutable once
+ * sent; a transport may serialize it or pass it by reference.
+ * @see ShardTransport
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class ShardMessage {
+    private final int source;
+    private final int target;
+    private final int superstep;
+    private final int[] vertices;
+
+    /**
+     * Creates a message.
+     * @param source the shard sending the message.
+     * @param target the shard receiving the message.
+     * @param superstep the superstep during which the message is sent.
+     * @param vertices the global ids of the vertices reached, owned by the target shard.
+     */
+    public ShardMessage(int source, int target, int superstep, int[] vertices) {
+        this.source = source;
+        this.target = target;
+        this.superstep = superstep;
+        this.vertices = vertices;
+    }
+
+    /**
+     * @return the shard sending the message.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return the shard receiving the message.
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * @return the superstep during which the message is sent.
+     */
+    public int getSuperstep() {
+        return superstep;
+    }
+
+    /**
+     * @return the number of vertices in the message.
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * @param index the position of the vertex in the message.
+     * @return the global id of the vertex.
+     */
+    public int getVertex(int index) {
+        return vertices[index];
+    }
+
+    /**
+     * @return a copy of the global ids of the vertices in the message.
+     */
+    public int[] getVertices() {
+        return vertices.clone();
+    }
+}
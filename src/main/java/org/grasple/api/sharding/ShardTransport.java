@@ -0,0 +1,48 @@
+package org.grasple.api.sharding;
+
+import java.util.List;
+
+/**
+ * Carries the messages between the shards of a ShardedTraversal. A
+ * traversal proceeds in supersteps: every shard sends its messages, then
+ * flush() delivers all of them, then every shard receives the messages
+ * addressed to it. An implementation may connect shards running in
+ * different processes; LoopbackTransport connects shards of one process.
+ * @see LoopbackTransport
+ * @see ShardedTraversal
+ * @since 1.0
+ * @author Bach Tran
+ */
+public interface ShardTransport extends AutoCloseable {
+    /**
+     * @return the number of shards connected by the transport.
+     */
+    int shardCount();
+
+    /**
+     * Sends a message, to be delivered by the next flush(). This method
+     * may be called concurrently by the shards.
+     * @param message the message.
+     */
+    void send(ShardMessage message);
+
+    /**
+     * Delivers every message sent so far, and returns once they can all
+     * be received: this is the barrier that ends a superstep.
+     */
+    void flush();
+
+    /**
+     * Takes the messages delivered to a shard.
+     * @param shard the receiving shard.
+     * @return the messages, in no particular order.
+     */
+    List<ShardMessage> receive(int shard);
+
+    /**
+     * Releases the resources of the transport.
+     */
+    @Override
+    default void close() {
+    }
+}
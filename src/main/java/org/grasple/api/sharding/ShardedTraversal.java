@@ -0,0 +1,338 @@
+package org.grasple.api.sharding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * Runs a traversal across the shards of a graph, in supersteps of the
+ * bulk-synchronous model. During a superstep, every shard expands its
+ * own frontier in parallel and sends the ghost vertices it reaches to
+ * their owners through the ShardTransport; the transport is then flushed,
+ * and the vertices received form the frontiers of the next superstep. The
+ * traversal ends when every frontier is empty. Two modes are available:
+ * </p>
+ * <ul>
+ *     <li>BREADTH_FIRST: each superstep expands one level, so the level of
+ *     each vertex is its distance from the start, as in a breadth-first
+ *     search.</li>
+ *     <li>DEPTH_FIRST: each superstep runs a depth-first traversal of
+ *     everything reachable inside the shard, like DefaultTraverser, and
+ *     only the crossings between shards wait for the next superstep. The
+ *     level of a vertex is the number of crossings on the way to it, and
+ *     far fewer supersteps are needed.</li>
+ * </ul>
+ * <p>
+ * Each shard sends a ghost vertex at most once per traversal. The state of
+ * a traversal is kept by each shard, for its own vertices only, as it
+ * would be on separate machines.
+ * </p>
+ * @see GraphShard
+ * @see ShardTransport
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class ShardedTraversal<T> {
+    /**
+     * The way each shard expands its frontier.
+     */
+    public enum Mode {
+        /** One level per superstep. */
+        BREADTH_FIRST,
+        /** Everything reachable inside the shard per superstep. */
+        DEPTH_FIRST
+    }
+
+    private final List<GraphShard<T>> shards;
+    private final ShardTransport transport;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a traversal over shards, using the common fork/join pool.
+     * @param shards the shards, by shard number.
+     * @param transport the transport between the shards.
+     */
+    public ShardedTraversal(List<GraphShard<T>> shards, ShardTransport transport) {
+        this(shards, transport, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a traversal over shards.
+     * @param shards the shards, by shard number.
+     * @param transport the transport between the shards.
+     * @param pool the fork/join pool running the shards.
+     */
+    public ShardedTraversal(List<GraphShard<T>> shards, ShardTransport transport, ForkJoinPool pool) {
+        if (shards.size() != transport.shardCount()) {
+            throw new IllegalArgumentException("The transport must connect every shard.");
+        }
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shards.get(shard).getId() != shard) {
+                throw new IllegalArgumentException("The shards must be ordered by shard number.");
+            }
+        }
+        this.shards = new ArrayList<>(shards);
+        this.transport = transport;
+        this.pool = pool;
+    }
+
+    /**
+     * Traverses the vertices reachable from a vertex.
+     * @param start the global id of the starting vertex.
+     * @param mode the way each shard expands its frontier.
+     * @return the result of the traversal.
+     */
+    public Result run(int start, Mode mode) {
+        return run(start, mode, null);
+    }
+
+    /**
+     * Traverses the vertices reachable from a vertex.
+     * @param start the global id of the starting vertex.
+     * @param mode the way each shard expands its frontier.
+     * @param action the action applied to the global id of each vertex
+     *               visited, can be null. It is called concurrently by the shards.
+     * @return the result of the traversal.
+     */
+    public Result run(int start, Mode mode, IntConsumer action) {
+        Worker[] workers = new Worker[shards.size()];
+        Worker owner = null;
+        for (int shard = 0; shard < workers.length; shard++) {
+            workers[shard] = new Worker(shards.get(shard), transport, mode, action);
+            if (shards.get(shard).owns(start)) { owner = workers[shard]; }
+        }
+        if (owner == null) {
+            throw new IllegalArgumentException("The vertex " + start + " is not owned by any shard.");
+        }
+        // discard the messages a previous, failed traversal may have left
+        transport.flush();
+        for (int shard = 0; shard < workers.length; shard++) { transport.receive(shard); }
+        owner.seed(start);
+        int superstep = 0;
+        long messages = 0;
+        while (true) {
+            for (Worker worker : workers) { worker.superstep = superstep; }
+            pool.invoke(new Phase(workers, 0, workers.length, true));
+            transport.flush();
+            pool.invoke(new Phase(workers, 0, workers.length, false));
+            long active = 0;
+            for (Worker worker : workers) {
+                active += worker.frontierSize;
+                messages += worker.received;
+            }
+            superstep++;
+            if (active == 0) { break; }
+        }
+        return new Result(workers, superstep, messages);
+    }
+
+    /**
+     * Runs one phase of a superstep on a range of shards.
+     */
+    private static final class Phase extends RecursiveAction {
+        private final Worker[] workers;
+        private final int from;
+        private final int to;
+        private final boolean expand;
+
+        Phase(Worker[] workers, int from, int to, boolean expand) {
+            this.workers = workers;
+            this.from = from;
+            this.to = to;
+            this.expand = expand;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                if (expand) {
+                    workers[from].expand();
+                } else {
+                    workers[from].receive();
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Phase(workers, from, middle, expand), new Phase(workers, middle, to, expand));
+        }
+    }
+
+    /**
+     * The state of a traversal on one shard.
+     */
+    private static final class Worker {
+        final GraphShard<?> shard;
+        final ShardTransport transport;
+        final Mode mode;
+        final IntConsumer action;
+        /** The level of each local vertex, -1 if not visited. */
+        final int[] levels;
+        /** Whether each ghost has been sent already. */
+        final boolean[] sent;
+        final int[][] outgoing;
+        final int[] outgoingSizes;
+        int[] frontier = new int[16];
+        int frontierSize;
+        int[] next = new int[16];
+        int nextSize;
+        int superstep;
+        long visited;
+        /** The number of vertices received during the last superstep. */
+        long received;
+
+        Worker(GraphShard<?> shard, ShardTransport transport, Mode mode, IntConsumer action) {
+            this.shard = shard;
+            this.transport = transport;
+            this.mode = mode;
+            this.action = action;
+            this.levels = new int[shard.size()];
+            this.sent = new boolean[shard.ghostCount()];
+            this.outgoing = new int[transport.shardCount()][];
+            this.outgoingSizes = new int[transport.shardCount()];
+            Arrays.fill(levels, -1);
+        }
+
+        void seed(int global) {
+            int local = shard.localIndex(global);
+            visit(local, 0);
+            frontier[frontierSize++] = local;
+        }
+
+        void visit(int local, int level) {
+            levels[local] = level;
+            visited++;
+            if (action != null) { action.accept(shard.globalId(local)); }
+        }
+
+        /**
+         * Expands the frontier and sends the ghosts reached to their owners.
+         */
+        void expand() {
+            if (mode == Mode.BREADTH_FIRST) {
+                nextSize = 0;
+                for (int i = 0; i < frontierSize; i++) { expand(frontier[i], superstep + 1); }
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                frontierSize = nextSize;
+            } else {
+                // the frontier is used as the stack, local vertices are pushed back onto it
+                while (frontierSize > 0) { expand(frontier[--frontierSize], superstep); }
+            }
+            for (int owner = 0; owner < outgoing.length; owner++) {
+                if (outgoingSizes[owner] == 0) { continue; }
+                transport.send(new ShardMessage(shard.getId(), owner, superstep,
+                        Arrays.copyOf(outgoing[owner], outgoingSizes[owner])));
+                outgoingSizes[owner] = 0;
+            }
+        }
+
+        private void expand(int vertex, int level) {
+            for (int arc = shard.offset(vertex), end = shard.offset(vertex + 1); arc < end; arc++) {
+                int target = shard.target(arc);
+                if (target >= 0) {
+                    if (levels[target] >= 0) { continue; }
+                    visit(target, level);
+                    if (mode == Mode.BREADTH_FIRST) {
+                        next = push(next, nextSize++, target);
+                    } else {
+                        frontier = push(frontier, frontierSize++, target);
+                    }
+                    continue;
+                }
+                int ghost = -target - 1;
+                if (sent[ghost]) { continue; }
+                sent[ghost] = true;
+                int owner = shard.ghostOwner(ghost);
+                if (outgoing[owner] == null) { outgoing[owner] = new int[16]; }
+                outgoing[owner] = push(outgoing[owner], outgoingSizes[owner]++, shard.ghost(ghost));
+            }
+        }
+
+        /**
+         * Adds the unvisited vertices received to the frontier.
+         */
+        void receive() {
+            received = 0;
+            for (ShardMessage message : transport.receive(shard.getId())) {
+                received += message.size();
+                for (int i = 0; i < message.size(); i++) {
+                    int local = shard.localIndex(message.getVertex(i));
+                    if (levels[local] >= 0) { continue; }
+                    visit(local, superstep + 1);
+                    frontier = push(frontier, frontierSize++, local);
+                }
+            }
+        }
+    }
+
+    private static int[] push(int[] array, int size, int value) {
+        if (size == array.length) { array = Arrays.copyOf(array, size * 2); }
+        array[size] = value;
+        return array;
+    }
+
+    /**
+     * The outcome of a ShardedTraversal, spread over the shards.
+     */
+    public static final class Result {
+        private final Worker[] workers;
+        private final int supersteps;
+        private final long messages;
+        private final long visited;
+
+        private Result(Worker[] workers, int supersteps, long messages) {
+            this.workers = workers;
+            this.supersteps = supersteps;
+            this.messages = messages;
+            long count = 0;
+            for (Worker worker : workers) { count += worker.visited; }
+            this.visited = count;
+        }
+
+        /**
+         * @return the number of vertices visited.
+         */
+        public long getVisitCount() {
+            return visited;
+        }
+
+        /**
+         * @return the number of supersteps run.
+         */
+        public int getSupersteps() {
+            return supersteps;
+        }
+
+        /**
+         * @return the number of vertices sent between shards.
+         */
+        public long getMessageVertexCount() {
+            return messages;
+        }
+
+        /**
+         * @param global the global id of a vertex.
+         * @return the level at which the vertex was visited, -1 if it was not reached.
+         */
+        public int level(int global) {
+            for (Worker worker : workers) {
+                if (worker.shard.owns(global)) { return worker.levels[worker.shard.localIndex(global)]; }
+            }
+            throw new IllegalArgumentException("The vertex " + global + " is not owned by any shard.");
+        }
+
+        /**
+         * @param global the global id of a vertex.
+         * @return true if the vertex was visited.
+         */
+        public boolean isReached(int global) {
+            return level(global) >= 0;
+        }
+    }
+}
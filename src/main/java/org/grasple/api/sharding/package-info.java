@@ -0,0 +1,12 @@
+/**
+ * Splitting a graph into shards that can live in different processes.
+ * A Partitioner assigns each vertex to a shard, each GraphShard holds its
+ * vertices with their connections and knows the owners of its boundary
+ * (ghost) vertices, and a ShardedTraversal runs a traversal across the
+ * shards in supersteps, exchanging frontiers through a ShardTransport.
+ * A graph too large for one heap is partitioned from a MappedGraph, and
+ * each process builds only its own shard from the file.
+ * @since 1.0
+ * @author Bach Tran
+ */
+package org.grasple.api.sharding;
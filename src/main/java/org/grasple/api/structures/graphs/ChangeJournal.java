@@ -0,0 +1,167 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * The journal of the modifications of a SimpleGraph: every successful
+ * addVertex(), removeVertex(), addEdge() and removeEdge() appends a
+ * GraphChange, and so does every connection added to or removed from a
+ * Vertex of the graph, through the graph or directly. Consumers read the
+ * journal through a Cursor, at their own pace, and apply the changes to
+ * structures derived from the graph instead of computing them again.
+ * </p>
+ * <p>
+ * The journal only records changes while at least one cursor is open, and
+ * only keeps the changes that an open cursor has not read yet, so a graph
+ * without consumers pays a single volatile read per modification. The
+ * journal is thread-safe; with several writers, the changes of each
+ * thread are recorded in the order that thread made them.
+ * </p>
+ * @see SimpleGraph#getJournal()
+ * @see GraphChange
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+public final class ChangeJournal<T> {
+    private final List<GraphChange<T>> entries = new ArrayList<>();
+    private final List<Cursor> cursors = new ArrayList<>();
+    /** The number of entries at the head of the list that every cursor has read. */
+    private int start;
+    /** The sequence of the first entry of the list. */
+    private long first;
+    private volatile boolean active;
+    /** Told when the journal starts and stops recording. */
+    private final Consumer<Boolean> activation;
+
+    ChangeJournal(Consumer<Boolean> activation) {
+        this.activation = activation;
+    }
+
+    /**
+     * @return true while at least one cursor is open, so that changes are recorded.
+     */
+    boolean isActive() {
+        return active;
+    }
+
+    void record(GraphChange.Kind kind, Connectable<T> vertex, Connection edge) {
+        if (!active) { return; }
+        synchronized (this) {
+            if (!cursors.isEmpty()) { entries.add(new GraphChange<>(end(), kind, vertex, edge)); }
+        }
+    }
+
+    private long end() {
+        return first + entries.size();
+    }
+
+    /**
+     * Opens a cursor that reads every change recorded from now on.
+     * @return the cursor, to be closed when no longer needed.
+     */
+    public synchronized Cursor subscribe() {
+        Cursor cursor = new Cursor(end());
+        cursors.add(cursor);
+        if (!active) {
+            active = true;
+            activation.accept(true);
+        }
+        return cursor;
+    }
+
+    /**
+     * @return the sequence that the next change will receive.
+     */
+    public synchronized long getSequence() {
+        return end();
+    }
+
+    /**
+     * @return the number of changes kept, waiting to be read by a cursor.
+     */
+    public synchronized int size() {
+        return entries.size() - start;
+    }
+
+    /**
+     * Drops the entries read by every cursor, compacting the list once
+     * the read entries make half of it.
+     */
+    private void trim() {
+        long read = end();
+        for (Cursor cursor : cursors) { read = Math.min(read, cursor.position); }
+        start = (int) (read - first);
+        if (start == entries.size()) {
+            first += start;
+            entries.clear();
+            start = 0;
+        } else if (start > entries.size() / 2) {
+            entries.subList(0, start).clear();
+            first += start;
+            start = 0;
+        }
+    }
+
+    /**
+     * A reading position in the journal.
+     */
+    public final class Cursor implements AutoCloseable {
+        private long position;
+
+        private Cursor(long position) {
+            this.position = position;
+        }
+
+        /**
+         * @return the number of changes recorded but not read by this cursor.
+         */
+        public long pending() {
+            synchronized (ChangeJournal.this) {
+                return end() - position;
+            }
+        }
+
+        /**
+         * Reads every change recorded since the last call, in order. The
+         * action runs outside of the lock of the journal, so it may modify
+         * the graph; its own changes are read by the next call.
+         * @param action the action applied to each change.
+         * @return the number of changes read.
+         */
+        public int poll(Consumer<? super GraphChange<T>> action) {
+            List<GraphChange<T>> changes;
+            synchronized (ChangeJournal.this) {
+                if (position < first) { throw new IllegalStateException("The cursor has been closed."); }
+                int from = (int) (position - first);
+                changes = new ArrayList<>(entries.subList(from, entries.size()));
+                position = end();
+                trim();
+            }
+            changes.forEach(action);
+            return changes.size();
+        }
+
+        /**
+         * Stops reading the journal, so its changes are no longer kept for this cursor.
+         */
+        @Override
+        public void close() {
+            synchronized (ChangeJournal.this) {
+                if (!cursors.remove(this)) { return; }
+                position = -1;
+                trim();
+                if (cursors.isEmpty()) {
+                    active = false;
+                    activation.accept(false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.utils.VisitedState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * A frozen, undirected graph stored in the compressed-sparse-row (CSR)
+ * layout. Vertices are identified by dense int ids in [0, size()), and the
+ * neighbors of a vertex v are stored contiguously in the primitive arrays
+ * of this graph, between offset(v) (inclusive) and offset(v + 1) (exclusive).
+ * Each slot in that range is called an <b>arc</b>: it holds the id of one
+ * neighbor, see target(int), and the weight of the connection, see weight(int).
+ * </p>
+ * <p>
+ * Unlike SimpleGraph, a CompactGraph does not keep any Vertex or Edge objects,
+ * only the values the vertices contained. Arcs of every vertex are sorted by
+ * neighbor id and parallel connections are merged into one (keeping the
+ * smallest weight), so the iteration order of neighbors is deterministic.
+ * </p>
+ * <p>
+ * A CompactGraph cannot be modified once built. Use the Builder, or create a
+ * snapshot of an existing SimpleGraph.
+ * </p>
+ * @see SimpleGraph
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+public final class CompactGraph<T> implements GraphStructure<T> {
+    private final Object[] values;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final long edgeCount;
+    /** Lazily built lookup table from values to vertex ids, see indexOf(T). */
+    private Map<T, Integer> index;
+
+    /**
+     * Creates a snapshot of a simple graph. Every vertex of the graph receives
+     * an id in the iteration order of getVertices(). The connections are taken
+     * from getEdges() as well as from the connections of each vertex; endpoints
+     * that are not part of getVertices() are appended after the other vertices.
+     * @param graph the simple graph to be compacted.
+     */
+    public CompactGraph(SimpleGraph<T> graph) {
+        this(snapshot(graph));
+    }
+
+    private CompactGraph(Builder<T> builder) {
+        int vertexCount = builder.vertexCount;
+        int arcCount = builder.edgeCount * 2;
+        int[] _offsets = new int[vertexCount + 1];
+        for (int i = 0; i < builder.edgeCount; i++) {
+            _offsets[builder.sources[i] + 1]++;
+            _offsets[builder.targets[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) { _offsets[v + 1] += _offsets[v]; }
+        // each arc is packed as (target, weight) so that sorting a row sorts by target first
+        long[] arcs = new long[arcCount];
+        int[] cursor = Arrays.copyOf(_offsets, vertexCount);
+        for (int i = 0; i < builder.edgeCount; i++) {
+            int u = builder.sources[i];
+            int v = builder.targets[i];
+            int w = builder.weights[i];
+            arcs[cursor[u]++] = pack(v, w);
+            arcs[cursor[v]++] = pack(u, w);
+        }
+        // sort every row, then merge parallel arcs in place
+        int written = 0;
+        long selfLoops = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int from = _offsets[v];
+            int to = _offsets[v + 1];
+            Arrays.sort(arcs, from, to);
+            _offsets[v] = written;
+            for (int a = from; a < to; a++) {
+                if (a > from && (int) (arcs[a] >>> 32) == (int) (arcs[a - 1] >>> 32)) { continue; }
+                if ((int) (arcs[a] >>> 32) == v) { selfLoops++; }
+                arcs[written++] = arcs[a];
+            }
+        }
+        _offsets[vertexCount] = written;
+        this.values = Arrays.copyOf(builder.values, vertexCount);
+        this.offsets = _offsets;
+        this.targets = new int[written];
+        this.weights = new int[written];
+        for (int a = 0; a < written; a++) {
+            targets[a] = (int) (arcs[a] >>> 32);
+            weights[a] = (int) arcs[a] ^ Integer.MIN_VALUE;
+        }
+        this.edgeCount = (written + selfLoops) / 2;
+    }
+
+    /**
+     * Packs an arc into a long which, compared as a signed number, orders
+     * arcs by target and then by signed weight.
+     */
+    private static long pack(int target, int weight) {
+        return ((long) target << 32) | ((weight ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    private static <T> Builder<T> snapshot(SimpleGraph<T> graph) {
+        Builder<T> builder = new Builder<>(graph.getVertices().size(), graph.getEdges().size());
+        Map<Connectable<T>, Integer> ids = new IdentityHashMap<>(graph.getVertices().size());
+        List<Connectable<T>> order = new ArrayList<>(graph.getVertices().size());
+        graph.getVertices().forEach(vertex -> idOf(vertex, ids, order, builder));
+        for (Connection connection : graph.getEdges()) {
+            @SuppressWarnings("unchecked")
+            int start = idOf((Connectable<T>) connection.getStart(), ids, order, builder);
+            @SuppressWarnings("unchecked")
+            int end = idOf((Connectable<T>) connection.getEnd(), ids, order, builder);
+            builder.addEdge(start, end, connection.weight());
+        }
+        // the connections held by the vertices themselves, which may not be registered as edges
+        for (int id = 0; id < order.size(); id++) {
+            Connectable<T> vertex = order.get(id);
+            for (UConnection<Connectable<T>> connection : vertex.getConnections()) {
+                builder.addEdge(id, idOf(connection.divert(vertex), ids, order, builder), connection.weight());
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Retrieves the id of a vertex, assigning the next id if the vertex has not been seen yet.
+     */
+    private static <T> int idOf(Connectable<T> vertex, Map<Connectable<T>, Integer> ids,
+                                List<Connectable<T>> order, Builder<T> builder) {
+        Integer id = ids.get(vertex);
+        if (id == null) {
+            id = builder.addVertex(vertex.get());
+            ids.put(vertex, id);
+            order.add(vertex);
+        }
+        return id;
+    }
+
+    /**
+     * @return the number of vertices in this graph.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @return the number of distinct undirected edges in this graph,
+     * a self-connection counts as one edge.
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Unwraps the value of a vertex.
+     * @param vertex the id of the vertex.
+     * @return the value that the vertex contains.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int vertex) {
+        return (T) values[vertex];
+    }
+
+    /**
+     * Finds the id of the first vertex containing the given value. The lookup
+     * table is built on the first call of this method.
+     * @param value the value to be looked up.
+     * @return the id of the vertex, or -1 if no vertex contains the value.
+     */
+    public int indexOf(T value) {
+        if (index == null) {
+            Map<T, Integer> _index = new HashMap<>(values.length * 2);
+            for (int v = values.length - 1; v >= 0; v--) { _index.put(get(v), v); }
+            index = _index;
+        }
+        Integer id = index.get(value);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param vertex the id of the vertex.
+     * @return the number of distinct neighbors of the vertex.
+     */
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Retrieves the position of the first arc of a vertex. The arcs of
+     * vertex v span from offset(v) to offset(v + 1), exclusive.
+     * @param vertex the id of the vertex, or size() to get the total number of arcs.
+     * @return the position of the first arc of the vertex.
+     */
+    public int offset(int vertex) {
+        return offsets[vertex];
+    }
+
+    /**
+     * @param arc the position of the arc.
+     * @return the id of the neighbor the arc leads to.
+     */
+    public int target(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * @param arc the position of the arc.
+     * @return the weight of the connection the arc belongs to.
+     */
+    public int weight(int arc) {
+        return weights[arc];
+    }
+
+    /**
+     * Applies an action to every neighbor of a vertex, in ascending order of ids.
+     * @param vertex the id of the vertex.
+     * @param action the action applied to the id of each neighbor.
+     */
+    public void forEachNeighbor(int vertex, IntConsumer action) {
+        for (int arc = offsets[vertex], end = offsets[vertex + 1]; arc < end; arc++) {
+            action.accept(targets[arc]);
+        }
+    }
+
+    /**
+     * Checks whether two vertices are adjacent, in O(log(degree)).
+     * @param vertex the id of the first vertex.
+     * @param other the id of the second vertex.
+     * @return true if there is a connection between the two vertices.
+     */
+    public boolean adjacent(int vertex, int other) {
+        return Arrays.binarySearch(targets, offsets[vertex], offsets[vertex + 1], other) >= 0;
+    }
+
+    /**
+     * Traverses to all vertices that can be reached from the starting vertex
+     * using an iterative depth-first algorithm, lower ids being visited first.
+     * @param start the id of the starting vertex.
+     * @param action the action applied to the id of each vertex visited.
+     */
+    public void traverse(int start, IntConsumer action) {
+        depthFirstTraversal(start, action, new boolean[values.length], new int[16]);
+    }
+
+    /**
+     * Traverses like traverse(int, IntConsumer), but marks the vertices in a
+     * reusable VisitedState indexed by the ids of this graph, so repeated
+     * traversals neither allocate a visited array nor hash any vertex. The
+     * state is grown to size() if needed, and is not cleared: clear it
+     * between two traversals that must not share their visited vertices.
+     * @param start the id of the starting vertex.
+     * @param action the action applied to the id of each vertex visited.
+     * @param visited the visited vertices, updated by the traversal.
+     */
+    public void traverse(int start, IntConsumer action, VisitedState visited) {
+        if (visited.capacity() < values.length) { visited.ensureCapacity(values.length); }
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int vertex = stack[--top];
+            if (!visited.visit(vertex)) { continue; }
+            action.accept(vertex);
+            int from = offsets[vertex];
+            int to = offsets[vertex + 1];
+            if (top + to - from > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + to - from));
+            }
+            for (int arc = to - 1; arc >= from; arc--) {
+                if (!visited.isVisited(targets[arc])) { stack[top++] = targets[arc]; }
+            }
+        }
+    }
+
+    /**
+     * Runs a depth-first traversal from the start vertex, skipping and marking
+     * vertices in the visited array.
+     * @return the stack, possibly grown, to be reused by the next call.
+     */
+    private int[] depthFirstTraversal(int start, IntConsumer action, boolean[] visited, int[] stack) {
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int vertex = stack[--top];
+            if (visited[vertex]) { continue; }
+            visited[vertex] = true;
+            action.accept(vertex);
+            int from = offsets[vertex];
+            int to = offsets[vertex + 1];
+            if (top + to - from > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + to - from));
+            }
+            for (int arc = to - 1; arc >= from; arc--) {
+                if (!visited[targets[arc]]) { stack[top++] = targets[arc]; }
+            }
+        }
+        return stack;
+    }
+
+    /**
+     * Labels each vertex with the connected component it belongs to.
+     * Components are numbered from 0, in ascending order of their lowest vertex id.
+     * @return an array mapping each vertex id to its component number.
+     */
+    public int[] componentLabels() {
+        int[] labels = new int[values.length];
+        boolean[] visited = new boolean[values.length];
+        int[] stack = new int[16];
+        int component = 0;
+        for (int v = 0; v < values.length; v++) {
+            if (visited[v]) { continue; }
+            final int label = component++;
+            stack = depthFirstTraversal(v, vertex -> labels[vertex] = label, visited, stack);
+        }
+        return labels;
+    }
+
+    /**
+     * Finds connected components in the graph. Similar to
+     * SimpleGraph.separateComponents(), this operation returns one
+     * representative vertex per connected component.
+     * @return the ids of the lowest vertex of each connected component.
+     */
+    public int[] separateComponents() {
+        int[] labels = componentLabels();
+        int[] representatives = new int[values.length];
+        int count = 0;
+        for (int v = 0; v < labels.length; v++) {
+            if (labels[v] == count) { representatives[count++] = v; }
+        }
+        return Arrays.copyOf(representatives, count);
+    }
+
+    /**
+     * A CompactGraph is frozen, so no connection can be attached.
+     * @return false, always.
+     */
+    @Override
+    public boolean addConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    /**
+     * A CompactGraph is frozen, so no connection can be removed.
+     * @return false, always.
+     */
+    @Override
+    public boolean removeConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    @Override
+    public void traverse() {
+        traverse(value -> { });
+    }
+
+    @Override
+    public void traverse(Consumer<T> action) {
+        boolean[] visited = new boolean[values.length];
+        int[] stack = new int[16];
+        for (int v = 0; v < values.length; v++) {
+            if (!visited[v]) {
+                stack = depthFirstTraversal(v, vertex -> action.accept(get(vertex)), visited, stack);
+            }
+        }
+    }
+
+    /**
+     * Collects vertices and undirected edges into a CompactGraph. The arrays
+     * used by the builder grow on demand, and can be presized when the
+     * number of vertices and edges is known in advance.
+     * @param <T> the datatype that the graph contains
+     */
+    public static final class Builder<T> {
+        private Object[] values;
+        private int vertexCount;
+        private int[] sources;
+        private int[] targets;
+        private int[] weights;
+        private int edgeCount;
+
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+            this(16, 16);
+        }
+
+        /**
+         * Creates an empty builder with presized arrays.
+         * @param expectedVertices the expected number of vertices.
+         * @param expectedEdges the expected number of edges.
+         */
+        public Builder(int expectedVertices, int expectedEdges) {
+            values = new Object[Math.max(expectedVertices, 1)];
+            sources = new int[Math.max(expectedEdges, 1)];
+            targets = new int[sources.length];
+            weights = new int[sources.length];
+        }
+
+        /**
+         * @return the number of vertices added so far.
+         */
+        public int vertexCount() {
+            return vertexCount;
+        }
+
+        /**
+         * @return the number of edges added so far.
+         */
+        public int edgeCount() {
+            return edgeCount;
+        }
+
+        /**
+         * Adds a new vertex to the graph.
+         * @param value the value of the vertex.
+         * @return the id of the new vertex.
+         */
+        public int addVertex(T value) {
+            if (vertexCount == values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[vertexCount] = value;
+            return vertexCount++;
+        }
+
+        /**
+         * Doubles the length of an array, without overflowing the largest length.
+         */
+        private static int grow(int length) {
+            if (length >= Integer.MAX_VALUE - 8) { throw new IllegalStateException("The builder cannot grow further."); }
+            return (int) Math.min(Integer.MAX_VALUE - 8, length * 2L);
+        }
+
+        /**
+         * Adds a new undirected edge between two vertices already added.
+         * @param start the id of one endpoint.
+         * @param end the id of the other endpoint.
+         * @param weight the weight of the edge.
+         * @return this builder.
+         */
+        public Builder<T> addEdge(int start, int end, int weight) {
+            if (start < 0 || start >= vertexCount || end < 0 || end >= vertexCount) {
+                throw new IllegalArgumentException("Both endpoints must be added before the edge.");
+            }
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, grow(sources.length));
+                targets = Arrays.copyOf(targets, sources.length);
+                weights = Arrays.copyOf(weights, sources.length);
+            }
+            sources[edgeCount] = start;
+            targets[edgeCount] = end;
+            weights[edgeCount] = weight;
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Freezes the vertices and edges added so far into a CompactGraph.
+         * @return the CompactGraph built.
+         */
+        public CompactGraph<T> build() {
+            return new CompactGraph<>(this);
+        }
+    }
+}
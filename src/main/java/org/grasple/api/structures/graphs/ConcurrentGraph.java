@@ -0,0 +1,147 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.ConcurrentVertex;
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>
+ * A SimpleGraph that can be modified by several threads at once. Its
+ * vertices and edges are kept in concurrent Sets, and its vertices should
+ * be ConcurrentVertex objects, so that connect() and disconnect() modify
+ * both endpoints atomically.
+ * </p>
+ * <p>
+ * Traversals can run while writers continue; they see a weakly consistent
+ * view of the graph, in which each connection is either present or absent.
+ * For an exact point-in-time view, snapshot() briefly blocks the writers
+ * and copies the graph into a CompactGraph. Only modifications made through
+ * this graph (not directly on its vertices) are coordinated with snapshot().
+ * </p>
+ * @see ConcurrentVertex
+ * @see SimpleGraph
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+public class ConcurrentGraph<T> extends SimpleGraph<T> {
+    /**
+     * Writers share the read lock, since they are already synchronized by
+     * the concurrent Sets and the locks of the vertices; snapshot() takes
+     * the write lock to exclude all of them at once.
+     */
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates an empty concurrent graph.
+     */
+    public ConcurrentGraph() {
+        super(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Creates a concurrent graph with a collection of vertices.
+     * The vertices are copied into a concurrent Set.
+     * @param vertices the vertices, preferably ConcurrentVertex objects.
+     */
+    public ConcurrentGraph(Set<? extends Connectable<T>> vertices) {
+        this();
+        getVertices().addAll(vertices);
+    }
+
+    @Override
+    public boolean addVertex(Connectable<T> vertex) {
+        snapshotLock.readLock().lock();
+        try {
+            return super.addVertex(vertex);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeVertex(Connectable<T> vertex) {
+        snapshotLock.readLock().lock();
+        try {
+            return super.removeVertex(vertex);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addEdge(Connection connection) {
+        snapshotLock.readLock().lock();
+        try {
+            return super.addEdge(connection);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(Connection connection) {
+        snapshotLock.readLock().lock();
+        try {
+            return super.removeEdge(connection);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Connects two vertices and registers the connection as an edge of this
+     * graph, atomically. Both vertices are added to the graph if needed.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     * @return the connection created.
+     */
+    @Override
+    public Connection connect(Connectable<T> vertex, Connectable<T> other) {
+        snapshotLock.readLock().lock();
+        try {
+            super.addVertex(vertex);
+            super.addVertex(other);
+            Connection[] connection = new Connection[1];
+            ConcurrentVertex.atomically(vertex, other, () -> connection[0] = connectVertices(vertex, other));
+            return connection[0];
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Disconnects two vertices and removes their connections from the
+     * edges of this graph, atomically.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     */
+    @Override
+    public void disconnect(Connectable<T> vertex, Connectable<T> other) {
+        snapshotLock.readLock().lock();
+        try {
+            ConcurrentVertex.atomically(vertex, other, () -> disconnectVertices(vertex, other));
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the graph into a CompactGraph while writers are blocked,
+     * so the copy reflects the graph at a single point in time.
+     * @return the snapshot of the graph.
+     */
+    public CompactGraph<T> snapshot() {
+        snapshotLock.writeLock().lock();
+        try {
+            return new CompactGraph<>(this);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+}
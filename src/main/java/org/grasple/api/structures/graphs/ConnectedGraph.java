@@ -2,9 +2,11 @@ package org.grasple.api.structures.graphs;
 
 import org.grasple.api.particles.Connectable;
 import org.grasple.api.particles.UConnection;
+import org.grasple.api.utils.DefaultTraverser;
+import org.grasple.api.utils.VertexIndex;
+import org.grasple.api.utils.VisitedState;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
 import java.util.function.Consumer;
 
 /**
@@ -12,6 +14,11 @@ import java.util.function.Consumer;
  * it has a root Vertex, from which we can traverse to other vertices.
  * A connected graph has a different implementation from a disconnected
  * graph. See the class definition of SimpleGraph for more information.
+ * Traversals reuse the same VisitedState, indexed when the vertices are
+ * first reached, so they cannot run concurrently on the same graph. The
+ * index still hashes each vertex to find its index; it is rebuilt from the
+ * vertices reached when it holds many more, so vertices disconnected from
+ * the graph are released after the next traversal.
  * @see SimpleGraph
  * @author Bach Tran
  * @param <T> the datatype that the connected graph contains
@@ -24,6 +31,8 @@ public class ConnectedGraph<T> implements GraphStructure<T> {
      * vertex.
      */
     private Connectable<T> root;
+    private VertexIndex<T> index = new VertexIndex<>();
+    private VisitedState visited = VisitedState.epochs(16);
     /**
      * Creates a connected graph with at least one root vertex.
      * @param root the root vertex of the graph
@@ -51,30 +60,17 @@ public class ConnectedGraph<T> implements GraphStructure<T> {
 
     @Override
     public void traverse() {
-        recursiveDepthFirstTraversal(root, new HashSet<>());
+        traverse(null);
     }
 
     @Override
     public void traverse(Consumer<T> action) {
-        recursiveDepthFirstTraversal(action, root, new HashSet<>());
-    }
-
-    private void recursiveDepthFirstTraversal(Connectable<T> startVertex,
-                                              Set<Connectable<T>> visited) {
-        visited.add(startVertex);
-        startVertex.getNeighbors()
-                .stream()
-                .filter(neighbor -> !visited.contains(neighbor))
-                .forEach(neighbor -> recursiveDepthFirstTraversal(neighbor, visited));
-    }
-
-    private void recursiveDepthFirstTraversal(Consumer<T> action, Connectable<T> startVertex,
-                                              Set<Connectable<T>> visited) {
-        action.accept(startVertex.get());
-        visited.add(startVertex);
-        startVertex.getNeighbors()
-                .stream()
-                .filter(neighbor -> !visited.contains(neighbor))
-                .forEach(neighbor -> recursiveDepthFirstTraversal(action, neighbor, visited));
+        visited.clear();
+        new DefaultTraverser<>(root, action, index, visited).run();
+        // drop the vertices that are no longer reachable
+        if (index.size() > 2 * visited.count() + 64) {
+            index = new VertexIndex<>(new ArrayList<>(index.asSet(visited)));
+            visited = VisitedState.epochs(index.size());
+        }
     }
 }
@@ -0,0 +1,211 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.particles.DirectedVertex;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.utils.DefaultTraverser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A graph whose connections have a direction, such as a dependency graph.
+ * Each relation is stored once, as a DirectedEdge held by the outgoing
+ * connections of its start and the incoming connections of its end, so
+ * the graph can be walked forward in O(out-degree) per vertex, and
+ * backward in O(in-degree) per vertex, without scanning all connections.
+ * </p>
+ * <p>
+ * Vertices are added to the graph when connected through it, and are
+ * iterated in the order they were added, so whole-graph traversals and
+ * topological orders are reproducible. A DirectedGraph is not thread-safe.
+ * </p>
+ * @see DirectedVertex
+ * @see org.grasple.api.particles.DirectedEdge
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+public class DirectedGraph<T> implements GraphStructure<T> {
+    private final Set<DirectedVertex<T>> vertices;
+
+    /**
+     * Creates an empty directed graph.
+     */
+    public DirectedGraph() {
+        this.vertices = new LinkedHashSet<>();
+    }
+
+    /**
+     * Creates a directed graph with a Set of vertices, which may already be connected.
+     * @param vertices the Set of vertices in the graph.
+     */
+    public DirectedGraph(Set<DirectedVertex<T>> vertices) {
+        this.vertices = new LinkedHashSet<>(vertices);
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     * @param vertex the vertex to be added.
+     * @return true if the vertex was not part of the graph.
+     */
+    public boolean addVertex(DirectedVertex<T> vertex) {
+        return vertices.add(vertex);
+    }
+
+    /**
+     * Removes a vertex from the graph, along with all connections to and from it.
+     * @param vertex the vertex to be removed.
+     * @return true if the vertex was part of the graph.
+     */
+    public boolean removeVertex(DirectedVertex<T> vertex) {
+        if (!vertices.remove(vertex)) { return false; }
+        for (UConnection<Connectable<T>> connection : new ArrayList<>(vertex.getConnections())) {
+            vertex.removeConnection(connection);
+            connection.getEnd().removeConnection(connection);
+        }
+        for (UConnection<Connectable<T>> connection : new ArrayList<>(vertex.getIncomingConnections())) {
+            vertex.removeConnection(connection);
+            connection.getStart().removeConnection(connection);
+        }
+        return true;
+    }
+
+    /**
+     * @return the vertices of the graph, as an unmodifiable view.
+     */
+    public Set<DirectedVertex<T>> getVertices() {
+        return Collections.unmodifiableSet(vertices);
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * @return the number of connections between the vertices of the graph, in O(V).
+     */
+    public long edgeCount() {
+        long count = 0;
+        for (DirectedVertex<T> vertex : vertices) { count += vertex.outDegree(); }
+        return count;
+    }
+
+    /**
+     * Connects a vertex to another one, adding both of them to the graph.
+     * @param start the vertex the connection leads from.
+     * @param end the vertex the connection leads to.
+     * @return the connection from start to end.
+     */
+    public Connection connect(DirectedVertex<T> start, DirectedVertex<T> end) {
+        return connect(start, end, 0);
+    }
+
+    /**
+     * Connects a vertex to another one with a weight, adding both of them to
+     * the graph. An existing connection is kept with its weight.
+     * @param start the vertex the connection leads from.
+     * @param end the vertex the connection leads to.
+     * @param weight the weight of the connection.
+     * @return the connection from start to end.
+     */
+    public Connection connect(DirectedVertex<T> start, DirectedVertex<T> end, int weight) {
+        vertices.add(start);
+        vertices.add(end);
+        return start.connect(end, weight);
+    }
+
+    /**
+     * Removes the connection from a vertex to another one.
+     * @param start the vertex the connection leads from.
+     * @param end the vertex the connection leads to.
+     * @return true if the connection existed.
+     */
+    public boolean disconnect(DirectedVertex<T> start, DirectedVertex<T> end) {
+        if (!start.adjacent(end)) { return false; }
+        start.disconnect(end);
+        return true;
+    }
+
+    /**
+     * Attaches a connection to both of its endpoints.
+     * @param connectable one endpoint of the connection.
+     * @param connection the connection, leading from its start to its end.
+     * @return true if the connection was not attached to the connectable.
+     */
+    @Override
+    public boolean addConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        boolean added = connectable.addConnection(connection);
+        Connectable<T> other = connection.divert(connectable);
+        if (other != connectable) { other.addConnection(connection); }
+        return added;
+    }
+
+    /**
+     * Detaches a connection from both of its endpoints.
+     * @param connectable one endpoint of the connection.
+     * @param connection the connection to be removed.
+     * @return true if the connection was attached to the connectable.
+     */
+    @Override
+    public boolean removeConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        boolean removed = connectable.removeConnection(connection);
+        Connectable<T> other = connection.divert(connectable);
+        if (other != connectable) { other.removeConnection(connection); }
+        return removed;
+    }
+
+    /**
+     * Traverses to all vertices reachable from a vertex, following the
+     * direction of the connections.
+     * @param start the vertex where the traversal starts.
+     * @param action the action applied to each vertex visited.
+     */
+    public void traverse(DirectedVertex<T> start, Consumer<T> action) {
+        new DefaultTraverser<>(start, action).run();
+    }
+
+    /**
+     * Traverses to all vertices that can reach a vertex, following the
+     * connections backward through the incoming connections, e.g. to find
+     * everything that depends on the vertex.
+     * @param start the vertex where the traversal starts.
+     * @param action the action applied to each vertex visited.
+     */
+    public void reverseTraverse(DirectedVertex<T> start, Consumer<T> action) {
+        new DefaultTraverser<>(start, action, new HashSet<>(), DirectedGraph::forEachPredecessor).run();
+    }
+
+    private static <T> void forEachPredecessor(Connectable<T> vertex, Consumer<Connectable<T>> action) {
+        if (vertex instanceof DirectedVertex) { ((DirectedVertex<T>) vertex).forEachPredecessor(action); }
+    }
+
+    @Override
+    public void traverse() {
+        traverse(null);
+    }
+
+    /**
+     * Traverses to all vertices in the graph, following the direction of
+     * the connections, from each vertex not visited yet.
+     * @param action the action applied to each vertex visited.
+     */
+    @Override
+    public void traverse(Consumer<T> action) {
+        Set<Connectable<T>> _visited = new HashSet<>();
+        for (DirectedVertex<T> candidate : vertices) {
+            if (!_visited.contains(candidate)) {
+                new DefaultTraverser<>(candidate, action, _visited).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+
+/**
+ * One modification of a SimpleGraph, as recorded by its ChangeJournal.
+ * @see ChangeJournal
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+public final class GraphChange<T> {
+    /**
+     * The kinds of modifications.
+     */
+    public enum Kind {
+        /** A vertex was added, see getVertex(). */
+        ADD_VERTEX,
+        /** A vertex was removed, see getVertex(). */
+        REMOVE_VERTEX,
+        /** An edge was added, see getEdge(). */
+        ADD_EDGE,
+        /** An edge was removed, see getEdge(). */
+        REMOVE_EDGE
+    }
+
+    private final long sequence;
+    private final Kind kind;
+    private final Connectable<T> vertex;
+    private final Connection edge;
+
+    GraphChange(long sequence, Kind kind, Connectable<T> vertex, Connection edge) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.vertex = vertex;
+        this.edge = edge;
+    }
+
+    /**
+     * @return the position of the change in the journal, starting from 0.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the kind of modification.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the vertex added or removed, or null for edge changes.
+     */
+    public Connectable<T> getVertex() {
+        return vertex;
+    }
+
+    /**
+     * @return the edge added or removed, or null for vertex changes.
+     */
+    public Connection getEdge() {
+        return edge;
+    }
+
+    @Override
+    public String toString() {
+        return sequence + ": " + kind + " " + (vertex != null ? vertex.get() : edge);
+    }
+}
@@ -0,0 +1,212 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.utils.PersistentMap;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * An immutable version of a VersionedGraph. The writer of the graph can
+ * continue while the snapshot is read: the snapshot never changes, and
+ * can be shared by several reader threads without locks.
+ * </p>
+ * <p>
+ * A snapshot should be closed, ideally with try-with-resources, once it is
+ * no longer read, so that the graph knows the versions still in use and
+ * the version can be reclaimed. A closed snapshot cannot be read anymore.
+ * </p>
+ * @see VersionedGraph#snapshot()
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+public final class GraphSnapshot<T> implements GraphStructure<T>, AutoCloseable {
+    private final VersionedGraph<T> graph;
+    private final long number;
+    private volatile VersionedGraph.Version<T> version;
+
+    GraphSnapshot(VersionedGraph<T> graph, VersionedGraph.Version<T> version) {
+        this.graph = graph;
+        this.number = version.number;
+        this.version = version;
+    }
+
+    private VersionedGraph.Version<T> version() {
+        VersionedGraph.Version<T> _version = version;
+        if (_version == null) {
+            throw new IllegalStateException("The snapshot is closed.");
+        }
+        return _version;
+    }
+
+    private PersistentMap<Connectable<T>, Integer> neighbors(Connectable<T> vertex) {
+        PersistentMap<Connectable<T>, Integer> neighbors = version().adjacency.get(vertex);
+        return neighbors == null ? PersistentMap.empty() : neighbors;
+    }
+
+    /**
+     * @return the number of the version of the graph this snapshot holds.
+     */
+    public long getVersion() {
+        return number;
+    }
+
+    /**
+     * @return the number of vertices.
+     */
+    public int size() {
+        return version().adjacency.size();
+    }
+
+    /**
+     * @return the number of edges, a self-connection counts as one edge.
+     */
+    public long edgeCount() {
+        return version().edgeCount;
+    }
+
+    /**
+     * @param vertex the vertex.
+     * @return true if the vertex is part of this version of the graph.
+     */
+    public boolean contains(Connectable<T> vertex) {
+        return version().adjacency.containsKey(vertex);
+    }
+
+    /**
+     * @return an unmodifiable Set of the vertices.
+     */
+    public Set<Connectable<T>> getVertices() {
+        return Collections.unmodifiableSet(version().adjacency.keySet());
+    }
+
+    /**
+     * @param vertex the vertex.
+     * @return an unmodifiable Set of the neighbors of the vertex, empty if the vertex is unknown.
+     */
+    public Set<Connectable<T>> getNeighbors(Connectable<T> vertex) {
+        return Collections.unmodifiableSet(neighbors(vertex).keySet());
+    }
+
+    /**
+     * @param vertex the vertex.
+     * @return the number of neighbors of the vertex, 0 if the vertex is unknown.
+     */
+    public int degree(Connectable<T> vertex) {
+        return neighbors(vertex).size();
+    }
+
+    /**
+     * @param vertex one vertex.
+     * @param other the other vertex.
+     * @return true if an edge connects both vertices.
+     */
+    public boolean adjacent(Connectable<T> vertex, Connectable<T> other) {
+        return neighbors(vertex).containsKey(other);
+    }
+
+    /**
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     * @return the weight of the edge between both vertices.
+     */
+    public int weight(Connectable<T> vertex, Connectable<T> other) {
+        Integer weight = neighbors(vertex).get(other);
+        if (weight == null) {
+            throw new IllegalArgumentException("The vertices are not connected in this snapshot.");
+        }
+        return weight;
+    }
+
+    /**
+     * Applies an action to every neighbor of a vertex.
+     * @param vertex the vertex.
+     * @param action the action applied to each neighbor.
+     */
+    public void forEachNeighbor(Connectable<T> vertex, Consumer<Connectable<T>> action) {
+        neighbors(vertex).forEach((neighbor, weight) -> action.accept(neighbor));
+    }
+
+    /**
+     * Traverses the vertices reachable from a vertex, depth-first.
+     * @param start the starting vertex.
+     * @param action the action applied to each vertex visited, can be null.
+     * @return the number of vertices visited.
+     */
+    public long traverse(Connectable<T> start, Consumer<T> action) {
+        if (!contains(start)) { return 0; }
+        return traverse(start, action, new HashSet<>());
+    }
+
+    private long traverse(Connectable<T> start, Consumer<T> action, Set<Connectable<T>> visited) {
+        PersistentMap<Connectable<T>, PersistentMap<Connectable<T>, Integer>> adjacency = version().adjacency;
+        ArrayDeque<Connectable<T>> stack = new ArrayDeque<>();
+        stack.push(start);
+        long count = 0;
+        while (!stack.isEmpty()) {
+            Connectable<T> vertex = stack.pop();
+            if (!visited.add(vertex)) { continue; }
+            count++;
+            if (action != null) { action.accept(vertex.get()); }
+            adjacency.get(vertex).forEach((neighbor, weight) -> {
+                if (!visited.contains(neighbor)) { stack.push(neighbor); }
+            });
+        }
+        return count;
+    }
+
+    /**
+     * A snapshot is immutable, so no connection can be attached.
+     * @return false, always.
+     */
+    @Override
+    public boolean addConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    /**
+     * A snapshot is immutable, so no connection can be removed.
+     * @return false, always.
+     */
+    @Override
+    public boolean removeConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    @Override
+    public void traverse() {
+        traverse(null);
+    }
+
+    /**
+     * Traverses to all vertices of this version, one connected component
+     * after another, using the depth-first traversal algorithm.
+     * @param action the action applied to each vertex visited, can be null.
+     */
+    @Override
+    public void traverse(Consumer<T> action) {
+        Set<Connectable<T>> visited = new HashSet<>();
+        for (Connectable<T> vertex : version().adjacency.keySet()) {
+            if (!visited.contains(vertex)) { traverse(vertex, action, visited); }
+        }
+    }
+
+    /**
+     * Releases the version held by this snapshot. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        if (version == null) { return; }
+        synchronized (this) {
+            if (version == null) { return; }
+            version = null;
+        }
+        graph.release(number);
+    }
+}
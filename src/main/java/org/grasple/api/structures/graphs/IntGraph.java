@@ -0,0 +1,160 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.IntVertex;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * An undirected graph of IntVertex objects, keyed by their primitive
+ * int ids. Vertices are indexed in a LongObjectHashMap and neighbors are
+ * stored as ids, so no id is ever boxed, except when a traversal is run
+ * with the Consumer of GraphStructure. Prefer traverseIds() and the
+ * IntConsumer overloads.
+ * </p>
+ * <p>
+ * Vertices can only be connected through the graph, which creates them on
+ * demand; the Connectable-based methods of GraphStructure do not apply.
+ * </p>
+ * @see IntVertex
+ * @see SimpleGraph
+ * @since 1.0
+ * @author Bach Tran
+ */
+public class IntGraph extends PrimitiveGraph<Integer, IntVertex> {
+    /**
+     * Creates an empty graph.
+     */
+    public IntGraph() { }
+
+    /**
+     * Creates an empty graph, presized for the expected number of vertices.
+     * @param expectedVertices the expected number of vertices.
+     */
+    public IntGraph(int expectedVertices) {
+        super(expectedVertices);
+    }
+
+    /**
+     * Adds a new vertex to this graph, unless a vertex already has the id.
+     * @param id the id of the vertex.
+     * @return the vertex of this graph having the id.
+     */
+    public IntVertex addVertex(int id) {
+        return vertexOf(id);
+    }
+
+    /**
+     * @param id the id of the vertex.
+     * @return the vertex having the id, or null if there is none.
+     */
+    public IntVertex getVertex(int id) {
+        return lookup(id);
+    }
+
+    /**
+     * Removes a vertex from this graph, and disconnects it from its neighbors.
+     * @param id the id of the vertex.
+     * @return true if the vertex existed in this graph.
+     */
+    public boolean removeVertex(int id) {
+        return removeId(id);
+    }
+
+    /**
+     * Connects two vertices, creating them if needed.
+     * @param start the id of one endpoint.
+     * @param end the id of the other endpoint.
+     * @return true if the two vertices were not connected before.
+     */
+    public boolean connect(int start, int end) {
+        return connectIds(start, end);
+    }
+
+    /**
+     * Disconnects two vertices.
+     * @param start the id of one endpoint.
+     * @param end the id of the other endpoint.
+     * @return true if the two vertices were connected before.
+     */
+    public boolean disconnect(int start, int end) {
+        return disconnectIds(start, end);
+    }
+
+    /**
+     * @param start the id of one vertex.
+     * @param end the id of the other vertex.
+     * @return true if both vertices exist and are connected.
+     */
+    public boolean adjacent(int start, int end) {
+        return adjacentIds(start, end);
+    }
+
+    /**
+     * Traverses to all vertices that can be reached from the starting
+     * vertex, using the depth-first traversal algorithm.
+     * @param start the id of the starting vertex, which must exist.
+     * @param action the action applied to the id of each vertex visited.
+     */
+    public void traverse(int start, IntConsumer action) {
+        traverseFrom(start, id -> action.accept((int) id));
+    }
+
+    /**
+     * Traverses to all vertices in the graph, one connected component
+     * after another, using the depth-first traversal algorithm.
+     * @param action the action applied to the id of each vertex visited.
+     */
+    public void traverseIds(IntConsumer action) {
+        traverseAll(id -> action.accept((int) id));
+    }
+
+    /**
+     * Traverses to all vertices in the graph. Each id is boxed before
+     * being given to the action, use traverseIds(IntConsumer) to avoid it.
+     * @param action the action applied to each vertex visited.
+     */
+    @Override
+    public void traverse(Consumer<Integer> action) {
+        traverseIds(action::accept);
+    }
+
+    @Override
+    IntVertex create(long id) {
+        return new IntVertex((int) id);
+    }
+
+    @Override
+    long id(IntVertex vertex) {
+        return vertex.getId();
+    }
+
+    @Override
+    boolean link(IntVertex vertex, IntVertex other) {
+        return vertex.connect(other);
+    }
+
+    @Override
+    boolean unlink(IntVertex vertex, IntVertex other) {
+        return vertex.disconnect(other);
+    }
+
+    @Override
+    boolean linked(IntVertex vertex, long other) {
+        return vertex.adjacent((int) other);
+    }
+
+    @Override
+    long[] neighbors(IntVertex vertex) {
+        int[] ids = vertex.getNeighbors();
+        long[] neighbors = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) { neighbors[i] = ids[i]; }
+        return neighbors;
+    }
+
+    @Override
+    void expand(IntVertex vertex, Walk walk) {
+        vertex.forEachNeighbor((IntConsumer) walk);
+    }
+}
@@ -0,0 +1,157 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.LongVertex;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * An undirected graph of LongVertex objects, keyed by their primitive
+ * long ids. Vertices are indexed in a LongObjectHashMap and neighbors are
+ * stored as ids, so no id is ever boxed, except when a traversal is run
+ * with the Consumer of GraphStructure. Prefer traverseIds() and the
+ * LongConsumer overloads.
+ * </p>
+ * <p>
+ * Vertices can only be connected through the graph, which creates them on
+ * demand; the Connectable-based methods of GraphStructure do not apply.
+ * </p>
+ * @see LongVertex
+ * @see SimpleGraph
+ * @since 1.0
+ * @author Bach Tran
+ */
+public class LongGraph extends PrimitiveGraph<Long, LongVertex> {
+    /**
+     * Creates an empty graph.
+     */
+    public LongGraph() { }
+
+    /**
+     * Creates an empty graph, presized for the expected number of vertices.
+     * @param expectedVertices the expected number of vertices.
+     */
+    public LongGraph(int expectedVertices) {
+        super(expectedVertices);
+    }
+
+    /**
+     * Adds a new vertex to this graph, unless a vertex already has the id.
+     * @param id the id of the vertex.
+     * @return the vertex of this graph having the id.
+     */
+    public LongVertex addVertex(long id) {
+        return vertexOf(id);
+    }
+
+    /**
+     * @param id the id of the vertex.
+     * @return the vertex having the id, or null if there is none.
+     */
+    public LongVertex getVertex(long id) {
+        return lookup(id);
+    }
+
+    /**
+     * Removes a vertex from this graph, and disconnects it from its neighbors.
+     * @param id the id of the vertex.
+     * @return true if the vertex existed in this graph.
+     */
+    public boolean removeVertex(long id) {
+        return removeId(id);
+    }
+
+    /**
+     * Connects two vertices, creating them if needed.
+     * @param start the id of one endpoint.
+     * @param end the id of the other endpoint.
+     * @return true if the two vertices were not connected before.
+     */
+    public boolean connect(long start, long end) {
+        return connectIds(start, end);
+    }
+
+    /**
+     * Disconnects two vertices.
+     * @param start the id of one endpoint.
+     * @param end the id of the other endpoint.
+     * @return true if the two vertices were connected before.
+     */
+    public boolean disconnect(long start, long end) {
+        return disconnectIds(start, end);
+    }
+
+    /**
+     * @param start the id of one vertex.
+     * @param end the id of the other vertex.
+     * @return true if both vertices exist and are connected.
+     */
+    public boolean adjacent(long start, long end) {
+        return adjacentIds(start, end);
+    }
+
+    /**
+     * Traverses to all vertices that can be reached from the starting
+     * vertex, using the depth-first traversal algorithm.
+     * @param start the id of the starting vertex, which must exist.
+     * @param action the action applied to the id of each vertex visited.
+     */
+    public void traverse(long start, LongConsumer action) {
+        traverseFrom(start, action);
+    }
+
+    /**
+     * Traverses to all vertices in the graph, one connected component
+     * after another, using the depth-first traversal algorithm.
+     * @param action the action applied to the id of each vertex visited.
+     */
+    public void traverseIds(LongConsumer action) {
+        traverseAll(action);
+    }
+
+    /**
+     * Traverses to all vertices in the graph. Each id is boxed before
+     * being given to the action, use traverseIds(LongConsumer) to avoid it.
+     * @param action the action applied to each vertex visited.
+     */
+    @Override
+    public void traverse(Consumer<Long> action) {
+        traverseIds(action::accept);
+    }
+
+    @Override
+    LongVertex create(long id) {
+        return new LongVertex(id);
+    }
+
+    @Override
+    long id(LongVertex vertex) {
+        return vertex.getId();
+    }
+
+    @Override
+    boolean link(LongVertex vertex, LongVertex other) {
+        return vertex.connect(other);
+    }
+
+    @Override
+    boolean unlink(LongVertex vertex, LongVertex other) {
+        return vertex.disconnect(other);
+    }
+
+    @Override
+    boolean linked(LongVertex vertex, long other) {
+        return vertex.adjacent(other);
+    }
+
+    @Override
+    long[] neighbors(LongVertex vertex) {
+        return vertex.getNeighbors();
+    }
+
+    @Override
+    void expand(LongVertex vertex, Walk walk) {
+        vertex.forEachNeighbor((LongConsumer) walk);
+    }
+}
@@ -0,0 +1,186 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.utils.LongHashSet;
+import org.grasple.api.utils.LongObjectHashMap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * The common part of IntGraph and LongGraph: an undirected graph of
+ * vertices keyed by primitive ids, widened to long, and indexed in a
+ * LongObjectHashMap. Subclasses expose the methods with their own id type,
+ * and tell how their vertices are created, connected and expanded.
+ * @see IntGraph
+ * @see LongGraph
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the boxed type of the ids
+ * @param <V> the type of the vertices
+ */
+abstract class PrimitiveGraph<T, V> implements GraphStructure<T> {
+    private final LongObjectHashMap<V> vertices;
+    private long edgeCount;
+
+    PrimitiveGraph() {
+        vertices = new LongObjectHashMap<>();
+    }
+
+    PrimitiveGraph(int expectedVertices) {
+        vertices = new LongObjectHashMap<>(expectedVertices);
+    }
+
+    /** Creates a vertex without neighbors. */
+    abstract V create(long id);
+
+    /** Gives the id of a vertex, widened to long. */
+    abstract long id(V vertex);
+
+    /** Connects two vertices both ways, returns true if they were not connected. */
+    abstract boolean link(V vertex, V other);
+
+    /** Disconnects two vertices both ways, returns true if they were connected. */
+    abstract boolean unlink(V vertex, V other);
+
+    /** Checks whether a vertex is connected to the vertex of an id. */
+    abstract boolean linked(V vertex, long other);
+
+    /** Copies the ids of the neighbors of a vertex. */
+    abstract long[] neighbors(V vertex);
+
+    /** Gives the id of every neighbor of a vertex to the walk. */
+    abstract void expand(V vertex, Walk walk);
+
+    final V vertexOf(long id) {
+        V vertex = vertices.get(id);
+        if (vertex == null) {
+            vertex = create(id);
+            vertices.put(id, vertex);
+        }
+        return vertex;
+    }
+
+    final V lookup(long id) {
+        return vertices.get(id);
+    }
+
+    final boolean removeId(long id) {
+        V vertex = vertices.get(id);
+        if (vertex == null) { return false; }
+        for (long neighbor : neighbors(vertex)) { disconnectIds(id, neighbor); }
+        vertices.remove(id);
+        return true;
+    }
+
+    final boolean connectIds(long start, long end) {
+        boolean connected = link(vertexOf(start), vertexOf(end));
+        if (connected) { edgeCount++; }
+        return connected;
+    }
+
+    final boolean disconnectIds(long start, long end) {
+        V vertex = vertices.get(start);
+        V other = vertices.get(end);
+        if (vertex == null || other == null || !unlink(vertex, other)) { return false; }
+        edgeCount--;
+        return true;
+    }
+
+    final boolean adjacentIds(long start, long end) {
+        V vertex = vertices.get(start);
+        return vertex != null && linked(vertex, end);
+    }
+
+    final void traverseFrom(long start, LongConsumer action) {
+        if (!vertices.containsKey(start)) {
+            throw new IllegalArgumentException("The starting vertex is not part of the graph.");
+        }
+        new Walk(action).from(start);
+    }
+
+    final void traverseAll(LongConsumer action) {
+        Walk walk = new Walk(action);
+        vertices.forEachValue(vertex -> walk.from(id(vertex)));
+    }
+
+    /**
+     * @return the number of vertices in this graph.
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * @return the number of edges in this graph, a self-connection counts as one edge.
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Vertices of a primitive graph cannot be Connectable objects.
+     * @return false, always.
+     */
+    @Override
+    public boolean addConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    /**
+     * Vertices of a primitive graph cannot be Connectable objects.
+     * @return false, always.
+     */
+    @Override
+    public boolean removeConnection(Connectable<T> connectable, UConnection<Connectable<T>> connection) {
+        return false;
+    }
+
+    @Override
+    public void traverse() {
+        traverseAll(id -> { });
+    }
+
+    /**
+     * An iterative depth-first traversal, sharing its visited ids and its
+     * stack across several starting vertices. It accepts int ids as well,
+     * so that IntGraph expands its vertices without boxing nor wrapping.
+     */
+    final class Walk implements LongConsumer, IntConsumer {
+        private final LongConsumer action;
+        private final LongHashSet visited = new LongHashSet(vertices.size());
+        private long[] stack = new long[16];
+        private int top;
+
+        Walk(LongConsumer action) {
+            this.action = action;
+        }
+
+        void from(long start) {
+            accept(start);
+            while (top > 0) {
+                long id = stack[--top];
+                if (!visited.add(id)) { continue; }
+                action.accept(id);
+                expand(vertices.get(id), this);
+            }
+        }
+
+        /**
+         * Pushes a neighbor to the stack, unless it has been visited.
+         */
+        @Override
+        public void accept(long id) {
+            if (visited.contains(id)) { return; }
+            if (top == stack.length) { stack = Arrays.copyOf(stack, top * 2); }
+            stack[top++] = id;
+        }
+
+        @Override
+        public void accept(int id) {
+            accept((long) id);
+        }
+    }
+}
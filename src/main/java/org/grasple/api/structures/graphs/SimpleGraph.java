@@ -1,5 +1,8 @@
 package org.grasple.api.structures.graphs;
 
+import org.grasple.api.metrics.GraphMetrics;
+import org.grasple.api.metrics.MetricsListener;
+import org.grasple.api.metrics.Operation;
 import org.grasple.api.particles.*;
 import org.grasple.api.utils.DefaultTraverser;
 
@@ -11,7 +14,15 @@ import java.util.function.Consumer;
  * A wrapper class of all vertices and edges to fasten traversals and ease
  * the issues of disconnected components. All edges in a SimpleGraph are
  * undirected. Its vertices can be either connected or disconnected.
+ * Modifications of the graph can be followed through its ChangeJournal.
+ * While the journal is followed, the graph listens to the connections of
+ * its Vertex objects, so connections made or removed directly on the
+ * vertices are recorded as well. Opening the first cursor registers the
+ * graph with every vertex, in O(V) but without allocating per vertex.
+ * The Set of edges only changes through the graph, never through the
+ * journal.
  * @see Vertex
+ * @see ChangeJournal
  * @see Edge
  * @since 1.0
  * @author Bach Tran
@@ -19,6 +30,13 @@ import java.util.function.Consumer;
 public class SimpleGraph<T> implements GraphStructure<T> {
     private Set<Connectable<T>> vertices;
     private Set<Connection> edges;
+    private final ChangeJournal<T> journal = new ChangeJournal<>(this::follow);
+    private final ConnectionListener<T> observer = this::observe;
+    /**
+     * Set on the thread running connectVertices() or disconnectVertices(),
+     * which record their own changes; per thread, so writers do not race.
+     */
+    private final ThreadLocal<Boolean> updating = new ThreadLocal<>();
 
     /**
      * Creates a simple graph with at least one vertex.
@@ -58,7 +76,12 @@ public class SimpleGraph<T> implements GraphStructure<T> {
      * @param vertex the new vertex to be added.
      * @return true if the vertex hasn't been added to this graph.
      */
-    public boolean addVertex(Connectable<T> vertex) { return vertices.add(vertex); }
+    public boolean addVertex(Connectable<T> vertex) {
+        if (!vertices.add(vertex)) { return false; }
+        if (journal.isActive()) { listen(vertex, true); }
+        journal.record(GraphChange.Kind.ADD_VERTEX, vertex, null);
+        return true;
+    }
 
     /**
      * Removes the connectable object from this simple graph.
@@ -66,21 +89,34 @@ public class SimpleGraph<T> implements GraphStructure<T> {
      * @param vertex the vertex to be removed.
      * @return true if the specified vertex exists in the collection of vertices in this graph.
      */
-    public boolean removeVertex(Connectable<T> vertex) { return vertices.remove(vertex); }
+    public boolean removeVertex(Connectable<T> vertex) {
+        if (!vertices.remove(vertex)) { return false; }
+        listen(vertex, false);
+        journal.record(GraphChange.Kind.REMOVE_VERTEX, vertex, null);
+        return true;
+    }
 
     /**
      * Adds a new binary connection to this simple graph.
      * @param connection the connection to be added.
      * @return true if the connection hasn't been added to this graph.
      */
-    public boolean addEdge(Connection connection) { return edges.add(connection); }
+    public boolean addEdge(Connection connection) {
+        if (!edges.add(connection)) { return false; }
+        journal.record(GraphChange.Kind.ADD_EDGE, null, connection);
+        return true;
+    }
 
     /**
      * Removes the binary connection from this simple graph.
      * @param connection the connection to be removed.
      * @return true if the specified connection exists in this simple graph.
      */
-    public boolean removeEdge(Connection connection) { return edges.remove(connection); }
+    public boolean removeEdge(Connection connection) {
+        if (!edges.remove(connection)) { return false; }
+        journal.record(GraphChange.Kind.REMOVE_EDGE, null, connection);
+        return true;
+    }
 
     /**
      * @return the Set of all Vertices in this simple graph.
@@ -96,6 +132,117 @@ public class SimpleGraph<T> implements GraphStructure<T> {
         return edges;
     }
 
+    /**
+     * Retrieves the journal of the modifications made through addVertex(),
+     * removeVertex(), addEdge() and removeEdge(), and of the connections
+     * added to or removed from the Vertex objects of this graph. Modifications
+     * made directly on the Sets of vertices and edges are not recorded.
+     * @return the journal of this graph.
+     */
+    public ChangeJournal<T> getJournal() {
+        return journal;
+    }
+
+    /**
+     * Connects two vertices and registers the connection as an edge of
+     * this graph. Both vertices are added to the graph if needed.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     * @return the connection created.
+     */
+    public Connection connect(Connectable<T> vertex, Connectable<T> other) {
+        addVertex(vertex);
+        addVertex(other);
+        return connectVertices(vertex, other);
+    }
+
+    /**
+     * Disconnects two vertices and removes their connections from the
+     * edges of this graph. The removal is recorded even if the connection
+     * was only held by the vertices.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     */
+    public void disconnect(Connectable<T> vertex, Connectable<T> other) {
+        disconnectVertices(vertex, other);
+    }
+
+    /**
+     * Connects two vertices of this graph, adds the connection to the edges,
+     * and records it once, when it is new to the vertices or to the edges.
+     * The reports of the vertices themselves are ignored, on this thread
+     * only. Subclasses call it to connect vertices under their own locks.
+     * @param vertex one endpoint, already in this graph.
+     * @param other the other endpoint, already in this graph.
+     * @return the connection of the two vertices.
+     */
+    protected final Connection connectVertices(Connectable<T> vertex, Connectable<T> other) {
+        boolean created = !vertex.adjacent(other);
+        Connection connection;
+        updating.set(Boolean.TRUE);
+        try {
+            connection = vertex.connect(other);
+        } finally {
+            updating.remove();
+        }
+        if (edges.add(connection) || created) { journal.record(GraphChange.Kind.ADD_EDGE, null, connection); }
+        return connection;
+    }
+
+    /**
+     * Disconnects two vertices, removes their connection from the edges,
+     * and records the removal once. The reports of the vertices themselves
+     * are ignored, on this thread only. Subclasses call it to disconnect
+     * vertices under their own locks.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     */
+    protected final void disconnectVertices(Connectable<T> vertex, Connectable<T> other) {
+        Connection connection = vertex.getConnection(other);
+        updating.set(Boolean.TRUE);
+        try {
+            vertex.disconnect(other);
+        } finally {
+            updating.remove();
+        }
+        if (connection == null) { return; }
+        edges.remove(connection);
+        journal.record(GraphChange.Kind.REMOVE_EDGE, null, connection);
+    }
+
+    /**
+     * Starts or stops listening to the connections of the vertices, as the
+     * journal starts or stops recording.
+     */
+    private void follow(boolean active) {
+        for (Connectable<T> vertex : vertices) { listen(vertex, active); }
+    }
+
+    private void listen(Connectable<T> vertex, boolean active) {
+        if (!(vertex instanceof Vertex)) { return; }
+        if (active) {
+            ((Vertex<T>) vertex).addListener(observer);
+        } else {
+            ((Vertex<T>) vertex).removeListener(observer);
+        }
+    }
+
+    /**
+     * Records a connection added to or removed from a vertex directly,
+     * without modifying the graph. Both endpoints report it: when the
+     * neighbor is listened to as well, only the first report, made while
+     * the neighbor is not modified yet, is recorded.
+     */
+    private void observe(Connectable<T> vertex, UConnection<Connectable<T>> connection, boolean added) {
+        if (updating.get() != null) { return; }
+        Connectable<T> neighbor = connection.divert(vertex);
+        if (neighbor != vertex && neighbor instanceof Vertex && vertices.contains(neighbor)
+                && (neighbor.getConnection(vertex) == connection) == added) {
+            return;
+        }
+        journal.record(added ? GraphChange.Kind.ADD_EDGE : GraphChange.Kind.REMOVE_EDGE, null, connection);
+    }
+
     /**
      * <p>Exclusive to this class only.</p>
      * Finds connected components in the graph using a depth-first
@@ -104,16 +251,22 @@ public class SimpleGraph<T> implements GraphStructure<T> {
      * @return a collection of vertices represent its connected components.
      */
     public Set<Connectable<T>> separateComponents() {
+        MetricsListener listener = GraphMetrics.getListener();
+        long begin = listener == null ? 0 : System.nanoTime();
         Set<Connectable<T>> _visited = new HashSet<>();
         Set<Connectable<T>> _separations = new HashSet<>();
-        vertices.forEach(candidate -> {
+        long edgeCount = 0;
+        for (Connectable<T> candidate : vertices) {
             if (!_visited.contains(candidate)) {
-                DefaultTraverser<T> traverser = new DefaultTraverser<>(candidate);
+                DefaultTraverser<T> traverser = new DefaultTraverser<>(candidate, null, _visited);
                 traverser.run();
-                _visited.addAll(traverser.getVisited());
+                edgeCount += traverser.getEdgeCount();
                 _separations.add(candidate);
             }
-        });
+        }
+        if (listener != null) {
+            listener.record(Operation.SEPARATE_COMPONENTS, System.nanoTime() - begin, _visited.size(), edgeCount);
+        }
         return _separations;
     }
 
@@ -130,11 +283,29 @@ public class SimpleGraph<T> implements GraphStructure<T> {
 
     @Override
     public void traverse() {
+        traverse(null);
     }
 
+    /**
+     * Traverses to all vertices in the graph, one connected component
+     * after another, using the depth-first traversal algorithm.
+     * @param action the action applied to each vertex visited.
+     */
     @Override
     public void traverse(Consumer<T> action) {
-
+        MetricsListener listener = GraphMetrics.getListener();
+        long begin = listener == null ? 0 : System.nanoTime();
+        Set<Connectable<T>> _visited = new HashSet<>();
+        long edgeCount = 0;
+        for (Connectable<T> candidate : vertices) {
+            if (!_visited.contains(candidate)) {
+                DefaultTraverser<T> traverser = new DefaultTraverser<>(candidate, action, _visited);
+                traverser.run();
+                edgeCount += traverser.getEdgeCount();
+            }
+        }
+        if (listener != null) {
+            listener.record(Operation.GRAPH_TRAVERSAL, System.nanoTime() - begin, _visited.size(), edgeCount);
+        }
     }
 }
-
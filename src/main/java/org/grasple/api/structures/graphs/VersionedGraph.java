@@ -0,0 +1,219 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.utils.PersistentMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * <p>
+ * A graph with multi-version concurrency control: a single writer modifies
+ * the graph while any number of readers traverse point-in-time snapshots
+ * of it, without locks and without ever seeing a modification half done.
+ * All edges are undirected and weighted.
+ * </p>
+ * <p>
+ * The adjacency of the graph is a PersistentMap from each vertex to the
+ * PersistentMap of its neighbors and the weights of the edges. Every
+ * modification builds a new version that shares everything with the
+ * previous one except the paths to the modified entries, so a version
+ * costs memory in proportion to its changes, and snapshot() simply takes
+ * the current version, in O(1). Old versions are reclaimed by the garbage
+ * collector once no snapshot holds them; closing a snapshot releases its
+ * version even if the snapshot object itself is kept.
+ * </p>
+ * <p>
+ * The graph only records the connections made through it: the connections
+ * held by the Connectable objects themselves are neither read nor modified
+ * after the graph is built. Writers are serialized, so several threads
+ * can write, but one writer gets the best throughput.
+ * </p>
+ * @see GraphSnapshot
+ * @see PersistentMap
+ * @since 1.0
+ * @author Bach Tran
+ * @param <T> the datatype that the graph contains
+ */
+public final class VersionedGraph<T> {
+    private volatile Version<T> current = new Version<>(PersistentMap.empty(), 0, 0);
+    /** The number of open snapshots of each version. */
+    private final ConcurrentSkipListMap<Long, Integer> readers = new ConcurrentSkipListMap<>();
+
+    /**
+     * Creates an empty graph.
+     */
+    public VersionedGraph() { }
+
+    /**
+     * Creates a graph with the vertices and the edges of a simple graph, as
+     * its first version. The connections are taken from getEdges() as well
+     * as from the connections of each vertex.
+     * @param graph the simple graph to be copied.
+     */
+    @SuppressWarnings("unchecked")
+    public VersionedGraph(SimpleGraph<T> graph) {
+        Version<T> version = current;
+        for (Connectable<T> vertex : graph.getVertices()) { version = version.addVertex(vertex); }
+        for (Connection connection : graph.getEdges()) {
+            version = version.connect((Connectable<T>) connection.getStart(), (Connectable<T>) connection.getEnd(),
+                    connection.weight());
+        }
+        for (Connectable<T> vertex : graph.getVertices()) {
+            for (UConnection<Connectable<T>> connection : vertex.getConnections()) {
+                version = version.connect(vertex, connection.divert(vertex), connection.weight());
+            }
+        }
+        current = new Version<>(version.adjacency, 1, version.edgeCount);
+    }
+
+    /**
+     * @return the number of the current version, which increases with every modification.
+     */
+    public long getVersion() {
+        return current.number;
+    }
+
+    /**
+     * Takes a snapshot of the current version of the graph, in O(1).
+     * @return the snapshot, to be closed when no longer needed.
+     */
+    public GraphSnapshot<T> snapshot() {
+        Version<T> version = current;
+        readers.merge(version.number, 1, Integer::sum);
+        return new GraphSnapshot<>(this, version);
+    }
+
+    /**
+     * @return the number of snapshots that are not closed yet.
+     */
+    public int getOpenSnapshotCount() {
+        int count = 0;
+        for (int open : readers.values()) { count += open; }
+        return count;
+    }
+
+    /**
+     * @return the number of the oldest version held by an open snapshot, or -1 if there is none.
+     */
+    public long getOldestOpenVersion() {
+        Map.Entry<Long, Integer> oldest = readers.firstEntry();
+        return oldest == null ? -1 : oldest.getKey();
+    }
+
+    /**
+     * Called by a snapshot when it is closed.
+     */
+    void release(long version) {
+        readers.computeIfPresent(version, (number, open) -> open == 1 ? null : open - 1);
+    }
+
+    /**
+     * Adds a vertex, without connection.
+     * @param vertex the vertex to be added.
+     * @return true if the vertex hasn't been added before.
+     */
+    public synchronized boolean addVertex(Connectable<T> vertex) {
+        return publish(current.addVertex(vertex));
+    }
+
+    /**
+     * Removes a vertex and all its edges.
+     * @param vertex the vertex to be removed.
+     * @return true if the vertex was part of the graph.
+     */
+    public synchronized boolean removeVertex(Connectable<T> vertex) {
+        return publish(current.removeVertex(vertex));
+    }
+
+    /**
+     * Connects two vertices with a zero-weight edge, adding them if needed.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     * @return true if the graph changed.
+     */
+    public boolean connect(Connectable<T> vertex, Connectable<T> other) {
+        return connect(vertex, other, 0);
+    }
+
+    /**
+     * Connects two vertices, adding them if needed, or changes the weight
+     * of the edge between them.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     * @param weight the weight of the edge.
+     * @return true if the graph changed.
+     */
+    public synchronized boolean connect(Connectable<T> vertex, Connectable<T> other, int weight) {
+        return publish(current.connect(vertex, other, weight));
+    }
+
+    /**
+     * Removes the edge between two vertices.
+     * @param vertex one endpoint.
+     * @param other the other endpoint.
+     * @return true if the vertices were connected.
+     */
+    public synchronized boolean disconnect(Connectable<T> vertex, Connectable<T> other) {
+        return publish(current.disconnect(vertex, other));
+    }
+
+    private boolean publish(Version<T> version) {
+        if (version == current) { return false; }
+        current = new Version<>(version.adjacency, current.number + 1, version.edgeCount);
+        return true;
+    }
+
+    /**
+     * An immutable state of the graph. The modifications return a new
+     * version, numbered by publish(), or this version if nothing changed.
+     */
+    static final class Version<T> {
+        final PersistentMap<Connectable<T>, PersistentMap<Connectable<T>, Integer>> adjacency;
+        final long number;
+        final long edgeCount;
+
+        Version(PersistentMap<Connectable<T>, PersistentMap<Connectable<T>, Integer>> adjacency,
+                long number, long edgeCount) {
+            this.adjacency = adjacency;
+            this.number = number;
+            this.edgeCount = edgeCount;
+        }
+
+        Version<T> addVertex(Connectable<T> vertex) {
+            if (adjacency.containsKey(vertex)) { return this; }
+            return new Version<>(adjacency.put(vertex, PersistentMap.empty()), number, edgeCount);
+        }
+
+        Version<T> removeVertex(Connectable<T> vertex) {
+            PersistentMap<Connectable<T>, Integer> neighbors = adjacency.get(vertex);
+            if (neighbors == null) { return this; }
+            PersistentMap<Connectable<T>, PersistentMap<Connectable<T>, Integer>> _adjacency = adjacency.remove(vertex);
+            for (Connectable<T> neighbor : neighbors.keySet()) {
+                if (neighbor != vertex) { _adjacency = _adjacency.put(neighbor, _adjacency.get(neighbor).remove(vertex)); }
+            }
+            return new Version<>(_adjacency, number, edgeCount - neighbors.size());
+        }
+
+        Version<T> connect(Connectable<T> vertex, Connectable<T> other, int weight) {
+            Version<T> version = addVertex(vertex).addVertex(other);
+            PersistentMap<Connectable<T>, PersistentMap<Connectable<T>, Integer>> _adjacency = version.adjacency;
+            Integer previous = _adjacency.get(vertex).get(other);
+            if (previous != null && previous == weight) { return version; }
+            _adjacency = _adjacency.put(vertex, _adjacency.get(vertex).put(other, weight));
+            _adjacency = _adjacency.put(other, _adjacency.get(other).put(vertex, weight));
+            return new Version<>(_adjacency, number, previous == null ? edgeCount + 1 : edgeCount);
+        }
+
+        Version<T> disconnect(Connectable<T> vertex, Connectable<T> other) {
+            PersistentMap<Connectable<T>, Integer> neighbors = adjacency.get(vertex);
+            if (neighbors == null || !neighbors.containsKey(other)) { return this; }
+            PersistentMap<Connectable<T>, PersistentMap<Connectable<T>, Integer>> _adjacency =
+                    adjacency.put(vertex, neighbors.remove(other));
+            _adjacency = _adjacency.put(other, _adjacency.get(other).remove(vertex));
+            return new Version<>(_adjacency, number, edgeCount - 1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.grasple.api.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size set of bits that can be set concurrently by several
+ * threads. Setting a bit is a compare-and-set operation, so exactly
+ * one of the threads racing for the same bit succeeds.
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class AtomicBitSet {
+    private final int size;
+    private final AtomicLongArray words;
+
+    /**
+     * Creates a set of bits, all initially cleared.
+     * @param size the number of bits in the set.
+     */
+    public AtomicBitSet(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of an AtomicBitSet cannot be negative.");
+        }
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    /**
+     * @return the number of bits in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index of the bit.
+     * @return true if the bit is set.
+     */
+    public boolean get(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets a bit atomically.
+     * @param index the index of the bit.
+     * @return true if this call has set the bit, false if it was already set.
+     */
+    public boolean set(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) { return false; }
+        } while (!words.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    /**
+     * Clears a bit atomically.
+     * @param index the index of the bit.
+     * @return true if this call has cleared the bit, false if it was already cleared.
+     */
+    public boolean clear(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) == 0) { return false; }
+        } while (!words.compareAndSet(word, current, current & ~mask));
+        return true;
+    }
+
+    /**
+     * Clears all bits. This method should not run concurrently with other writers.
+     */
+    public void clear() {
+        for (int word = 0; word < words.length(); word++) { words.set(word, 0L); }
+    }
+
+    /**
+     * @return the number of bits set.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int word = 0; word < words.length(); word++) { count += Long.bitCount(words.get(word)); }
+        return count;
+    }
+}
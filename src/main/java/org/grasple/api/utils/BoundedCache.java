@@ -0,0 +1,428 @@
+package org.grasple.api.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * <p>
+ * A map of bounded size, which evicts entries to stay within a maximum
+ * number of entries and a maximum total weight, such as an estimate of
+ * their memory footprint. Two eviction policies are available:
+ * </p>
+ * <ul>
+ *     <li>LRU evicts the entry least recently used.</li>
+ *     <li>TINY_LFU is a W-TinyLFU policy. New entries enter a small LRU
+ *     window; when they leave it, they compete for a place in the main
+ *     region with its least recently used entry, and the one used less
+ *     often, according to a compact frequency sketch, is evicted. The main
+ *     region is a segmented LRU that protects the entries used more than
+ *     once. Entries used once, as in a scan, cannot flush the entries that
+ *     are used often.</li>
+ * </ul>
+ * <p>
+ * All methods are synchronized, lookups included, since they reorder
+ * the entries.
+ * </p>
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class BoundedCache<K, V> {
+    /**
+     * The eviction policies.
+     */
+    public enum Policy {
+        /** Least recently used. */
+        LRU,
+        /** Windowed TinyLFU: admission by frequency, in front of a segmented LRU. */
+        TINY_LFU
+    }
+
+    /** The regions an entry can be in. The LRU policy only uses the window. */
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final Policy policy;
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    /** The head (most recently used) of each region; each list is circular, with a sentinel. */
+    private final Node<K, V>[] regions;
+    private final int[] regionSizes = new int[3];
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final FrequencySketch sketch;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache bounded by its number of entries only.
+     * @param policy the eviction policy.
+     * @param maximumSize the maximum number of entries.
+     */
+    public BoundedCache(Policy policy, int maximumSize) {
+        this(policy, maximumSize, Long.MAX_VALUE, (key, value) -> 0);
+    }
+
+    /**
+     * Creates a cache bounded by its number of entries and their total weight.
+     * @param policy the eviction policy.
+     * @param maximumSize the maximum number of entries.
+     * @param maximumWeight the maximum total weight of the entries.
+     * @param weigher computes the weight of an entry, non-negative, when it is put.
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(Policy policy, int maximumSize, long maximumWeight,
+                        ToLongBiFunction<? super K, ? super V> weigher) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of a BoundedCache must be positive.");
+        }
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("The maximum weight of a BoundedCache cannot be negative.");
+        }
+        this.policy = policy;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        regions = new Node[3];
+        for (int region = 0; region < 3; region++) { regions[region] = new Node<>(null, null, 0); }
+        if (policy == Policy.TINY_LFU) {
+            // 1% of the entries in the window, and 80% of the main region protected
+            windowMaximum = Math.max(1, maximumSize / 100);
+            protectedMaximum = (int) ((maximumSize - windowMaximum) * 0.8);
+            sketch = new FrequencySketch(maximumSize);
+        } else {
+            windowMaximum = maximumSize;
+            protectedMaximum = 0;
+            sketch = null;
+        }
+    }
+
+    /**
+     * @return the eviction policy.
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the maximum number of entries.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return the maximum total weight of the entries.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return the total weight of the entries.
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Looks up the value of a key, and records the access.
+     * @param key the key.
+     * @return the value, or null if the key is not cached.
+     */
+    public synchronized V get(K key) {
+        if (sketch != null) { sketch.increment(key); }
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        touch(node);
+        return node.value;
+    }
+
+    /**
+     * Looks up the value of a key without recording the access, neither in
+     * the statistics nor for the eviction.
+     * @param key the key.
+     * @return the value, or null if the key is not cached.
+     */
+    public synchronized V peek(K key) {
+        Node<K, V> node = nodes.get(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Caches the value of a key, then evicts entries if the cache is over
+     * its bounds, possibly the new entry itself.
+     * @param key the key.
+     * @param value the value.
+     * @return the previous value of the key, or null.
+     */
+    public synchronized V put(K key, V value) {
+        long entryWeight = weigher.applyAsLong(key, value);
+        if (entryWeight < 0) {
+            throw new IllegalArgumentException("The weight of an entry cannot be negative.");
+        }
+        Node<K, V> node = nodes.get(key);
+        V previous = null;
+        if (node != null) {
+            previous = node.value;
+            weight += entryWeight - node.weight;
+            node.value = value;
+            node.weight = entryWeight;
+            touch(node);
+        } else {
+            if (sketch != null) { sketch.increment(key); }
+            node = new Node<>(key, value, entryWeight);
+            nodes.put(key, node);
+            weight += entryWeight;
+            link(node, WINDOW);
+            while (regionSizes[WINDOW] > windowMaximum) { admit(regions[WINDOW].previous); }
+        }
+        while (weight > maximumWeight && !nodes.isEmpty()) { evict(victim()); }
+        return previous;
+    }
+
+    /**
+     * Removes the entry of a key.
+     * @param key the key.
+     * @return the value of the key, or null if the key was not cached.
+     */
+    public synchronized V remove(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) { return null; }
+        unlink(node);
+        weight -= node.weight;
+        return node.value;
+    }
+
+    /**
+     * Removes every entry. The statistics are kept.
+     */
+    public synchronized void clear() {
+        nodes.clear();
+        for (int region = 0; region < 3; region++) {
+            regions[region].next = regions[region];
+            regions[region].previous = regions[region];
+            regionSizes[region] = 0;
+        }
+        weight = 0;
+    }
+
+    /**
+     * @return a snapshot of the number of hits, misses and evictions so far.
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions);
+    }
+
+    /**
+     * Moves an entry to the head of its region, or promotes it from probation.
+     */
+    private void touch(Node<K, V> node) {
+        int region = node.region;
+        unlink(node);
+        if (region != PROBATION) {
+            link(node, region);
+            return;
+        }
+        link(node, PROTECTED);
+        while (regionSizes[PROTECTED] > protectedMaximum) {
+            Node<K, V> demoted = regions[PROTECTED].previous;
+            unlink(demoted);
+            link(demoted, PROBATION);
+        }
+    }
+
+    /**
+     * Moves the least recently used entry of the window to the main region,
+     * if the main region has room or if the entry is used more often than
+     * the entry it would replace. With the LRU policy, the window is the
+     * whole cache, so this simply evicts the entry.
+     */
+    private void admit(Node<K, V> candidate) {
+        if (policy == Policy.LRU) {
+            evict(candidate);
+            return;
+        }
+        unlink(candidate);
+        link(candidate, PROBATION);
+        if (nodes.size() <= maximumSize) { return; }
+        // the candidate is at the head of probation, the victim is the least recently used entry of the main region
+        Node<K, V> victim = regionSizes[PROBATION] > 1 ? regions[PROBATION].previous
+                : regionSizes[PROTECTED] > 0 ? regions[PROTECTED].previous : candidate;
+        evict(sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate);
+    }
+
+    /**
+     * @return the entry to evict when the cache is too heavy.
+     */
+    private Node<K, V> victim() {
+        for (int region : new int[]{PROBATION, PROTECTED, WINDOW}) {
+            if (regionSizes[region] > 0) { return regions[region].previous; }
+        }
+        throw new IllegalStateException("The cache is empty.");
+    }
+
+    private void evict(Node<K, V> node) {
+        nodes.remove(node.key);
+        unlink(node);
+        weight -= node.weight;
+        evictions++;
+    }
+
+    private void link(Node<K, V> node, int region) {
+        Node<K, V> head = regions[region];
+        node.region = region;
+        node.previous = head;
+        node.next = head.next;
+        head.next.previous = node;
+        head.next = node;
+        regionSizes[region]++;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        regionSizes[node.region]--;
+    }
+
+    /**
+     * An entry, linked in the list of its region.
+     */
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        long weight;
+        int region;
+        Node<K, V> previous = this;
+        Node<K, V> next = this;
+
+        Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters estimating how often each key
+     * was accessed recently. All counters are halved once the number of
+     * accesses reaches ten times the size of the cache, so that the
+     * frequencies age.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        /** 16 counters of 4 bits per long. */
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int length = Integer.highestOneBit(Math.max(2, Math.min(maximumSize, 1 << 26)) - 1) << 1;
+            table = new long[Math.max(length / 4, 1)];
+            sampleSize = 10 * Math.max(maximumSize, 16);
+        }
+
+        private int index(Object key, int depth) {
+            long hash = (key.hashCode() ^ SEEDS[depth]) * SEEDS[depth];
+            hash ^= hash >>> 32;
+            // the counter: a slot of the table, then one of its 16 nibbles
+            return (int) (hash >>> 4 & (table.length - 1)) << 4 | (int) (hash & 15);
+        }
+
+        int frequency(Object key) {
+            int frequency = Integer.MAX_VALUE;
+            for (int depth = 0; depth < 4; depth++) {
+                int counter = index(key, depth);
+                frequency = Math.min(frequency, (int) (table[counter >>> 4] >>> ((counter & 15) << 2)) & 15);
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            boolean added = false;
+            for (int depth = 0; depth < 4; depth++) {
+                int counter = index(key, depth);
+                int shift = (counter & 15) << 2;
+                if ((table[counter >>> 4] >>> shift & 15) != 15) {
+                    table[counter >>> 4] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) { table[i] = (table[i] >>> 1) & RESET_MASK; }
+                additions /= 2;
+            }
+        }
+    }
+
+    /**
+     * The hits, misses and evictions of a cache.
+     */
+    public static final class Statistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        Statistics(long hits, long misses, long evictions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        /**
+         * @return the number of lookups that found their key.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return the number of lookups that did not find their key.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return the number of entries evicted to respect the bounds.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return the fraction of the lookups that found their key, 0 if there was none.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions",
+                    hits, misses, 100 * hitRate(), evictions);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Finds the connected components of a SimpleGraph with a DisjointSet.
+ * Unlike SimpleGraph.separateComponents(), no traversal is involved:
+ * the vertices are indexed once, then the edges of the graph are
+ * streamed once, each one merging the components of its endpoints.
+ * </p>
+ * <p>
+ * Vertices and edges added to the graph afterwards can be fed to the
+ * finder with addVertex() and addEdge(), the components stay current
+ * without being computed again. Removals are not supported.
+ * </p>
+ * @see DisjointSet
+ * @see SimpleGraph
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class ComponentFinder<T> {
+    private final DisjointSet components;
+    private final Map<Connectable<T>, Integer> ids;
+    private final List<Connectable<T>> vertices;
+
+    /**
+     * Creates a finder with no vertices.
+     */
+    public ComponentFinder() {
+        components = new DisjointSet();
+        ids = new HashMap<>();
+        vertices = new ArrayList<>();
+    }
+
+    /**
+     * Finds the components formed by the vertices and the edges of a simple graph.
+     * @param graph the simple graph.
+     */
+    public ComponentFinder(SimpleGraph<T> graph) {
+        int size = graph.getVertices().size();
+        components = new DisjointSet(0);
+        ids = new HashMap<>(size * 2);
+        vertices = new ArrayList<>(size);
+        graph.getVertices().forEach(this::addVertex);
+        graph.getEdges().forEach(this::addEdge);
+    }
+
+    /**
+     * Adds a vertex, in its own component.
+     * @param vertex the vertex to be added.
+     * @return true if the vertex hasn't been added before.
+     */
+    public boolean addVertex(Connectable<T> vertex) {
+        if (ids.containsKey(vertex)) { return false; }
+        ids.put(vertex, components.add());
+        vertices.add(vertex);
+        return true;
+    }
+
+    /**
+     * Merges the components of both endpoints of an edge.
+     * Endpoints that haven't been added before are added first.
+     * @param connection the edge to be added.
+     * @return true if the edge has merged two different components.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean addEdge(Connection connection) {
+        Connectable<T> start = (Connectable<T>) connection.getStart();
+        Connectable<T> end = (Connectable<T>) connection.getEnd();
+        addVertex(start);
+        addVertex(end);
+        return components.union(ids.get(start), ids.get(end));
+    }
+
+    /**
+     * @return the number of vertices known to this finder.
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * @return the number of connected components.
+     */
+    public int componentCount() {
+        return components.count();
+    }
+
+    /**
+     * Retrieves the id of the component containing a vertex. Ids are
+     * stable until the component is merged with another one.
+     * @param vertex the vertex.
+     * @return the id of its component, or -1 if the vertex is unknown.
+     */
+    public int componentOf(Connectable<T> vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : components.find(id);
+    }
+
+    /**
+     * @param vertex the vertex.
+     * @return the representative vertex of its component, or null if the vertex is unknown.
+     */
+    public Connectable<T> representative(Connectable<T> vertex) {
+        int component = componentOf(vertex);
+        return component < 0 ? null : vertices.get(component);
+    }
+
+    /**
+     * @param vertex the vertex.
+     * @return the number of vertices in its component, or 0 if the vertex is unknown.
+     */
+    public int componentSize(Connectable<T> vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? 0 : components.sizeOf(id);
+    }
+
+    /**
+     * @param first the first vertex.
+     * @param second the second vertex.
+     * @return true if both vertices are known and belong to the same component.
+     */
+    public boolean connected(Connectable<T> first, Connectable<T> second) {
+        int component = componentOf(first);
+        return component >= 0 && component == componentOf(second);
+    }
+
+    /**
+     * @return a Set that contains one representative vertex per component.
+     */
+    public Set<Connectable<T>> getRepresentatives() {
+        Set<Connectable<T>> representatives = new HashSet<>(components.count() * 2);
+        for (int id = 0; id < vertices.size(); id++) {
+            if (components.find(id) == id) { representatives.add(vertices.get(id)); }
+        }
+        return representatives;
+    }
+
+    /**
+     * @return a Map from each representative vertex to the size of its component.
+     */
+    public Map<Connectable<T>, Integer> getComponentSizes() {
+        Map<Connectable<T>, Integer> sizes = new HashMap<>(components.count() * 2);
+        for (int id = 0; id < vertices.size(); id++) {
+            if (components.find(id) == id) { sizes.put(vertices.get(id), components.sizeOf(id)); }
+        }
+        return sizes;
+    }
+
+    /**
+     * Labels every vertex with the component it belongs to. Labels are dense,
+     * from 0 to componentCount() - 1, in the order the components were first seen.
+     * @return a Map from each vertex to the label of its component.
+     */
+    public Map<Connectable<T>, Integer> getComponentIds() {
+        Map<Connectable<T>, Integer> labels = new HashMap<>(vertices.size() * 2);
+        int[] labelOfRoot = new int[vertices.size()];
+        int next = 0;
+        for (int id = 0; id < vertices.size(); id++) {
+            int root = components.find(id);
+            if (labelOfRoot[root] == 0) { labelOfRoot[root] = ++next; }
+            labels.put(vertices.get(id), labelOfRoot[root] - 1);
+        }
+        return labels;
+    }
+}
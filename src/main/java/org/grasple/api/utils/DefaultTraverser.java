@@ -1,28 +1,59 @@
 package org.grasple.api.utils;
 
+import org.grasple.api.metrics.GraphMetrics;
+import org.grasple.api.metrics.MetricsListener;
+import org.grasple.api.metrics.Operation;
 import org.grasple.api.particles.Connectable;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * Contains the Depth First Traversal algorithm. The class
- * implements the Runnable interface.
+ * implements the Runnable interface. The traversal keeps its
+ * own stack on the heap, thus the depth of the graph is not
+ * limited by the size of the thread stack. Vertices are visited
+ * in the same order as a recursive traversal would, and the stack
+ * only holds the unvisited neighbors of the vertices on the current
+ * path. Each run reports a TRAVERSAL to the installed
+ * MetricsListener, if any.
  * @see Runnable
+ * @see GraphMetrics
  * @param <T> the datatype that the traverser will work on
  * @author Bach Tran
  */
 public final class DefaultTraverser<T> implements Runnable {
     private Connectable<T> start;
     private Consumer<T> action;
-    private Set<Connectable<T>> visited = new HashSet<>();
+    private Set<Connectable<T>> visited;
+    private final BiConsumer<Connectable<T>, Consumer<Connectable<T>>> expansion;
+    /** The unvisited neighbors of the vertices on the current path, those of the deepest vertex last. */
+    private Object[] stack = new Object[16];
+    private int size;
+    /** For each vertex on the current path, the position of its first neighbor in the stack. */
+    private int[] frames = new int[16];
+    /** For each vertex on the current path, the position of its next neighbor to be visited. */
+    private int[] cursors = new int[16];
+    private int depth;
+    private long visitCount;
+    private long edgeCount;
+    private volatile boolean halted;
+    /** Pushes a neighbor to the stack, created once to avoid allocations during the traversal. */
+    private final Consumer<Connectable<T>> push = neighbor -> {
+        edgeCount++;
+        if (visited.contains(neighbor)) { return; }
+        if (size == stack.length) { stack = Arrays.copyOf(stack, size * 2); }
+        stack[size++] = neighbor;
+    };
     /**
      * Creates a new DefaultTraverser contains the
      * depth-first traversal algorithm.
      * @param start the vertex where the algorithm commences.
      * */
-    public DefaultTraverser(Connectable<T> start) { this.start = start; }
+    public DefaultTraverser(Connectable<T> start) { this(start, null); }
 
     /**
      * Creates a traverser object with a starting vertex and the action.
@@ -30,8 +61,53 @@ public final class DefaultTraverser<T> implements Runnable {
      * @param action the action applied to each vertex visited.
      */
     public DefaultTraverser(Connectable<T> start, Consumer<T> action) {
+        this(start, action, new HashSet<>());
+    }
+
+    /**
+     * Creates a traverser object that shares its visited vertices with
+     * other traversals. Vertices already in the given Set are neither
+     * visited nor expanded, which allows several traversals to cover
+     * different parts of a graph without visiting a vertex twice.
+     * @param start the starting vertex to run the algorithm.
+     * @param action the action applied to each vertex visited, can be null.
+     * @param visited the Set of visited vertices, updated by the algorithm.
+     */
+    public DefaultTraverser(Connectable<T> start, Consumer<T> action, Set<Connectable<T>> visited) {
+        this(start, action, visited, Connectable::forEachNeighbor);
+    }
+
+    /**
+     * Creates a traverser object that marks the visited vertices in a
+     * reusable VisitedState, by their index, instead of a HashSet. The
+     * state is not cleared by the traverser: clear it between two
+     * traversals that must not share their visited vertices.
+     * @param start the starting vertex to run the algorithm.
+     * @param action the action applied to each vertex visited, can be null.
+     * @param index the indices of the vertices, extended with the vertices reached.
+     * @param visited the visited vertices, updated by the algorithm.
+     * @see VertexIndex#asSet(VisitedState)
+     */
+    public DefaultTraverser(Connectable<T> start, Consumer<T> action, VertexIndex<T> index, VisitedState visited) {
+        this(start, action, index.asSet(visited));
+    }
+
+    /**
+     * Creates a traverser object that expands vertices with a custom
+     * function instead of Connectable.forEachNeighbor(), for instance
+     * to walk a directed graph against the direction of its connections.
+     * @param start the starting vertex to run the algorithm.
+     * @param action the action applied to each vertex visited, can be null.
+     * @param visited the Set of visited vertices, updated by the algorithm.
+     * @param expansion the function passing each vertex to follow from a
+     *                  vertex to the given consumer.
+     */
+    public DefaultTraverser(Connectable<T> start, Consumer<T> action, Set<Connectable<T>> visited,
+                            BiConsumer<Connectable<T>, Consumer<Connectable<T>>> expansion) {
         this.start = start;
         this.action = action;
+        this.visited = visited;
+        this.expansion = expansion;
     }
 
     /**
@@ -42,22 +118,97 @@ public final class DefaultTraverser<T> implements Runnable {
         return visited;
     }
 
+    /**
+     * @return the number of vertices visited by the last run.
+     */
+    public long getVisitCount() {
+        return visitCount;
+    }
+
+    /**
+     * @return the number of connections examined by the last run, each
+     * undirected connection being examined from both of its ends.
+     */
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Stops the traversal as soon as the vertex being expanded is done.
+     * This method can be called from another thread, or from the action
+     * or the expansion function. A halted traverser does not visit any
+     * vertex in later runs.
+     */
+    public void halt() {
+        halted = true;
+    }
+
+    /**
+     * @return true if halt() has been called.
+     */
+    public boolean isHalted() {
+        return halted;
+    }
+
     @Override
     public void run() {
-        recursion(start);
+        MetricsListener listener = GraphMetrics.getListener();
+        long begin = listener == null ? 0 : System.nanoTime();
+        visitCount = 0;
+        edgeCount = 0;
+        iteration(start);
+        if (listener != null) {
+            listener.record(Operation.TRAVERSAL, System.nanoTime() - begin, visitCount, edgeCount);
+        }
     }
 
     /**
-     * The underlying recursive implementation of
-     * the depth-first traversal algorithm.
+     * The underlying iterative implementation of the depth-first
+     * traversal algorithm. Each vertex visited pushes a frame of its
+     * unvisited neighbors, through the expansion function, and the
+     * frame is walked with a cursor, as a recursive call would walk
+     * the neighbors, so a vertex is only expanded once.
      * @param vertex the starting vertex of the algorithm
      */
-    private void recursion(Connectable<T> vertex) {
+    @SuppressWarnings("unchecked")
+    private void iteration(Connectable<T> vertex) {
+        if (!visit(vertex)) { return; }
+        while (depth > 0) {
+            if (halted) { break; }
+            int top = depth - 1;
+            if (cursors[top] == size) {
+                // every neighbor of the deepest vertex is done
+                Arrays.fill(stack, frames[top], size, null);
+                size = frames[top];
+                depth--;
+                continue;
+            }
+            Connectable<T> neighbor = (Connectable<T>) stack[cursors[top]++];
+            visit(neighbor);
+        }
+        Arrays.fill(stack, 0, size, null);
+        size = 0;
+        depth = 0;
+    }
+
+    /**
+     * Marks a vertex as visited, applies the action on it, and pushes
+     * the frame of its neighbors.
+     * @param vertex the vertex to be visited
+     * @return true if the vertex has not been visited before.
+     */
+    private boolean visit(Connectable<T> vertex) {
+        if (halted || !visited.add(vertex)) { return false; }
+        visitCount++;
         if (action != null) { action.accept(vertex.get()); }
-        visited.add(vertex);
-        vertex.getNeighbors()
-                .stream()
-                .filter(neighbor -> !visited.contains(neighbor))
-                .forEach(this::recursion);
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+            cursors = Arrays.copyOf(cursors, depth * 2);
+        }
+        frames[depth] = size;
+        expansion.accept(vertex, push);
+        cursors[depth] = frames[depth];
+        depth++;
+        return true;
     }
 }
@@ -0,0 +1,131 @@
+package org.grasple.api.utils;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set (union-find) structure over dense int elements
+ * [0, size()). Finding the representative of an element compresses
+ * the path to it, and unions attach the set of lower rank under the
+ * other one, so both operations run in amortized near-constant time.
+ * New elements can be added at any time, each one in its own set.
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class DisjointSet {
+    private int[] parents;
+    private int[] sizes;
+    private byte[] ranks;
+    private int size;
+    private int count;
+
+    /**
+     * Creates an empty disjoint-set.
+     */
+    public DisjointSet() {
+        this(0, 16);
+    }
+
+    /**
+     * Creates a disjoint-set of singletons.
+     * @param size the number of elements, each one in its own set.
+     */
+    public DisjointSet(int size) {
+        this(size, size);
+    }
+
+    private DisjointSet(int size, int capacity) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of a DisjointSet cannot be negative.");
+        }
+        capacity = Math.max(capacity, 1);
+        parents = new int[capacity];
+        sizes = new int[capacity];
+        ranks = new byte[capacity];
+        for (int i = 0; i < size; i++) { add(); }
+    }
+
+    /**
+     * Adds a new element in its own set.
+     * @return the new element.
+     */
+    public int add() {
+        if (size == parents.length) {
+            parents = Arrays.copyOf(parents, size * 2);
+            sizes = Arrays.copyOf(sizes, size * 2);
+            ranks = Arrays.copyOf(ranks, size * 2);
+        }
+        parents[size] = size;
+        sizes[size] = 1;
+        count++;
+        return size++;
+    }
+
+    /**
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of disjoint sets.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Finds the representative of the set containing an element.
+     * @param element the element.
+     * @return the representative of its set.
+     */
+    public int find(int element) {
+        int root = element;
+        while (parents[root] != root) { root = parents[root]; }
+        while (parents[element] != root) {
+            int next = parents[element];
+            parents[element] = root;
+            element = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merges the sets containing two elements.
+     * @param first the first element.
+     * @param second the second element.
+     * @return true if the two elements were in different sets.
+     */
+    public boolean union(int first, int second) {
+        int a = find(first);
+        int b = find(second);
+        if (a == b) { return false; }
+        if (ranks[a] < ranks[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        parents[b] = a;
+        sizes[a] += sizes[b];
+        if (ranks[a] == ranks[b]) { ranks[a]++; }
+        count--;
+        return true;
+    }
+
+    /**
+     * @param first the first element.
+     * @param second the second element.
+     * @return true if the two elements are in the same set.
+     */
+    public boolean connected(int first, int second) {
+        return find(first) == find(second);
+    }
+
+    /**
+     * @param element the element.
+     * @return the number of elements in its set.
+     */
+    public int sizeOf(int element) {
+        return sizes[find(element)];
+    }
+}
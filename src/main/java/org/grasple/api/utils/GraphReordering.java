@@ -0,0 +1,420 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Relabels the vertices of a CompactGraph so that vertices visited close
+ * in time are stored close in memory. A traversal then reads the arrays
+ * of the graph, and the per-vertex arrays of the algorithm, in runs
+ * instead of jumping around, which reduces the cache misses. The
+ * following orderings are available:
+ * </p>
+ * <ul>
+ *     <li>BREADTH_FIRST: the order in which a breadth-first search
+ *     reaches the vertices, component after component.</li>
+ *     <li>REVERSE_CUTHILL_MCKEE: a breadth-first search from a
+ *     pseudo-peripheral vertex that expands the neighbors of lower degree
+ *     first, reversed. It keeps the neighbors of every vertex within a
+ *     narrow band of ids.</li>
+ *     <li>DEGREE: the vertices of higher degree first, so the hubs that
+ *     most traversals go through share the same cache lines.</li>
+ *     <li>COMMUNITY: an ordering in the style of Rabbit Order. Vertices are
+ *     merged, from the lowest degree up, into the neighboring community
+ *     that improves the modularity the most; the resulting dendrogram is
+ *     laid out depth-first, so every community occupies a contiguous
+ *     range of ids.</li>
+ * </ul>
+ * <p>
+ * Ties are broken by the original ids, hence the result depends only on
+ * the input graph. The neighbors of a vertex of the relabelled graph are
+ * sorted by their new ids, like in every CompactGraph.
+ * </p>
+ * @see CompactGraph
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class GraphReordering<T> {
+    /**
+     * The ordering of the vertices.
+     */
+    public enum Strategy {
+        /** Breadth-first order. */
+        BREADTH_FIRST,
+        /** Reverse Cuthill-McKee order. */
+        REVERSE_CUTHILL_MCKEE,
+        /** Descending degree order. */
+        DEGREE,
+        /** Depth-first order of a modularity-based community dendrogram. */
+        COMMUNITY
+    }
+
+    private final CompactGraph<T> original;
+    private final int[] newIds;
+    private final int[] oldIds;
+    private CompactGraph<T> relabelled;
+
+    /**
+     * Computes the ordering of a graph.
+     * @param graph the graph to be relabelled.
+     * @param strategy the ordering.
+     */
+    public GraphReordering(CompactGraph<T> graph, Strategy strategy) {
+        this.original = graph;
+        switch (strategy) {
+            case BREADTH_FIRST:
+                oldIds = breadthFirst(graph, false);
+                break;
+            case REVERSE_CUTHILL_MCKEE:
+                oldIds = breadthFirst(graph, true);
+                reverse(oldIds);
+                break;
+            case DEGREE:
+                oldIds = byDegree(graph);
+                break;
+            case COMMUNITY:
+                oldIds = byCommunity(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+        newIds = new int[oldIds.length];
+        for (int id = 0; id < oldIds.length; id++) { newIds[oldIds[id]] = id; }
+    }
+
+    /**
+     * @return the graph whose vertices are relabelled.
+     */
+    public CompactGraph<T> getOriginal() {
+        return original;
+    }
+
+    /**
+     * Builds the relabelled graph, once.
+     * @return the graph with the new ids.
+     */
+    public CompactGraph<T> getGraph() {
+        if (relabelled == null) { relabelled = relabel(original, newIds); }
+        return relabelled;
+    }
+
+    /**
+     * @param oldId the id of a vertex in the original graph.
+     * @return the id of the vertex in the relabelled graph.
+     */
+    public int newId(int oldId) {
+        return newIds[oldId];
+    }
+
+    /**
+     * @param newId the id of a vertex in the relabelled graph.
+     * @return the id of the vertex in the original graph.
+     */
+    public int oldId(int newId) {
+        return oldIds[newId];
+    }
+
+    /**
+     * @return a copy of the permutation, mapping each original id to its new id.
+     */
+    public int[] getPermutation() {
+        return newIds.clone();
+    }
+
+    /**
+     * Builds a copy of a graph with new ids.
+     * @param graph the graph.
+     * @param permutation the new id of each vertex, a permutation of [0, size()).
+     * @param <T> the datatype that the graph contains
+     * @return the relabelled graph.
+     */
+    public static <T> CompactGraph<T> relabel(CompactGraph<T> graph, int[] permutation) {
+        int n = graph.size();
+        if (permutation.length != n) {
+            throw new IllegalArgumentException("The permutation must have one id per vertex.");
+        }
+        int[] inverse = new int[n];
+        Arrays.fill(inverse, -1);
+        for (int v = 0; v < n; v++) {
+            if (permutation[v] < 0 || permutation[v] >= n || inverse[permutation[v]] >= 0) {
+                throw new IllegalArgumentException("The ids must be a permutation of [0, size()).");
+            }
+            inverse[permutation[v]] = v;
+        }
+        CompactGraph.Builder<T> builder = new CompactGraph.Builder<>(n, (int) Math.min(Integer.MAX_VALUE,
+                graph.edgeCount()));
+        for (int id = 0; id < n; id++) { builder.addVertex(graph.get(inverse[id])); }
+        for (int v = 0; v < n; v++) {
+            for (int arc = graph.offset(v), end = graph.offset(v + 1); arc < end; arc++) {
+                // each edge is stored by both of its endpoints, it is added once
+                int target = graph.target(arc);
+                if (target >= v) { builder.addEdge(permutation[v], permutation[target], graph.weight(arc)); }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Measures the locality of a graph: the average, over all arcs, of the
+     * base-2 logarithm of the distance between the ids of their endpoints.
+     * The lower, the closer neighbors are stored to each other.
+     * @param graph the graph.
+     * @return the average log gap of the arcs, 0 for a graph without arcs.
+     */
+    public static double logGap(CompactGraph<?> graph) {
+        long arcs = graph.offset(graph.size());
+        if (arcs == 0) { return 0; }
+        double sum = 0;
+        for (int v = 0; v < graph.size(); v++) {
+            for (int arc = graph.offset(v), end = graph.offset(v + 1); arc < end; arc++) {
+                sum += 31 - Integer.numberOfLeadingZeros(Math.abs(graph.target(arc) - v) + 1);
+            }
+        }
+        return sum / arcs;
+    }
+
+    /**
+     * @param graph the graph.
+     * @return the largest distance between the ids of two adjacent vertices.
+     */
+    public static int bandwidth(CompactGraph<?> graph) {
+        int bandwidth = 0;
+        for (int v = 0; v < graph.size(); v++) {
+            if (graph.degree(v) == 0) { continue; }
+            // the arcs are sorted, the extremes are the first and the last
+            bandwidth = Math.max(bandwidth, Math.max(v - graph.target(graph.offset(v)),
+                    graph.target(graph.offset(v + 1) - 1) - v));
+        }
+        return bandwidth;
+    }
+
+    /**
+     * Orders the vertices by breadth-first searches. For Cuthill-McKee, each
+     * search starts from a pseudo-peripheral vertex and expands neighbors by
+     * ascending degree; otherwise searches start from the lowest unvisited id
+     * and expand neighbors by ascending id.
+     */
+    private static int[] breadthFirst(CompactGraph<?> graph, boolean cuthillMcKee) {
+        int n = graph.size();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] starts = cuthillMcKee ? byAscendingDegree(graph) : null;
+        int[] levels = null;
+        int[] queue = null;
+        if (cuthillMcKee) {
+            levels = new int[n];
+            queue = new int[n];
+            Arrays.fill(levels, -1);
+        }
+        int written = 0;
+        for (int i = 0; i < n; i++) {
+            int start = cuthillMcKee ? starts[i] : i;
+            if (visited[start]) { continue; }
+            if (cuthillMcKee) { start = peripheral(graph, start, levels, queue); }
+            int head = written;
+            order[written++] = start;
+            visited[start] = true;
+            while (head < written) {
+                int vertex = order[head++];
+                int from = written;
+                for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                    int neighbor = graph.target(arc);
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        order[written++] = neighbor;
+                    }
+                }
+                if (cuthillMcKee && written - from > 1) { sortByDegree(graph, order, from, written); }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Finds a pseudo-peripheral vertex of the component of a vertex, with the
+     * heuristic of George and Liu: jump to a vertex of lowest degree in the
+     * last level of a breadth-first search while the eccentricity grows.
+     * The levels must be -1 on entry, they are restored before returning.
+     */
+    private static int peripheral(CompactGraph<?> graph, int start, int[] levels, int[] queue) {
+        int eccentricity = -1;
+        int vertex = start;
+        while (true) {
+            levels[vertex] = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = vertex;
+            while (head < tail) {
+                int current = queue[head++];
+                for (int arc = graph.offset(current), end = graph.offset(current + 1); arc < end; arc++) {
+                    int neighbor = graph.target(arc);
+                    if (levels[neighbor] < 0) {
+                        levels[neighbor] = levels[current] + 1;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+            int depth = levels[queue[tail - 1]];
+            int candidate = -1;
+            for (int i = tail - 1; i >= 0 && levels[queue[i]] == depth; i--) {
+                int last = queue[i];
+                if (candidate < 0 || graph.degree(last) < graph.degree(candidate)
+                        || graph.degree(last) == graph.degree(candidate) && last < candidate) {
+                    candidate = last;
+                }
+            }
+            for (int i = 0; i < tail; i++) { levels[queue[i]] = -1; }
+            if (depth <= eccentricity || candidate == vertex) { return vertex; }
+            eccentricity = depth;
+            vertex = candidate;
+        }
+    }
+
+    /**
+     * Sorts a range of vertex ids by ascending degree, then ascending id.
+     */
+    private static void sortByDegree(CompactGraph<?> graph, int[] ids, int from, int to) {
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) { keys[i - from] = ((long) graph.degree(ids[i]) << 32) | ids[i]; }
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++) { ids[i] = (int) keys[i - from]; }
+    }
+
+    private static int[] byAscendingDegree(CompactGraph<?> graph) {
+        int[] ids = new int[graph.size()];
+        for (int v = 0; v < ids.length; v++) { ids[v] = v; }
+        sortByDegree(graph, ids, 0, ids.length);
+        return ids;
+    }
+
+    private static int[] byDegree(CompactGraph<?> graph) {
+        int n = graph.size();
+        long[] keys = new long[n];
+        // descending degree, then ascending id
+        for (int v = 0; v < n; v++) { keys[v] = ((long) (Integer.MAX_VALUE - graph.degree(v)) << 32) | v; }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) { order[i] = (int) keys[i]; }
+        return order;
+    }
+
+    /**
+     * Builds the community dendrogram by merging each vertex, from the lowest
+     * degree up, into the neighboring community of highest modularity gain,
+     * then lays the dendrogram out depth-first. The arcs of a merged community
+     * are aggregated by neighboring community and handed to the community it
+     * is merged into, so they are not scanned again member by member.
+     */
+    private static int[] byCommunity(CompactGraph<?> graph) {
+        int n = graph.size();
+        double arcs = graph.offset(n);
+        int[] parents = new int[n];
+        for (int v = 0; v < n; v++) { parents[v] = v; }
+        // the children of each vertex in the dendrogram, as linked lists
+        int[] firstChild = new int[n];
+        int[] lastChild = new int[n];
+        int[] nextSibling = new int[n];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(lastChild, -1);
+        Arrays.fill(nextSibling, -1);
+        // the sum of the degrees of the members of each community, kept at its root
+        long[] volumes = new long[n];
+        for (int v = 0; v < n; v++) { volumes[v] = graph.degree(v); }
+        // the aggregated arcs handed over by the communities merged into each vertex, as (target, weight) pairs
+        int[][] inherited = new int[n][];
+        int[] inheritedSizes = new int[n];
+        // the number of arcs from the current community to each other community
+        long[] weights = new long[n];
+        int[] touched = new int[n];
+        for (int vertex : byAscendingDegree(graph)) {
+            if (arcs == 0) { break; }
+            int count = 0;
+            for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                int community = find(parents, graph.target(arc));
+                if (community != vertex && weights[community]++ == 0) { touched[count++] = community; }
+            }
+            int[] pairs = inherited[vertex];
+            for (int i = 0; i < inheritedSizes[vertex]; i += 2) {
+                int community = find(parents, pairs[i]);
+                if (community == vertex) { continue; }
+                if (weights[community] == 0) { touched[count++] = community; }
+                weights[community] += pairs[i + 1];
+            }
+            inherited[vertex] = null;
+            int best = -1;
+            double bestGain = 0;
+            for (int i = 0; i < count; i++) {
+                int community = touched[i];
+                // the modularity gain of the merge, up to a positive factor
+                double gain = weights[community] - volumes[vertex] * (double) volumes[community] / arcs;
+                if (gain > bestGain || gain == bestGain && best >= 0 && community < best) {
+                    best = community;
+                    bestGain = gain;
+                }
+            }
+            if (best >= 0) {
+                parents[vertex] = best;
+                volumes[best] += volumes[vertex];
+                if (lastChild[best] < 0) {
+                    firstChild[best] = vertex;
+                } else {
+                    nextSibling[lastChild[best]] = vertex;
+                }
+                lastChild[best] = vertex;
+                int size = inheritedSizes[best];
+                int[] target = inherited[best];
+                if (target == null || target.length < size + 2 * count) {
+                    target = Arrays.copyOf(target == null ? new int[0] : target, Math.max(size + 2 * count, 2 * size));
+                    inherited[best] = target;
+                }
+                for (int i = 0; i < count; i++) {
+                    if (touched[i] == best) { continue; }
+                    target[size++] = touched[i];
+                    target[size++] = (int) Math.min(Integer.MAX_VALUE, weights[touched[i]]);
+                }
+                inheritedSizes[best] = size;
+            }
+            for (int i = 0; i < count; i++) { weights[touched[i]] = 0; }
+        }
+        int[] order = new int[n];
+        int written = 0;
+        int[] stack = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (parents[root] != root) { continue; }
+            // pre-order: each vertex is followed by the communities merged into it
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int vertex = stack[--top];
+                order[written++] = vertex;
+                int first = top;
+                for (int child = firstChild[vertex]; child >= 0; child = nextSibling[child]) { stack[top++] = child; }
+                reverse(stack, first, top);
+            }
+        }
+        return order;
+    }
+
+    private static int find(int[] parents, int vertex) {
+        while (parents[vertex] != vertex) {
+            parents[vertex] = parents[parents[vertex]];
+            vertex = parents[vertex];
+        }
+        return vertex;
+    }
+
+    private static void reverse(int[] array) {
+        reverse(array, 0, array.length);
+    }
+
+    private static void reverse(int[] array, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int swap = array[i];
+            array[i] = array[j];
+            array[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.grasple.api.utils;
+
+/**
+ * Estimates the remaining distance between two vertices of a graph, in
+ * order to guide the A* algorithm. To find shortest paths, the estimate
+ * must be <b>admissible</b>: it never exceeds the actual distance.
+ * @see ShortestPathFinder
+ * @since 1.0
+ * @author Bach Tran
+ */
+@FunctionalInterface
+public interface Heuristic {
+    /** The heuristic that always estimates 0, which turns A* into Dijkstra's algorithm. */
+    Heuristic NONE = (vertex, target) -> 0;
+
+    /**
+     * Estimates the distance between two vertices.
+     * @param vertex the id of the current vertex.
+     * @param target the id of the target vertex.
+     * @return a non-negative estimate, at most the actual distance.
+     */
+    long estimate(int vertex, int target);
+}
@@ -0,0 +1,402 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.structures.graphs.ChangeJournal;
+import org.grasple.api.structures.graphs.GraphChange;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Keeps the connected components of a SimpleGraph up to date as the graph
+ * changes, by reading the ChangeJournal of the graph instead of finding the
+ * components again. The components are formed by the vertices of the
+ * graph, the edges of SimpleGraph.getEdges() and the connections held by
+ * the vertices, each Connection object counting once; since the journal
+ * also records the connections made or removed directly on the Vertex
+ * objects of the graph, the components follow the vertices as well as
+ * the edges.
+ * </p>
+ * <ul>
+ *     <li>An inserted edge merges two components of a DisjointSet, in
+ *     near-constant time.</li>
+ *     <li>A removed edge triggers two searches, one from each endpoint, run
+ *     in lockstep over the remaining edges: they stop as soon as they meet,
+ *     or as soon as one of them runs out of vertices, which then form a new
+ *     component. The work is bounded by the size of the smaller side.</li>
+ *     <li>A removed vertex is handled as the removal of all its edges.</li>
+ * </ul>
+ * <p>
+ * Pending changes are applied when a query is made; between two
+ * modifications of the graph, queries cost a lookup and a find() of the
+ * DisjointSet. Component ids and getVersion() change whenever the
+ * components do, which lets callers cache derived results. For results
+ * that depend on the edges inside a component, such as paths,
+ * componentVersion() also changes when an edge of that component is added
+ * or removed, so only the results of the modified components are invalidated.
+ * </p>
+ * <p>
+ * This class is not thread-safe. Call close() to stop following the
+ * journal, otherwise the journal keeps the changes for this object.
+ * </p>
+ * @see ChangeJournal
+ * @see ComponentFinder
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class IncrementalComponents<T> implements AutoCloseable {
+    private final ChangeJournal<T>.Cursor cursor;
+    private final Map<Connectable<T>, Node<T>> nodes = new HashMap<>();
+    /** The connections linked, so that a connection recorded twice is linked once. */
+    private final Set<Connection> linked = Collections.newSetFromMap(new IdentityHashMap<>());
+    private DisjointSet elements;
+    /** The number of vertices of each component, indexed by the root element of the component. */
+    private int[] sizes;
+    /** The version of each component, indexed by the root element of the component. */
+    private long[] stamps;
+    /** The last version given to a component; versions are never reused. */
+    private long clock;
+    private int count;
+    private long version;
+    /** Stamps the nodes reached by the searches of a removal, see separate(). */
+    private int epoch;
+
+    /**
+     * Finds the components of a graph, and starts following its journal.
+     * @param graph the graph.
+     */
+    public IncrementalComponents(SimpleGraph<T> graph) {
+        cursor = graph.getJournal().subscribe();
+        elements = new DisjointSet();
+        sizes = new int[16];
+        stamps = new long[16];
+        for (Connectable<T> vertex : graph.getVertices()) { node(vertex); }
+        for (Connection connection : graph.getEdges()) { link(connection); }
+        for (Connectable<T> vertex : graph.getVertices()) {
+            for (UConnection<Connectable<T>> connection : vertex.getConnections()) { link(connection); }
+        }
+    }
+
+    /**
+     * @return the number of changes of the graph not applied yet.
+     */
+    public long pending() {
+        return cursor.pending();
+    }
+
+    /**
+     * Applies the pending changes of the graph. Queries call this method first.
+     */
+    public void update() {
+        cursor.poll(change -> {
+            switch (change.getKind()) {
+                case ADD_VERTEX:
+                    node(change.getVertex());
+                    break;
+                case REMOVE_VERTEX:
+                    removeNode(change.getVertex());
+                    break;
+                case ADD_EDGE:
+                    link(change.getEdge());
+                    break;
+                case REMOVE_EDGE:
+                    unlink(change.getEdge());
+                    break;
+            }
+        });
+    }
+
+    /**
+     * @return the number of vertices.
+     */
+    public int size() {
+        update();
+        return nodes.size();
+    }
+
+    /**
+     * @return the number of connected components.
+     */
+    public int componentCount() {
+        update();
+        return count;
+    }
+
+    /**
+     * @return a number that changes whenever the components change.
+     */
+    public long getVersion() {
+        update();
+        return version;
+    }
+
+    /**
+     * Retrieves the version of the component of a vertex. It changes
+     * whenever a vertex or an edge of the component is added or removed,
+     * or the component is merged or split, and stays the same otherwise:
+     * a result derived from the component is still valid as long as its
+     * version has not changed. Versions are never reused, even by other components.
+     * @param vertex the vertex.
+     * @return the version of the component of the vertex, or -1 if the vertex is unknown.
+     */
+    public long componentVersion(Connectable<T> vertex) {
+        int component = componentOf(vertex);
+        return component < 0 ? -1 : stamps[component];
+    }
+
+    /**
+     * Identifies the component of a vertex. The id stays the same until
+     * the components change, see getVersion().
+     * @param vertex the vertex.
+     * @return the id of the component of the vertex, or -1 if the vertex is unknown.
+     */
+    public int componentOf(Connectable<T> vertex) {
+        update();
+        Node<T> node = nodes.get(vertex);
+        return node == null ? -1 : elements.find(node.element);
+    }
+
+    /**
+     * Checks whether a path connects two vertices.
+     * @param vertex the first vertex.
+     * @param other the second vertex.
+     * @return true if both vertices are known and in the same component.
+     */
+    public boolean connected(Connectable<T> vertex, Connectable<T> other) {
+        int component = componentOf(vertex);
+        return component >= 0 && component == componentOf(other);
+    }
+
+    /**
+     * @param vertex the vertex.
+     * @return the number of vertices in the component of the vertex, or 0 if the vertex is unknown.
+     */
+    public int componentSize(Connectable<T> vertex) {
+        int component = componentOf(vertex);
+        return component < 0 ? 0 : sizes[component];
+    }
+
+    /**
+     * Collects the vertices of a component, in O(size of the component).
+     * @param vertex a vertex of the component.
+     * @return the vertices reachable from the vertex, or an empty Set if the vertex is unknown.
+     */
+    public Set<Connectable<T>> getComponent(Connectable<T> vertex) {
+        update();
+        Set<Connectable<T>> component = new HashSet<>();
+        Node<T> start = nodes.get(vertex);
+        if (start == null) { return component; }
+        ArrayDeque<Node<T>> queue = new ArrayDeque<>();
+        queue.add(start);
+        component.add(start.vertex);
+        while (!queue.isEmpty()) {
+            for (Node<T> neighbor : queue.poll().neighbors.keySet()) {
+                if (component.add(neighbor.vertex)) { queue.add(neighbor); }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Stops following the journal of the graph. Pending changes are not applied.
+     */
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
+    private Node<T> node(Connectable<T> vertex) {
+        Node<T> node = nodes.get(vertex);
+        if (node != null) { return node; }
+        node = new Node<>(vertex, newElement(1));
+        nodes.put(vertex, node);
+        count++;
+        version++;
+        return node;
+    }
+
+    private int newElement(int size) {
+        int element = elements.add();
+        if (element == sizes.length) {
+            sizes = Arrays.copyOf(sizes, sizes.length * 2);
+            stamps = Arrays.copyOf(stamps, sizes.length);
+        }
+        sizes[element] = size;
+        stamps[element] = ++clock;
+        return element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void link(Connection connection) {
+        if (!linked.add(connection)) { return; }
+        link(node((Connectable<T>) connection.getStart()), node((Connectable<T>) connection.getEnd()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void unlink(Connection connection) {
+        if (!linked.remove(connection)) { return; }
+        unlink((Connectable<T>) connection.getStart(), (Connectable<T>) connection.getEnd());
+    }
+
+    private void link(Node<T> node, Node<T> other) {
+        node.neighbors.merge(other, 1, Integer::sum);
+        if (node != other) { other.neighbors.merge(node, 1, Integer::sum); }
+        int root = elements.find(node.element);
+        int otherRoot = elements.find(other.element);
+        if (root == otherRoot) {
+            stamps[root] = ++clock;
+            return;
+        }
+        elements.union(root, otherRoot);
+        int merged = elements.find(root);
+        sizes[merged] = sizes[root] + sizes[otherRoot];
+        stamps[merged] = ++clock;
+        count--;
+        version++;
+    }
+
+    private void unlink(Connectable<T> vertex, Connectable<T> other) {
+        Node<T> node = nodes.get(vertex);
+        Node<T> otherNode = nodes.get(other);
+        // the edges of a removed vertex are already gone
+        if (node == null || otherNode == null || !node.neighbors.containsKey(otherNode)) { return; }
+        if (node.neighbors.merge(otherNode, -1, Integer::sum) != 0) {
+            if (node != otherNode) { otherNode.neighbors.merge(node, -1, Integer::sum); }
+        } else {
+            node.neighbors.remove(otherNode);
+            otherNode.neighbors.remove(node);
+            if (node != otherNode) { separate(node, otherNode); }
+        }
+        stamps[elements.find(node.element)] = ++clock;
+        stamps[elements.find(otherNode.element)] = ++clock;
+    }
+
+    private void removeNode(Connectable<T> vertex) {
+        Node<T> node = nodes.get(vertex);
+        if (node == null) { return; }
+        for (UConnection<Connectable<T>> connection : vertex.getConnections()) { linked.remove(connection); }
+        node.neighbors.remove(node);
+        for (Node<T> neighbor : new ArrayList<>(node.neighbors.keySet())) {
+            node.neighbors.remove(neighbor);
+            neighbor.neighbors.remove(node);
+            separate(node, neighbor);
+            stamps[elements.find(neighbor.element)] = ++clock;
+        }
+        nodes.remove(vertex);
+        sizes[elements.find(node.element)]--;
+        stamps[elements.find(node.element)] = ++clock;
+        count--;
+        version++;
+        if (elements.size() > 2 * nodes.size() + 64) { rebuild(); }
+    }
+
+    /**
+     * Checks whether two formerly adjacent nodes are still connected, and
+     * splits their component otherwise.
+     */
+    private void separate(Node<T> node, Node<T> other) {
+        epoch += 2;
+        Search<T> first = new Search<>(node, epoch);
+        Search<T> second = new Search<>(other, epoch + 1);
+        while (true) {
+            Search<T> search = first.reached.size() <= second.reached.size() ? first : second;
+            Search<T> opposite = search == first ? second : first;
+            if (search.queue.isEmpty()) {
+                split(search.reached);
+                return;
+            }
+            if (search.expand(opposite.stamp)) { return; }
+        }
+    }
+
+    /**
+     * Moves the nodes of a fully explored side to a new component.
+     */
+    private void split(List<Node<T>> side) {
+        int root = elements.find(side.get(0).element);
+        sizes[root] -= side.size();
+        int element = newElement(side.size());
+        for (Node<T> node : side) { node.element = element; }
+        count++;
+        version++;
+        if (elements.size() > 2 * nodes.size() + 64) { rebuild(); }
+    }
+
+    /**
+     * Relabels the components from scratch, dropping the elements of the
+     * DisjointSet left behind by splits.
+     */
+    private void rebuild() {
+        elements = new DisjointSet(0);
+        sizes = new int[Math.max(16, nodes.size())];
+        stamps = new long[sizes.length];
+        epoch += 2;
+        for (Node<T> start : nodes.values()) {
+            if (start.stamp == epoch) { continue; }
+            Search<T> search = new Search<>(start, epoch);
+            while (!search.queue.isEmpty()) { search.expand(-1); }
+            int element = newElement(search.reached.size());
+            for (Node<T> node : search.reached) { node.element = element; }
+        }
+    }
+
+    /**
+     * A vertex, with the number of edges to each of its neighbors.
+     */
+    private static final class Node<T> {
+        final Connectable<T> vertex;
+        final Map<Node<T>, Integer> neighbors = new HashMap<>(4);
+        int element;
+        int stamp;
+
+        Node(Connectable<T> vertex, int element) {
+            this.vertex = vertex;
+            this.element = element;
+        }
+    }
+
+    /**
+     * A breadth-first search that stamps the nodes it reaches.
+     */
+    private static final class Search<T> {
+        final ArrayDeque<Node<T>> queue = new ArrayDeque<>();
+        final List<Node<T>> reached = new ArrayList<>();
+        final int stamp;
+
+        Search(Node<T> start, int stamp) {
+            this.stamp = stamp;
+            start.stamp = stamp;
+            queue.add(start);
+            reached.add(start);
+        }
+
+        /**
+         * Expands one node.
+         * @return true if a node stamped by the opposite search was reached.
+         */
+        boolean expand(int opposite) {
+            for (Node<T> neighbor : queue.poll().neighbors.keySet()) {
+                if (neighbor.stamp == opposite) { return true; }
+                if (neighbor.stamp != stamp) {
+                    neighbor.stamp = stamp;
+                    queue.add(neighbor);
+                    reached.add(neighbor);
+                }
+            }
+            return false;
+        }
+    }
+}
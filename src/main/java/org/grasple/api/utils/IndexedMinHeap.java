@@ -0,0 +1,157 @@
+package org.grasple.api.utils;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int items in [0, capacity()), prioritized by long
+ * keys. Each item can be in the heap at most once; its position is
+ * indexed, so the key of an item in the heap can be decreased in
+ * O(log(size)). No object is allocated once the heap is created, and
+ * clearing it costs O(size), not O(capacity).
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class IndexedMinHeap {
+    private final int[] items;
+    private final long[] keys;
+    /** The position of each item in the heap, or -1 if absent. */
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     * @param capacity the number of distinct items the heap can hold.
+     */
+    public IndexedMinHeap(int capacity) {
+        items = new int[capacity];
+        keys = new long[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * @return the number of distinct items the heap can hold.
+     */
+    public int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * @return the number of items in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the heap has no item.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param item the item.
+     * @return true if the item is in the heap.
+     */
+    public boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+
+    /**
+     * Inserts an item, or decreases its key if it is already in the heap.
+     * The key of an item is never increased by this method.
+     * @param item the item.
+     * @param key the key of the item.
+     * @return true if the heap has changed.
+     */
+    public boolean offer(int item, long key) {
+        int position = positions[item];
+        if (position < 0) {
+            position = size++;
+            items[position] = item;
+            positions[item] = position;
+        } else if (keys[position] <= key) {
+            return false;
+        }
+        keys[position] = key;
+        siftUp(position);
+        return true;
+    }
+
+    /**
+     * @return the item with the lowest key, the heap must not be empty.
+     */
+    public int peek() {
+        return items[0];
+    }
+
+    /**
+     * @return the lowest key, or Long.MAX_VALUE if the heap is empty.
+     */
+    public long peekKey() {
+        return size == 0 ? Long.MAX_VALUE : keys[0];
+    }
+
+    /**
+     * Removes the item with the lowest key, the heap must not be empty.
+     * @return the item removed.
+     */
+    public int poll() {
+        int item = items[0];
+        positions[item] = -1;
+        if (--size > 0) {
+            items[0] = items[size];
+            keys[0] = keys[size];
+            positions[items[0]] = 0;
+            siftDown(0);
+        }
+        return item;
+    }
+
+    /**
+     * Removes all items from the heap.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) { positions[items[i]] = -1; }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int item = items[position];
+        long key = keys[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[parent] <= key) { break; }
+            move(parent, position);
+            position = parent;
+        }
+        place(item, key, position);
+    }
+
+    private void siftDown(int position) {
+        int item = items[position];
+        long key = keys[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) { child++; }
+            if (key <= keys[child]) { break; }
+            move(child, position);
+            position = child;
+        }
+        place(item, key, position);
+    }
+
+    private void move(int from, int to) {
+        items[to] = items[from];
+        keys[to] = keys[from];
+        positions[items[to]] = to;
+    }
+
+    private void place(int item, long key, int position) {
+        items[position] = item;
+        keys[position] = key;
+        positions[item] = position;
+    }
+}
@@ -0,0 +1,174 @@
+package org.grasple.api.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A Set of primitive int values, stored unboxed in an open-addressing
+ * table with linear probing. The value 0 marks free slots of the table,
+ * so it is tracked separately. Removals shift the following entries back,
+ * hence the table never accumulates tombstones. This class is not
+ * thread-safe.
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class IntHashSet {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    /**
+     * Creates an empty set.
+     */
+    public IntHashSet() {
+        this(8);
+    }
+
+    /**
+     * Creates an empty set, presized to hold the expected number of values without resizing.
+     * @param expectedSize the expected number of values.
+     */
+    public IntHashSet(int expectedSize) {
+        int capacity = LongHashSet.tableSize(expectedSize);
+        keys = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return the number of values in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the set has no value.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the value.
+     * @return true if the value is in the set.
+     */
+    public boolean contains(int key) {
+        if (key == 0) { return containsZero; }
+        for (int slot = mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a value to the set.
+     * @param key the value.
+     * @return true if the value was not in the set.
+     */
+    public boolean add(int key) {
+        if (key == 0) {
+            if (containsZero) { return false; }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = mix(key) & mask;
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) { return false; }
+        }
+        keys[slot] = key;
+        if (++size > keys.length * LOAD_FACTOR) { rehash(keys.length * 2); }
+        return true;
+    }
+
+    /**
+     * Removes a value from the set.
+     * @param key the value.
+     * @return true if the value was in the set.
+     */
+    public boolean remove(int key) {
+        if (key == 0) {
+            if (!containsZero) { return false; }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        for (int slot = mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all values from the set, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Applies an action to every value of the set. The set must not be
+     * modified by the action.
+     * @param action the action applied to each value.
+     */
+    public void forEach(IntConsumer action) {
+        if (containsZero) { action.accept(0); }
+        for (int key : keys) {
+            if (key != 0) { action.accept(key); }
+        }
+    }
+
+    /**
+     * @return a new array that contains the values of the set.
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        int count = 0;
+        if (containsZero) { values[count++] = 0; }
+        for (int key : keys) {
+            if (key != 0) { values[count++] = key; }
+        }
+        return values;
+    }
+
+    /**
+     * Fills the hole left at a slot by moving back the entries of the same probe sequence.
+     */
+    private void shiftBack(int hole) {
+        for (int slot = (hole + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            int home = mix(keys[slot]) & mask;
+            // the entry can fill the hole only if its home is not between the hole and its slot
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = keys;
+        keys = new int[capacity];
+        mask = capacity - 1;
+        for (int key : old) {
+            if (key == 0) { continue; }
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0) { slot = (slot + 1) & mask; }
+            keys[slot] = key;
+        }
+    }
+}
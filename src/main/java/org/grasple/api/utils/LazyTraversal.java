@@ -0,0 +1,376 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.structures.graphs.ConnectedGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * A traversal that is pulled vertex by vertex instead of pushed to an
+ * action: each vertex is computed when it is asked for, and the neighbors
+ * of a vertex are only expanded once the next vertex is asked for, so the
+ * caller can stop at any point without paying for the rest of the
+ * component. A traversal can be restarted any number of times, each
+ * iterator() or stream() walking the graph anew.
+ * </p>
+ * <ul>
+ *     <li>Breadth-first traversals return the vertices by increasing
+ *     depth; depth-first traversals return them in the same order as
+ *     DefaultTraverser, that of a recursive traversal.</li>
+ *     <li>setMaxDepth() bounds the number of edges between the start and
+ *     the vertices returned.</li>
+ *     <li>stream() plugs the traversal into java.util.stream, where
+ *     limit(), filter() or findFirst() stop it early; takeWhile() stops it
+ *     at the first vertex that fails a condition.</li>
+ *     <li>parallelStream() splits the frontier of the traversal between
+ *     workers. Every vertex is still returned once, but the order is then
+ *     only breadth-first or depth-first within each worker.</li>
+ * </ul>
+ * <p>
+ * The graph must not be modified while a traversal is consumed, unless
+ * its vertices are ConcurrentVertex objects.
+ * </p>
+ * @see DefaultTraverser
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class LazyTraversal<T> implements Iterable<Connectable<T>> {
+    /** The frontier size from which a traversal can be split. */
+    private static final int MIN_SPLIT = 64;
+    /** The number of vertices a split may expand ahead to grow the frontier. */
+    private static final int SPLIT_BUDGET = 1024;
+
+    /**
+     * The orders in which the vertices are returned.
+     */
+    public enum Order {
+        /** Level by level, from the start outwards. */
+        BREADTH_FIRST,
+        /** As deep as possible along each branch before backtracking. */
+        DEPTH_FIRST
+    }
+
+    private final Connectable<T> start;
+    private final Order order;
+    private int maxDepth = Integer.MAX_VALUE;
+
+    /**
+     * Creates a traversal from a vertex.
+     * @param start the starting vertex.
+     * @param order the order of the vertices.
+     */
+    public LazyTraversal(Connectable<T> start, Order order) {
+        if (start == null || order == null) {
+            throw new IllegalArgumentException("The start and the order of a traversal cannot be null.");
+        }
+        this.start = start;
+        this.order = order;
+    }
+
+    /**
+     * Creates a traversal from the root of a connected graph.
+     * @param graph the connected graph.
+     * @param order the order of the vertices.
+     */
+    public LazyTraversal(ConnectedGraph<T> graph, Order order) {
+        this(graph.getRoot(), order);
+    }
+
+    /**
+     * @param start the starting vertex.
+     * @param <T> the datatype that the graph contains
+     * @return a breadth-first traversal from the vertex.
+     */
+    public static <T> LazyTraversal<T> breadthFirst(Connectable<T> start) {
+        return new LazyTraversal<>(start, Order.BREADTH_FIRST);
+    }
+
+    /**
+     * @param start the starting vertex.
+     * @param <T> the datatype that the graph contains
+     * @return a depth-first traversal from the vertex.
+     */
+    public static <T> LazyTraversal<T> depthFirst(Connectable<T> start) {
+        return new LazyTraversal<>(start, Order.DEPTH_FIRST);
+    }
+
+    /**
+     * @return the order of the vertices.
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * @return the maximum depth of the vertices returned, unbounded by default.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Bounds the depth of the traversal: the vertices at the maximum depth
+     * are returned, but not expanded. In a depth-first traversal, the depth
+     * of a vertex is its depth in the depth-first tree, not its distance.
+     * @param maxDepth the maximum number of edges between the start and a vertex returned.
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("The maximum depth of a traversal cannot be negative.");
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @return a new iterator over the vertices, starting with the start vertex.
+     */
+    @Override
+    public Walker<T> iterator() {
+        return new Walker<>(this);
+    }
+
+    /**
+     * @return a new spliterator over the vertices, which splits its frontier in trySplit().
+     */
+    @Override
+    public Spliterator<Connectable<T>> spliterator() {
+        return new Walker<>(this);
+    }
+
+    /**
+     * @return a new sequential Stream of the vertices.
+     */
+    public Stream<Connectable<T>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a new parallel Stream of the vertices, unordered.
+     */
+    public Stream<Connectable<T>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * @return a new sequential Stream of the values of the vertices.
+     */
+    public Stream<T> values() {
+        return stream().map(Connectable::get);
+    }
+
+    /**
+     * Returns the vertices as long as they satisfy a condition: the
+     * traversal stops at the first vertex that fails it, which is not
+     * returned.
+     * @param condition the condition.
+     * @return a new sequential Stream of the vertices before the first failing one.
+     */
+    public Stream<Connectable<T>> takeWhile(Predicate<? super Connectable<T>> condition) {
+        Walker<T> walker = iterator();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Connectable<T>>(
+                Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.DISTINCT) {
+            private boolean failed;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Connectable<T>> action) {
+                if (failed || !walker.hasNext()) { return false; }
+                Connectable<T> vertex = walker.next();
+                if (!condition.test(vertex)) {
+                    failed = true;
+                    return false;
+                }
+                action.accept(vertex);
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * The state of one walk of the graph, as both an Iterator and a
+     * Spliterator. The vertices are claimed in a visited Set, which is
+     * made concurrent and shared when the walk is split.
+     * @param <T> the datatype that the graph contains
+     */
+    public static final class Walker<T> implements Iterator<Connectable<T>>, Spliterator<Connectable<T>> {
+        private final boolean breadthFirst;
+        private final int maxDepth;
+        private Set<Connectable<T>> visited;
+        /** The queue of a breadth-first walk, of claimed vertices; the stack of a depth-first walk. */
+        private final ArrayDeque<Entry<T>> frontier;
+        /** Claimed vertices, returned before the frontier; a split expands vertices ahead into it. */
+        private final ArrayDeque<Entry<T>> ready = new ArrayDeque<>();
+        /** The vertex to be returned next, once found. */
+        private Entry<T> lookahead;
+        /** The vertex returned last, whose neighbors are not expanded yet. */
+        private Entry<T> pending;
+        /** The neighbors of a vertex of a depth-first walk, pushed from the last one. */
+        private final ArrayList<Connectable<T>> neighbors = new ArrayList<>();
+        private int depth = -1;
+
+        Walker(LazyTraversal<T> traversal) {
+            this.breadthFirst = traversal.order == Order.BREADTH_FIRST;
+            this.maxDepth = traversal.maxDepth;
+            this.visited = new HashSet<>();
+            this.frontier = new ArrayDeque<>();
+            if (breadthFirst) { visited.add(traversal.start); }
+            frontier.add(new Entry<>(traversal.start, 0));
+        }
+
+        private Walker(Walker<T> parent, ArrayDeque<Entry<T>> frontier) {
+            this.breadthFirst = parent.breadthFirst;
+            this.maxDepth = parent.maxDepth;
+            this.visited = parent.visited;
+            this.frontier = frontier;
+        }
+
+        /**
+         * @return the depth of the vertex returned last, -1 before the first one.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        private void expand(Entry<T> entry) {
+            entry.expanded = true;
+            if (entry.depth >= maxDepth) { return; }
+            int next = entry.depth + 1;
+            if (breadthFirst) {
+                entry.vertex.forEachNeighbor(neighbor -> {
+                    if (visited.add(neighbor)) { frontier.addLast(new Entry<>(neighbor, next)); }
+                });
+                return;
+            }
+            // the first neighbor ends on top of the stack, as in a recursive traversal
+            entry.vertex.forEachNeighbor(neighbor -> {
+                if (!visited.contains(neighbor)) { neighbors.add(neighbor); }
+            });
+            for (int i = neighbors.size() - 1; i >= 0; i--) { frontier.push(new Entry<>(neighbors.get(i), next)); }
+            neighbors.clear();
+        }
+
+        /**
+         * Takes the next vertex of the frontier, claiming it in a depth-first walk.
+         */
+        private Entry<T> poll() {
+            if (breadthFirst) { return frontier.poll(); }
+            Entry<T> entry;
+            do {
+                entry = frontier.poll();
+            } while (entry != null && !visited.add(entry.vertex));
+            return entry;
+        }
+
+        private Entry<T> fetch() {
+            if (lookahead == null) {
+                if (pending != null) {
+                    expand(pending);
+                    pending = null;
+                }
+                lookahead = ready.isEmpty() ? poll() : ready.poll();
+            }
+            return lookahead;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return fetch() != null;
+        }
+
+        @Override
+        public Connectable<T> next() {
+            Entry<T> entry = fetch();
+            if (entry == null) { throw new NoSuchElementException(); }
+            lookahead = null;
+            if (!entry.expanded) { pending = entry; }
+            depth = entry.depth;
+            return entry.vertex;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Connectable<T>> action) {
+            if (!hasNext()) { return false; }
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Connectable<T>> action) {
+            while (hasNext()) { action.accept(next()); }
+        }
+
+        /**
+         * Hands half of the frontier to a new Walker. If the frontier is
+         * small, vertices are expanded ahead, without being returned yet,
+         * until it is large enough or the budget is spent.
+         * @return the new Walker, or null if the frontier remains too small.
+         */
+        @Override
+        public Spliterator<Connectable<T>> trySplit() {
+            if (pending != null) {
+                expand(pending);
+                pending = null;
+            }
+            if (lookahead != null) {
+                ready.addFirst(lookahead);
+                lookahead = null;
+            }
+            for (Entry<T> entry : ready) {
+                if (!entry.expanded) { expand(entry); }
+            }
+            for (int budget = SPLIT_BUDGET; frontier.size() < MIN_SPLIT && budget > 0; budget--) {
+                Entry<T> entry = poll();
+                if (entry == null) { break; }
+                expand(entry);
+                ready.addLast(entry);
+            }
+            if (frontier.size() < MIN_SPLIT) { return null; }
+            if (!(visited instanceof ConcurrentHashMap.KeySetView)) {
+                Set<Connectable<T>> shared = ConcurrentHashMap.newKeySet(visited.size() * 2);
+                shared.addAll(visited);
+                visited = shared;
+            }
+            // the far end of the frontier: the last level of a queue, the bottom of a stack
+            ArrayDeque<Entry<T>> half = new ArrayDeque<>();
+            for (int i = frontier.size() / 2; i > 0; i--) { half.addFirst(frontier.pollLast()); }
+            return new Walker<>(this, half);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.DISTINCT;
+        }
+    }
+
+    /**
+     * A vertex of the frontier, with its depth.
+     */
+    private static final class Entry<T> {
+        final Connectable<T> vertex;
+        final int depth;
+        boolean expanded;
+
+        Entry(Connectable<T> vertex, int depth) {
+            this.vertex = vertex;
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.grasple.api.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A Map from primitive long keys to objects, stored in an open-addressing
+ * table with linear probing, without boxing the keys. Like LongHashSet,
+ * the key 0 marks free slots of the table and is tracked separately. This
+ * class is not thread-safe.
+ * @see LongHashSet
+ * @param <V> the type of the values
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class LongObjectHashMap<V> {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private V zeroValue;
+    private boolean containsZero;
+
+    /**
+     * Creates an empty map.
+     */
+    public LongObjectHashMap() {
+        this(8);
+    }
+
+    /**
+     * Creates an empty map, presized to hold the expected number of entries without resizing.
+     * @param expectedSize the expected number of entries.
+     */
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = LongHashSet.tableSize(expectedSize);
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the number of entries in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key the key.
+     * @return true if the map has an entry for the key.
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? containsZero : find(key) >= 0;
+    }
+
+    /**
+     * @param key the key.
+     * @return the value of the key, or null if the map has no entry for the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) { return zeroValue; }
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Associates a value with a key.
+     * @param key the key.
+     * @param value the value, must not be null.
+     * @return the previous value of the key, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The values of a LongObjectHashMap cannot be null.");
+        }
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = value;
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            return previous;
+        }
+        int slot = LongHashSet.mix(key) & mask;
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) { rehash(keys.length * 2); }
+        return null;
+    }
+
+    /**
+     * Removes the entry of a key.
+     * @param key the key.
+     * @return the value of the key, or null if the map had no entry for the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (containsZero) {
+                containsZero = false;
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+        int slot = find(key);
+        if (slot < 0) { return null; }
+        V previous = (V) values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Applies an action to every value of the map. The map must not be
+     * modified by the action.
+     * @param action the action applied to each value.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        if (containsZero) { action.accept(zeroValue); }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) { action.accept((V) values[slot]); }
+        }
+    }
+
+    /**
+     * Removes all entries from the map, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        containsZero = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    private int find(long key) {
+        for (int slot = LongHashSet.mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) { return slot; }
+        }
+        return -1;
+    }
+
+    /**
+     * Fills the hole left at a slot by moving back the entries of the same probe sequence.
+     */
+    private void shiftBack(int hole) {
+        for (int slot = (hole + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            int home = LongHashSet.mix(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) { continue; }
+            int slot = LongHashSet.mix(oldKeys[i]) & mask;
+            while (keys[slot] != 0) { slot = (slot + 1) & mask; }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
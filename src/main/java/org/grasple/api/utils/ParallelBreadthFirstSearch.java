@@ -0,0 +1,348 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Contains a level-synchronous, parallel Breadth First Search algorithm.
+ * Each level of the search expands the whole frontier with fork/join
+ * workers before the next level starts; vertices are claimed with an
+ * AtomicBitSet, so each vertex is discovered exactly once.
+ * </p>
+ * <p>
+ * A level can be expanded <b>top-down</b> (every frontier vertex scans its
+ * neighbors for undiscovered vertices) or <b>bottom-up</b> (every
+ * undiscovered vertex scans its neighbors for a frontier vertex). The
+ * direction-optimizing mode switches between the two on each level, which
+ * saves most of the work on large frontiers of low-diameter graphs.
+ * </p>
+ * <p>
+ * The search runs on a CompactGraph; a SimpleGraph is compacted first.
+ * </p>
+ * @see CompactGraph
+ * @see AtomicBitSet
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class ParallelBreadthFirstSearch<T> {
+    /** The number of vertices below which a range is expanded by a single worker. */
+    private static final int GRAIN = 1024;
+    /** Switches to bottom-up when the frontier has more than 1/ALPHA of the unexplored arcs. */
+    private static final int ALPHA = 14;
+    /** Switches back to top-down when the frontier has less than 1/BETA of the vertices. */
+    private static final int BETA = 24;
+
+    /**
+     * The way each level of the search is expanded.
+     */
+    public enum Direction {
+        /** Frontier vertices look for undiscovered neighbors. */
+        TOP_DOWN,
+        /** Undiscovered vertices look for a neighbor in the frontier. */
+        BOTTOM_UP,
+        /** Chooses between TOP_DOWN and BOTTOM_UP on each level. */
+        OPTIMIZING
+    }
+
+    private final CompactGraph<T> graph;
+    private final ForkJoinPool pool;
+    private Direction direction = Direction.OPTIMIZING;
+
+    /**
+     * Creates a search on a CompactGraph, using the common fork/join pool.
+     * @param graph the graph to be searched.
+     */
+    public ParallelBreadthFirstSearch(CompactGraph<T> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a search on a CompactGraph.
+     * @param graph the graph to be searched.
+     * @param pool the fork/join pool running the workers.
+     */
+    public ParallelBreadthFirstSearch(CompactGraph<T> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a search on a snapshot of a SimpleGraph, using the common
+     * fork/join pool. Use getGraph() to find the ids of the vertices.
+     * @param graph the graph to be searched.
+     */
+    public ParallelBreadthFirstSearch(SimpleGraph<T> graph) {
+        this(new CompactGraph<>(graph));
+    }
+
+    /**
+     * @return the graph that this search runs on.
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the way the levels are expanded, OPTIMIZING by default.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Modifies the way the levels are expanded.
+     * @param direction the new direction, must not be null.
+     */
+    public void setDirection(Direction direction) {
+        if (direction == null) {
+            throw new IllegalArgumentException("The direction of the search cannot be null.");
+        }
+        this.direction = direction;
+    }
+
+    /**
+     * Runs the search from a source vertex.
+     * @param source the id of the source vertex.
+     * @return the distances and parents of all vertices.
+     */
+    public Result run(int source) {
+        int size = graph.size();
+        if (source < 0 || source >= size) {
+            throw new IllegalArgumentException("The source vertex is not part of the graph.");
+        }
+        Level level = new Level(size);
+        level.visited.set(source);
+        level.distances[source] = 0;
+        level.parents[source] = source;
+        level.frontier[0] = source;
+        int frontierSize = 1;
+        long frontierArcs = graph.degree(source);
+        long unexploredArcs = graph.offset(size) - frontierArcs;
+        boolean bottomUp = direction == Direction.BOTTOM_UP;
+        while (frontierSize > 0) {
+            if (direction == Direction.OPTIMIZING) {
+                if (!bottomUp && frontierArcs > unexploredArcs / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierSize < size / BETA) {
+                    bottomUp = false;
+                }
+            }
+            level.reset();
+            if (bottomUp) {
+                pool.invoke(new BottomUp(level, 0, size));
+            } else {
+                pool.invoke(new TopDown(level, 0, frontierSize));
+            }
+            int[] swap = level.frontier;
+            level.frontier = level.next;
+            level.next = swap;
+            frontierSize = level.tail.get();
+            frontierArcs = level.nextArcs.get();
+            unexploredArcs -= frontierArcs;
+            level.depth++;
+        }
+        return new Result(level.distances, level.parents);
+    }
+
+    /**
+     * The state shared by the workers of one search.
+     */
+    private static final class Level {
+        final int[] distances;
+        final int[] parents;
+        final AtomicBitSet visited;
+        final AtomicInteger tail = new AtomicInteger();
+        final AtomicLong nextArcs = new AtomicLong();
+        int[] frontier;
+        int[] next;
+        int depth;
+
+        Level(int size) {
+            distances = new int[size];
+            parents = new int[size];
+            Arrays.fill(distances, -1);
+            Arrays.fill(parents, -1);
+            visited = new AtomicBitSet(size);
+            frontier = new int[Math.max(size, 1)];
+            next = new int[Math.max(size, 1)];
+        }
+
+        void reset() {
+            tail.set(0);
+            nextArcs.set(0);
+        }
+
+        /**
+         * Appends the vertices discovered by one worker to the next frontier,
+         * reserving the slots with a single atomic operation.
+         */
+        void publish(int[] discovered, int count, long arcs) {
+            if (count == 0) { return; }
+            System.arraycopy(discovered, 0, next, tail.getAndAdd(count), count);
+            nextArcs.addAndGet(arcs);
+        }
+    }
+
+    /**
+     * Expands a range of the frontier, top-down.
+     */
+    private final class TopDown extends RecursiveAction {
+        private final Level level;
+        private final int from;
+        private final int to;
+
+        TopDown(Level level, int from, int to) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TopDown(level, from, middle), new TopDown(level, middle, to));
+                return;
+            }
+            int[] discovered = new int[16];
+            int count = 0;
+            long arcs = 0;
+            int depth = level.depth + 1;
+            for (int i = from; i < to; i++) {
+                int vertex = level.frontier[i];
+                for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                    int neighbor = graph.target(arc);
+                    if (level.visited.get(neighbor) || !level.visited.set(neighbor)) { continue; }
+                    level.distances[neighbor] = depth;
+                    level.parents[neighbor] = vertex;
+                    if (count == discovered.length) { discovered = Arrays.copyOf(discovered, count * 2); }
+                    discovered[count++] = neighbor;
+                    arcs += graph.degree(neighbor);
+                }
+            }
+            level.publish(discovered, count, arcs);
+        }
+    }
+
+    /**
+     * Expands a range of the vertices, bottom-up.
+     */
+    private final class BottomUp extends RecursiveAction {
+        private final Level level;
+        private final int from;
+        private final int to;
+
+        BottomUp(Level level, int from, int to) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BottomUp(level, from, middle), new BottomUp(level, middle, to));
+                return;
+            }
+            int[] discovered = new int[16];
+            int count = 0;
+            long arcs = 0;
+            int depth = level.depth;
+            for (int vertex = from; vertex < to; vertex++) {
+                if (level.visited.get(vertex)) { continue; }
+                for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                    int neighbor = graph.target(arc);
+                    // distances of the current frontier were published by the previous level
+                    if (level.distances[neighbor] != depth) { continue; }
+                    level.visited.set(vertex);
+                    level.distances[vertex] = depth + 1;
+                    level.parents[vertex] = neighbor;
+                    if (count == discovered.length) { discovered = Arrays.copyOf(discovered, count * 2); }
+                    discovered[count++] = vertex;
+                    arcs += graph.degree(vertex);
+                    break;
+                }
+            }
+            level.publish(discovered, count, arcs);
+        }
+    }
+
+    /**
+     * The outcome of a breadth-first search: the distance (in number of
+     * edges) from the source to every vertex, and the parent of every
+     * vertex in the breadth-first tree. Unreached vertices have a distance
+     * and a parent of -1; the source is its own parent.
+     */
+    public static final class Result {
+        private final int[] distances;
+        private final int[] parents;
+
+        Result(int[] distances, int[] parents) {
+            this.distances = distances;
+            this.parents = parents;
+        }
+
+        /**
+         * @param vertex the id of the vertex.
+         * @return the number of edges between the source and the vertex, or -1 if unreached.
+         */
+        public int distance(int vertex) {
+            return distances[vertex];
+        }
+
+        /**
+         * @param vertex the id of the vertex.
+         * @return the id of the parent of the vertex, or -1 if unreached.
+         */
+        public int parent(int vertex) {
+            return parents[vertex];
+        }
+
+        /**
+         * @param vertex the id of the vertex.
+         * @return true if the vertex can be reached from the source.
+         */
+        public boolean reached(int vertex) {
+            return distances[vertex] >= 0;
+        }
+
+        /**
+         * Follows the parent links from a vertex back to the source.
+         * @param vertex the id of the vertex.
+         * @return the ids of the vertices from the source to the vertex,
+         * or an empty array if the vertex is unreached.
+         */
+        public int[] pathTo(int vertex) {
+            if (!reached(vertex)) { return new int[0]; }
+            int[] path = new int[distances[vertex] + 1];
+            for (int i = path.length - 1; i >= 0; i--) {
+                path[i] = vertex;
+                vertex = parents[vertex];
+            }
+            return path;
+        }
+
+        /**
+         * @return a copy of the distances of all vertices.
+         */
+        public int[] getDistances() {
+            return distances.clone();
+        }
+
+        /**
+         * @return a copy of the parents of all vertices.
+         */
+        public int[] getParents() {
+            return parents.clone();
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package org.grasple.api.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ * An immutable map, implemented as a hash array mapped trie: a tree of
+ * nodes with up to 32 children, indexed by 5 bits of the hash of the
+ * keys at each level. put() and remove() return a new map that shares
+ * every node with the old one except the path to the modified key, so
+ * they cost O(log32 n) time and memory, and both maps stay valid.
+ * </p>
+ * <p>
+ * Since a map never changes, it can be read from any thread without
+ * locks, as long as it is published safely. Keys cannot be null.
+ * </p>
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class PersistentMap<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * @return the number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the map has no key.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the key.
+     * @return the value of the key, or null if the map does not contain the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return root == null ? null : (V) root.get(0, hash(key), key);
+    }
+
+    /**
+     * @param key the key.
+     * @return true if the map contains the key.
+     */
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates a value with a key.
+     * @param key the key.
+     * @param value the value, not null.
+     * @return a map with the association, or this map if it already has it.
+     */
+    public PersistentMap<K, V> put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("A PersistentMap cannot contain null values.");
+        }
+        boolean[] added = new boolean[1];
+        Node node = root == null
+                ? BitmapNode.EMPTY.put(0, hash(key), key, value, added)
+                : root.put(0, hash(key), key, value, added);
+        return node == root ? this : new PersistentMap<>(node, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Removes a key.
+     * @param key the key.
+     * @return a map without the key, or this map if it does not contain the key.
+     */
+    public PersistentMap<K, V> remove(Object key) {
+        if (root == null) { return this; }
+        Node node = root.remove(0, hash(key), key);
+        if (node == root) { return this; }
+        return node == null ? empty() : new PersistentMap<>(node, size - 1);
+    }
+
+    /**
+     * Applies an action to every key and value, in no particular order.
+     * @param action the action.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) { root.forEach((BiConsumer<Object, Object>) action); }
+    }
+
+    /**
+     * @return an iterator over the entries, in no particular order.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+    }
+
+    /**
+     * @return an unmodifiable Set view of the keys, which never changes.
+     */
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                Iterator<Map.Entry<K, V>> entries = PersistentMap.this.iterator();
+                return new Iterator<K>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public K next() {
+                        return entries.next().getKey();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A node of the trie. Its array holds pairs of a key and its value, or
+     * of null and a child node.
+     */
+    private abstract static class Node {
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object get(int shift, int hash, Object key);
+
+        /**
+         * @return the node with the association, or this node if it already has it.
+         */
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return the node without the key, this node if it does not contain
+         * the key, or null if the node becomes empty.
+         */
+        abstract Node remove(int shift, int hash, Object key);
+
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A node whose bitmap tells which of the 32 slots of the level are
+     * used; the array only holds the used slots.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object get(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) { return null; }
+            int index = index(bit);
+            Object stored = array[index];
+            if (stored == null) { return ((Node) array[index + 1]).get(shift + BITS, hash, key); }
+            return key.equals(stored) ? array[index + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] copy = new Object[array.length + 2];
+                System.arraycopy(array, 0, copy, 0, index);
+                copy[index] = key;
+                copy[index + 1] = value;
+                System.arraycopy(array, index, copy, index + 2, array.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object stored = array[index];
+            Object current = array[index + 1];
+            Node child;
+            if (stored == null) {
+                child = ((Node) current).put(shift + BITS, hash, key, value, added);
+                if (child == current) { return this; }
+            } else if (key.equals(stored)) {
+                if (value == current) { return this; }
+                return with(index + 1, value);
+            } else {
+                added[0] = true;
+                child = split(shift + BITS, stored, current, hash, key, value);
+            }
+            BitmapNode node = with(index + 1, child);
+            node.array[index] = null;
+            return node;
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) { return this; }
+            int index = index(bit);
+            Object stored = array[index];
+            if (stored == null) {
+                Node child = ((Node) array[index + 1]).remove(shift + BITS, hash, key);
+                if (child == array[index + 1]) { return this; }
+                if (child != null) { return with(index + 1, child); }
+            } else if (!key.equals(stored)) {
+                return this;
+            }
+            if (bitmap == bit) { return null; }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, index);
+            System.arraycopy(array, index + 2, copy, index, array.length - index - 2);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        private BitmapNode with(int index, Object value) {
+            Object[] copy = array.clone();
+            copy[index] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        /**
+         * Creates the node holding two keys that collided at the level above.
+         */
+        private static Node split(int shift, Object key, Object value, int hash, Object other, Object otherValue) {
+            int keyHash = hash(key);
+            if (keyHash == hash || shift >= Integer.SIZE) {
+                return new CollisionNode(keyHash, new Object[]{key, value, other, otherValue});
+            }
+            boolean[] added = new boolean[1];
+            return EMPTY.put(shift, keyHash, key, value, added).put(shift, hash, other, otherValue, added);
+        }
+    }
+
+    /**
+     * A node holding the keys that share the same hash, in a flat array.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int find(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) { return i; }
+            }
+            return -1;
+        }
+
+        @Override
+        Object get(int shift, int hash, Object key) {
+            int index = find(key);
+            return index < 0 ? null : array[index + 1];
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // the hashes only agree on the levels above: nest this node under a new level
+                BitmapNode level = new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[]{null, this});
+                return level.put(shift, hash, key, value, added);
+            }
+            int index = find(key);
+            if (index >= 0) {
+                if (array[index + 1] == value) { return this; }
+                Object[] copy = array.clone();
+                copy[index + 1] = value;
+                return new CollisionNode(this.hash, copy);
+            }
+            added[0] = true;
+            Object[] copy = Arrays.copyOf(array, array.length + 2);
+            copy[array.length] = key;
+            copy[array.length + 1] = value;
+            return new CollisionNode(this.hash, copy);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int index = find(key);
+            if (index < 0) { return this; }
+            if (array.length == 2) { return null; }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, index);
+            System.arraycopy(array, index + 2, copy, index, array.length - index - 2);
+            return new CollisionNode(this.hash, copy);
+        }
+    }
+
+    /**
+     * Walks the trie depth-first, with a stack of the arrays being read.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final ArrayDeque<Object[]> arrays = new ArrayDeque<>();
+        private final ArrayDeque<Integer> positions = new ArrayDeque<>();
+        private Object[] array;
+        private int position;
+
+        EntryIterator(Node root) {
+            array = root == null ? new Object[0] : root.array;
+            advance();
+        }
+
+        /**
+         * Moves to the next key, descending into the children on the way.
+         */
+        private void advance() {
+            while (array != null) {
+                if (position == array.length) {
+                    array = arrays.poll();
+                    position = array == null ? 0 : positions.pop();
+                } else if (array[position] == null) {
+                    arrays.push(array);
+                    positions.push(position + 2);
+                    array = ((Node) array[position + 1]).array;
+                    position = 0;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return array != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (array == null) { throw new NoSuchElementException(); }
+            Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>((K) array[position], (V) array[position + 1]);
+            position += 2;
+            advance();
+            return entry;
+        }
+    }
+}
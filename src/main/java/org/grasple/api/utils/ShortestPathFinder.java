@@ -0,0 +1,269 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Finds weighted shortest paths in a CompactGraph, using the weights of
+ * the connections. Three algorithms are available:
+ * </p>
+ * <ul>
+ *     <li>Dijkstra's algorithm, to find the distances from a source to all vertices;</li>
+ *     <li>bidirectional Dijkstra, for point-to-point queries;</li>
+ *     <li>A*, for point-to-point queries guided by a Heuristic.</li>
+ * </ul>
+ * <p>
+ * A finder allocates all of its working memory once, when created, and
+ * reuses it for every query: the arrays are stamped with the number of the
+ * query that wrote them, so nothing has to be cleared between queries. A
+ * finder is therefore <b>not</b> thread-safe; create one finder per thread,
+ * they can share the same CompactGraph.
+ * </p>
+ * @see IndexedMinHeap
+ * @see Heuristic
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class ShortestPathFinder<T> {
+    /** The distance to a vertex that cannot be reached. */
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final CompactGraph<T> graph;
+    private final Search forward;
+    private final Search backward;
+    /** The vertex where the two searches of the last bidirectional query met. */
+    private int meeting;
+
+    /**
+     * Creates a finder over a CompactGraph.
+     * @param graph the graph, whose weights must not be negative.
+     */
+    public ShortestPathFinder(CompactGraph<T> graph) {
+        for (int arc = 0; arc < graph.offset(graph.size()); arc++) {
+            if (graph.weight(arc) < 0) {
+                throw new IllegalArgumentException("The weights of the graph cannot be negative.");
+            }
+        }
+        this.graph = graph;
+        this.forward = new Search(graph.size());
+        this.backward = new Search(graph.size());
+    }
+
+    /**
+     * Creates a finder over a snapshot of a SimpleGraph.
+     * Use getGraph() to find the ids of the vertices.
+     * @param graph the graph, whose weights must not be negative.
+     */
+    public ShortestPathFinder(SimpleGraph<T> graph) {
+        this(new CompactGraph<>(graph));
+    }
+
+    /**
+     * @return the graph that this finder runs on.
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from a source to all vertices.
+     * @param source the id of the source vertex.
+     * @return the distance from the source to each vertex, or UNREACHABLE.
+     */
+    public long[] distancesFrom(int source) {
+        forward.begin(source);
+        while (!forward.heap.isEmpty()) {
+            forward.relax(forward.heap.poll(), null, -1);
+        }
+        long[] distances = new long[graph.size()];
+        for (int vertex = 0; vertex < distances.length; vertex++) {
+            distances[vertex] = forward.distance(vertex);
+        }
+        return distances;
+    }
+
+    /**
+     * Finds the length of a shortest path with bidirectional Dijkstra.
+     * @param source the id of the source vertex.
+     * @param target the id of the target vertex.
+     * @return the length of a shortest path, or UNREACHABLE.
+     */
+    public long distance(int source, int target) {
+        return bidirectional(source, target);
+    }
+
+    /**
+     * Finds a shortest path with bidirectional Dijkstra.
+     * @param source the id of the source vertex.
+     * @param target the id of the target vertex.
+     * @return the ids of the vertices along the path, from the source to the
+     * target, or an empty array if the target cannot be reached.
+     */
+    public int[] shortestPath(int source, int target) {
+        if (bidirectional(source, target) == UNREACHABLE) { return new int[0]; }
+        return join(meeting);
+    }
+
+    /**
+     * Finds the length of a shortest path with A*.
+     * @param source the id of the source vertex.
+     * @param target the id of the target vertex.
+     * @param heuristic an admissible estimate of the remaining distance.
+     * @return the length of a shortest path, or UNREACHABLE.
+     */
+    public long distance(int source, int target, Heuristic heuristic) {
+        return aStar(source, target, heuristic);
+    }
+
+    /**
+     * Finds a shortest path with A*.
+     * @param source the id of the source vertex.
+     * @param target the id of the target vertex.
+     * @param heuristic an admissible estimate of the remaining distance.
+     * @return the ids of the vertices along the path, from the source to the
+     * target, or an empty array if the target cannot be reached.
+     */
+    public int[] shortestPath(int source, int target, Heuristic heuristic) {
+        if (aStar(source, target, heuristic) == UNREACHABLE) { return new int[0]; }
+        int length = 1;
+        for (int vertex = target; vertex != source; vertex = forward.parents[vertex]) { length++; }
+        int[] path = new int[length];
+        for (int i = length - 1, vertex = target; i >= 0; i--, vertex = forward.parents[vertex]) {
+            path[i] = vertex;
+        }
+        return path;
+    }
+
+    private long bidirectional(int source, int target) {
+        forward.begin(source);
+        backward.begin(target);
+        long best = source == target ? 0 : UNREACHABLE;
+        meeting = source;
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+            if (forward.heap.peekKey() + backward.heap.peekKey() >= best) { break; }
+            // expand the side with the smaller frontier
+            Search search = forward.heap.size() <= backward.heap.size() ? forward : backward;
+            Search other = search == forward ? backward : forward;
+            int vertex = search.heap.poll();
+            best = search.relax(vertex, other, best);
+        }
+        return best;
+    }
+
+    private long aStar(int source, int target, Heuristic heuristic) {
+        forward.begin(source);
+        forward.heap.offer(source, heuristic.estimate(source, target));
+        while (!forward.heap.isEmpty()) {
+            int vertex = forward.heap.poll();
+            if (vertex == target) { return forward.distance(target); }
+            long distance = forward.distances[vertex];
+            for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                int neighbor = graph.target(arc);
+                long candidate = distance + graph.weight(arc);
+                if (candidate < forward.distance(neighbor)) {
+                    forward.reach(neighbor, candidate, vertex);
+                    forward.heap.offer(neighbor, candidate + heuristic.estimate(neighbor, target));
+                }
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Joins the paths found by the two searches at the meeting vertex.
+     */
+    private int[] join(int middle) {
+        int head = 0;
+        for (int vertex = middle; vertex != forward.source; vertex = forward.parents[vertex]) { head++; }
+        int tail = 0;
+        for (int vertex = middle; vertex != backward.source; vertex = backward.parents[vertex]) { tail++; }
+        int[] path = new int[head + tail + 1];
+        int vertex = middle;
+        for (int i = head; i >= 0; i--) {
+            path[i] = vertex;
+            vertex = forward.parents[vertex];
+        }
+        vertex = middle;
+        for (int i = head + 1; i < path.length; i++) {
+            vertex = backward.parents[vertex];
+            path[i] = vertex;
+        }
+        return path;
+    }
+
+    /**
+     * The reusable state of one direction of a search.
+     */
+    private final class Search {
+        final long[] distances;
+        final int[] parents;
+        final int[] stamps;
+        final IndexedMinHeap heap;
+        int epoch;
+        int source;
+
+        Search(int size) {
+            distances = new long[size];
+            parents = new int[size];
+            stamps = new int[size];
+            heap = new IndexedMinHeap(size);
+        }
+
+        /**
+         * Starts a new query, invalidating the state of the previous one in O(1).
+         */
+        void begin(int start) {
+            if (start < 0 || start >= distances.length) {
+                throw new IllegalArgumentException("The vertex is not part of the graph.");
+            }
+            if (++epoch == 0) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+            heap.clear();
+            source = start;
+            reach(start, 0, start);
+            heap.offer(start, 0);
+        }
+
+        long distance(int vertex) {
+            return stamps[vertex] == epoch ? distances[vertex] : UNREACHABLE;
+        }
+
+        void reach(int vertex, long distance, int parent) {
+            stamps[vertex] = epoch;
+            distances[vertex] = distance;
+            parents[vertex] = parent;
+        }
+
+        /**
+         * Relaxes the arcs of a settled vertex. When the other direction is
+         * given, paths through already reached vertices are checked against
+         * the best known distance.
+         * @return the best known distance between the two sources.
+         */
+        long relax(int vertex, Search other, long best) {
+            long distance = distances[vertex];
+            for (int arc = graph.offset(vertex), end = graph.offset(vertex + 1); arc < end; arc++) {
+                int neighbor = graph.target(arc);
+                long candidate = distance + graph.weight(arc);
+                if (candidate < distance(neighbor)) {
+                    reach(neighbor, candidate, vertex);
+                    heap.offer(neighbor, candidate);
+                }
+                if (other != null && other.distance(neighbor) != UNREACHABLE) {
+                    long through = distance(neighbor) + other.distances[neighbor];
+                    if (through < best) {
+                        best = through;
+                        meeting = neighbor;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+}
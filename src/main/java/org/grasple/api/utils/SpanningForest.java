@@ -0,0 +1,344 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.particles.Edge;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Finds a minimum spanning forest of a SimpleGraph: in every connected
+ * component, a tree of the lowest total weight() linking all its
+ * vertices. The edges are those of getEdges() and those held by the
+ * vertices themselves, each Connection object counting once.
+ * </p>
+ * <ul>
+ *     <li>kruskal() sorts the edges by weight with a parallel sort, then
+ *     adds them in order with a DisjointSet, skipping the ones that would
+ *     close a cycle.</li>
+ *     <li>boruvka() runs in rounds: in parallel over the edges, every
+ *     component picks its cheapest outgoing edge, then all the edges
+ *     picked are added at once. Each round at least halves the number of
+ *     components, so it scales with the number of cores.</li>
+ * </ul>
+ * <p>
+ * Ties between equal weights are broken by the order in which the edges
+ * were collected, so both algorithms return the same forest.
+ * </p>
+ * @see DisjointSet
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class SpanningForest<T> {
+    /** The minimum number of edges a worker handles. */
+    private static final int GRAIN = 4096;
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final ForkJoinPool pool;
+    private final List<Connectable<T>> vertices;
+    private final Connection[] connections;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] weights;
+    private final int edgeCount;
+
+    /**
+     * Collects the vertices and the edges of a simple graph, using the common fork/join pool.
+     * @param graph the simple graph.
+     */
+    public SpanningForest(SimpleGraph<T> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Collects the vertices and the edges of a simple graph.
+     * @param graph the simple graph.
+     * @param pool the fork/join pool running the workers.
+     */
+    @SuppressWarnings("unchecked")
+    public SpanningForest(SimpleGraph<T> graph, ForkJoinPool pool) {
+        this.pool = pool;
+        Map<Connectable<T>, Integer> ids = new HashMap<>(graph.getVertices().size() * 2);
+        vertices = new ArrayList<>(graph.getVertices().size());
+        graph.getVertices().forEach(vertex -> idOf(vertex, ids));
+        Set<Connection> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Connection> edges = new ArrayList<>(graph.getEdges().size());
+        for (Connection connection : graph.getEdges()) {
+            if (seen.add(connection)) { edges.add(connection); }
+        }
+        for (int id = 0; id < vertices.size(); id++) {
+            for (UConnection<Connectable<T>> connection : vertices.get(id).getConnections()) {
+                if (seen.add(connection)) { edges.add(connection); }
+            }
+        }
+        connections = new Connection[edges.size()];
+        starts = new int[edges.size()];
+        ends = new int[edges.size()];
+        weights = new int[edges.size()];
+        int count = 0;
+        for (Connection connection : edges) {
+            int start = idOf((Connectable<T>) connection.getStart(), ids);
+            int end = idOf((Connectable<T>) connection.getEnd(), ids);
+            // a self-connection never belongs to a spanning forest
+            if (start == end) { continue; }
+            connections[count] = connection;
+            starts[count] = start;
+            ends[count] = end;
+            weights[count] = connection.weight();
+            count++;
+        }
+        edgeCount = count;
+    }
+
+    private int idOf(Connectable<T> vertex, Map<Connectable<T>, Integer> ids) {
+        Integer id = ids.get(vertex);
+        if (id == null) {
+            id = vertices.size();
+            ids.put(vertex, id);
+            vertices.add(vertex);
+        }
+        return id;
+    }
+
+    /**
+     * @return the number of edges that are candidates for the forest, self-connections excluded.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Orders the edges by weight, then by position. Keys are unique, so
+     * they also serve as a total order for Boruvka.
+     */
+    private long key(int edge) {
+        return ((long) weights[edge] << 32) | edge;
+    }
+
+    /**
+     * Runs Kruskal's algorithm.
+     * @return the minimum spanning forest.
+     */
+    public Result kruskal() {
+        long[] keys = new long[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) { keys[edge] = key(edge); }
+        Arrays.parallelSort(keys);
+        DisjointSet components = new DisjointSet(vertices.size());
+        int[] chosen = new int[Math.max(vertices.size() - 1, 0)];
+        int count = 0;
+        for (int i = 0; i < edgeCount && count < chosen.length; i++) {
+            int edge = (int) keys[i];
+            if (components.union(starts[edge], ends[edge])) { chosen[count++] = edge; }
+        }
+        return new Result(Arrays.copyOf(chosen, count), components);
+    }
+
+    /**
+     * Runs Boruvka's algorithm, scanning the edges in parallel.
+     * @return the minimum spanning forest.
+     */
+    public Result boruvka() {
+        int size = vertices.size();
+        DisjointSet components = new DisjointSet(size);
+        // the component of every vertex, as of the start of the round
+        int[] labels = new int[size];
+        for (int vertex = 0; vertex < size; vertex++) { labels[vertex] = vertex; }
+        int[] roots = labels.clone();
+        int[] next = new int[size];
+        int rootCount = size;
+        AtomicLongArray cheapest = new AtomicLongArray(size);
+        int[] chosen = new int[Math.max(size - 1, 0)];
+        int count = 0;
+        while (rootCount > 1) {
+            for (int i = 0; i < rootCount; i++) { cheapest.set(roots[i], NONE); }
+            pool.invoke(new Cheapest(labels, cheapest, 0, edgeCount));
+            boolean merged = false;
+            for (int i = 0; i < rootCount; i++) {
+                long key = cheapest.get(roots[i]);
+                if (key == NONE) { continue; }
+                int edge = (int) key;
+                // both endpoints may pick the same edge; the second union fails
+                if (components.union(starts[edge], ends[edge])) {
+                    chosen[count++] = edge;
+                    merged = true;
+                }
+            }
+            if (!merged) { break; }
+            int nextCount = 0;
+            for (int i = 0; i < rootCount; i++) {
+                int root = components.find(roots[i]);
+                next[roots[i]] = root;
+                if (root == roots[i]) { roots[nextCount++] = root; }
+            }
+            rootCount = nextCount;
+            pool.invoke(new Relabel(labels, next, 0, size));
+        }
+        int[] edges = Arrays.copyOf(chosen, count);
+        // report the edges in the order Kruskal adds them
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) { keys[i] = key(edges[i]); }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) { edges[i] = (int) keys[i]; }
+        return new Result(edges, components);
+    }
+
+    /**
+     * Offers every edge of a range, joining two components, to both of them.
+     */
+    private final class Cheapest extends RecursiveAction {
+        private final int[] labels;
+        private final AtomicLongArray cheapest;
+        private final int from;
+        private final int to;
+
+        Cheapest(int[] labels, AtomicLongArray cheapest, int from, int to) {
+            this.labels = labels;
+            this.cheapest = cheapest;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Cheapest(labels, cheapest, from, middle), new Cheapest(labels, cheapest, middle, to));
+                return;
+            }
+            for (int edge = from; edge < to; edge++) {
+                int start = labels[starts[edge]];
+                int end = labels[ends[edge]];
+                if (start == end) { continue; }
+                long key = key(edge);
+                offer(start, key);
+                offer(end, key);
+            }
+        }
+
+        private void offer(int component, long key) {
+            long current;
+            do {
+                current = cheapest.get(component);
+                if (current <= key) { return; }
+            } while (!cheapest.compareAndSet(component, current, key));
+        }
+    }
+
+    /**
+     * Moves every vertex of a range to the component its old component was merged into.
+     */
+    private static final class Relabel extends RecursiveAction {
+        private final int[] labels;
+        private final int[] next;
+        private final int from;
+        private final int to;
+
+        Relabel(int[] labels, int[] next, int from, int to) {
+            this.labels = labels;
+            this.next = next;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Relabel(labels, next, from, middle), new Relabel(labels, next, middle, to));
+                return;
+            }
+            for (int vertex = from; vertex < to; vertex++) { labels[vertex] = next[labels[vertex]]; }
+        }
+    }
+
+    /**
+     * The outcome of a spanning forest: the edges kept, by increasing
+     * weight, and the components they span.
+     */
+    public final class Result {
+        private final int[] edges;
+        private final DisjointSet components;
+
+        Result(int[] edges, DisjointSet components) {
+            this.edges = edges;
+            this.components = components;
+        }
+
+        /**
+         * @return the number of trees in the forest, isolated vertices included.
+         */
+        public int getTreeCount() {
+            return components.count();
+        }
+
+        /**
+         * @return the sum of the weights of the edges of the forest.
+         */
+        public long getTotalWeight() {
+            long total = 0;
+            for (int edge : edges) { total += weights[edge]; }
+            return total;
+        }
+
+        /**
+         * @return the edges of the forest, the Connection objects of the
+         * original graph, by increasing weight.
+         */
+        public List<Connection> getEdges() {
+            List<Connection> list = new ArrayList<>(edges.length);
+            for (int edge : edges) { list.add(connections[edge]); }
+            return list;
+        }
+
+        /**
+         * Builds one SimpleGraph per tree of the forest, in the order the
+         * trees are first met among the vertices. Each vertex of the
+         * original graph is represented by a new Vertex holding the same
+         * value, not a copy of it, and connected only by the edges of its
+         * tree, with their weights.
+         * @return the trees of the forest.
+         */
+        public List<SimpleGraph<T>> getTrees() {
+            int size = vertices.size();
+            List<Vertex<T>> copies = new ArrayList<>(size);
+            Map<Integer, SimpleGraph<T>> trees = new HashMap<>(components.count() * 2);
+            List<SimpleGraph<T>> ordered = new ArrayList<>(components.count());
+            for (int vertex = 0; vertex < size; vertex++) {
+                Vertex<T> copy = new Vertex<>(vertices.get(vertex).get());
+                copies.add(copy);
+                SimpleGraph<T> tree = trees.get(components.find(vertex));
+                if (tree == null) {
+                    tree = new SimpleGraph<>(new HashSet<>(), new HashSet<>());
+                    trees.put(components.find(vertex), tree);
+                    ordered.add(tree);
+                }
+                tree.getVertices().add(copy);
+            }
+            for (int edge : edges) {
+                Vertex<T> start = copies.get(starts[edge]);
+                Vertex<T> end = copies.get(ends[edge]);
+                Edge<Connectable<T>> connection = new Edge<>(weights[edge], start, end);
+                start.addConnection(connection);
+                end.addConnection(connection);
+                trees.get(components.find(starts[edge])).getEdges().add(connection);
+            }
+            return ordered;
+        }
+    }
+}
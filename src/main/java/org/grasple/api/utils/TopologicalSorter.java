@@ -0,0 +1,409 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.particles.UConnection;
+import org.grasple.api.structures.graphs.DirectedGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>
+ * Contains a parallel version of Kahn's topological sort. Every connection
+ * start &rarr; end is a dependency: the start must come before the end.
+ * The vertices without dependencies form the first <b>level</b>; each
+ * following level holds the vertices whose last dependency was in the
+ * previous level, i.e. the level of a vertex is the length of the longest
+ * path leading to it. The vertices of a level are independent from one
+ * another, so they can be scheduled as a wave.
+ * </p>
+ * <p>
+ * Each level is expanded with fork/join workers, which decrement the
+ * remaining in-degree of the successors with atomic counters; the worker
+ * bringing a counter to zero appends the successor to the next level. When
+ * the graph has a cycle, the sort stops at the vertices of the cycle and
+ * reports one concrete cycle instead of throwing.
+ * </p>
+ * <p>
+ * The dependencies are read once, when the sorter is created, into
+ * primitive arrays; a sorter can then sort any number of times.
+ * </p>
+ * @see DirectedGraph
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class TopologicalSorter<T> {
+    /** The number of vertices below which a range is expanded by a single worker. */
+    private static final int GRAIN = 1024;
+
+    private final Object[] vertices;
+    private final Map<Connectable<T>, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a sorter over a directed graph, using the common fork/join pool.
+     * @param graph the graph, whose connections are the dependencies.
+     */
+    public TopologicalSorter(DirectedGraph<T> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a sorter over a directed graph.
+     * @param graph the graph, whose connections are the dependencies.
+     * @param pool the fork/join pool running the workers.
+     */
+    public TopologicalSorter(DirectedGraph<T> graph, ForkJoinPool pool) {
+        this(index(graph.getVertices(), null, true), pool);
+    }
+
+    /**
+     * Creates a sorter over a simple graph, using the common fork/join pool.
+     * @param graph the graph, see TopologicalSorter(SimpleGraph, ForkJoinPool).
+     */
+    public TopologicalSorter(SimpleGraph<T> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a sorter over a simple graph. Although the connections of a
+     * SimpleGraph are undirected, each of them has a start and an end; the
+     * connections of getEdges() and of each vertex are read as dependencies
+     * from their start to their end, every connection being counted once.
+     * @param graph the graph.
+     * @param pool the fork/join pool running the workers.
+     */
+    public TopologicalSorter(SimpleGraph<T> graph, ForkJoinPool pool) {
+        this(index(graph.getVertices(), graph.getEdges(), false), pool);
+    }
+
+    private TopologicalSorter(Indexer<T> indexer, ForkJoinPool pool) {
+        this.pool = pool;
+        this.vertices = indexer.vertices.toArray();
+        this.ids = indexer.ids;
+        int n = vertices.length;
+        offsets = new int[n + 1];
+        for (int i = 0; i < indexer.count; i++) { offsets[indexer.starts[i] + 1]++; }
+        for (int v = 0; v < n; v++) { offsets[v + 1] += offsets[v]; }
+        targets = new int[indexer.count];
+        int[] positions = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < indexer.count; i++) { targets[positions[indexer.starts[i]]++] = indexer.ends[i]; }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Indexer<T> index(Set<? extends Connectable<T>> vertices, Set<Connection> edges,
+                                        boolean directed) {
+        Indexer<T> indexer = new Indexer<>(vertices.size());
+        for (Connectable<T> vertex : vertices) { indexer.id(vertex); }
+        if (directed) {
+            for (Connectable<T> vertex : vertices) {
+                int start = indexer.id(vertex);
+                vertex.forEachNeighbor(successor -> indexer.arc(start, indexer.id(successor)));
+            }
+            return indexer;
+        }
+        // a connection may be held by the edges of the graph and by both of its endpoints
+        Map<Object, Boolean> seen = new IdentityHashMap<>();
+        for (Connection connection : edges) {
+            if (seen.put(connection, Boolean.TRUE) == null) {
+                indexer.arc(indexer.id((Connectable<T>) connection.getStart()),
+                        indexer.id((Connectable<T>) connection.getEnd()));
+            }
+        }
+        for (Connectable<T> vertex : vertices) {
+            for (UConnection<Connectable<T>> connection : vertex.getConnections()) {
+                if (seen.put(connection, Boolean.TRUE) == null) {
+                    indexer.arc(indexer.id(connection.getStart()), indexer.id(connection.getEnd()));
+                }
+            }
+        }
+        return indexer;
+    }
+
+    /**
+     * @return the number of vertices to be sorted.
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * Sorts the vertices.
+     * @return the order and levels of the vertices, or a cycle.
+     */
+    public Result<T> sort() {
+        int n = vertices.length;
+        AtomicIntegerArray inDegrees = new AtomicIntegerArray(n);
+        int[] counts = new int[n];
+        for (int target : targets) { counts[target]++; }
+        int[] levels = new int[n];
+        int[] order = new int[n];
+        int sources = 0;
+        for (int v = 0; v < n; v++) {
+            inDegrees.set(v, counts[v]);
+            levels[v] = counts[v] == 0 ? 0 : -1;
+            if (counts[v] == 0) { order[sources++] = v; }
+        }
+
+        Wave wave = new Wave(inDegrees, levels, order, sources);
+        int[] levelStarts = new int[16];
+        int depth = 0;
+        for (int from = 0, to; from < (to = wave.tail.get()); from = to) {
+            if (depth + 1 >= levelStarts.length) { levelStarts = Arrays.copyOf(levelStarts, levelStarts.length * 2); }
+            levelStarts[depth++] = from;
+            wave.depth = depth;
+            if (to - from > GRAIN) {
+                pool.invoke(new Expand(wave, from, to));
+            } else {
+                new Expand(wave, from, to).compute();
+            }
+        }
+        int sorted = wave.tail.get();
+        levelStarts[depth] = sorted;
+        int[] cycle = sorted < n ? findCycle(levels) : new int[0];
+        return new Result<>(this, order, sorted, Arrays.copyOf(levelStarts, depth + 1), levels, cycle);
+    }
+
+    /**
+     * Finds a cycle among the vertices that could not be sorted. Each of
+     * them still has a dependency that could not be sorted, so following
+     * the dependencies backward from any of them eventually closes a cycle.
+     */
+    private int[] findCycle(int[] levels) {
+        int n = vertices.length;
+        int[] reverseOffsets = new int[n + 1];
+        for (int target : targets) { reverseOffsets[target + 1]++; }
+        for (int v = 0; v < n; v++) { reverseOffsets[v + 1] += reverseOffsets[v]; }
+        int[] sources = new int[targets.length];
+        int[] positions = Arrays.copyOf(reverseOffsets, n);
+        for (int v = 0; v < n; v++) {
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) { sources[positions[targets[arc]]++] = v; }
+        }
+
+        int[] stepOf = new int[n];
+        Arrays.fill(stepOf, -1);
+        int[] path = new int[16];
+        int steps = 0;
+        int vertex = 0;
+        while (levels[vertex] >= 0) { vertex++; }
+        while (stepOf[vertex] < 0) {
+            if (steps == path.length) { path = Arrays.copyOf(path, steps * 2); }
+            stepOf[vertex] = steps;
+            path[steps++] = vertex;
+            int arc = reverseOffsets[vertex];
+            while (levels[sources[arc]] >= 0) { arc++; }
+            vertex = sources[arc];
+        }
+        // the path follows the dependencies backward, the cycle is reported forward
+        int[] cycle = new int[steps - stepOf[vertex]];
+        for (int i = 0; i < cycle.length; i++) { cycle[i] = path[steps - 1 - i]; }
+        return cycle;
+    }
+
+    /**
+     * The shared state of a sort.
+     */
+    private static final class Wave {
+        final AtomicIntegerArray inDegrees;
+        final int[] levels;
+        final int[] order;
+        final AtomicInteger tail;
+        /** The level being appended to the order. */
+        int depth;
+
+        Wave(AtomicIntegerArray inDegrees, int[] levels, int[] order, int sources) {
+            this.inDegrees = inDegrees;
+            this.levels = levels;
+            this.order = order;
+            this.tail = new AtomicInteger(sources);
+        }
+
+        /**
+         * Appends the vertices released by a worker with a single atomic operation.
+         */
+        void publish(int[] released, int count) {
+            int at = tail.getAndAdd(count);
+            System.arraycopy(released, 0, order, at, count);
+        }
+    }
+
+    /**
+     * Releases the successors of a range of the current level.
+     */
+    private final class Expand extends RecursiveAction {
+        private final Wave wave;
+        private final int from;
+        private final int to;
+
+        Expand(Wave wave, int from, int to) {
+            this.wave = wave;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Expand(wave, from, middle), new Expand(wave, middle, to));
+                return;
+            }
+            int[] released = new int[16];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int vertex = wave.order[i];
+                for (int arc = offsets[vertex], end = offsets[vertex + 1]; arc < end; arc++) {
+                    int successor = targets[arc];
+                    if (wave.inDegrees.decrementAndGet(successor) != 0) { continue; }
+                    wave.levels[successor] = wave.depth;
+                    if (count == released.length) { released = Arrays.copyOf(released, count * 2); }
+                    released[count++] = successor;
+                }
+            }
+            wave.publish(released, count);
+        }
+    }
+
+    /**
+     * Collects the vertices and dependencies of a graph, numbering the
+     * vertices in order of first appearance.
+     */
+    private static final class Indexer<T> {
+        final Map<Connectable<T>, Integer> ids;
+        final List<Connectable<T>> vertices;
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count;
+
+        Indexer(int expectedSize) {
+            ids = new IdentityHashMap<>(expectedSize);
+            vertices = new ArrayList<>(expectedSize);
+        }
+
+        int id(Connectable<T> vertex) {
+            Integer id = ids.get(vertex);
+            if (id != null) { return id; }
+            ids.put(vertex, vertices.size());
+            vertices.add(vertex);
+            return vertices.size() - 1;
+        }
+
+        void arc(int start, int end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count++] = end;
+        }
+    }
+
+    /**
+     * The outcome of a topological sort.
+     * @param <T> the datatype that the graph contains
+     */
+    public static final class Result<T> {
+        private final TopologicalSorter<T> sorter;
+        private final int[] order;
+        private final int sorted;
+        private final int[] levelStarts;
+        private final int[] levels;
+        private final int[] cycle;
+
+        private Result(TopologicalSorter<T> sorter, int[] order, int sorted, int[] levelStarts, int[] levels,
+                       int[] cycle) {
+            this.sorter = sorter;
+            this.order = order;
+            this.sorted = sorted;
+            this.levelStarts = levelStarts;
+            this.levels = levels;
+            this.cycle = cycle;
+        }
+
+        /**
+         * @return true if the graph has no cycle, i.e. every vertex was sorted.
+         */
+        public boolean isAcyclic() {
+            return cycle.length == 0;
+        }
+
+        /**
+         * @return the vertices in a topological order. When the graph has a
+         * cycle, only the vertices that do not depend on a cycle are given.
+         */
+        public List<Connectable<T>> getOrder() {
+            return vertices(0, sorted);
+        }
+
+        /**
+         * @return the number of levels.
+         */
+        public int depth() {
+            return levelStarts.length - 1;
+        }
+
+        /**
+         * @param level the level, from 0 to depth() - 1.
+         * @return the vertices of the level, which do not depend on one another.
+         */
+        public List<Connectable<T>> getLevel(int level) {
+            if (level < 0 || level >= depth()) {
+                throw new IllegalArgumentException("There is no level " + level + ".");
+            }
+            return vertices(levelStarts[level], levelStarts[level + 1]);
+        }
+
+        /**
+         * @return the vertices of every level, from the first level.
+         */
+        public List<List<Connectable<T>>> getLevels() {
+            List<List<Connectable<T>>> _levels = new ArrayList<>(depth());
+            for (int level = 0; level < depth(); level++) { _levels.add(getLevel(level)); }
+            return _levels;
+        }
+
+        /**
+         * @param vertex a vertex of the graph.
+         * @return the level of the vertex, i.e. the length of the longest
+         * dependency path leading to it, or -1 if the vertex is unknown or
+         * could not be sorted.
+         */
+        public int levelOf(Connectable<T> vertex) {
+            Integer id = sorter.ids.get(vertex);
+            return id == null ? -1 : levels[id];
+        }
+
+        /**
+         * @return the vertices of a cycle, each depending on the previous
+         * one and the first depending on the last, or an empty list if the
+         * graph is acyclic.
+         */
+        @SuppressWarnings("unchecked")
+        public List<Connectable<T>> getCycle() {
+            List<Connectable<T>> _cycle = new ArrayList<>(cycle.length);
+            for (int vertex : cycle) { _cycle.add((Connectable<T>) sorter.vertices[vertex]); }
+            return _cycle;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Connectable<T>> vertices(int from, int to) {
+            Connectable<T>[] _vertices = new Connectable[to - from];
+            for (int i = from; i < to; i++) { _vertices[i - from] = (Connectable<T>) sorter.vertices[order[i]]; }
+            return Collections.unmodifiableList(Arrays.asList(_vertices));
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.structures.graphs.SimpleGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Caches the answers of reachability and shortest path queries on a
+ * SimpleGraph that changes slowly, in a BoundedCache, so that repeated
+ * queries do not traverse the graph again.
+ * </p>
+ * <p>
+ * The cache follows the ChangeJournal of the graph through an
+ * IncrementalComponents, whose components are formed by the same
+ * connections that the queries traverse. Each answer is stamped with the
+ * componentVersion() of the components of its endpoints, and is only
+ * reused while both versions are unchanged: adding or removing an edge,
+ * through addEdge(), removeEdge(), connect() or disconnect() of the graph,
+ * or through Vertex.connect() and Vertex.disconnect() on its vertices,
+ * only invalidates the answers that involve the components it touched.
+ * Queries on vertices unknown to the graph are answered without caching.
+ * </p>
+ * <p>
+ * This class is not thread-safe. Call close() to stop following the journal.
+ * </p>
+ * @see BoundedCache
+ * @see IncrementalComponents
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class TraversalCache<T> implements AutoCloseable {
+    /** The estimated footprint of an entry, in bytes, besides the vertices of a path. */
+    private static final long ENTRY_BYTES = 128;
+    /** The estimated footprint of each vertex of a cached path, in bytes. */
+    private static final long PATH_VERTEX_BYTES = 8;
+
+    private final IncrementalComponents<T> components;
+    private final BoundedCache<Query<T>, Answer> cache;
+    private long stale;
+
+    /**
+     * Creates a cache bounded by its number of answers.
+     * @param graph the graph to be queried.
+     * @param policy the eviction policy.
+     * @param maximumSize the maximum number of answers.
+     */
+    public TraversalCache(SimpleGraph<T> graph, BoundedCache.Policy policy, int maximumSize) {
+        this(graph, policy, maximumSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a cache bounded by its number of answers and their estimated memory footprint.
+     * @param graph the graph to be queried.
+     * @param policy the eviction policy.
+     * @param maximumSize the maximum number of answers.
+     * @param maximumBytes the maximum estimated footprint of the answers.
+     */
+    public TraversalCache(SimpleGraph<T> graph, BoundedCache.Policy policy, int maximumSize, long maximumBytes) {
+        this.components = new IncrementalComponents<>(graph);
+        this.cache = new BoundedCache<>(policy, maximumSize, maximumBytes, (query, answer) ->
+                ENTRY_BYTES + (answer.value instanceof List ? PATH_VERTEX_BYTES * ((List<?>) answer.value).size() : 0));
+    }
+
+    /**
+     * Checks whether a path leads from a vertex to another. The traversal
+     * stops as soon as the target is reached.
+     * @param source the starting vertex.
+     * @param target the vertex to be reached.
+     * @return true if the target can be reached from the source.
+     */
+    public boolean reachable(Connectable<T> source, Connectable<T> target) {
+        Query<T> query = new Query<>(source, target, false);
+        Boolean answer = (Boolean) lookup(query);
+        if (answer == null) {
+            answer = traverse(source, target);
+            store(query, answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Finds a path with the fewest edges from a vertex to another, with a
+     * breadth-first search.
+     * @param source the starting vertex.
+     * @param target the vertex to be reached.
+     * @return an unmodifiable List of the vertices from the source to the
+     * target, both included, or an empty List if the target is unreachable.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Connectable<T>> shortestPath(Connectable<T> source, Connectable<T> target) {
+        Query<T> query = new Query<>(source, target, true);
+        List<Connectable<T>> answer = (List<Connectable<T>>) lookup(query);
+        if (answer == null) {
+            answer = search(source, target);
+            store(query, answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Retrieves the statistics of the cache. An answer found but
+     * invalidated by a change of the graph counts as a miss.
+     * @return a snapshot of the hits, misses and evictions so far.
+     */
+    public BoundedCache.Statistics getStatistics() {
+        BoundedCache.Statistics statistics = cache.getStatistics();
+        return new BoundedCache.Statistics(statistics.getHits() - stale, statistics.getMisses() + stale,
+                statistics.getEvictions());
+    }
+
+    /**
+     * @return the number of answers found but invalidated by a change of the graph.
+     */
+    public long getInvalidationCount() {
+        return stale;
+    }
+
+    /**
+     * @return the number of answers cached, the invalidated ones not yet replaced included.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes every answer.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Stops following the journal of the graph.
+     */
+    @Override
+    public void close() {
+        components.close();
+    }
+
+    /**
+     * @return the cached answer of a query, or null if it is absent or invalidated.
+     */
+    private Object lookup(Query<T> query) {
+        Answer answer = cache.get(query);
+        if (answer == null) { return null; }
+        if (answer.sourceVersion == components.componentVersion(query.source)
+                && answer.targetVersion == components.componentVersion(query.target)) {
+            return answer.value;
+        }
+        stale++;
+        cache.remove(query);
+        return null;
+    }
+
+    private void store(Query<T> query, Object value) {
+        long sourceVersion = components.componentVersion(query.source);
+        long targetVersion = components.componentVersion(query.target);
+        if (sourceVersion < 0 || targetVersion < 0) { return; }
+        cache.put(query, new Answer(value, sourceVersion, targetVersion));
+    }
+
+    private boolean traverse(Connectable<T> source, Connectable<T> target) {
+        boolean[] found = new boolean[1];
+        List<DefaultTraverser<T>> holder = new ArrayList<>(1);
+        DefaultTraverser<T> traverser = new DefaultTraverser<>(source, null, new HashSet<>(), (vertex, push) -> {
+            if (vertex == target) {
+                found[0] = true;
+                holder.get(0).halt();
+            } else {
+                vertex.forEachNeighbor(push);
+            }
+        });
+        holder.add(traverser);
+        traverser.run();
+        return found[0];
+    }
+
+    private List<Connectable<T>> search(Connectable<T> source, Connectable<T> target) {
+        Map<Connectable<T>, Connectable<T>> parents = new HashMap<>();
+        ArrayDeque<Connectable<T>> queue = new ArrayDeque<>();
+        parents.put(source, source);
+        queue.add(source);
+        while (!queue.isEmpty() && !parents.containsKey(target)) {
+            Connectable<T> vertex = queue.poll();
+            vertex.forEachNeighbor(neighbor -> {
+                if (!parents.containsKey(neighbor)) {
+                    parents.put(neighbor, vertex);
+                    queue.add(neighbor);
+                }
+            });
+        }
+        if (!parents.containsKey(target)) { return Collections.emptyList(); }
+        List<Connectable<T>> path = new ArrayList<>();
+        for (Connectable<T> vertex = target; vertex != source; vertex = parents.get(vertex)) { path.add(vertex); }
+        path.add(source);
+        Collections.reverse(path);
+        return Collections.unmodifiableList(path);
+    }
+
+    /**
+     * The key of a cached answer.
+     */
+    private static final class Query<T> {
+        final Connectable<T> source;
+        final Connectable<T> target;
+        final boolean path;
+
+        Query(Connectable<T> source, Connectable<T> target, boolean path) {
+            this.source = source;
+            this.target = target;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Query)) return false;
+            Query<?> query = (Query<?>) o;
+            return path == query.path && source.equals(query.source) && target.equals(query.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, target, path);
+        }
+    }
+
+    /**
+     * A cached answer, with the versions of the components it was computed on.
+     */
+    private static final class Answer {
+        final Object value;
+        final long sourceVersion;
+        final long targetVersion;
+
+        Answer(Object value, long sourceVersion, long targetVersion) {
+            this.value = value;
+            this.sourceVersion = sourceVersion;
+            this.targetVersion = targetVersion;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Runs many independent DefaultTraverser queries concurrently, on a graph
+ * that is read far more often than it is modified. Each query returns a
+ * CompletableFuture.
+ * </p>
+ * <ul>
+ *     <li>On a JDK that has virtual threads, each query runs on its own
+ *     virtual thread. Otherwise the queries run on a dedicated ForkJoinPool
+ *     with one worker per processor.</li>
+ *     <li>The number of queries in flight is bounded by the capacity of the
+ *     executor. A query submitted while the executor is full waits for a
+ *     free slot up to the admission timeout, then fails with a
+ *     RejectedExecutionException, so callers are slowed down instead of
+ *     piling up unbounded work.</li>
+ *     <li>A query can have a deadline: once it is passed, the traversal
+ *     halts and the future fails with a TimeoutException. Cancelling the
+ *     future halts the traversal as well.</li>
+ *     <li>The Sets of visited vertices are pooled and reused by later
+ *     queries, instead of being allocated and grown again for each query.</li>
+ * </ul>
+ * <p>
+ * The graph must not be modified while queries run, unless its vertices
+ * are ConcurrentVertex objects.
+ * </p>
+ * @see DefaultTraverser
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class TraversalQueryExecutor<T> implements AutoCloseable {
+    /** The number of vertices expanded between two checks of the deadline. */
+    private static final int CHECK_INTERVAL = 256;
+    /** Visited Sets holding more vertices than this are dropped instead of pooled. */
+    private static final int MAX_POOLED_SIZE = 1 << 20;
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final int capacity;
+    private final Semaphore slots;
+    private final long admissionNanos;
+    /** The pooled visited Sets; there are never more than the number of queries run at once. */
+    private final ConcurrentLinkedQueue<Set<Connectable<T>>> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates an executor that rejects queries at once when it is full.
+     * @param capacity the maximum number of queries in flight.
+     */
+    public TraversalQueryExecutor(int capacity) {
+        this(capacity, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates an executor whose queries wait for a free slot when it is full.
+     * @param capacity the maximum number of queries in flight.
+     * @param admissionTimeout how long a submission waits for a free slot.
+     * @param unit the unit of the admission timeout.
+     */
+    public TraversalQueryExecutor(int capacity, long admissionTimeout, TimeUnit unit) {
+        this(capacity, admissionTimeout, unit, virtualThreadExecutor());
+    }
+
+    /**
+     * Creates an executor on a given ExecutorService, or on a ForkJoinPool if it is null.
+     */
+    TraversalQueryExecutor(int capacity, long admissionTimeout, TimeUnit unit, ExecutorService executor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of a TraversalQueryExecutor must be positive.");
+        }
+        if (admissionTimeout < 0) {
+            throw new IllegalArgumentException("The admission timeout cannot be negative.");
+        }
+        this.capacity = capacity;
+        this.slots = new Semaphore(capacity);
+        this.admissionNanos = unit.toNanos(admissionTimeout);
+        this.virtual = executor != null;
+        this.executor = virtual ? executor : new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor(), which exists
+     * from JDK 21 on, while the library still compiles for Java 8.
+     * @return the executor, or null if virtual threads are not available.
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the queries run on virtual threads, false if they run on a ForkJoinPool.
+     */
+    public boolean usesVirtualThreads() {
+        return virtual;
+    }
+
+    /**
+     * @return the maximum number of queries in flight.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of queries that can be submitted before the executor is full.
+     */
+    public int available() {
+        return slots.availablePermits();
+    }
+
+    /**
+     * Traverses the vertices reachable from a vertex, without deadline.
+     * @param start the starting vertex.
+     * @param action the action applied to each vertex visited, can be null.
+     * It is called from the thread of the query.
+     * @return the future number of vertices visited.
+     */
+    public CompletableFuture<Long> traverse(Connectable<T> start, Consumer<T> action) {
+        return traverse(start, action, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Traverses the vertices reachable from a vertex.
+     * @param start the starting vertex.
+     * @param action the action applied to each vertex visited, can be null.
+     * It is called from the thread of the query.
+     * @param timeout the time allowed to the query from its submission, 0 for no deadline.
+     * @param unit the unit of the timeout.
+     * @return the future number of vertices visited.
+     */
+    public CompletableFuture<Long> traverse(Connectable<T> start, Consumer<T> action, long timeout, TimeUnit unit) {
+        return submit(new Query<Long>(start, action, deadline(timeout, unit)) {
+            @Override
+            Long result(DefaultTraverser<T> traverser) {
+                return traverser.getVisitCount();
+            }
+        });
+    }
+
+    /**
+     * Checks whether a path leads from a vertex to another, without deadline.
+     * @param source the starting vertex.
+     * @param target the vertex to be reached.
+     * @return the future answer.
+     */
+    public CompletableFuture<Boolean> reachable(Connectable<T> source, Connectable<T> target) {
+        return reachable(source, target, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Checks whether a path leads from a vertex to another. The traversal
+     * stops as soon as the target is reached.
+     * @param source the starting vertex.
+     * @param target the vertex to be reached.
+     * @param timeout the time allowed to the query from its submission, 0 for no deadline.
+     * @param unit the unit of the timeout.
+     * @return the future answer.
+     */
+    public CompletableFuture<Boolean> reachable(Connectable<T> source, Connectable<T> target,
+                                                long timeout, TimeUnit unit) {
+        return submit(new Query<Boolean>(source, null, deadline(timeout, unit)) {
+            boolean found;
+
+            @Override
+            boolean expand(Connectable<T> vertex, Consumer<Connectable<T>> push) {
+                if (vertex != target) { return true; }
+                found = true;
+                traverser.halt();
+                return false;
+            }
+
+            @Override
+            Boolean result(DefaultTraverser<T> traverser) {
+                return found;
+            }
+        });
+    }
+
+    /**
+     * Stops accepting queries. The queries in flight run to completion.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static long deadline(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The timeout of a query cannot be negative.");
+        }
+        // 0 means no deadline; a deadline of exactly 0 is made 1 nanosecond later
+        return timeout == 0 ? 0 : (System.nanoTime() + unit.toNanos(timeout)) | 1;
+    }
+
+    private <R> CompletableFuture<R> submit(Query<R> query) {
+        CompletableFuture<R> future = query.future;
+        try {
+            if (!slots.tryAcquire(admissionNanos, TimeUnit.NANOSECONDS)) {
+                future.completeExceptionally(new RejectedExecutionException(
+                        "The TraversalQueryExecutor is full: " + capacity + " queries in flight."));
+                return future;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+        try {
+            executor.execute(query);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            future.completeExceptionally(e);
+            return future;
+        }
+        future.whenComplete((result, failure) -> {
+            DefaultTraverser<T> traverser = query.traverser;
+            if (future.isCancelled() && traverser != null) { traverser.halt(); }
+        });
+        return future;
+    }
+
+    private Set<Connectable<T>> acquireBuffer() {
+        Set<Connectable<T>> buffer = buffers.poll();
+        return buffer == null ? new HashSet<>() : buffer;
+    }
+
+    private void releaseBuffer(Set<Connectable<T>> buffer) {
+        if (buffer.size() > MAX_POOLED_SIZE) { return; }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    /**
+     * A query: a traversal on a pooled visited Set, whose expansion checks
+     * the deadline.
+     * @param <R> the type of the result
+     */
+    private abstract class Query<R> implements Runnable, BiConsumer<Connectable<T>, Consumer<Connectable<T>>> {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        final Connectable<T> start;
+        final Consumer<T> action;
+        final long deadline;
+        /** Set when the query starts, read by the thread that cancels the future. */
+        volatile DefaultTraverser<T> traverser;
+        boolean expired;
+        int expansions;
+
+        Query(Connectable<T> start, Consumer<T> action, long deadline) {
+            this.start = start;
+            this.action = action;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Called on each vertex before its neighbors are expanded.
+         * @return false to skip the neighbors of the vertex.
+         */
+        boolean expand(Connectable<T> vertex, Consumer<Connectable<T>> push) {
+            return true;
+        }
+
+        abstract R result(DefaultTraverser<T> traverser);
+
+        @Override
+        public void accept(Connectable<T> vertex, Consumer<Connectable<T>> push) {
+            if (deadline != 0 && ++expansions % CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+                expired = true;
+                traverser.halt();
+                return;
+            }
+            if (expand(vertex, push)) { vertex.forEachNeighbor(push); }
+        }
+
+        @Override
+        public void run() {
+            Set<Connectable<T>> visited = acquireBuffer();
+            R value = null;
+            Throwable failure = null;
+            try {
+                traverser = new DefaultTraverser<>(start, action, visited, this);
+                // a future cancelled before this point will not see the traverser
+                if (future.isDone()) { return; }
+                if (deadline != 0 && System.nanoTime() - deadline > 0) {
+                    expired = true;
+                } else {
+                    traverser.run();
+                }
+                if (expired) {
+                    failure = new TimeoutException("The traversal query passed its deadline.");
+                } else {
+                    value = result(traverser);
+                }
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                releaseBuffer(visited);
+                slots.release();
+            }
+            // completed once the slot is free, so that a caller waiting for the result can submit again
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(value);
+            }
+        }
+    }
+}
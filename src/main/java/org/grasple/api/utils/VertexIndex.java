@@ -0,0 +1,143 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Assigns dense indices [0, size) to the vertices of a graph, once, so
+ * that per-vertex state can be kept in arrays such as a VisitedState.
+ * Indices are never reused: a vertex keeps its index for the lifetime of
+ * the VertexIndex, which holds every vertex it indexed. Finding the index
+ * of a vertex hashes it, so a traversal through asSet() saves the
+ * allocation of a visited Set but not the hashing; CompactGraph ids are
+ * dense indices that need no lookup at all. This class is not thread-safe.
+ * @see VisitedState
+ * @see org.grasple.api.structures.graphs.CompactGraph#traverse(int, java.util.function.IntConsumer, VisitedState)
+ * @param <T> the datatype that the graph contains
+ * @since 1.0
+ * @author Bach Tran
+ */
+public final class VertexIndex<T> {
+    private final Map<Connectable<T>, Integer> indices;
+    private final List<Connectable<T>> vertices;
+
+    /**
+     * Creates an empty index.
+     */
+    public VertexIndex() {
+        indices = new HashMap<>();
+        vertices = new ArrayList<>();
+    }
+
+    /**
+     * Creates an index of the given vertices, in their iteration order.
+     * @param vertices the vertices.
+     */
+    public VertexIndex(Collection<? extends Connectable<T>> vertices) {
+        indices = new HashMap<>(vertices.size() * 2);
+        this.vertices = new ArrayList<>(vertices.size());
+        for (Connectable<T> vertex : vertices) { add(vertex); }
+    }
+
+    /**
+     * @return the number of vertices indexed.
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * @param vertex the vertex.
+     * @return the index of the vertex, or -1 if the vertex is not indexed.
+     */
+    public int indexOf(Connectable<T> vertex) {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Indexes a vertex, if it is not indexed yet.
+     * @param vertex the vertex.
+     * @return the index of the vertex.
+     */
+    public int add(Connectable<T> vertex) {
+        Integer index = indices.get(vertex);
+        if (index != null) { return index; }
+        indices.put(vertex, vertices.size());
+        vertices.add(vertex);
+        return vertices.size() - 1;
+    }
+
+    /**
+     * @param index the index.
+     * @return the vertex of the index.
+     */
+    public Connectable<T> get(int index) {
+        return vertices.get(index);
+    }
+
+    /**
+     * Views a VisitedState as the Set of the visited vertices, which can
+     * be given to a DefaultTraverser. Vertices added to the Set are
+     * indexed if needed, and the state grows accordingly. The Set does
+     * not support removals, call clear() on the state instead.
+     * @param state the visited state, indexed by this VertexIndex.
+     * @return the view of the state.
+     */
+    public Set<Connectable<T>> asSet(VisitedState state) {
+        return new AbstractSet<Connectable<T>>() {
+            @Override
+            public boolean add(Connectable<T> vertex) {
+                int index = VertexIndex.this.add(vertex);
+                if (index >= state.capacity()) { state.ensureCapacity(index + 1); }
+                return state.visit(index);
+            }
+
+            @Override
+            public boolean contains(Object vertex) {
+                Integer index = indices.get(vertex);
+                return index != null && index < state.capacity() && state.isVisited(index);
+            }
+
+            @Override
+            public int size() {
+                return state.count();
+            }
+
+            @Override
+            public Iterator<Connectable<T>> iterator() {
+                return new Iterator<Connectable<T>>() {
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        int limit = Math.min(vertices.size(), state.capacity());
+                        while (from < limit && !state.isVisited(from)) { from++; }
+                        return from < limit ? from : -1;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public Connectable<T> next() {
+                        if (next < 0) { throw new NoSuchElementException(); }
+                        Connectable<T> vertex = vertices.get(next);
+                        next = advance(next + 1);
+                        return vertex;
+                    }
+                };
+            }
+        };
+    }
+}
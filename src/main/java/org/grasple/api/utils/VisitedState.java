@@ -0,0 +1,192 @@
+package org.grasple.api.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Marks the vertices visited by a traversal, by their dense index (see
+ * VertexIndex), so that the same state can be reused by many traversals
+ * over the same graph instead of allocating and filling a new HashSet
+ * each time. Two implementations are available:
+ * </p>
+ * <ul>
+ *     <li>epochs(): an int stamp per vertex. clear() increments the
+ *     current epoch, in O(1); a vertex is visited if its stamp equals
+ *     the epoch.</li>
+ *     <li>bits(): a bit per vertex, 32 times smaller. clear() zeroes the
+ *     bits, in O(size / 64).</li>
+ * </ul>
+ * <p>
+ * A VisitedState is not thread-safe; use one per thread.
+ * </p>
+ * @see VertexIndex
+ * @see DefaultTraverser
+ * @since 1.0
+ * @author Bach Tran
+ */
+public interface VisitedState {
+    /**
+     * Marks a vertex as visited.
+     * @param index the index of the vertex.
+     * @return true if the vertex was not visited yet.
+     */
+    boolean visit(int index);
+
+    /**
+     * @param index the index of the vertex.
+     * @return true if the vertex has been visited since the last clear().
+     */
+    boolean isVisited(int index);
+
+    /**
+     * @return the number of vertices visited since the last clear().
+     */
+    int count();
+
+    /**
+     * @return the number of vertices that can be marked.
+     */
+    int capacity();
+
+    /**
+     * Grows the state so that vertices up to the given index can be marked.
+     * @param capacity the number of vertices that can be marked.
+     */
+    void ensureCapacity(int capacity);
+
+    /**
+     * Forgets every visited vertex.
+     */
+    void clear();
+
+    /**
+     * Creates a state stamped with epochs, cleared in O(1).
+     * @param capacity the initial number of vertices.
+     * @return the state.
+     */
+    static VisitedState epochs(int capacity) {
+        return new Epochs(capacity);
+    }
+
+    /**
+     * Creates a state of one bit per vertex, for memory-tight cases.
+     * @param capacity the initial number of vertices.
+     * @return the state.
+     */
+    static VisitedState bits(int capacity) {
+        return new Bits(capacity);
+    }
+
+    /**
+     * The state stamped with epochs.
+     */
+    final class Epochs implements VisitedState {
+        private int[] stamps;
+        private int epoch = 1;
+        private int count;
+
+        private Epochs(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("The capacity of a VisitedState cannot be negative.");
+            }
+            stamps = new int[capacity];
+        }
+
+        @Override
+        public boolean visit(int index) {
+            if (stamps[index] == epoch) { return false; }
+            stamps[index] = epoch;
+            count++;
+            return true;
+        }
+
+        @Override
+        public boolean isVisited(int index) {
+            return stamps[index] == epoch;
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public int capacity() {
+            return stamps.length;
+        }
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            if (capacity > stamps.length) {
+                stamps = Arrays.copyOf(stamps, Math.max(capacity, stamps.length + (stamps.length >> 1)));
+            }
+        }
+
+        @Override
+        public void clear() {
+            count = 0;
+            // the stamps are zeroed only when the epoch wraps around, once every 2^32 runs
+            if (++epoch == 0) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+        }
+    }
+
+    /**
+     * The state of one bit per vertex.
+     */
+    final class Bits implements VisitedState {
+        private long[] words;
+        private int capacity;
+        private int count;
+
+        private Bits(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("The capacity of a VisitedState cannot be negative.");
+            }
+            this.capacity = capacity;
+            words = new long[(capacity + 63) >>> 6];
+        }
+
+        @Override
+        public boolean visit(int index) {
+            if (index >= capacity) { throw new ArrayIndexOutOfBoundsException(index); }
+            long mask = 1L << index;
+            long word = words[index >>> 6];
+            if ((word & mask) != 0) { return false; }
+            words[index >>> 6] = word | mask;
+            count++;
+            return true;
+        }
+
+        @Override
+        public boolean isVisited(int index) {
+            if (index >= capacity) { throw new ArrayIndexOutOfBoundsException(index); }
+            return (words[index >>> 6] & (1L << index)) != 0;
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public int capacity() {
+            return capacity;
+        }
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            if (capacity <= this.capacity) { return; }
+            this.capacity = Math.max(capacity, this.capacity + (this.capacity >> 1));
+            words = Arrays.copyOf(words, (this.capacity + 63) >>> 6);
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(words, 0);
+            count = 0;
+        }
+    }
+}
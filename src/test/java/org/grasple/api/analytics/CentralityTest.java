@@ -0,0 +1,143 @@
+package org.grasple.api.analytics;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentralityTest {
+    static final int SIZE = 300;
+    CompactGraph<Integer> _common_random;
+
+    @BeforeEach
+    void buildRandom() {
+        // a sparse random graph, with several components and many ties between shortest paths
+        Random random = new Random(7);
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>(SIZE, 2 * SIZE);
+        for (int i = 0; i < SIZE; i++) { builder.addVertex(i); }
+        for (int i = 0; i < 2 * SIZE / 3; i++) {
+            builder.addEdge(random.nextInt(SIZE / 2), random.nextInt(SIZE / 2), 1);
+            builder.addEdge(SIZE / 2 + random.nextInt(SIZE / 2), SIZE / 2 + random.nextInt(SIZE / 2), 1);
+        }
+        _common_random = builder.build();
+    }
+
+    static CompactGraph<Integer> path(int size) {
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>();
+        for (int i = 0; i < size; i++) { builder.addVertex(i); }
+        for (int i = 1; i < size; i++) { builder.addEdge(i - 1, i, 1); }
+        return builder.build();
+    }
+
+    /** Counts the shortest paths from a source by a sequential breadth-first search. */
+    static void search(CompactGraph<?> graph, int source, int[] distances, long[] paths) {
+        Arrays.fill(distances, -1);
+        Arrays.fill(paths, 0);
+        distances[source] = 0;
+        paths[source] = 1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int vertex = queue.poll();
+            graph.forEachNeighbor(vertex, neighbor -> {
+                if (distances[neighbor] < 0) {
+                    distances[neighbor] = distances[vertex] + 1;
+                    queue.add(neighbor);
+                }
+                if (distances[neighbor] == distances[vertex] + 1) { paths[neighbor] += paths[vertex]; }
+            });
+        }
+    }
+
+    /** The reference betweenness, by definition: v lies on a shortest s-t path iff d(s,v) + d(v,t) = d(s,t). */
+    static double[] betweenness(CompactGraph<?> graph) {
+        int size = graph.size();
+        int[][] distances = new int[size][size];
+        long[][] paths = new long[size][size];
+        for (int s = 0; s < size; s++) { search(graph, s, distances[s], paths[s]); }
+        double[] centrality = new double[size];
+        for (int s = 0; s < size; s++) {
+            for (int t = s + 1; t < size; t++) {
+                if (distances[s][t] < 0) { continue; }
+                for (int v = 0; v < size; v++) {
+                    if (v == s || v == t || distances[s][v] < 0) { continue; }
+                    if (distances[s][v] + distances[v][t] == distances[s][t]) {
+                        centrality[v] += (double) paths[s][v] * paths[v][t] / paths[s][t];
+                    }
+                }
+            }
+        }
+        return centrality;
+    }
+
+    @Test
+    void computeBetweennessOfAPath() {
+        assertArrayEquals(new double[]{0, 3, 4, 3, 0}, new Centrality<>(path(5)).betweenness(), 1e-12);
+    }
+
+    @Test
+    void matchDefinitionOfBetweenness() {
+        double[] expected = betweenness(_common_random);
+        double[] actual = new Centrality<>(_common_random, new ForkJoinPool(3)).betweenness();
+        assertArrayEquals(expected, actual, 1e-9);
+    }
+
+    @Test
+    void estimateBetweennessFromSamples() {
+        Centrality<Integer> centrality = new Centrality<>(_common_random);
+        double[] exact = centrality.betweenness();
+        centrality.setSamples(SIZE, 1);
+        assertArrayEquals(exact, centrality.betweenness(), 1e-9);
+
+        centrality.setSamples(SIZE / 2, 1);
+        double[] estimate = centrality.betweenness();
+        assertArrayEquals(estimate, centrality.betweenness(), 0);
+        double exactTotal = Arrays.stream(exact).sum();
+        double estimateTotal = Arrays.stream(estimate).sum();
+        assertEquals(exactTotal, estimateTotal, exactTotal * 0.5);
+        assertThrows(IllegalArgumentException.class, () -> centrality.setSamples(-1, 0));
+    }
+
+    @Test
+    void computeClosenessAndDegree() {
+        CompactGraph<Integer> path = path(5);
+        Centrality<Integer> centrality = new Centrality<>(path);
+        assertArrayEquals(new double[]{4.0 / 10, 4.0 / 7, 4.0 / 6, 4.0 / 7, 4.0 / 10}, centrality.closeness(), 1e-12);
+        assertArrayEquals(new double[]{0.25, 0.5, 0.5, 0.5, 0.25}, centrality.degree(), 1e-12);
+
+        // in a disconnected graph, closeness is scaled by the fraction of the vertices reached
+        double[] closeness = new Centrality<>(_common_random).closeness();
+        int[] distances = new int[SIZE];
+        search(_common_random, 0, distances, new long[SIZE]);
+        long total = 0;
+        int reached = 0;
+        for (int distance : distances) {
+            if (distance > 0) { total += distance; reached++; }
+        }
+        assertEquals((double) reached / total * reached / (SIZE - 1), closeness[0], 1e-12);
+    }
+
+    @Test
+    void reportProgressOfEverySource() {
+        Centrality<Integer> centrality = new Centrality<>(_common_random, new ForkJoinPool(4));
+        AtomicLong calls = new AtomicLong();
+        AtomicLong last = new AtomicLong();
+        centrality.setProgressListener((completed, total) -> {
+            calls.incrementAndGet();
+            last.accumulateAndGet(completed, Math::max);
+            assertEquals(SIZE / 3, total);
+        });
+        centrality.setSamples(SIZE / 3, 5);
+        centrality.betweenness();
+        assertEquals(SIZE / 3, calls.get());
+        assertEquals(SIZE / 3, last.get());
+    }
+}
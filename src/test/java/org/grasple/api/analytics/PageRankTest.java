@@ -0,0 +1,122 @@
+package org.grasple.api.analytics;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageRankTest {
+    static final int SIZE = 5000;
+    CompactGraph<Integer> _common_random;
+
+    @BeforeEach
+    void buildRandom() {
+        // a random graph with a few isolated vertices, which spread their rank evenly
+        Random random = new Random(21);
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>(SIZE, 4 * SIZE);
+        for (int i = 0; i < SIZE; i++) { builder.addVertex(i); }
+        for (int i = 0; i < 4 * SIZE; i++) {
+            int start = random.nextInt(SIZE - 10);
+            int end = random.nextInt(SIZE - 10);
+            if (start != end) { builder.addEdge(start, end, 1); }
+        }
+        _common_random = builder.build();
+    }
+
+    /** The reference, sequential power iteration. */
+    static double[] ranks(CompactGraph<?> graph, double damping, int iterations) {
+        int size = graph.size();
+        double[] ranks = new double[size];
+        java.util.Arrays.fill(ranks, 1.0 / size);
+        for (int i = 0; i < iterations; i++) {
+            double[] next = new double[size];
+            double dangling = 0;
+            for (int vertex = 0; vertex < size; vertex++) {
+                int degree = graph.degree(vertex);
+                if (degree == 0) { dangling += ranks[vertex]; continue; }
+                for (int arc = graph.offset(vertex); arc < graph.offset(vertex + 1); arc++) {
+                    next[graph.target(arc)] += damping * ranks[vertex] / degree;
+                }
+            }
+            for (int vertex = 0; vertex < size; vertex++) {
+                next[vertex] += (1 - damping + damping * dangling) / size;
+            }
+            ranks = next;
+        }
+        return ranks;
+    }
+
+    @Test
+    void matchSequentialIteration() {
+        PageRank<Integer> pageRank = new PageRank<>(_common_random, new ForkJoinPool(4));
+        pageRank.setTolerance(1e-12);
+        pageRank.setMaxIterations(30);
+        PageRank.Result result = pageRank.run();
+        double[] expected = ranks(_common_random, 0.85, result.getIterations());
+        double sum = 0;
+        for (int vertex = 0; vertex < SIZE; vertex++) {
+            assertEquals(expected[vertex], result.rank(vertex), 1e-12);
+            sum += result.rank(vertex);
+        }
+        assertEquals(1.0, sum, 1e-9);
+        assertEquals(result.rank(SIZE - 1), result.rank(SIZE - 2));
+    }
+
+    @Test
+    void convergeWithinTolerance() {
+        PageRank<Integer> pageRank = new PageRank<>(_common_random);
+        pageRank.setTolerance(1e-9);
+        List<Long> progress = new ArrayList<>();
+        pageRank.setProgressListener((completed, total) -> progress.add(completed));
+        PageRank.Result result = pageRank.run();
+        assertTrue(result.isConverged());
+        assertTrue(result.getDelta() < 1e-9);
+        assertEquals(result.getIterations(), progress.size());
+        assertEquals(result.getIterations(), (long) progress.get(progress.size() - 1));
+
+        pageRank.setMaxIterations(2);
+        result = pageRank.run();
+        assertFalse(result.isConverged());
+        assertEquals(2, result.getIterations());
+    }
+
+    @Test
+    void rankTheCenterOfAStar() {
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 6; i++) { vertices.add(new Vertex<>(i)); }
+        for (int i = 1; i < 6; i++) { vertices.get(0).connect(vertices.get(i)); }
+        PageRank<Integer> pageRank = new PageRank<>(new SimpleGraph<>(new HashSet<Connectable<Integer>>(vertices)));
+        // a star is bipartite, so the ranks oscillate around the fixed point before settling
+        pageRank.setTolerance(1e-12);
+        pageRank.setMaxIterations(1000);
+        PageRank.Result result = pageRank.run();
+        assertTrue(result.isConverged());
+        CompactGraph<Integer> graph = pageRank.getGraph();
+        double center = result.rank(graph.indexOf(0));
+        double leaf = result.rank(graph.indexOf(1));
+        // at the fixed point: leaf = 0.15 / 6 + 0.85 * center / 5 and center + 5 * leaf = 1
+        assertEquals(0.15 / 6 + 0.85 * center / 5, leaf, 1e-9);
+        assertEquals(1.0, center + 5 * leaf, 1e-9);
+        for (int i = 2; i < 6; i++) { assertEquals(leaf, result.rank(graph.indexOf(i)), 1e-12); }
+    }
+
+    @Test
+    void rejectInvalidSettings() {
+        PageRank<Integer> pageRank = new PageRank<>(_common_random);
+        assertThrows(IllegalArgumentException.class, () -> pageRank.setDamping(1));
+        assertThrows(IllegalArgumentException.class, () -> pageRank.setDamping(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> pageRank.setTolerance(0));
+        assertThrows(IllegalArgumentException.class, () -> pageRank.setMaxIterations(0));
+        assertEquals(0, new PageRank<>(new CompactGraph.Builder<Integer>().build()).run().getRanks().length);
+    }
+}
@@ -0,0 +1,111 @@
+package org.grasple.api.io;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeListLoaderTest {
+    static final int SIDE = 400;
+    Path _common_file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        _common_file = Files.createTempFile("grasple", ".edges");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(_common_file);
+    }
+
+    static CompactGraph<String> load(String text) throws IOException {
+        return new EdgeListLoader<>(Function.<String>identity())
+                .load(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void parseFormats() throws IOException {
+        CompactGraph<String> graph = load("# a comment\n"
+                + "alice bob\n"
+                + "\n"
+                + "bob,carol,7\r\n"
+                + "% another comment\n"
+                + "carol\t\talice\t-2\n"
+                + "dave;dave");
+        assertEquals(4, graph.size());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(Arrays.asList("alice", "bob", "carol", "dave"),
+                Arrays.asList(graph.get(0), graph.get(1), graph.get(2), graph.get(3)));
+        assertTrue(graph.adjacent(0, 1));
+        assertTrue(graph.adjacent(3, 3));
+        int arc = graph.offset(1) + 1;
+        assertEquals(2, graph.target(arc));
+        assertEquals(7, graph.weight(arc));
+        assertEquals(-2, graph.weight(graph.offset(0) + 1));
+    }
+
+    @Test
+    void malformedLines() {
+        assertThrows(IOException.class, () -> load("alice bob\nalice\n"));
+        assertThrows(IOException.class, () -> load("alice bob 1x\n"));
+        assertThrows(IOException.class, () -> load("alice bob 99999999999\n"));
+        assertThrows(IOException.class, () -> load("alice bob -\n"));
+    }
+
+    @Test
+    void loadLargeFile() throws IOException {
+        // a grid spanning several buffers, with integer labels
+        try (Writer writer = Files.newBufferedWriter(_common_file)) {
+            for (int v = 0; v < SIDE * SIDE; v++) {
+                if ((v + 1) % SIDE != 0) { writer.write(v + " " + (v + 1) + " 1\n"); }
+                if (v + SIDE < SIDE * SIDE) { writer.write(v + "\t" + (v + SIDE) + "\t2\n"); }
+            }
+        }
+        EdgeListLoader<Integer> loader = new EdgeListLoader<>(Integer::valueOf);
+        CompactGraph<Integer> graph = loader.load(_common_file);
+        assertEquals(SIDE * SIDE, graph.size());
+        assertEquals(2L * SIDE * (SIDE - 1), graph.edgeCount());
+        int center = graph.indexOf(SIDE * SIDE / 2 + SIDE / 2);
+        assertEquals(4, graph.degree(center));
+        LoadStatistics statistics = loader.getStatistics();
+        assertEquals(Files.size(_common_file), statistics.getBytes());
+        assertEquals(graph.edgeCount(), statistics.getEdges());
+        assertEquals(statistics.getEdges(), statistics.getLines());
+        assertEquals(SIDE * SIDE, statistics.getVertices());
+        assertTrue(statistics.edgesPerSecond() > 0);
+    }
+
+    @Test
+    void capTheEstimatedEdges() {
+        assertEquals(1024, EdgeListLoader.estimateEdges(-1));
+        assertEquals(1, EdgeListLoader.estimateEdges(16));
+        assertEquals(EdgeListLoader.MAX_PRESIZED_EDGES, EdgeListLoader.estimateEdges(400L << 30));
+        assertEquals(EdgeListLoader.MAX_PRESIZED_EDGES, EdgeListLoader.estimateEdges(Long.MAX_VALUE));
+    }
+
+    @Test
+    void longLabels() throws IOException {
+        char[] label = new char[3 << 20];
+        Arrays.fill(label, 'x');
+        CompactGraph<String> graph = new EdgeListLoader<>(Function.<String>identity())
+                .expect(2, 1)
+                .load(Channels.newChannel(new ByteArrayInputStream(
+                        (new String(label) + " y\ny " + new String(label)).getBytes(StandardCharsets.UTF_8))));
+        assertEquals(2, graph.size());
+        assertEquals(1, graph.edgeCount());
+        assertEquals(label.length, graph.get(0).length());
+    }
+}
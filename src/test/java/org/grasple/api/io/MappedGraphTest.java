@@ -0,0 +1,106 @@
+package org.grasple.api.io;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Edge;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedGraphTest {
+    SimpleGraph<String> _common_simple_graph;
+    Path _common_file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<Vertex<String>> vertices = new ArrayList<>();
+        for (String value : new String[]{"a", "b", "c", "d", "\u00e9", ""}) { vertices.add(new Vertex<>(value)); }
+        Set<Connectable<String>> set = new HashSet<>(vertices);
+        _common_simple_graph = new SimpleGraph<>(set);
+        // a - b - c form one component, d and the accented e another one, "" is isolated with a self-connection
+        _common_simple_graph.addEdge(new Edge<>(3, vertices.get(0), vertices.get(1)));
+        _common_simple_graph.addEdge(new Edge<>(-5, vertices.get(1), vertices.get(2)));
+        vertices.get(3).connect(vertices.get(4));
+        vertices.get(5).connect(vertices.get(5));
+        _common_file = Files.createTempFile("grasple", ".graph");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(_common_file);
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        CompactGraph<String> compact = new CompactGraph<>(_common_simple_graph);
+        new GraphFileWriter<>(VertexCodec.STRING).write(compact, _common_file);
+        MappedGraph<String> mapped = new MappedGraph<>(_common_file, VertexCodec.STRING);
+        assertEquals(compact.size(), mapped.size());
+        assertEquals(compact.edgeCount(), mapped.edgeCount());
+        for (int v = 0; v <= compact.size(); v++) { assertEquals(compact.offset(v), mapped.offset(v)); }
+        for (int arc = 0; arc < compact.offset(compact.size()); arc++) {
+            assertEquals(compact.target(arc), mapped.target(arc));
+            assertEquals(compact.weight(arc), mapped.weight(arc));
+        }
+        for (int v = 0; v < compact.size(); v++) {
+            assertEquals(compact.get(v), mapped.get(v));
+            assertEquals(v, mapped.indexOf(compact.get(v)));
+            for (int w = 0; w < compact.size(); w++) { assertEquals(compact.adjacent(v, w), mapped.adjacent(v, w)); }
+        }
+        assertEquals(-1, mapped.indexOf("z"));
+    }
+
+    @Test
+    void traverse() throws IOException {
+        new GraphFileWriter<>(VertexCodec.STRING).write(_common_simple_graph, _common_file);
+        MappedGraph<String> mapped = new MappedGraph<>(_common_file, VertexCodec.STRING);
+        CompactGraph<String> compact = mapped.toCompactGraph();
+        List<Integer> expected = new ArrayList<>();
+        List<Integer> actual = new ArrayList<>();
+        compact.traverse(compact.indexOf("a"), expected::add);
+        mapped.traverse(mapped.indexOf("a"), actual::add);
+        assertEquals(expected, actual);
+        assertEquals(3, actual.size());
+        List<String> all = new ArrayList<>();
+        mapped.traverse(all::add);
+        assertEquals(6, all.size());
+        assertEquals(mapped.edgeCount(), compact.edgeCount());
+    }
+
+    @Test
+    void integerValues() throws IOException {
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>();
+        for (int i = 0; i < 1000; i++) { builder.addVertex(i * 7); }
+        for (int i = 1; i < 1000; i++) { builder.addEdge(i - 1, i, i); }
+        new GraphFileWriter<>(VertexCodec.INTEGER).write(builder.build(), _common_file);
+        MappedGraph<Integer> mapped = new MappedGraph<>(_common_file, VertexCodec.INTEGER);
+        assertEquals(1000, mapped.size());
+        assertEquals(999, mapped.edgeCount());
+        assertEquals(Integer.valueOf(700), mapped.get(100));
+        assertEquals(2, mapped.degree(500));
+        assertTrue(mapped.adjacent(998, 999));
+    }
+
+    @Test
+    void invalidFile() throws IOException {
+        Files.write(_common_file, new byte[64]);
+        assertThrows(IOException.class, () -> new MappedGraph<>(_common_file, VertexCodec.STRING));
+        new GraphFileWriter<>(VertexCodec.STRING).write(_common_simple_graph, _common_file);
+        byte[] bytes = Files.readAllBytes(_common_file);
+        Files.write(_common_file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> new MappedGraph<>(_common_file, VertexCodec.STRING));
+    }
+}
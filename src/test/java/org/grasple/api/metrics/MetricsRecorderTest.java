@@ -0,0 +1,117 @@
+package org.grasple.api.metrics;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRecorderTest {
+    MetricsRecorder _common_recorder;
+    List<Vertex<Integer>> _common_vertices;
+    SimpleGraph<Integer> _common_simple_graph;
+
+    @BeforeEach
+    void setUp() {
+        // a path 0 - 1 - 2 - 3 and the isolated vertex 4
+        _common_vertices = new ArrayList<>();
+        for (int i = 0; i < 5; i++) { _common_vertices.add(new Vertex<>(i)); }
+        for (int i = 1; i < 4; i++) { _common_vertices.get(i - 1).connect(_common_vertices.get(i)); }
+        Set<Connectable<Integer>> vertices = new HashSet<>(_common_vertices);
+        _common_simple_graph = new SimpleGraph<>(vertices);
+        _common_recorder = new MetricsRecorder();
+        GraphMetrics.setListener(_common_recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        GraphMetrics.setListener(null);
+    }
+
+    @Test
+    void recordTraversals() {
+        _common_simple_graph.traverse();
+        assertEquals(1, _common_recorder.getCount(Operation.GRAPH_TRAVERSAL));
+        assertEquals(5, _common_recorder.getVertices(Operation.GRAPH_TRAVERSAL));
+        assertEquals(6, _common_recorder.getEdges(Operation.GRAPH_TRAVERSAL));
+        assertEquals(2, _common_recorder.getCount(Operation.TRAVERSAL));
+        assertEquals(5, _common_recorder.getVertices(Operation.TRAVERSAL));
+        assertEquals(2, _common_simple_graph.separateComponents().size());
+        assertEquals(1, _common_recorder.getCount(Operation.SEPARATE_COMPONENTS));
+        assertEquals(4, _common_recorder.getCount(Operation.TRAVERSAL));
+        assertEquals(1, _common_recorder.getLatencies(Operation.SEPARATE_COMPONENTS).getCount());
+    }
+
+    @Test
+    void recordConnections() {
+        _common_vertices.get(4).connect(_common_vertices.get(0));
+        // connecting adjacent vertices again does not create an edge
+        _common_vertices.get(0).connect(_common_vertices.get(4));
+        _common_vertices.get(4).disconnect(_common_vertices.get(0));
+        _common_vertices.get(4).disconnect(_common_vertices.get(0));
+        assertEquals(2, _common_recorder.getCount(Operation.CONNECT));
+        assertEquals(1, _common_recorder.getEdges(Operation.CONNECT));
+        assertEquals(2, _common_recorder.getCount(Operation.DISCONNECT));
+        assertEquals(1, _common_recorder.getEdges(Operation.DISCONNECT));
+        _common_recorder.reset();
+        assertEquals(0, _common_recorder.getCount(Operation.CONNECT));
+        assertEquals(0, _common_recorder.getLatencies(Operation.CONNECT).getCount());
+    }
+
+    @Test
+    void turnedOff() {
+        GraphMetrics.setListener(null);
+        _common_simple_graph.traverse();
+        _common_vertices.get(4).connect(_common_vertices.get(0));
+        assertEquals(0, _common_recorder.getCount(Operation.GRAPH_TRAVERSAL));
+        assertEquals(0, _common_recorder.getCount(Operation.CONNECT));
+    }
+
+    @Test
+    void histogramPercentiles() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.valueAtPercentile(99));
+        for (int value = 1; value <= 100_000; value++) { histogram.record(value); }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            long expected = (long) (percentile * 1000);
+            long actual = histogram.valueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected + expected / 64, percentile + ": " + actual);
+        }
+        assertEquals(100_000, histogram.valueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(101));
+    }
+
+    @Test
+    void histogramBuckets() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            int bucket = Histogram.bucket(value);
+            assertTrue(Histogram.highestValue(bucket) >= value);
+            assertTrue(bucket == 0 || Histogram.highestValue(bucket - 1) < value);
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.highestValue(Histogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void degreeDistribution() {
+        Histogram degrees = GraphMetrics.degreeDistribution(new CompactGraph<>(_common_simple_graph));
+        assertEquals(5, degrees.getCount());
+        assertEquals(2, degrees.getMax());
+        assertEquals(1, degrees.valueAtPercentile(50));
+        assertEquals(6.0 / 5, degrees.getMean(), 1e-9);
+    }
+}
@@ -3,6 +3,9 @@ package org.grasple.api.particles;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -49,4 +52,15 @@ class EdgeTest {
         assertEquals(vertex1, sampleEdge.divert(vertex2));
         assertEquals(vertex2, sampleEdge.divert(vertex1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void symmetricHash() {
+        Edge reversed = new Edge(vertex2, vertex1);
+        assertEquals(sampleEdge, reversed);
+        assertEquals(sampleEdge.hashCode(), reversed.hashCode());
+        Set<Edge> edges = new HashSet<>();
+        edges.add(sampleEdge);
+        edges.add(reversed);
+        assertEquals(1, edges.size());
+    }
+}
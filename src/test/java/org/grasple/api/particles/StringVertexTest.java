@@ -103,4 +103,20 @@ class StringVertexTest {
         assertFalse(hulk.getNeighbors().contains(stark));
         assertFalse(cap.getNeighbors().contains(stark));
     }
-}
\ No newline at end of file
+
+    @Test
+    void adjacent() {
+        connect();
+        assertTrue(stark.adjacent(hulk));
+        assertTrue(hulk.adjacent(stark));
+        assertFalse(hulk.adjacent(cap));
+    }
+
+    @Test
+    void forEachNeighbor() {
+        connect();
+        Set<Connectable<String>> neighbors = new HashSet<>();
+        stark.forEachNeighbor(neighbors::add);
+        assertEquals(stark.getNeighbors(), neighbors);
+    }
+}
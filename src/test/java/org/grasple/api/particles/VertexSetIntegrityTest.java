@@ -46,6 +46,29 @@ public class VertexSetIntegrityTest {
         }
         assertEquals(neighbors.size(), center.getNeighbors().size());
     }
+    @Test
+    void churnKeepsOneConnection() {
+        final short times = 100;
+        for (short i = 0; i < times; i++) {
+            neighbors.forEach(center::connect);
+            neighbors.forEach(neighbor -> neighbor.connect(center));
+            assertEquals(NEIGHBORS, center.getConnections().size());
+            neighbors.forEach(neighbor -> assertEquals(1, neighbor.getConnections().size()));
+            neighbors.subList(0, NEIGHBORS / 2).forEach(neighbor -> neighbor.disconnect(center));
+            assertEquals(NEIGHBORS - NEIGHBORS / 2, center.getConnections().size());
+            assertTrue(neighbors.get(0).getConnections().isEmpty());
+        }
+    }
+    @Test
+    void getConnection() {
+        Connection connection = center.connect(neighbors.get(2));
+        assertSame(connection, center.getConnection(neighbors.get(2)));
+        assertSame(connection, neighbors.get(2).getConnection(center));
+        assertSame(connection, center.connect(neighbors.get(2)));
+        assertNull(center.getConnection(neighbors.get(3)));
+        assertTrue(center.removeConnection(new Edge<Connectable<String>>(neighbors.get(2), center)));
+        assertFalse(center.adjacent(neighbors.get(2)));
+    }
     @AfterEach
     void clearNeighbors() {
         neighbors.forEach(center::disconnect);
@@ -0,0 +1,132 @@
+package org.grasple.api.sharding;
+
+import org.grasple.api.io.GraphFileWriter;
+import org.grasple.api.io.MappedGraph;
+import org.grasple.api.io.VertexCodec;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.utils.ParallelBreadthFirstSearch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTraversalTest {
+    static final int SIDE = 40;
+    static final int SHARDS = 4;
+    CompactGraph<Integer> _common_grid;
+
+    @BeforeEach
+    void setCommonGrid() {
+        // a grid with a few random shortcuts, and an isolated vertex
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>();
+        for (int i = 0; i <= SIDE * SIDE; i++) { builder.addVertex(i); }
+        for (int cell = 0; cell < SIDE * SIDE; cell++) {
+            if ((cell + 1) % SIDE != 0) { builder.addEdge(cell, cell + 1, 1); }
+            if (cell + SIDE < SIDE * SIDE) { builder.addEdge(cell, cell + SIDE, 1); }
+        }
+        Random random = new Random(20);
+        for (int i = 0; i < 10; i++) { builder.addEdge(random.nextInt(SIDE * SIDE), random.nextInt(SIDE * SIDE), 1); }
+        _common_grid = builder.build();
+    }
+
+    @Test
+    void partition() {
+        Partitioner partitioner = new Partitioner(SHARDS);
+        Partition hash = partitioner.partition(_common_grid, Partitioner.Strategy.HASH);
+        Partition propagated = partitioner.partition(_common_grid, Partitioner.Strategy.LABEL_PROPAGATION);
+        for (Partition partition : new Partition[] {hash, propagated}) {
+            assertEquals(SHARDS, partition.shardCount());
+            int total = 0;
+            for (int shard = 0; shard < SHARDS; shard++) { total += partition.size(shard); }
+            assertEquals(_common_grid.size(), total);
+            assertTrue(partition.getImbalance() <= 1 + partitioner.getImbalance() + 0.01);
+        }
+        assertTrue(propagated.getEdgeCut() * 2 < hash.getEdgeCut());
+        assertThrows(IllegalArgumentException.class, () -> new Partitioner(0));
+    }
+
+    @Test
+    void splitIntoShards() {
+        Partition partition = new Partitioner(SHARDS).partition(_common_grid, Partitioner.Strategy.LABEL_PROPAGATION);
+        List<GraphShard<Integer>> shards = GraphShard.split(_common_grid, partition);
+        long ghosts = 0;
+        for (int v = 0; v < _common_grid.size(); v++) {
+            GraphShard<Integer> shard = shards.get(partition.shardOf(v));
+            assertTrue(shard.owns(v));
+            assertEquals(v, (int) shard.get(v));
+            assertEquals(_common_grid.degree(v), shard.degree(v));
+            Set<Integer> neighbors = new HashSet<>();
+            shard.forEachNeighbor(v, neighbor -> {
+                neighbors.add(neighbor);
+                assertEquals(partition.shardOf(neighbor), shard.ownerOf(neighbor));
+            });
+            assertEquals(_common_grid.degree(v), neighbors.size());
+            _common_grid.forEachNeighbor(v, neighbor -> assertTrue(neighbors.contains(neighbor)));
+        }
+        for (GraphShard<Integer> shard : shards) { ghosts += shard.ghostCount(); }
+        assertTrue(ghosts > 0);
+        assertThrows(IllegalArgumentException.class, () -> shards.get(0).get(-1));
+    }
+
+    @Test
+    void traverseAcrossShards() {
+        ParallelBreadthFirstSearch.Result expected = new ParallelBreadthFirstSearch<>(_common_grid).run(0);
+        for (Partitioner.Strategy strategy : Partitioner.Strategy.values()) {
+            Partition partition = new Partitioner(SHARDS).partition(_common_grid, strategy);
+            LoopbackTransport transport = new LoopbackTransport(SHARDS);
+            ShardedTraversal<Integer> traversal = new ShardedTraversal<>(GraphShard.split(_common_grid, partition), transport);
+
+            Set<Integer> visited = ConcurrentHashMap.newKeySet();
+            ShardedTraversal.Result breadthFirst = traversal.run(0, ShardedTraversal.Mode.BREADTH_FIRST, visited::add);
+            assertEquals(SIDE * SIDE, breadthFirst.getVisitCount());
+            assertEquals(SIDE * SIDE, visited.size());
+            for (int v = 0; v < _common_grid.size(); v++) {
+                assertEquals(expected.distance(v), breadthFirst.level(v));
+            }
+            assertFalse(breadthFirst.isReached(SIDE * SIDE));
+            assertEquals(transport.getVertexCount(), breadthFirst.getMessageVertexCount());
+
+            ShardedTraversal.Result depthFirst = traversal.run(0, ShardedTraversal.Mode.DEPTH_FIRST);
+            assertEquals(SIDE * SIDE, depthFirst.getVisitCount());
+            assertTrue(depthFirst.getSupersteps() <= breadthFirst.getSupersteps());
+            for (int v = 0; v < SIDE * SIDE; v++) { assertTrue(depthFirst.isReached(v)); }
+        }
+    }
+
+    @Test
+    void buildShardsFromAMappedGraph() throws IOException {
+        Path file = Files.createTempFile("grasple", ".graph");
+        try {
+            new GraphFileWriter<>(VertexCodec.INTEGER).write(_common_grid, file);
+            MappedGraph<Integer> mapped = new MappedGraph<>(file, VertexCodec.INTEGER);
+            Partitioner partitioner = new Partitioner(SHARDS);
+            Partition partition = partitioner.partition(mapped, Partitioner.Strategy.LABEL_PROPAGATION);
+            Partition expected = partitioner.partition(_common_grid, Partitioner.Strategy.LABEL_PROPAGATION);
+            assertEquals(expected.getEdgeCut(), partition.getEdgeCut());
+            List<GraphShard<Integer>> split = GraphShard.split(_common_grid, expected);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                // each process would build only its own shard from the file
+                GraphShard<Integer> built = GraphShard.build(mapped, partition, shard);
+                assertEquals(split.get(shard).size(), built.size());
+                assertEquals(split.get(shard).ghostCount(), built.ghostCount());
+                for (int v = 0; v < _common_grid.size(); v++) {
+                    if (partition.shardOf(v) != shard) { continue; }
+                    assertEquals(v, (int) built.get(v));
+                    assertEquals(_common_grid.degree(v), built.degree(v));
+                }
+            }
+            assertThrows(IllegalArgumentException.class, () -> GraphShard.build(mapped, partition, SHARDS));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.TestUtils;
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Edge;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.utils.VisitedState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactGraphTest {
+    Vertex<String> a, b, c, d, e;
+    SimpleGraph<String> _common_simple_graph;
+
+    @BeforeEach
+    void setUp() {
+        a = new Vertex<>("a");
+        b = new Vertex<>("b");
+        c = new Vertex<>("c");
+        d = new Vertex<>("d");
+        e = new Vertex<>("e");
+        Set<Connectable<String>> vertices = new HashSet<>();
+        vertices.add(a);
+        vertices.add(b);
+        vertices.add(c);
+        vertices.add(d);
+        vertices.add(e);
+        _common_simple_graph = new SimpleGraph<>(vertices);
+        // a - b - c form one component, d - e another one
+        _common_simple_graph.addEdge(new Edge<>(3, a, b));
+        _common_simple_graph.addEdge(new Edge<>(5, b, c));
+        d.connect(e);
+    }
+
+    @Test
+    void snapshotOfSimpleGraph() {
+        CompactGraph<String> graph = new CompactGraph<>(_common_simple_graph);
+        assertEquals(5, graph.size());
+        assertEquals(3, graph.edgeCount());
+        int ia = graph.indexOf("a"), ib = graph.indexOf("b"), ic = graph.indexOf("c");
+        int id = graph.indexOf("d"), ie = graph.indexOf("e");
+        assertTrue(graph.adjacent(ia, ib));
+        assertTrue(graph.adjacent(ib, ia));
+        assertTrue(graph.adjacent(id, ie));
+        assertFalse(graph.adjacent(ia, ic));
+        assertEquals(2, graph.degree(ib));
+        assertEquals(-1, graph.indexOf("z"));
+    }
+
+    @Test
+    void weightsFollowArcs() {
+        CompactGraph<String> graph = new CompactGraph<>(_common_simple_graph);
+        int ib = graph.indexOf("b"), ic = graph.indexOf("c");
+        for (int arc = graph.offset(ib); arc < graph.offset(ib + 1); arc++) {
+            assertEquals(graph.target(arc) == ic ? 5 : 3, graph.weight(arc));
+        }
+    }
+
+    @Test
+    void edgeBeforeVertices() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactGraph.Builder<String>().addEdge(0, 0, 0));
+    }
+
+    @Test
+    void builderKeepsSmallestWeight() {
+        CompactGraph.Builder<String> builder = new CompactGraph.Builder<>(2, 4);
+        builder.addVertex("x");
+        builder.addVertex("y");
+        builder.addEdge(0, 1, 7).addEdge(1, 0, -2).addEdge(0, 0, 1);
+        CompactGraph<String> graph = builder.build();
+        assertEquals(2, graph.edgeCount());
+        assertEquals(2, graph.degree(0));
+        assertEquals(0, graph.target(graph.offset(0)));
+        assertEquals(1, graph.target(graph.offset(0) + 1));
+        assertEquals(-2, graph.weight(graph.offset(0) + 1));
+    }
+
+    @Test
+    void separateComponents() {
+        CompactGraph<String> graph = new CompactGraph<>(_common_simple_graph);
+        assertEquals(2, graph.separateComponents().length);
+        int[] labels = graph.componentLabels();
+        assertEquals(labels[graph.indexOf("a")], labels[graph.indexOf("c")]);
+        assertEquals(labels[graph.indexOf("d")], labels[graph.indexOf("e")]);
+        assertNotEquals(labels[graph.indexOf("a")], labels[graph.indexOf("e")]);
+    }
+
+    @Test
+    void traverse() {
+        Set<Connectable<String>> vertices = new HashSet<>();
+        vertices.add(TestUtils.CENTRAL_VERTEX);
+        CompactGraph<String> graph = new CompactGraph<>(new SimpleGraph<>(vertices));
+        assertEquals(1 + TestUtils.PRIMARY_NEIGHBORS.size() + TestUtils.SECONDARY_NEIGHBORS.size(), graph.size());
+        List<String> visited = new ArrayList<>();
+        graph.traverse(visited::add);
+        assertEquals(graph.size(), visited.size());
+        assertEquals("CENTRAL_VERTEX", visited.get(0));
+        assertEquals(new HashSet<>(visited).size(), visited.size());
+    }
+
+    @Test
+    void traverseWithVisitedState() {
+        Set<Connectable<String>> vertices = new HashSet<>();
+        vertices.add(TestUtils.CENTRAL_VERTEX);
+        CompactGraph<String> graph = new CompactGraph<>(new SimpleGraph<>(vertices));
+        List<Integer> expected = new ArrayList<>();
+        graph.traverse(0, expected::add);
+        for (VisitedState state : new VisitedState[] {VisitedState.epochs(0), VisitedState.bits(4)}) {
+            for (int run = 0; run < 3; run++) {
+                state.clear();
+                List<Integer> order = new ArrayList<>();
+                graph.traverse(0, order::add, state);
+                assertEquals(expected, order);
+                assertEquals(graph.size(), state.count());
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.ConcurrentVertex;
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentGraphTest {
+    static final int VERTICES = 50;
+    static final int THREADS = 8;
+    static final int OPERATIONS = 5_000;
+    List<ConcurrentVertex<Integer>> vertices = new ArrayList<>();
+    ConcurrentGraph<Integer> _common_concurrent_graph;
+
+    @BeforeEach
+    void setCommonConcurrentGraph() {
+        _common_concurrent_graph = new ConcurrentGraph<>();
+        for (int i = 0; i < VERTICES; i++) {
+            vertices.add(new ConcurrentVertex<>(i));
+            _common_concurrent_graph.addVertex(vertices.get(i));
+        }
+    }
+
+    @Test
+    void concurrentConnectAndDisconnect() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final long seed = t;
+            writers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < OPERATIONS; i++) {
+                    ConcurrentVertex<Integer> a = vertices.get(random.nextInt(VERTICES));
+                    ConcurrentVertex<Integer> b = vertices.get(random.nextInt(VERTICES));
+                    if (a == b) { continue; }
+                    if (random.nextBoolean()) {
+                        _common_concurrent_graph.connect(a, b);
+                    } else {
+                        _common_concurrent_graph.disconnect(a, b);
+                    }
+                }
+            }));
+        }
+        // readers traverse and take snapshots while the writers continue
+        AtomicInteger traversals = new AtomicInteger();
+        Future<?> reader = executor.submit(() -> {
+            while (writers.stream().anyMatch(writer -> !writer.isDone())) {
+                _common_concurrent_graph.traverse(value -> { });
+                CompactGraph<Integer> snapshot = _common_concurrent_graph.snapshot();
+                assertEquals(VERTICES, snapshot.size());
+                traversals.incrementAndGet();
+            }
+        });
+        for (Future<?> writer : writers) { writer.get(); }
+        reader.get();
+        executor.shutdown();
+        assertTrue(traversals.get() > 0);
+        // both endpoints always agree on their adjacency
+        int adjacentPairs = 0;
+        for (ConcurrentVertex<Integer> a : vertices) {
+            for (ConcurrentVertex<Integer> b : vertices) {
+                assertEquals(a.adjacent(b), b.adjacent(a));
+                if (a.get() < b.get() && a.adjacent(b)) { adjacentPairs++; }
+            }
+        }
+        assertEquals(adjacentPairs, _common_concurrent_graph.snapshot().edgeCount());
+        // no edge of the graph outlives the connection of its endpoints
+        for (Connection edge : _common_concurrent_graph.getEdges()) {
+            @SuppressWarnings("unchecked")
+            Connectable<Integer> start = (Connectable<Integer>) edge.getStart();
+            @SuppressWarnings("unchecked")
+            Connectable<Integer> end = (Connectable<Integer>) edge.getEnd();
+            assertTrue(start.adjacent(end));
+        }
+    }
+
+    @Test
+    void journalOneChangePerOperation() {
+        ConcurrentVertex<Integer> x = vertices.get(0);
+        ConcurrentVertex<Integer> y = vertices.get(1);
+        ConcurrentVertex<Integer> z = vertices.get(2);
+        List<GraphChange<Integer>> changes = new ArrayList<>();
+        try (ChangeJournal<Integer>.Cursor cursor = _common_concurrent_graph.getJournal().subscribe()) {
+            Connection connection = _common_concurrent_graph.connect(x, y);
+            assertEquals(1, cursor.poll(changes::add));
+            assertEquals(GraphChange.Kind.ADD_EDGE, changes.get(0).getKind());
+            assertSame(connection, changes.get(0).getEdge());
+            _common_concurrent_graph.connect(x, y);
+            assertEquals(0, cursor.pending());
+            // a connection made on the vertices is recorded once, without becoming an edge of the graph
+            Connection direct = y.connect(z);
+            assertEquals(1, cursor.poll(changes::add));
+            assertSame(direct, changes.get(1).getEdge());
+            assertFalse(_common_concurrent_graph.getEdges().contains(direct));
+            _common_concurrent_graph.disconnect(x, y);
+            assertEquals(1, cursor.poll(changes::add));
+            assertEquals(GraphChange.Kind.REMOVE_EDGE, changes.get(2).getKind());
+            assertSame(connection, changes.get(2).getEdge());
+            assertFalse(_common_concurrent_graph.getEdges().contains(connection));
+            _common_concurrent_graph.disconnect(x, y);
+            assertEquals(0, cursor.pending());
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package org.grasple.api.structures.graphs;
 
 import org.grasple.api.TestUtils;
+import org.grasple.api.particles.Vertex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ConnectedGraphTest {
@@ -20,10 +25,38 @@ class ConnectedGraphTest {
 
     @Test
     void traverse() {
+        List<String> visited = new ArrayList<>();
+        _common_connected_graph.traverse(visited::add);
+        assertEquals("CENTRAL_VERTEX", visited.get(0));
+        assertEquals(1 + TestUtils.PRIMARY_NEIGHBORS.size() + TestUtils.SECONDARY_NEIGHBORS.size(),
+                new HashSet<>(visited).size());
+        assertEquals(visited.size(), new HashSet<>(visited).size());
     }
 
     @Test
     void traverseWithAction() {
         _common_connected_graph.traverse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void traverseAfterDisconnections() {
+        List<Vertex<Integer>> path = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            path.add(new Vertex<>(i));
+            if (i > 0) { path.get(i - 1).connect(path.get(i)); }
+        }
+        ConnectedGraph<Integer> graph = new ConnectedGraph<>(path.get(0));
+        List<Integer> visited = new ArrayList<>();
+        graph.traverse(visited::add);
+        assertEquals(300, visited.size());
+        path.get(10).disconnect(path.get(11));
+        visited.clear();
+        graph.traverse(visited::add);
+        assertEquals(11, visited.size());
+        path.get(10).connect(path.get(11));
+        visited.clear();
+        graph.traverse(visited::add);
+        assertEquals(300, visited.size());
+        assertEquals(300, new HashSet<>(visited).size());
+    }
+}
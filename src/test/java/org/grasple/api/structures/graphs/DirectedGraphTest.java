@@ -0,0 +1,112 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.DirectedEdge;
+import org.grasple.api.particles.DirectedVertex;
+import org.grasple.api.particles.Edge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectedGraphTest {
+    DirectedVertex<String> app, lib, core, util, tool;
+    DirectedGraph<String> _common_directed_graph;
+
+    @BeforeEach
+    void setUp() {
+        // app -> lib -> core, app -> util -> core, tool -> util
+        app = new DirectedVertex<>("app");
+        lib = new DirectedVertex<>("lib");
+        core = new DirectedVertex<>("core");
+        util = new DirectedVertex<>("util");
+        tool = new DirectedVertex<>("tool");
+        _common_directed_graph = new DirectedGraph<>();
+        _common_directed_graph.connect(app, lib);
+        _common_directed_graph.connect(lib, core);
+        _common_directed_graph.connect(app, util, 2);
+        _common_directed_graph.connect(util, core);
+        _common_directed_graph.connect(tool, util);
+    }
+
+    @Test
+    void directedEdge() {
+        assertEquals(new DirectedEdge<>("a", "b"), new DirectedEdge<>("a", "b"));
+        assertNotEquals(new DirectedEdge<>("a", "b"), new DirectedEdge<>("b", "a"));
+        assertEquals(new Edge<>("a", "b"), new Edge<>("b", "a"));
+        assertEquals("a", new DirectedEdge<>("a", "b").divert("b"));
+    }
+
+    @Test
+    void adjacency() {
+        assertEquals(5, _common_directed_graph.size());
+        assertEquals(5, _common_directed_graph.edgeCount());
+        assertTrue(app.adjacent(lib));
+        assertFalse(lib.adjacent(app));
+        assertEquals(2, app.outDegree());
+        assertEquals(0, app.inDegree());
+        assertEquals(2, util.inDegree());
+        assertEquals(new HashSet<>(Arrays.asList(app, tool)), util.getPredecessors());
+        assertEquals(2, app.getConnections().stream().mapToInt(c -> c.weight()).sum());
+        // connecting again keeps the existing connection
+        assertSame(_common_directed_graph.connect(app, lib), _common_directed_graph.connect(app, lib, 7));
+        assertEquals(5, _common_directed_graph.edgeCount());
+    }
+
+    @Test
+    void disconnect() {
+        assertFalse(_common_directed_graph.disconnect(lib, app));
+        assertTrue(_common_directed_graph.disconnect(app, lib));
+        assertFalse(app.adjacent(lib));
+        assertEquals(0, lib.inDegree());
+        assertTrue(_common_directed_graph.removeVertex(util));
+        assertEquals(0, core.getPredecessors().stream().filter(p -> p == util).count());
+        assertEquals(1, core.inDegree());
+        assertEquals(0, tool.outDegree());
+        assertEquals(0, app.outDegree());
+        assertEquals(1, _common_directed_graph.edgeCount());
+    }
+
+    @Test
+    void traversals() {
+        Set<String> forward = new HashSet<>();
+        _common_directed_graph.traverse(util, forward::add);
+        assertEquals(new HashSet<>(Arrays.asList("util", "core")), forward);
+        Set<String> backward = new HashSet<>();
+        _common_directed_graph.reverseTraverse(util, backward::add);
+        assertEquals(new HashSet<>(Arrays.asList("util", "app", "tool")), backward);
+        Set<String> dependents = new HashSet<>();
+        _common_directed_graph.reverseTraverse(core, dependents::add);
+        assertEquals(5, dependents.size());
+        List<String> all = new ArrayList<>();
+        _common_directed_graph.traverse(all::add);
+        assertEquals(5, all.size());
+        assertEquals(5, new HashSet<>(all).size());
+    }
+
+    @Test
+    void deterministicOrder() {
+        assertEquals(Arrays.asList(lib, util), new ArrayList<>(app.getSuccessors()));
+        assertEquals(Arrays.asList(lib, util), new ArrayList<>(core.getPredecessors()));
+        List<String> order = new ArrayList<>();
+        _common_directed_graph.traverse(order::add);
+        assertEquals(Arrays.asList("app", "lib", "core", "util", "tool"), order);
+    }
+
+    @Test
+    void selfConnection() {
+        DirectedVertex<String> loop = new DirectedVertex<>("loop");
+        _common_directed_graph.connect(loop, loop);
+        assertTrue(loop.adjacent(loop));
+        assertEquals(1, loop.inDegree());
+        assertEquals(1, loop.outDegree());
+        _common_directed_graph.removeVertex(loop);
+        assertEquals(0, loop.inDegree());
+        assertEquals(0, loop.outDegree());
+    }
+}
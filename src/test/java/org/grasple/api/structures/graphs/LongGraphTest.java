@@ -0,0 +1,76 @@
+package org.grasple.api.structures.graphs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongGraphTest {
+    static final long BASE = 1L << 40;
+    static final int LENGTH = 10_000;
+    LongGraph _common_long_graph;
+
+    @BeforeEach
+    void setCommonLongGraph() {
+        // a long path of large ids, plus the component {0, -1}
+        _common_long_graph = new LongGraph();
+        for (long i = 1; i < LENGTH; i++) { _common_long_graph.connect(BASE + i - 1, BASE + i); }
+        _common_long_graph.connect(0, -1);
+    }
+
+    @Test
+    void connectAndDisconnect() {
+        assertEquals(LENGTH + 2, _common_long_graph.size());
+        assertEquals(LENGTH, _common_long_graph.edgeCount());
+        assertTrue(_common_long_graph.adjacent(-1, 0));
+        assertFalse(_common_long_graph.connect(0, -1));
+        assertTrue(_common_long_graph.disconnect(-1, 0));
+        assertFalse(_common_long_graph.adjacent(0, -1));
+        assertFalse(_common_long_graph.disconnect(-1, 0));
+        assertEquals(LENGTH - 1, _common_long_graph.edgeCount());
+    }
+
+    @Test
+    void removeVertex() {
+        assertTrue(_common_long_graph.removeVertex(BASE + 1));
+        assertNull(_common_long_graph.getVertex(BASE + 1));
+        assertEquals(0, _common_long_graph.getVertex(BASE).degree());
+        assertEquals(1, _common_long_graph.getVertex(BASE + 2).degree());
+        assertEquals(LENGTH - 2, _common_long_graph.edgeCount());
+        assertFalse(_common_long_graph.removeVertex(BASE + 1));
+    }
+
+    @Test
+    void traverse() {
+        List<Long> visited = new ArrayList<>();
+        _common_long_graph.traverse(BASE, visited::add);
+        assertEquals(LENGTH, visited.size());
+        for (int i = 0; i < LENGTH; i++) { assertEquals(BASE + i, (long) visited.get(i)); }
+        Set<Long> all = new HashSet<>();
+        _common_long_graph.traverseIds(all::add);
+        assertEquals(LENGTH + 2, all.size());
+        assertThrows(IllegalArgumentException.class, () -> _common_long_graph.traverse(42, id -> { }));
+    }
+
+    @Test
+    void intGraph() {
+        IntGraph graph = new IntGraph();
+        graph.connect(0, 1);
+        graph.connect(1, 2);
+        graph.connect(2, 2);
+        graph.connect(-5, 7);
+        assertEquals(5, graph.size());
+        assertEquals(4, graph.edgeCount());
+        assertTrue(graph.getVertex(2).adjacent(2));
+        List<Integer> visited = new ArrayList<>();
+        graph.traverse(0, visited::add);
+        assertEquals(3, visited.size());
+        graph.removeVertex(2);
+        assertEquals(2, graph.edgeCount());
+    }
+}
@@ -0,0 +1,48 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimpleGraphTest {
+    static final int COMPONENTS = 4;
+    static final int COMPONENT_SIZE = 5;
+    SimpleGraph<Integer> _common_simple_graph;
+
+    @BeforeEach
+    void setCommonSimpleGraph() {
+        // COMPONENTS paths of COMPONENT_SIZE vertices each
+        Set<Connectable<Integer>> vertices = new HashSet<>();
+        for (int c = 0; c < COMPONENTS; c++) {
+            Vertex<Integer> previous = null;
+            for (int i = 0; i < COMPONENT_SIZE; i++) {
+                Vertex<Integer> vertex = new Vertex<>(c * COMPONENT_SIZE + i);
+                if (previous != null) { previous.connect(vertex); }
+                vertices.add(vertex);
+                previous = vertex;
+            }
+        }
+        _common_simple_graph = new SimpleGraph<>(vertices);
+    }
+
+    @Test
+    void separateComponents() {
+        assertEquals(COMPONENTS, _common_simple_graph.separateComponents().size());
+    }
+
+    @Test
+    void traverse() {
+        List<Integer> visited = new ArrayList<>();
+        _common_simple_graph.traverse(visited::add);
+        assertEquals(COMPONENTS * COMPONENT_SIZE, visited.size());
+        assertEquals(COMPONENTS * COMPONENT_SIZE, new HashSet<>(visited).size());
+    }
+}
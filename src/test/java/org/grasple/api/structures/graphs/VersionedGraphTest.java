@@ -0,0 +1,141 @@
+package org.grasple.api.structures.graphs;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedGraphTest {
+    static final int VERTICES = 10;
+    List<Vertex<Integer>> vertices = new ArrayList<>();
+    VersionedGraph<Integer> _common_versioned_graph;
+
+    @BeforeEach
+    void setCommonVersionedGraph() {
+        Set<Connectable<Integer>> _vertices = new HashSet<>();
+        for (int i = 0; i < VERTICES; i++) {
+            vertices.add(new Vertex<>(i));
+            _vertices.add(vertices.get(i));
+        }
+        SimpleGraph<Integer> graph = new SimpleGraph<>(_vertices);
+        // the path 0 - 1 - 2 - 3, and the singletons
+        for (int i = 1; i < 4; i++) { graph.connect(vertices.get(i - 1), vertices.get(i)); }
+        _common_versioned_graph = new VersionedGraph<>(graph);
+    }
+
+    @Test
+    void isolateSnapshotsFromTheWriter() {
+        try (GraphSnapshot<Integer> before = _common_versioned_graph.snapshot()) {
+            assertEquals(VERTICES, before.size());
+            assertEquals(3, before.edgeCount());
+            assertTrue(_common_versioned_graph.connect(vertices.get(3), vertices.get(4), 7));
+            assertTrue(_common_versioned_graph.disconnect(vertices.get(0), vertices.get(1)));
+            assertTrue(_common_versioned_graph.removeVertex(vertices.get(9)));
+            assertFalse(_common_versioned_graph.disconnect(vertices.get(0), vertices.get(1)));
+            assertFalse(_common_versioned_graph.connect(vertices.get(3), vertices.get(4), 7));
+
+            try (GraphSnapshot<Integer> after = _common_versioned_graph.snapshot()) {
+                assertEquals(before.getVersion() + 3, after.getVersion());
+                assertEquals(VERTICES - 1, after.size());
+                assertEquals(3, after.edgeCount());
+                assertEquals(7, after.weight(vertices.get(4), vertices.get(3)));
+                assertFalse(after.adjacent(vertices.get(0), vertices.get(1)));
+                assertFalse(after.contains(vertices.get(9)));
+                assertEquals(4, after.traverse(vertices.get(1), null));
+
+                // the first snapshot still sees the graph as it was
+                assertEquals(VERTICES, before.size());
+                assertTrue(before.adjacent(vertices.get(1), vertices.get(0)));
+                assertFalse(before.adjacent(vertices.get(3), vertices.get(4)));
+                assertEquals(4, before.traverse(vertices.get(0), null));
+                assertEquals(2, before.degree(vertices.get(1)));
+                assertThrows(IllegalArgumentException.class, () -> before.weight(vertices.get(0), vertices.get(2)));
+                assertEquals(2, _common_versioned_graph.getOpenSnapshotCount());
+                assertEquals(before.getVersion(), _common_versioned_graph.getOldestOpenVersion());
+            }
+            assertEquals(1, _common_versioned_graph.getOpenSnapshotCount());
+        }
+        assertEquals(0, _common_versioned_graph.getOpenSnapshotCount());
+        assertEquals(-1, _common_versioned_graph.getOldestOpenVersion());
+    }
+
+    @Test
+    void refuseClosedSnapshots() {
+        GraphSnapshot<Integer> snapshot = _common_versioned_graph.snapshot();
+        snapshot.close();
+        snapshot.close();
+        assertEquals(0, _common_versioned_graph.getOpenSnapshotCount());
+        assertThrows(IllegalStateException.class, snapshot::size);
+        assertFalse(snapshot.addConnection(vertices.get(0), null));
+    }
+
+    @Test
+    void removeVerticesWithTheirEdges() {
+        _common_versioned_graph.connect(vertices.get(1), vertices.get(1));
+        _common_versioned_graph.connect(vertices.get(1), vertices.get(5));
+        assertTrue(_common_versioned_graph.removeVertex(vertices.get(1)));
+        try (GraphSnapshot<Integer> snapshot = _common_versioned_graph.snapshot()) {
+            assertEquals(1, snapshot.edgeCount());
+            assertEquals(0, snapshot.degree(vertices.get(0)));
+            assertEquals(0, snapshot.degree(vertices.get(5)));
+            assertEquals(1, snapshot.degree(vertices.get(2)));
+            List<Integer> visited = new ArrayList<>();
+            snapshot.traverse(visited::add);
+            assertEquals(VERTICES - 1, visited.size());
+        }
+    }
+
+    @Test
+    void readWhileWriting() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            readers.add(executor.submit(() -> {
+                while (!done.get()) {
+                    try (GraphSnapshot<Integer> snapshot = _common_versioned_graph.snapshot()) {
+                        // every edge of a version is seen from both endpoints
+                        long arcs = 0;
+                        for (Connectable<Integer> vertex : snapshot.getVertices()) {
+                            for (Connectable<Integer> neighbor : snapshot.getNeighbors(vertex)) {
+                                assertTrue(snapshot.adjacent(neighbor, vertex));
+                                arcs++;
+                            }
+                        }
+                        assertEquals(2 * snapshot.edgeCount(), arcs);
+                    }
+                }
+            }));
+        }
+        Future<?> writer = executor.submit(() -> {
+            Random random = new Random(24);
+            for (int i = 0; i < 20000; i++) {
+                Vertex<Integer> vertex = vertices.get(random.nextInt(VERTICES));
+                Vertex<Integer> other = vertices.get(random.nextInt(VERTICES));
+                if (vertex == other) { continue; }
+                if (random.nextBoolean()) {
+                    _common_versioned_graph.connect(vertex, other, i);
+                } else {
+                    _common_versioned_graph.disconnect(vertex, other);
+                }
+            }
+            done.set(true);
+        });
+        writer.get();
+        for (Future<?> reader : readers) { reader.get(); }
+        executor.shutdown();
+        assertEquals(0, _common_versioned_graph.getOpenSnapshotCount());
+    }
+}
@@ -0,0 +1,92 @@
+package org.grasple.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(BoundedCache.Policy.LRU, 3);
+        for (int i = 0; i < 3; i++) { cache.put(i, "v" + i); }
+        assertEquals("v0", cache.get(0));
+        cache.put(3, "v3");
+        assertEquals(3, cache.size());
+        assertNull(cache.peek(1));
+        assertEquals("v0", cache.peek(0));
+        assertEquals("v3", cache.put(3, "w3"));
+        assertEquals("w3", cache.remove(3));
+        assertNull(cache.get(3));
+
+        BoundedCache.Statistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getEvictions());
+        assertEquals(0.5, statistics.hitRate());
+    }
+
+    @Test
+    void boundTheWeight() {
+        for (BoundedCache.Policy policy : BoundedCache.Policy.values()) {
+            BoundedCache<Integer, String> cache = new BoundedCache<>(policy, 100, 20, (key, value) -> value.length());
+            for (int i = 0; i < 100; i++) {
+                cache.put(i, "abcde".substring(0, 1 + i % 5));
+                assertTrue(cache.weight() <= 20);
+            }
+            cache.put(-1, "a string heavier than the whole cache");
+            assertNull(cache.peek(-1));
+            cache.clear();
+            assertEquals(0, cache.size());
+            assertEquals(0, cache.weight());
+            assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(policy, 0));
+        }
+    }
+
+    @Test
+    void stayWithinSizeAgainstAReferenceMap() {
+        for (BoundedCache.Policy policy : BoundedCache.Policy.values()) {
+            BoundedCache<Integer, Integer> cache = new BoundedCache<>(policy, 50);
+            Map<Integer, Integer> reference = new HashMap<>();
+            Random random = new Random(23);
+            for (int i = 0; i < 20000; i++) {
+                int key = random.nextInt(200);
+                if (random.nextBoolean()) {
+                    cache.put(key, i);
+                    reference.put(key, i);
+                } else {
+                    Integer value = cache.get(key);
+                    if (value != null) { assertEquals(reference.get(key), value); }
+                }
+                assertTrue(cache.size() <= 50);
+            }
+        }
+    }
+
+    @Test
+    void resistScansWithTinyLfu() {
+        // a small working set used over and over, interleaved with a scan of keys used once
+        double[] hitRates = new double[2];
+        for (BoundedCache.Policy policy : BoundedCache.Policy.values()) {
+            BoundedCache<Integer, Integer> cache = new BoundedCache<>(policy, 100);
+            int scan = 1000;
+            for (int round = 0; round < 200; round++) {
+                for (int key = 0; key < 50; key++) {
+                    if (cache.get(key) == null) { cache.put(key, key); }
+                    for (int i = 0; i < 3; i++) {
+                        if (cache.get(scan) == null) { cache.put(scan, scan); }
+                        scan++;
+                    }
+                }
+            }
+            hitRates[policy.ordinal()] = cache.getStatistics().hitRate();
+        }
+        // the scan pushes the working set out of an LRU cache, but cannot enter a TinyLFU cache
+        assertTrue(hitRates[BoundedCache.Policy.LRU.ordinal()] < 0.05);
+        assertTrue(hitRates[BoundedCache.Policy.TINY_LFU.ordinal()] > 0.2);
+    }
+}
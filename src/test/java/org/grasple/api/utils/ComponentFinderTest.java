@@ -0,0 +1,81 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Edge;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentFinderTest {
+    static final int VERTICES = 10;
+    List<Vertex<Integer>> vertices = new ArrayList<>();
+    SimpleGraph<Integer> _common_simple_graph;
+
+    @BeforeEach
+    void setCommonSimpleGraph() {
+        Set<Connectable<Integer>> _vertices = new HashSet<>();
+        for (int i = 0; i < VERTICES; i++) {
+            vertices.add(new Vertex<>(i));
+            _vertices.add(vertices.get(i));
+        }
+        _common_simple_graph = new SimpleGraph<>(_vertices);
+        // {0, 1, 2, 3}, {4, 5}, and the singletons {6}, {7}, {8}, {9}
+        _common_simple_graph.addEdge(new Edge<>(vertices.get(0), vertices.get(1)));
+        _common_simple_graph.addEdge(new Edge<>(vertices.get(2), vertices.get(1)));
+        _common_simple_graph.addEdge(new Edge<>(vertices.get(3), vertices.get(0)));
+        _common_simple_graph.addEdge(new Edge<>(vertices.get(4), vertices.get(5)));
+    }
+
+    @Test
+    void findComponents() {
+        ComponentFinder<Integer> finder = new ComponentFinder<>(_common_simple_graph);
+        assertEquals(VERTICES, finder.size());
+        assertEquals(6, finder.componentCount());
+        assertTrue(finder.connected(vertices.get(2), vertices.get(3)));
+        assertFalse(finder.connected(vertices.get(2), vertices.get(4)));
+        assertEquals(4, finder.componentSize(vertices.get(3)));
+        assertEquals(1, finder.componentSize(vertices.get(9)));
+        assertEquals(finder.representative(vertices.get(0)), finder.representative(vertices.get(2)));
+        assertEquals(6, finder.getRepresentatives().size());
+        Map<Connectable<Integer>, Integer> sizes = finder.getComponentSizes();
+        assertEquals(VERTICES, sizes.values().stream().mapToInt(Integer::intValue).sum());
+        Map<Connectable<Integer>, Integer> ids = finder.getComponentIds();
+        assertEquals(ids.get(vertices.get(1)), ids.get(vertices.get(3)));
+        assertEquals(6, new HashSet<>(ids.values()).size());
+    }
+
+    @Test
+    void addEdgesIncrementally() {
+        ComponentFinder<Integer> finder = new ComponentFinder<>(_common_simple_graph);
+        assertTrue(finder.addEdge(new Edge<>(vertices.get(5), vertices.get(2))));
+        assertFalse(finder.addEdge(new Edge<>(vertices.get(4), vertices.get(3))));
+        assertEquals(6, finder.componentSize(vertices.get(0)));
+        Vertex<Integer> newcomer = new Vertex<>(VERTICES);
+        assertEquals(-1, finder.componentOf(newcomer));
+        finder.addEdge(new Edge<>(newcomer, vertices.get(9)));
+        assertTrue(finder.connected(newcomer, vertices.get(9)));
+        assertEquals(5, finder.componentCount());
+    }
+
+    @Test
+    void disjointSet() {
+        DisjointSet set = new DisjointSet(4);
+        assertEquals(4, set.count());
+        assertTrue(set.union(0, 1));
+        assertFalse(set.union(1, 0));
+        assertEquals(4, set.add());
+        assertTrue(set.union(4, 0));
+        assertTrue(set.connected(1, 4));
+        assertEquals(3, set.sizeOf(4));
+        assertEquals(3, set.count());
+    }
+}
@@ -1,12 +1,21 @@
 package org.grasple.api.utils;
 
 import org.grasple.api.TestUtils;
+import org.grasple.api.particles.Vertex;
 import org.grasple.api.utils.DefaultTraverser;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 class DefaultTraverserTest {
+    static final int PATH_LENGTH = 200_000;
 
     @Test
     void run() {
@@ -18,4 +27,54 @@ class DefaultTraverserTest {
         assertTrue(_tested_candidate.getVisited().containsAll(TestUtils.PRIMARY_NEIGHBORS));
         assertTrue(_tested_candidate.getVisited().containsAll(TestUtils.SECONDARY_NEIGHBORS));
     }
-}
\ No newline at end of file
+
+    @Test
+    void runOnLongPath() {
+        // a path this long overflows the thread stack of a recursive traversal
+        Vertex<Integer> head = new Vertex<>(0);
+        Vertex<Integer> tail = head;
+        for (int i = 1; i < PATH_LENGTH; i++) {
+            Vertex<Integer> next = new Vertex<>(i);
+            tail.connect(next);
+            tail = next;
+        }
+        List<Integer> order = new ArrayList<>();
+        DefaultTraverser<Integer> _tested_candidate = new DefaultTraverser<>(head, order::add);
+        _tested_candidate.run();
+        assertEquals(PATH_LENGTH, _tested_candidate.getVisited().size());
+        for (int i = 0; i < PATH_LENGTH; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    void runInRecursiveOrder() {
+        Random random = new Random(7);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 300; i++) { vertices.add(new Vertex<>(i)); }
+        for (int i = 0; i < 900; i++) {
+            vertices.get(random.nextInt(300)).connect(vertices.get(random.nextInt(300)));
+        }
+        List<Integer> expected = new ArrayList<>();
+        recursion(vertices.get(0), new HashSet<>(), expected);
+        List<Integer> order = new ArrayList<>();
+        new DefaultTraverser<>(vertices.get(0), order::add).run();
+        assertEquals(expected, order);
+        // the first neighbor is followed to the end before the second one
+        Vertex<Integer> root = new Vertex<>(0);
+        Vertex<Integer> left = new Vertex<>(1);
+        Vertex<Integer> right = new Vertex<>(2);
+        root.connect(left);
+        root.connect(right);
+        left.connect(new Vertex<>(3));
+        order.clear();
+        new DefaultTraverser<>(root, order::add).run();
+        assertEquals(Arrays.asList(0, 1, 3, 2), order);
+    }
+
+    static void recursion(Vertex<Integer> vertex, Set<Vertex<Integer>> visited, List<Integer> order) {
+        if (!visited.add(vertex)) { return; }
+        order.add(vertex.get());
+        vertex.forEachNeighbor(neighbor -> recursion((Vertex<Integer>) neighbor, visited, order));
+    }
+}
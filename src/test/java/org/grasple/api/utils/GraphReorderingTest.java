@@ -0,0 +1,101 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphReorderingTest {
+    static final int SIDE = 30;
+
+    /**
+     * A SIDE x SIDE grid whose vertices are added in a random order.
+     */
+    static CompactGraph<Integer> shuffledGrid() {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < SIDE * SIDE; i++) { cells.add(i); }
+        Collections.shuffle(cells, new Random(19));
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>();
+        int[] ids = new int[SIDE * SIDE];
+        for (int cell : cells) { ids[cell] = builder.addVertex(cell); }
+        for (int cell = 0; cell < SIDE * SIDE; cell++) {
+            if ((cell + 1) % SIDE != 0) { builder.addEdge(ids[cell], ids[cell + 1], cell); }
+            if (cell + SIDE < SIDE * SIDE) { builder.addEdge(ids[cell], ids[cell + SIDE], cell); }
+        }
+        builder.addVertex(-1);
+        return builder.build();
+    }
+
+    @Test
+    void relabelPreservesTheGraph() {
+        CompactGraph<Integer> graph = shuffledGrid();
+        for (GraphReordering.Strategy strategy : GraphReordering.Strategy.values()) {
+            GraphReordering<Integer> reordering = new GraphReordering<>(graph, strategy);
+            CompactGraph<Integer> relabelled = reordering.getGraph();
+            assertEquals(graph.size(), relabelled.size());
+            assertEquals(graph.edgeCount(), relabelled.edgeCount());
+            for (int v = 0; v < graph.size(); v++) {
+                int id = reordering.newId(v);
+                assertEquals(v, reordering.oldId(id));
+                assertEquals(graph.get(v), relabelled.get(id));
+                assertEquals(graph.degree(v), relabelled.degree(id));
+                for (int arc = graph.offset(v); arc < graph.offset(v + 1); arc++) {
+                    assertTrue(relabelled.adjacent(id, reordering.newId(graph.target(arc))));
+                }
+            }
+            assertArrayEquals(reordering.getPermutation(), new GraphReordering<>(graph, strategy).getPermutation());
+        }
+    }
+
+    @Test
+    void improveLocality() {
+        CompactGraph<Integer> graph = shuffledGrid();
+        double before = GraphReordering.logGap(graph);
+        CompactGraph<Integer> rcm = new GraphReordering<>(graph, GraphReordering.Strategy.REVERSE_CUTHILL_MCKEE).getGraph();
+        // a grid has a bandwidth of its side when numbered row by row, Cuthill-McKee numbers it by diagonals
+        assertTrue(GraphReordering.bandwidth(rcm) <= 2 * SIDE);
+        assertTrue(GraphReordering.bandwidth(graph) > 2 * SIDE);
+        for (GraphReordering.Strategy strategy : new GraphReordering.Strategy[] {
+                GraphReordering.Strategy.BREADTH_FIRST, GraphReordering.Strategy.REVERSE_CUTHILL_MCKEE,
+                GraphReordering.Strategy.COMMUNITY}) {
+            assertTrue(GraphReordering.logGap(new GraphReordering<>(graph, strategy).getGraph()) < before * 2 / 3);
+        }
+    }
+
+    @Test
+    void degreeOrder() {
+        CompactGraph<Integer> graph = shuffledGrid();
+        CompactGraph<Integer> sorted = new GraphReordering<>(graph, GraphReordering.Strategy.DEGREE).getGraph();
+        for (int v = 1; v < sorted.size(); v++) { assertTrue(sorted.degree(v - 1) >= sorted.degree(v)); }
+    }
+
+    @Test
+    void communitiesAreContiguous() {
+        // two cliques of 8 vertices, interleaved, joined by a single edge
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>();
+        for (int i = 0; i < 16; i++) { builder.addVertex(i); }
+        for (int i = 0; i < 16; i++) {
+            for (int j = i + 2; j < 16; j += 2) { builder.addEdge(i, j, 1); }
+        }
+        builder.addEdge(0, 1, 1);
+        GraphReordering<Integer> reordering = new GraphReordering<>(builder.build(), GraphReordering.Strategy.COMMUNITY);
+        int[] permutation = reordering.getPermutation();
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                assertEquals(i % 2 == j % 2, permutation[i] / 8 == permutation[j] / 8);
+            }
+        }
+    }
+
+    @Test
+    void rejectInvalidPermutation() {
+        CompactGraph<Integer> graph = shuffledGrid();
+        assertThrows(IllegalArgumentException.class, () -> GraphReordering.relabel(graph, new int[3]));
+        assertThrows(IllegalArgumentException.class, () -> GraphReordering.relabel(graph, new int[graph.size()]));
+    }
+}
@@ -0,0 +1,157 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.ChangeJournal;
+import org.grasple.api.structures.graphs.GraphChange;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalComponentsTest {
+    static final int VERTICES = 10;
+    List<Vertex<Integer>> vertices = new ArrayList<>();
+    SimpleGraph<Integer> _common_simple_graph;
+
+    @BeforeEach
+    void setCommonSimpleGraph() {
+        Set<Connectable<Integer>> _vertices = new HashSet<>();
+        for (int i = 0; i < VERTICES; i++) {
+            vertices.add(new Vertex<>(i));
+            _vertices.add(vertices.get(i));
+        }
+        _common_simple_graph = new SimpleGraph<>(_vertices);
+        // {0, 1, 2, 3}, {4, 5}, and the singletons {6}, {7}, {8}, {9}
+        _common_simple_graph.connect(vertices.get(0), vertices.get(1));
+        _common_simple_graph.connect(vertices.get(2), vertices.get(1));
+        _common_simple_graph.connect(vertices.get(3), vertices.get(0));
+        _common_simple_graph.connect(vertices.get(4), vertices.get(5));
+    }
+
+    @Test
+    void journalRecordsOnlyWhileSubscribed() {
+        ChangeJournal<Integer> journal = _common_simple_graph.getJournal();
+        assertEquals(0, journal.size());
+        ChangeJournal<Integer>.Cursor cursor = journal.subscribe();
+        _common_simple_graph.connect(vertices.get(6), vertices.get(7));
+        assertFalse(_common_simple_graph.addVertex(vertices.get(6)));
+        assertEquals(1, cursor.pending());
+        List<GraphChange<Integer>> changes = new ArrayList<>();
+        assertEquals(1, cursor.poll(changes::add));
+        assertEquals(GraphChange.Kind.ADD_EDGE, changes.get(0).getKind());
+        assertEquals(0, cursor.pending());
+        assertEquals(0, journal.size());
+        cursor.close();
+        assertThrows(IllegalStateException.class, () -> cursor.poll(changes::add));
+        _common_simple_graph.disconnect(vertices.get(6), vertices.get(7));
+        assertEquals(0, journal.size());
+    }
+
+    @Test
+    void followChanges() {
+        try (IncrementalComponents<Integer> components = new IncrementalComponents<>(_common_simple_graph)) {
+            assertEquals(VERTICES, components.size());
+            assertEquals(6, components.componentCount());
+            assertTrue(components.connected(vertices.get(2), vertices.get(3)));
+            assertEquals(4, components.componentSize(vertices.get(3)));
+            long version = components.getVersion();
+
+            _common_simple_graph.connect(vertices.get(3), vertices.get(4));
+            assertEquals(1, components.pending());
+            assertEquals(6, components.componentSize(vertices.get(5)));
+            assertEquals(5, components.componentCount());
+            assertNotEquals(version, components.getVersion());
+
+            // a cycle keeps the component whole
+            _common_simple_graph.connect(vertices.get(2), vertices.get(3));
+            version = components.getVersion();
+            _common_simple_graph.disconnect(vertices.get(1), vertices.get(0));
+            assertEquals(version, components.getVersion());
+            assertTrue(components.connected(vertices.get(0), vertices.get(1)));
+
+            _common_simple_graph.disconnect(vertices.get(3), vertices.get(4));
+            assertEquals(6, components.componentCount());
+            assertFalse(components.connected(vertices.get(0), vertices.get(5)));
+            assertEquals(new HashSet<>(vertices.subList(0, 4)), components.getComponent(vertices.get(1)));
+
+            Vertex<Integer> newcomer = new Vertex<>(VERTICES);
+            _common_simple_graph.connect(newcomer, vertices.get(9));
+            assertTrue(components.connected(newcomer, vertices.get(9)));
+            assertEquals(2, components.componentSize(newcomer));
+            _common_simple_graph.removeVertex(vertices.get(9));
+            assertEquals(-1, components.componentOf(vertices.get(9)));
+            assertEquals(1, components.componentSize(newcomer));
+            assertEquals(6, components.componentCount());
+        }
+    }
+
+    @Test
+    void matchComponentFinder() {
+        Random random = new Random(15);
+        try (IncrementalComponents<Integer> components = new IncrementalComponents<>(_common_simple_graph)) {
+            for (int round = 0; round < 2000; round++) {
+                Vertex<Integer> vertex = vertices.get(random.nextInt(VERTICES));
+                Vertex<Integer> other = vertices.get(random.nextInt(VERTICES));
+                if (vertex == other) { continue; }
+                if (vertex.adjacent(other)) {
+                    _common_simple_graph.disconnect(vertex, other);
+                } else if (random.nextInt(4) == 0) {
+                    _common_simple_graph.connect(vertex, other);
+                }
+                if (round % 7 != 0) { continue; }
+                ComponentFinder<Integer> finder = new ComponentFinder<>(_common_simple_graph);
+                assertEquals(finder.componentCount(), components.componentCount());
+                for (Vertex<Integer> a : vertices) {
+                    assertEquals(finder.componentSize(a), components.componentSize(a));
+                    for (Vertex<Integer> b : vertices) {
+                        assertEquals(finder.connected(a, b), components.connected(a, b));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void versionComponentsSeparately() {
+        try (IncrementalComponents<Integer> components = new IncrementalComponents<>(_common_simple_graph)) {
+            long first = components.componentVersion(vertices.get(0));
+            long second = components.componentVersion(vertices.get(4));
+            assertEquals(first, components.componentVersion(vertices.get(3)));
+            assertEquals(-1, components.componentVersion(new Vertex<>(42)));
+
+            // an edge inside a component changes its version only
+            _common_simple_graph.connect(vertices.get(2), vertices.get(3));
+            long changed = components.componentVersion(vertices.get(0));
+            assertNotEquals(first, changed);
+            assertEquals(second, components.componentVersion(vertices.get(5)));
+
+            // removing it keeps the component whole, but changes its version again
+            _common_simple_graph.disconnect(vertices.get(2), vertices.get(3));
+            assertNotEquals(changed, components.componentVersion(vertices.get(0)));
+            assertEquals(second, components.componentVersion(vertices.get(5)));
+
+            // a split changes the versions of both sides
+            changed = components.componentVersion(vertices.get(0));
+            _common_simple_graph.disconnect(vertices.get(0), vertices.get(3));
+            assertNotEquals(changed, components.componentVersion(vertices.get(0)));
+            assertNotEquals(changed, components.componentVersion(vertices.get(3)));
+            assertNotEquals(components.componentVersion(vertices.get(0)), components.componentVersion(vertices.get(3)));
+            assertEquals(second, components.componentVersion(vertices.get(4)));
+
+            // a merge too
+            long single = components.componentVersion(vertices.get(6));
+            _common_simple_graph.connect(vertices.get(6), vertices.get(4));
+            assertNotEquals(single, components.componentVersion(vertices.get(6)));
+            assertNotEquals(second, components.componentVersion(vertices.get(5)));
+            assertEquals(components.componentVersion(vertices.get(6)), components.componentVersion(vertices.get(5)));
+        }
+    }
+}
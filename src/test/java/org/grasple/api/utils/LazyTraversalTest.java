@@ -0,0 +1,137 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.ConnectedGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyTraversalTest {
+    static final int SIDE = 200;
+    final AtomicInteger expansions = new AtomicInteger();
+    List<Vertex<Integer>> _common_grid;
+
+    /** A vertex counting how many times its neighbors are expanded. */
+    final class CountingVertex extends Vertex<Integer> {
+        CountingVertex(int value) {
+            super(value);
+        }
+
+        @Override
+        public void forEachNeighbor(Consumer<? super Connectable<Integer>> action) {
+            expansions.incrementAndGet();
+            super.forEachNeighbor(action);
+        }
+    }
+
+    @BeforeEach
+    void buildGrid() {
+        // a SIDE x SIDE grid, vertex (row, column) containing row * SIDE + column
+        _common_grid = new ArrayList<>();
+        for (int i = 0; i < SIDE * SIDE; i++) { _common_grid.add(new CountingVertex(i)); }
+        for (int row = 0; row < SIDE; row++) {
+            for (int column = 0; column < SIDE; column++) {
+                int vertex = row * SIDE + column;
+                if (column + 1 < SIDE) { _common_grid.get(vertex).connect(_common_grid.get(vertex + 1)); }
+                if (row + 1 < SIDE) { _common_grid.get(vertex).connect(_common_grid.get(vertex + SIDE)); }
+            }
+        }
+    }
+
+    @Test
+    void walkBreadthFirstByDepth() {
+        LazyTraversal.Walker<Integer> walker = LazyTraversal.breadthFirst(_common_grid.get(0)).iterator();
+        int count = 0;
+        while (walker.hasNext()) {
+            int value = walker.next().get();
+            // the distance from the corner of a grid is row + column
+            assertEquals(value / SIDE + value % SIDE, walker.getDepth());
+            count++;
+        }
+        assertEquals(SIDE * SIDE, count);
+        assertThrows(NoSuchElementException.class, walker::next);
+    }
+
+    @Test
+    void walkDepthFirstLikeDefaultTraverser() {
+        List<Integer> expected = new ArrayList<>();
+        new DefaultTraverser<>(_common_grid.get(SIDE + 1), expected::add).run();
+        List<Integer> actual = LazyTraversal.depthFirst(_common_grid.get(SIDE + 1))
+                .values().collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void expandOnlyOnDemand() {
+        LazyTraversal<Integer> traversal = new LazyTraversal<>(
+                new ConnectedGraph<>(_common_grid.get(0)), LazyTraversal.Order.BREADTH_FIRST);
+        assertEquals(10, traversal.stream().limit(10).count());
+        assertTrue(expansions.get() <= 10);
+
+        expansions.set(0);
+        // the first neighbor of each vertex is its left one, so the walk runs to the corner first
+        assertEquals(SIDE, (int) LazyTraversal.depthFirst(_common_grid.get(5)).values()
+                .filter(value -> value >= SIDE).findFirst().get());
+        assertTrue(expansions.get() < SIDE);
+
+        expansions.set(0);
+        List<Connectable<Integer>> firstRow = traversal.takeWhile(vertex -> vertex.get() < 3 * SIDE)
+                .collect(Collectors.toList());
+        assertTrue(firstRow.size() > 0);
+        assertTrue(firstRow.stream().allMatch(vertex -> vertex.get() < 3 * SIDE));
+        assertTrue(expansions.get() <= firstRow.size() + 1);
+    }
+
+    @Test
+    void boundTheDepth() {
+        for (LazyTraversal.Order order : LazyTraversal.Order.values()) {
+            LazyTraversal<Integer> traversal = new LazyTraversal<>(_common_grid.get(0), order);
+            traversal.setMaxDepth(3);
+            LazyTraversal.Walker<Integer> walker = traversal.iterator();
+            while (walker.hasNext()) {
+                walker.next();
+                assertTrue(walker.getDepth() <= 3);
+            }
+            assertThrows(IllegalArgumentException.class, () -> traversal.setMaxDepth(-1));
+        }
+        LazyTraversal<Integer> traversal = LazyTraversal.breadthFirst(_common_grid.get(0));
+        traversal.setMaxDepth(3);
+        // the vertices within 3 steps of a corner: 1 + 2 + 3 + 4
+        assertEquals(10, traversal.stream().count());
+        traversal.setMaxDepth(0);
+        assertEquals(1, traversal.stream().count());
+    }
+
+    @Test
+    void consumeInParallel() {
+        for (LazyTraversal.Order order : LazyTraversal.Order.values()) {
+            LazyTraversal<Integer> traversal = new LazyTraversal<>(_common_grid.get(SIDE * SIDE / 2), order);
+            Spliterator<Connectable<Integer>> spliterator = traversal.spliterator();
+            Spliterator<Connectable<Integer>> split = spliterator.trySplit();
+            assertNotNull(split);
+            Set<Connectable<Integer>> visited = new HashSet<>();
+            spliterator.forEachRemaining(vertex -> assertTrue(visited.add(vertex)));
+            split.forEachRemaining(vertex -> assertTrue(visited.add(vertex)));
+            assertEquals(SIDE * SIDE, visited.size());
+
+            Set<Integer> values = traversal.parallelStream().map(Connectable::get).collect(Collectors.toSet());
+            assertEquals(SIDE * SIDE, values.size());
+            assertEquals(SIDE * SIDE, traversal.parallelStream().count());
+        }
+        // a frontier too small to split
+        Vertex<Integer> single = new Vertex<>(0);
+        assertNull(LazyTraversal.breadthFirst(single).spliterator().trySplit());
+    }
+}
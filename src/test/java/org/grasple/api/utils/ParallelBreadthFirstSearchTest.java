@@ -0,0 +1,105 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.TestUtils;
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelBreadthFirstSearchTest {
+    static final int SIDE = 120;
+    CompactGraph<Integer> _common_grid;
+
+    @BeforeEach
+    void buildGrid() {
+        // a SIDE x SIDE grid, plus a few shortcuts and an isolated vertex
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>(SIDE * SIDE + 1, 2 * SIDE * SIDE);
+        for (int i = 0; i <= SIDE * SIDE; i++) { builder.addVertex(i); }
+        for (int row = 0; row < SIDE; row++) {
+            for (int column = 0; column < SIDE; column++) {
+                int vertex = row * SIDE + column;
+                if (column + 1 < SIDE) { builder.addEdge(vertex, vertex + 1, 1); }
+                if (row + 1 < SIDE) { builder.addEdge(vertex, vertex + SIDE, 1); }
+            }
+        }
+        for (int i = 0; i < SIDE; i += 7) { builder.addEdge(i, SIDE * SIDE - 1 - i, 1); }
+        _common_grid = builder.build();
+    }
+
+    /** The reference, sequential breadth-first search. */
+    static int[] distances(CompactGraph<?> graph, int source) {
+        int[] distances = new int[graph.size()];
+        Arrays.fill(distances, -1);
+        distances[source] = 0;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int vertex = queue.poll();
+            graph.forEachNeighbor(vertex, neighbor -> {
+                if (distances[neighbor] < 0) {
+                    distances[neighbor] = distances[vertex] + 1;
+                    queue.add(neighbor);
+                }
+            });
+        }
+        return distances;
+    }
+
+    @Test
+    void runInEveryDirection() {
+        int[] expected = distances(_common_grid, 0);
+        ParallelBreadthFirstSearch<Integer> search = new ParallelBreadthFirstSearch<>(_common_grid);
+        for (ParallelBreadthFirstSearch.Direction direction : ParallelBreadthFirstSearch.Direction.values()) {
+            search.setDirection(direction);
+            ParallelBreadthFirstSearch.Result result = search.run(0);
+            assertArrayEquals(expected, result.getDistances());
+            assertFalse(result.reached(SIDE * SIDE));
+        }
+    }
+
+    @Test
+    void parentsFormShortestPaths() {
+        ParallelBreadthFirstSearch.Result result = new ParallelBreadthFirstSearch<>(_common_grid).run(SIDE + 3);
+        for (int vertex = 0; vertex < SIDE * SIDE; vertex++) {
+            int[] path = result.pathTo(vertex);
+            assertEquals(result.distance(vertex) + 1, path.length);
+            assertEquals(SIDE + 3, path[0]);
+            for (int i = 1; i < path.length; i++) {
+                assertTrue(_common_grid.adjacent(path[i - 1], path[i]));
+            }
+        }
+        assertEquals(0, result.pathTo(SIDE * SIDE).length);
+    }
+
+    @Test
+    void runOnSimpleGraph() {
+        Set<Connectable<String>> vertices = new HashSet<>();
+        vertices.add(TestUtils.CENTRAL_VERTEX);
+        ParallelBreadthFirstSearch<String> search = new ParallelBreadthFirstSearch<>(new SimpleGraph<>(vertices));
+        CompactGraph<String> graph = search.getGraph();
+        ParallelBreadthFirstSearch.Result result = search.run(graph.indexOf("CENTRAL_VERTEX"));
+        assertEquals(1, result.distance(graph.indexOf("PRIMARY_NEIGHBOR_3")));
+        assertEquals(2, result.distance(graph.indexOf("SECONDARY_NEIGHBOR_3->1")));
+    }
+
+    @Test
+    void atomicBitSet() {
+        AtomicBitSet bits = new AtomicBitSet(130);
+        assertTrue(bits.set(129));
+        assertFalse(bits.set(129));
+        assertTrue(bits.get(129));
+        assertFalse(bits.get(64));
+        assertEquals(1, bits.cardinality());
+        assertTrue(bits.clear(129));
+        assertEquals(0, bits.cardinality());
+    }
+}
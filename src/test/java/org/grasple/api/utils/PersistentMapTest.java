@@ -0,0 +1,102 @@
+package org.grasple.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentMapTest {
+
+    /** A key whose hash only has a few distinct values, to force collisions. */
+    static final class Colliding {
+        final int id;
+
+        Colliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 7 == 0 ? 42 : id % 3;
+        }
+    }
+
+    static <K, V> void assertSameContent(Map<K, V> expected, PersistentMap<K, V> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (Map.Entry<K, V> entry : expected.entrySet()) { assertEquals(entry.getValue(), actual.get(entry.getKey())); }
+        Map<K, V> iterated = new HashMap<>();
+        for (Map.Entry<K, V> entry : actual) { assertNull(iterated.put(entry.getKey(), entry.getValue())); }
+        assertEquals(expected, iterated);
+        Map<K, V> visited = new HashMap<>();
+        actual.forEach(visited::put);
+        assertEquals(expected, visited);
+        assertEquals(expected.keySet(), actual.keySet());
+    }
+
+    @Test
+    void matchAHashMap() {
+        Random random = new Random(24);
+        PersistentMap<Integer, Integer> map = PersistentMap.empty();
+        Map<Integer, Integer> reference = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(5000) - 2500;
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                reference.remove(key);
+            } else {
+                map = map.put(key, i);
+                reference.put(key, i);
+            }
+        }
+        assertSameContent(reference, map);
+    }
+
+    @Test
+    void handleCollidingHashes() {
+        PersistentMap<Colliding, Integer> map = PersistentMap.empty();
+        Map<Colliding, Integer> reference = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            map = map.put(new Colliding(i), i);
+            reference.put(new Colliding(i), i);
+        }
+        assertSameContent(reference, map);
+        for (int i = 0; i < 200; i += 2) {
+            map = map.remove(new Colliding(i));
+            reference.remove(new Colliding(i));
+        }
+        assertSameContent(reference, map);
+        assertNull(map.get(new Colliding(1000)));
+    }
+
+    @Test
+    void keepOldVersions() {
+        List<PersistentMap<Integer, String>> versions = new ArrayList<>();
+        PersistentMap<Integer, String> map = PersistentMap.empty();
+        for (int i = 0; i < 100; i++) {
+            versions.add(map);
+            map = map.put(i, "v" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, versions.get(i).size());
+            assertNull(versions.get(i).get(i));
+            if (i > 0) { assertEquals("v" + (i - 1), versions.get(i).get(i - 1)); }
+        }
+        assertSame(map, map.put(3, map.get(3)));
+        assertSame(map, map.remove(1000));
+        assertTrue(map.remove(5).containsKey(4));
+        assertFalse(map.remove(5).containsKey(5));
+        assertTrue(map.containsKey(5));
+        assertTrue(PersistentMap.<Integer, String>empty().put(1, "a").remove(1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> PersistentMap.empty().put(1, null));
+    }
+}
@@ -0,0 +1,72 @@
+package org.grasple.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveCollectionsTest {
+    static final int OPERATIONS = 100_000;
+    static final long SEED = 7;
+
+    @Test
+    void longHashSetMatchesHashSet() {
+        Random random = new Random(SEED);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            // a small range of keys, including 0, so that removals hit
+            long key = random.nextInt(2000) - 1000;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(key), set.add(key));
+            } else {
+                assertEquals(expected.remove(key), set.remove(key));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (long key = -1000; key < 1000; key++) { assertEquals(expected.contains(key), set.contains(key)); }
+        Set<Long> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void intHashSetMatchesHashSet() {
+        Random random = new Random(SEED);
+        IntHashSet set = new IntHashSet(4);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.add(key), set.add(key));
+            } else {
+                assertEquals(expected.remove(key), set.remove(key));
+            }
+        }
+        assertEquals(expected.size(), set.toArray().length);
+        for (int key = -1000; key < 1000; key++) { assertEquals(expected.contains(key), set.contains(key)); }
+    }
+
+    @Test
+    void longObjectHashMapMatchesHashMap() {
+        Random random = new Random(SEED);
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            long key = (random.nextInt(2000) - 1000) * 0x100000000L;
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertFalse(map.containsKey(1));
+    }
+}
@@ -0,0 +1,113 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.structures.graphs.CompactGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathFinderTest {
+    static final int SIDE = 30;
+    static final long SEED = 42;
+    CompactGraph<Integer> _common_grid;
+
+    @BeforeEach
+    void buildGrid() {
+        // a SIDE x SIDE grid with random weights in [1, 10], plus an isolated vertex
+        Random random = new Random(SEED);
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>();
+        for (int i = 0; i <= SIDE * SIDE; i++) { builder.addVertex(i); }
+        for (int row = 0; row < SIDE; row++) {
+            for (int column = 0; column < SIDE; column++) {
+                int vertex = row * SIDE + column;
+                if (column + 1 < SIDE) { builder.addEdge(vertex, vertex + 1, 1 + random.nextInt(10)); }
+                if (row + 1 < SIDE) { builder.addEdge(vertex, vertex + SIDE, 1 + random.nextInt(10)); }
+            }
+        }
+        _common_grid = builder.build();
+    }
+
+    /** Sums the weights along a path, failing if two consecutive vertices are not adjacent. */
+    long length(int[] path) {
+        long length = 0;
+        for (int i = 1; i < path.length; i++) {
+            int weight = -1;
+            for (int arc = _common_grid.offset(path[i - 1]); arc < _common_grid.offset(path[i - 1] + 1); arc++) {
+                if (_common_grid.target(arc) == path[i]) { weight = _common_grid.weight(arc); }
+            }
+            assertTrue(weight >= 0);
+            length += weight;
+        }
+        return length;
+    }
+
+    @Test
+    void bidirectionalMatchesDijkstra() {
+        ShortestPathFinder<Integer> finder = new ShortestPathFinder<>(_common_grid);
+        Random random = new Random(SEED);
+        for (int query = 0; query < 50; query++) {
+            int source = random.nextInt(SIDE * SIDE);
+            int target = random.nextInt(SIDE * SIDE);
+            long[] expected = finder.distancesFrom(source);
+            assertEquals(expected[target], finder.distance(source, target));
+            int[] path = finder.shortestPath(source, target);
+            assertEquals(source, path[0]);
+            assertEquals(target, path[path.length - 1]);
+            assertEquals(expected[target], length(path));
+        }
+    }
+
+    @Test
+    void aStarMatchesDijkstra() {
+        ShortestPathFinder<Integer> finder = new ShortestPathFinder<>(_common_grid);
+        // every step costs at least 1, so the Manhattan distance is admissible
+        Heuristic manhattan = (vertex, target) ->
+                Math.abs(vertex / SIDE - target / SIDE) + Math.abs(vertex % SIDE - target % SIDE);
+        Random random = new Random(SEED + 1);
+        for (int query = 0; query < 50; query++) {
+            int source = random.nextInt(SIDE * SIDE);
+            int target = random.nextInt(SIDE * SIDE);
+            long expected = finder.distancesFrom(source)[target];
+            assertEquals(expected, finder.distance(source, target, manhattan));
+            assertEquals(expected, length(finder.shortestPath(source, target, manhattan)));
+            assertEquals(expected, finder.distance(source, target, Heuristic.NONE));
+        }
+    }
+
+    @Test
+    void unreachableAndTrivialQueries() {
+        ShortestPathFinder<Integer> finder = new ShortestPathFinder<>(_common_grid);
+        assertEquals(ShortestPathFinder.UNREACHABLE, finder.distance(0, SIDE * SIDE));
+        assertEquals(0, finder.shortestPath(0, SIDE * SIDE).length);
+        assertEquals(0, finder.shortestPath(0, SIDE * SIDE, Heuristic.NONE).length);
+        assertEquals(0, finder.distance(5, 5));
+        assertArrayEquals(new int[]{5}, finder.shortestPath(5, 5));
+    }
+
+    @Test
+    void negativeWeights() {
+        CompactGraph.Builder<Integer> builder = new CompactGraph.Builder<>();
+        builder.addVertex(0);
+        builder.addVertex(1);
+        builder.addEdge(0, 1, -1);
+        assertThrows(IllegalArgumentException.class, () -> new ShortestPathFinder<>(builder.build()));
+    }
+
+    @Test
+    void indexedMinHeap() {
+        IndexedMinHeap heap = new IndexedMinHeap(8);
+        heap.offer(3, 30);
+        heap.offer(5, 50);
+        heap.offer(1, 10);
+        assertTrue(heap.offer(5, 5));
+        assertFalse(heap.offer(3, 40));
+        assertEquals(5, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(30, heap.peekKey());
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(3));
+    }
+}
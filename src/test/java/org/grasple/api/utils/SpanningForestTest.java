@@ -0,0 +1,112 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Connection;
+import org.grasple.api.particles.Edge;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpanningForestTest {
+    static final int SIZE = 20000;
+    List<Vertex<Integer>> _common_vertices;
+    SimpleGraph<Integer> _common_graph;
+
+    /** Connects two vertices with a weighted edge, the way Vertex.connect() does. */
+    static Connection connect(SimpleGraph<Integer> graph, Vertex<Integer> start, Vertex<Integer> end, int weight) {
+        Edge<Connectable<Integer>> edge = new Edge<>(weight, start, end);
+        if (start.addConnection(edge) && start != end) { end.addConnection(edge); }
+        graph.addEdge(edge);
+        return edge;
+    }
+
+    @BeforeEach
+    void buildRandom() {
+        // two random halves, many equal weights, a few self-connections and an isolated vertex
+        Random random = new Random(22);
+        _common_vertices = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) { _common_vertices.add(new Vertex<>(i)); }
+        _common_graph = new SimpleGraph<>(new HashSet<>(_common_vertices));
+        int half = (SIZE - 1) / 2;
+        for (int i = 0; i < 3 * SIZE; i++) {
+            int offset = i % 2 == 0 ? 0 : half;
+            connect(_common_graph, _common_vertices.get(offset + random.nextInt(half)),
+                    _common_vertices.get(offset + random.nextInt(half)), random.nextInt(50) - 10);
+        }
+    }
+
+    @Test
+    void agreeBetweenKruskalAndBoruvka() {
+        SpanningForest<Integer> forest = new SpanningForest<>(_common_graph, new ForkJoinPool(4));
+        SpanningForest<Integer>.Result kruskal = forest.kruskal();
+        SpanningForest<Integer>.Result boruvka = forest.boruvka();
+        ComponentFinder<Integer> finder = new ComponentFinder<>(_common_graph);
+        assertEquals(finder.componentCount(), kruskal.getTreeCount());
+        assertEquals(finder.componentCount(), boruvka.getTreeCount());
+        assertEquals(SIZE - finder.componentCount(), kruskal.getEdges().size());
+        assertEquals(kruskal.getTotalWeight(), boruvka.getTotalWeight());
+        assertEquals(kruskal.getEdges(), boruvka.getEdges());
+        for (int i = 1; i < kruskal.getEdges().size(); i++) {
+            assertTrue(kruskal.getEdges().get(i - 1).weight() <= kruskal.getEdges().get(i).weight());
+        }
+    }
+
+    @Test
+    void findMinimumSpanningTree() {
+        // a square with one diagonal: the tree keeps the three lightest edges that avoid a cycle
+        List<Vertex<Integer>> square = new ArrayList<>();
+        for (int i = 0; i < 4; i++) { square.add(new Vertex<>(i)); }
+        SimpleGraph<Integer> graph = new SimpleGraph<>(new HashSet<>(square));
+        Connection a = connect(graph, square.get(0), square.get(1), 1);
+        Connection b = connect(graph, square.get(1), square.get(2), 2);
+        connect(graph, square.get(2), square.get(3), 5);
+        connect(graph, square.get(3), square.get(0), 4);
+        connect(graph, square.get(0), square.get(2), 1);
+        connect(graph, square.get(1), square.get(1), -100);
+        // a connection held by the vertices only, not registered as an edge
+        Connection c = square.get(1).connect(square.get(3));
+
+        SpanningForest<Integer> forest = new SpanningForest<>(graph);
+        assertEquals(6, forest.edgeCount());
+        for (SpanningForest<Integer>.Result result : Arrays.asList(forest.kruskal(), forest.boruvka())) {
+            assertEquals(2, result.getTotalWeight());
+            assertTrue(result.getEdges().contains(a));
+            assertTrue(result.getEdges().contains(c));
+            assertFalse(result.getEdges().contains(b));
+            assertSame(c, result.getEdges().get(0));
+        }
+    }
+
+    @Test
+    void buildOneGraphPerTree() {
+        SpanningForest<Integer>.Result result = new SpanningForest<>(_common_graph).boruvka();
+        List<SimpleGraph<Integer>> trees = result.getTrees();
+        assertEquals(result.getTreeCount(), trees.size());
+        Set<Integer> values = new HashSet<>();
+        long weight = 0;
+        for (SimpleGraph<Integer> tree : trees) {
+            assertEquals(tree.getVertices().size() - 1, tree.getEdges().size());
+            assertEquals(1, tree.separateComponents().size());
+            for (Connectable<Integer> vertex : tree.getVertices()) {
+                // the vertices are new, their values are the originals
+                assertNotSame(_common_vertices.get(vertex.get()), vertex);
+                assertSame(_common_vertices.get(vertex.get()).get(), vertex.get());
+                assertTrue(values.add(vertex.get()));
+            }
+            for (Connection edge : tree.getEdges()) { weight += edge.weight(); }
+        }
+        assertEquals(SIZE, values.size());
+        assertEquals(result.getTotalWeight(), weight);
+    }
+}
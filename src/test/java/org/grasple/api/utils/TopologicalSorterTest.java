@@ -0,0 +1,162 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.DirectedVertex;
+import org.grasple.api.particles.Edge;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.DirectedGraph;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopologicalSorterTest {
+    static final int SIZE = 50_000;
+    List<DirectedVertex<Integer>> _common_vertices;
+    DirectedGraph<Integer> _common_dag;
+
+    @BeforeEach
+    void setUp() {
+        // a random DAG: every connection leads from a lower to a higher value
+        Random random = new Random(11);
+        _common_vertices = new ArrayList<>();
+        _common_dag = new DirectedGraph<>();
+        for (int i = 0; i < SIZE; i++) {
+            _common_vertices.add(new DirectedVertex<>(i));
+            _common_dag.addVertex(_common_vertices.get(i));
+        }
+        for (int i = 0; i < 4 * SIZE; i++) {
+            int a = random.nextInt(SIZE);
+            int b = Math.min(SIZE - 1, a + 1 + random.nextInt(100));
+            if (a != b) { _common_dag.connect(_common_vertices.get(a), _common_vertices.get(b)); }
+        }
+    }
+
+    @Test
+    void sortLargeDag() {
+        TopologicalSorter.Result<Integer> result = new TopologicalSorter<>(_common_dag).sort();
+        assertTrue(result.isAcyclic());
+        assertTrue(result.getCycle().isEmpty());
+        List<Connectable<Integer>> order = result.getOrder();
+        assertEquals(SIZE, order.size());
+        Map<Connectable<Integer>, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < order.size(); i++) { position.put(order.get(i), i); }
+        // the levels are the longest path lengths, computed here in the order of values
+        int[] longest = new int[SIZE];
+        for (DirectedVertex<Integer> vertex : _common_vertices) {
+            assertEquals(longest[vertex.get()], result.levelOf(vertex));
+            for (Connectable<Integer> successor : vertex.getSuccessors()) {
+                assertTrue(position.get(vertex) < position.get(successor));
+                longest[successor.get()] = Math.max(longest[successor.get()], longest[vertex.get()] + 1);
+            }
+        }
+        int total = 0;
+        for (int level = 0; level < result.depth(); level++) {
+            for (Connectable<Integer> vertex : result.getLevel(level)) { assertEquals(level, result.levelOf(vertex)); }
+            total += result.getLevel(level).size();
+        }
+        assertEquals(SIZE, total);
+        assertEquals(result.depth(), result.getLevels().size());
+    }
+
+    @Test
+    void wideLevels() {
+        // 5 layers of 10000 vertices, each vertex depending on 3 vertices of the previous layer
+        Random random = new Random(5);
+        int width = 10_000;
+        List<DirectedVertex<Integer>> vertices = new ArrayList<>();
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < 5 * width; i++) {
+            vertices.add(new DirectedVertex<>(i));
+            graph.addVertex(vertices.get(i));
+            for (int k = 0; i >= width && k < 3; k++) {
+                graph.connect(vertices.get(i - width - i % width + random.nextInt(width)), vertices.get(i));
+            }
+        }
+        TopologicalSorter.Result<Integer> result = new TopologicalSorter<>(graph).sort();
+        assertEquals(5, result.depth());
+        for (int level = 0; level < 5; level++) {
+            assertEquals(width, result.getLevel(level).size());
+            for (Connectable<Integer> vertex : result.getLevel(level)) { assertEquals(level, vertex.get() / width); }
+        }
+    }
+
+    @Test
+    void diamond() {
+        DirectedVertex<String> a = new DirectedVertex<>("a");
+        DirectedVertex<String> b = new DirectedVertex<>("b");
+        DirectedVertex<String> c = new DirectedVertex<>("c");
+        DirectedVertex<String> d = new DirectedVertex<>("d");
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.connect(a, b);
+        graph.connect(a, c);
+        graph.connect(b, d);
+        graph.connect(c, d);
+        graph.connect(a, d);
+        TopologicalSorter.Result<String> result = new TopologicalSorter<>(graph).sort();
+        assertEquals(3, result.depth());
+        assertEquals(Arrays.asList(a), result.getLevel(0));
+        assertEquals(new HashSet<>(Arrays.asList(b, c)), new HashSet<>(result.getLevel(1)));
+        assertEquals(Arrays.asList(d), result.getLevel(2));
+        assertEquals(-1, result.levelOf(new DirectedVertex<>("e")));
+        assertThrows(IllegalArgumentException.class, () -> result.getLevel(3));
+    }
+
+    @Test
+    void reportCycle() {
+        // close a cycle 1000 -> 1001 -> ... -> 1000 through the largest values
+        DirectedVertex<Integer> start = _common_vertices.get(1000);
+        for (int i = 1000; i < 1005; i++) { _common_dag.connect(_common_vertices.get(i), _common_vertices.get(i + 1)); }
+        _common_dag.connect(_common_vertices.get(1005), start);
+        TopologicalSorter.Result<Integer> result = new TopologicalSorter<>(_common_dag).sort();
+        assertFalse(result.isAcyclic());
+        List<Connectable<Integer>> cycle = result.getCycle();
+        assertFalse(cycle.isEmpty());
+        for (int i = 0; i < cycle.size(); i++) {
+            assertTrue(cycle.get(i).adjacent(cycle.get((i + 1) % cycle.size())));
+        }
+        assertTrue(result.getOrder().size() < SIZE);
+        assertEquals(-1, result.levelOf(start));
+        assertEquals(0, result.levelOf(_common_vertices.get(0)));
+    }
+
+    @Test
+    void selfConnection() {
+        DirectedVertex<String> a = new DirectedVertex<>("a");
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.connect(a, a);
+        TopologicalSorter.Result<String> result = new TopologicalSorter<>(graph).sort();
+        assertEquals(Arrays.asList(a), result.getCycle());
+        assertEquals(0, result.depth());
+    }
+
+    @Test
+    void sortSimpleGraph() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        Set<Connectable<String>> vertices = new HashSet<>(Arrays.asList(a, b, c));
+        SimpleGraph<String> graph = new SimpleGraph<>(vertices);
+        graph.addEdge(new Edge<>(b, c));
+        c.connect(a);
+        Edge<Connectable<String>> edge = new Edge<>(a, b);
+        graph.addEdge(edge);
+        a.addConnection(edge);
+        TopologicalSorter.Result<String> result = new TopologicalSorter<>(graph).sort();
+        assertFalse(result.isAcyclic());
+        assertEquals(3, result.getCycle().size());
+        graph.removeEdge(new Edge<>(b, c));
+        result = new TopologicalSorter<>(graph).sort();
+        assertEquals(Arrays.asList(c, a, b), result.getOrder());
+    }
+}
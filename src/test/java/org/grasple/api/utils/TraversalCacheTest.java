@@ -0,0 +1,135 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.SimpleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraversalCacheTest {
+    static final int VERTICES = 10;
+    List<Vertex<Integer>> vertices = new ArrayList<>();
+    SimpleGraph<Integer> _common_simple_graph;
+
+    @BeforeEach
+    void setCommonSimpleGraph() {
+        Set<Connectable<Integer>> _vertices = new HashSet<>();
+        for (int i = 0; i < VERTICES; i++) {
+            vertices.add(new Vertex<>(i));
+            _vertices.add(vertices.get(i));
+        }
+        _common_simple_graph = new SimpleGraph<>(_vertices);
+        // the path 0 - 1 - 2 - 3 - 4, the path 5 - 6 - 7, and the singletons {8}, {9}
+        for (int i = 1; i < 5; i++) { _common_simple_graph.connect(vertices.get(i - 1), vertices.get(i)); }
+        for (int i = 6; i < 8; i++) { _common_simple_graph.connect(vertices.get(i - 1), vertices.get(i)); }
+    }
+
+    @Test
+    void answerFromTheCache() {
+        try (TraversalCache<Integer> cache = new TraversalCache<>(_common_simple_graph, BoundedCache.Policy.TINY_LFU, 100)) {
+            assertTrue(cache.reachable(vertices.get(0), vertices.get(4)));
+            assertTrue(cache.reachable(vertices.get(0), vertices.get(4)));
+            assertFalse(cache.reachable(vertices.get(0), vertices.get(5)));
+            assertFalse(cache.reachable(vertices.get(0), vertices.get(5)));
+            List<Connectable<Integer>> path = cache.shortestPath(vertices.get(0), vertices.get(3));
+            assertEquals(Arrays.asList(vertices.get(0), vertices.get(1), vertices.get(2), vertices.get(3)), path);
+            assertSame(path, cache.shortestPath(vertices.get(0), vertices.get(3)));
+            assertTrue(cache.shortestPath(vertices.get(0), vertices.get(9)).isEmpty());
+            assertEquals(4, cache.size());
+            assertEquals(3, cache.getStatistics().getHits());
+            assertEquals(4, cache.getStatistics().getMisses());
+        }
+    }
+
+    @Test
+    void invalidateOnlyTheChangedComponents() {
+        try (TraversalCache<Integer> cache = new TraversalCache<>(_common_simple_graph, BoundedCache.Policy.LRU, 100)) {
+            assertEquals(5, cache.shortestPath(vertices.get(0), vertices.get(4)).size());
+            assertEquals(3, cache.shortestPath(vertices.get(5), vertices.get(7)).size());
+            assertFalse(cache.reachable(vertices.get(4), vertices.get(8)));
+
+            // a shortcut inside the first path leaves the second one cached
+            _common_simple_graph.connect(vertices.get(0), vertices.get(3));
+            assertEquals(3, cache.shortestPath(vertices.get(0), vertices.get(4)).size());
+            assertEquals(1, cache.getInvalidationCount());
+            assertEquals(3, cache.shortestPath(vertices.get(5), vertices.get(7)).size());
+            assertEquals(1, cache.getInvalidationCount());
+
+            // a merge invalidates the answers that involve either side
+            _common_simple_graph.connect(vertices.get(8), vertices.get(3));
+            assertTrue(cache.reachable(vertices.get(4), vertices.get(8)));
+            assertEquals(2, cache.getInvalidationCount());
+
+            // a removal splits the component again
+            _common_simple_graph.disconnect(vertices.get(3), vertices.get(4));
+            assertFalse(cache.reachable(vertices.get(4), vertices.get(8)));
+            assertTrue(cache.shortestPath(vertices.get(0), vertices.get(4)).isEmpty());
+            assertEquals(3, cache.shortestPath(vertices.get(5), vertices.get(7)).size());
+            assertEquals(4, cache.getInvalidationCount());
+            assertEquals(cache.getStatistics().getHits(), 2);
+        }
+    }
+
+    @Test
+    void invalidateOnConnectionsOfTheVertices() {
+        // built as the vertices of the graph are connected directly, without edges
+        Set<Connectable<Integer>> _vertices = new HashSet<>();
+        Vertex<Integer> x = new Vertex<>(0);
+        Vertex<Integer> y = new Vertex<>(1);
+        Vertex<Integer> z = new Vertex<>(2);
+        x.connect(y);
+        y.connect(z);
+        _vertices.addAll(Arrays.asList(x, y, z));
+        SimpleGraph<Integer> graph = new SimpleGraph<>(_vertices);
+        try (TraversalCache<Integer> cache = new TraversalCache<>(graph, BoundedCache.Policy.LRU, 100)) {
+            assertTrue(cache.reachable(x, z));
+            assertEquals(3, cache.shortestPath(x, z).size());
+            graph.disconnect(y, z);
+            assertFalse(cache.reachable(x, z));
+            assertTrue(cache.shortestPath(x, z).isEmpty());
+            assertEquals(2, cache.getInvalidationCount());
+
+            y.connect(z);
+            assertTrue(cache.reachable(x, z));
+            x.connect(z);
+            assertEquals(2, cache.shortestPath(x, z).size());
+            y.disconnect(x);
+            z.disconnect(y);
+            assertEquals(Arrays.asList(x, z), cache.shortestPath(x, z));
+            assertFalse(cache.reachable(x, y));
+            assertEquals(5, cache.getInvalidationCount());
+        }
+    }
+
+    @Test
+    void answerUnknownVerticesWithoutCaching() {
+        try (TraversalCache<Integer> cache = new TraversalCache<>(_common_simple_graph, BoundedCache.Policy.LRU, 100)) {
+            Vertex<Integer> outside = new Vertex<>(42);
+            Vertex<Integer> other = new Vertex<>(43);
+            outside.connect(other);
+            assertTrue(cache.reachable(outside, other));
+            assertFalse(cache.reachable(outside, vertices.get(9)));
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    void boundTheFootprint() {
+        try (TraversalCache<Integer> cache = new TraversalCache<>(_common_simple_graph, BoundedCache.Policy.LRU,
+                100, 400)) {
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < 5; j++) { cache.shortestPath(vertices.get(i), vertices.get(j)); }
+            }
+            assertTrue(cache.size() < 5);
+            assertTrue(cache.getStatistics().getEvictions() > 0);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.TestUtils;
+import org.grasple.api.particles.Vertex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraversalQueryExecutorTest {
+    static final int VISITED = 1 + 10 + 45;
+    static final int PATH_LENGTH = 200_000;
+
+    @Test
+    void runManyQueries() throws Exception {
+        for (TraversalQueryExecutor<String> executor : executors()) {
+            try {
+                List<CompletableFuture<Long>> traversals = new ArrayList<>();
+                List<CompletableFuture<Boolean>> reachabilities = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    traversals.add(executor.traverse(TestUtils.CENTRAL_VERTEX, null));
+                    reachabilities.add(executor.reachable(TestUtils.SECONDARY_NEIGHBORS.get(i % 45),
+                            TestUtils.PRIMARY_NEIGHBORS.get(i % 10)));
+                }
+                for (CompletableFuture<Long> traversal : traversals) {
+                    assertEquals(VISITED, (long) traversal.get(10, TimeUnit.SECONDS));
+                }
+                for (CompletableFuture<Boolean> reachability : reachabilities) {
+                    assertTrue(reachability.get(10, TimeUnit.SECONDS));
+                }
+                assertFalse(executor.reachable(TestUtils.CENTRAL_VERTEX, TestUtils.STRING_VERTEX)
+                        .get(10, TimeUnit.SECONDS));
+            } finally {
+                executor.close();
+            }
+        }
+    }
+
+    @Test
+    void rejectWhenFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (TraversalQueryExecutor<String> executor = new TraversalQueryExecutor<>(1)) {
+            CompletableFuture<Long> blocked = executor.traverse(TestUtils.STRING_VERTEX, value -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            assertEquals(0, executor.available());
+            ExecutionException rejected = assertThrows(ExecutionException.class,
+                    () -> executor.traverse(TestUtils.CENTRAL_VERTEX, null).get());
+            assertTrue(rejected.getCause() instanceof RejectedExecutionException);
+            release.countDown();
+            assertEquals(1, (long) blocked.get(10, TimeUnit.SECONDS));
+            assertEquals(VISITED, (long) executor.traverse(TestUtils.CENTRAL_VERTEX, null).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void freeTheSlotBeforeTheResult() throws Exception {
+        try (TraversalQueryExecutor<String> executor = new TraversalQueryExecutor<>(1)) {
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(VISITED, (long) executor.traverse(TestUtils.CENTRAL_VERTEX, null).get(10, TimeUnit.SECONDS));
+                assertEquals(1, executor.available());
+            }
+        }
+    }
+
+    @Test
+    void timeOut() throws Exception {
+        Vertex<Integer> head = new Vertex<>(0);
+        Vertex<Integer> tail = head;
+        for (int i = 1; i < PATH_LENGTH; i++) {
+            Vertex<Integer> next = new Vertex<>(i);
+            tail.connect(next);
+            tail = next;
+        }
+        try (TraversalQueryExecutor<Integer> executor = new TraversalQueryExecutor<>(4)) {
+            CompletableFuture<Long> slow = executor.traverse(head, value -> {
+                if (value % 1000 == 0) { sleep(1); }
+            }, 20, TimeUnit.MILLISECONDS);
+            ExecutionException expired = assertThrows(ExecutionException.class, () -> slow.get(10, TimeUnit.SECONDS));
+            assertTrue(expired.getCause() instanceof TimeoutException);
+            assertTrue(executor.reachable(head, tail, 10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+            assertEquals(executor.getCapacity(), executor.available());
+        }
+    }
+
+    @Test
+    void haltTraverser() {
+        List<DefaultTraverser<String>> holder = new ArrayList<>();
+        DefaultTraverser<String> traverser = new DefaultTraverser<>(TestUtils.CENTRAL_VERTEX, value -> {
+            if (holder.get(0).getVisitCount() == 3) { holder.get(0).halt(); }
+        });
+        holder.add(traverser);
+        traverser.run();
+        assertTrue(traverser.isHalted());
+        assertEquals(3, traverser.getVisitCount());
+        traverser.run();
+        assertEquals(0, traverser.getVisitCount());
+    }
+
+    private static List<TraversalQueryExecutor<String>> executors() {
+        List<TraversalQueryExecutor<String>> executors = new ArrayList<>();
+        executors.add(new TraversalQueryExecutor<>(64, 10, TimeUnit.SECONDS));
+        executors.add(new TraversalQueryExecutor<>(64, 10, TimeUnit.SECONDS, null));
+        assertFalse(executors.get(1).usesVirtualThreads());
+        return executors;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
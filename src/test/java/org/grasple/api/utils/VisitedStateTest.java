@@ -0,0 +1,81 @@
+package org.grasple.api.utils;
+
+import org.grasple.api.TestUtils;
+import org.grasple.api.particles.Connectable;
+import org.grasple.api.particles.Vertex;
+import org.grasple.api.structures.graphs.ConnectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitedStateTest {
+    static final int VERTICES = 2000;
+
+    @Test
+    void markAndClear() {
+        for (VisitedState state : new VisitedState[] {VisitedState.epochs(10), VisitedState.bits(10)}) {
+            assertTrue(state.visit(3));
+            assertFalse(state.visit(3));
+            assertTrue(state.isVisited(3));
+            assertFalse(state.isVisited(4));
+            assertEquals(1, state.count());
+            state.ensureCapacity(100);
+            assertTrue(state.capacity() >= 100);
+            assertTrue(state.isVisited(3));
+            assertTrue(state.visit(99));
+            state.clear();
+            assertEquals(0, state.count());
+            assertFalse(state.isVisited(3));
+            assertFalse(state.isVisited(99));
+            assertTrue(state.visit(3));
+        }
+        assertThrows(IllegalArgumentException.class, () -> VisitedState.epochs(-1));
+    }
+
+    @Test
+    void sameTraversalsAsHashSet() {
+        Random random = new Random(18);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < VERTICES; i++) { vertices.add(new Vertex<>(i)); }
+        for (int i = 0; i < 2 * VERTICES; i++) {
+            vertices.get(random.nextInt(VERTICES)).connect(vertices.get(random.nextInt(VERTICES)));
+        }
+        VertexIndex<Integer> index = new VertexIndex<>(vertices.subList(0, VERTICES / 2));
+        VisitedState epochs = VisitedState.epochs(0);
+        VisitedState bits = VisitedState.bits(VERTICES);
+        for (int run = 0; run < 20; run++) {
+            Vertex<Integer> start = vertices.get(random.nextInt(VERTICES));
+            List<Integer> expected = new ArrayList<>();
+            new DefaultTraverser<>(start, expected::add).run();
+            for (VisitedState state : new VisitedState[] {epochs, bits}) {
+                state.clear();
+                List<Integer> order = new ArrayList<>();
+                DefaultTraverser<Integer> traverser = new DefaultTraverser<>(start, order::add, index, state);
+                traverser.run();
+                assertEquals(expected, order);
+                assertEquals(expected.size(), traverser.getVisited().size());
+                Set<Integer> visited = new HashSet<>();
+                for (Connectable<Integer> vertex : traverser.getVisited()) { visited.add(vertex.get()); }
+                assertEquals(new HashSet<>(expected), visited);
+            }
+        }
+        assertTrue(index.size() > VERTICES / 2);
+        assertEquals(vertices.get(7), index.get(index.indexOf(vertices.get(7))));
+    }
+
+    @Test
+    void connectedGraphTraversals() {
+        ConnectedGraph<String> graph = new ConnectedGraph<>(TestUtils.CENTRAL_VERTEX);
+        for (int run = 0; run < 3; run++) {
+            List<String> visited = new ArrayList<>();
+            graph.traverse(visited::add);
+            assertEquals(1 + TestUtils.PRIMARY_NEIGHBORS.size() + TestUtils.SECONDARY_NEIGHBORS.size(), visited.size());
+        }
+    }
+}